@@ -41,7 +41,20 @@ public class SceneLayer extends Node {
      * @param spatial the spatial.
      */
     public static void setLayer(@Nullable final SceneLayer layer, @NotNull final Spatial spatial) {
-        spatial.setUserData(KEY, layer == NO_LAYER ? null : layer);
+
+        final SceneLayer prevLayer = getLayer(spatial);
+        final SceneLayer newLayer = layer == NO_LAYER ? null : layer;
+
+        spatial.setUserData(KEY, newLayer);
+
+        if (prevLayer == newLayer) return;
+
+        for (Node parent = spatial.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent instanceof SceneNode) {
+                ((SceneNode) parent).notifyChangedLayer(spatial, prevLayer, newLayer);
+                break;
+            }
+        }
     }
 
     /**
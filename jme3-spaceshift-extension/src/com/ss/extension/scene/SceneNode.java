@@ -2,14 +2,21 @@ package com.ss.extension.scene;
 
 import com.jme3.export.*;
 import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
 import com.jme3.util.clone.Cloner;
 import com.ss.extension.scene.app.state.SceneAppState;
 import com.ss.extension.scene.filter.SceneFilter;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import rlib.util.array.Array;
 import rlib.util.array.ArrayFactory;
+import rlib.util.dictionary.DictionaryFactory;
+import rlib.util.dictionary.ObjectDictionary;
 
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * The implementation of a scene node.
@@ -41,6 +48,12 @@ public class SceneNode extends Node {
     @NotNull
     private Array<SceneFilter<?>> filters;
 
+    /**
+     * The index of members of scene layers, it's built by the first request.
+     */
+    @Nullable
+    private ObjectDictionary<SceneLayer, Set<Spatial>> layerMembers;
+
     public SceneNode() {
         super("Empty scene");
         this.layers = ArrayFactory.newArray(SceneLayer.class);
@@ -66,6 +79,114 @@ public class SceneNode extends Node {
         layers.slowRemove(layer);
     }
 
+    /**
+     * Get members of a layer, the cost depends only on the count of members of the layer.
+     *
+     * @param layer     the layer.
+     * @param container the container of members.
+     */
+    public synchronized void getLayerMembers(@NotNull final SceneLayer layer,
+                                             @NotNull final Array<Spatial> container) {
+
+        final Set<Spatial> members = getLayerMembers().get(layer);
+        if (members == null) return;
+
+        for (final Iterator<Spatial> iterator = members.iterator(); iterator.hasNext(); ) {
+
+            final Spatial spatial = iterator.next();
+
+            if (SceneLayer.getLayer(spatial) != layer || !isMember(spatial)) {
+                iterator.remove();
+                continue;
+            }
+
+            container.add(spatial);
+        }
+    }
+
+    /**
+     * Get a count of members of a layer.
+     *
+     * @param layer the layer.
+     * @return the count of members.
+     */
+    public synchronized int getLayerSize(@NotNull final SceneLayer layer) {
+        final Set<Spatial> members = getLayerMembers().get(layer);
+        return members == null ? 0 : members.size();
+    }
+
+    /**
+     * Notify a scene node about changed a layer of a spatial of this scene.
+     *
+     * @param spatial   the spatial.
+     * @param prevLayer the previous layer.
+     * @param newLayer  the new layer.
+     */
+    public synchronized void notifyChangedLayer(@NotNull final Spatial spatial, @Nullable final SceneLayer prevLayer,
+                                                @Nullable final SceneLayer newLayer) {
+
+        final ObjectDictionary<SceneLayer, Set<Spatial>> layerMembers = this.layerMembers;
+        if (layerMembers == null) return;
+
+        if (prevLayer != null) {
+            final Set<Spatial> members = layerMembers.get(prevLayer);
+            if (members != null) members.remove(spatial);
+        }
+
+        if (newLayer != null) {
+            addLayerMember(layerMembers, spatial, newLayer);
+        }
+    }
+
+    /**
+     * @return the index of members of scene layers.
+     */
+    @NotNull
+    private ObjectDictionary<SceneLayer, Set<Spatial>> getLayerMembers() {
+
+        if (layerMembers == null) {
+            final ObjectDictionary<SceneLayer, Set<Spatial>> result = DictionaryFactory.newObjectDictionary();
+            depthFirstTraversal(spatial -> indexLayer(result, spatial), DFSMode.PRE_ORDER);
+            layerMembers = result;
+        }
+
+        return layerMembers;
+    }
+
+    /**
+     * @return true if the spatial is attached to this scene.
+     */
+    private boolean isMember(@NotNull final Spatial spatial) {
+
+        for (Node parent = spatial.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent == this) return true;
+        }
+
+        return false;
+    }
+
+    private static void indexLayer(@NotNull final ObjectDictionary<SceneLayer, Set<Spatial>> layerMembers,
+                                   @NotNull final Spatial spatial) {
+
+        final SceneLayer layer = SceneLayer.getLayer(spatial);
+        if (layer == null) return;
+
+        addLayerMember(layerMembers, spatial, layer);
+    }
+
+    private static void addLayerMember(@NotNull final ObjectDictionary<SceneLayer, Set<Spatial>> layerMembers,
+                                       @NotNull final Spatial spatial, @NotNull final SceneLayer layer) {
+
+        Set<Spatial> members = layerMembers.get(layer);
+
+        if (members == null) {
+            members = new LinkedHashSet<>();
+            layerMembers.put(layer, members);
+        }
+
+        members.add(spatial);
+    }
+
     /**
      * @return the scene layers.
      */
@@ -170,6 +291,8 @@ public class SceneNode extends Node {
         for (final Savable savable : importedFilters) {
             filters.add((SceneFilter) savable);
         }
+
+        layerMembers = null;
     }
 
     @Override
@@ -193,6 +316,8 @@ public class SceneNode extends Node {
         for (int i = 0; i < filters.size(); i++) {
             filters.set(i, cloner.clone(filters.get(i)));
         }
+
+        layerMembers = null;
     }
 
     /**
@@ -201,6 +326,16 @@ public class SceneNode extends Node {
      * @param object the added object.
      */
     public void notifyAdded(@NotNull final Object object) {
+
+        if (object instanceof Spatial) {
+            synchronized (this) {
+                final ObjectDictionary<SceneLayer, Set<Spatial>> layerMembers = this.layerMembers;
+                if (layerMembers != null) {
+                    ((Spatial) object).depthFirstTraversal(spatial -> indexLayer(layerMembers, spatial));
+                }
+            }
+        }
+
         getAppStates().forEach(object, SceneAppState::notifyAdded);
     }
 
@@ -210,6 +345,20 @@ public class SceneNode extends Node {
      * @param object the removed object.
      */
     public void notifyRemoved(@NotNull final Object object) {
+
+        if (object instanceof Spatial) {
+            synchronized (this) {
+                final ObjectDictionary<SceneLayer, Set<Spatial>> layerMembers = this.layerMembers;
+                if (layerMembers != null) {
+                    ((Spatial) object).depthFirstTraversal(spatial -> {
+                        final SceneLayer layer = SceneLayer.getLayer(spatial);
+                        final Set<Spatial> members = layer == null ? null : layerMembers.get(layer);
+                        if (members != null) members.remove(spatial);
+                    });
+                }
+            }
+        }
+
         getAppStates().forEach(object, SceneAppState::notifyRemoved);
     }
 }
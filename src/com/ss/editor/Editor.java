@@ -32,6 +32,7 @@ import com.ss.editor.config.Config;
 import com.ss.editor.config.EditorConfig;
 import com.ss.editor.executor.impl.EditorThreadExecutor;
 import com.ss.editor.manager.*;
+import com.ss.editor.model.undo.impl.SavableSnapshot;
 import com.ss.editor.ui.event.FXEventManager;
 import com.ss.editor.ui.event.impl.WindowChangeFocusEvent;
 import com.ss.editor.ui.util.UIUtils;
@@ -43,7 +44,6 @@ import rlib.logging.Logger;
 import rlib.logging.LoggerLevel;
 import rlib.logging.LoggerManager;
 import rlib.logging.impl.FolderFileListener;
-import rlib.manager.InitializeManager;
 import tonegod.emitter.filter.TonegodTranslucentBucketFilter;
 
 import java.nio.file.Files;
@@ -70,6 +70,46 @@ public class Editor extends JmeToJFXApplication {
         }
     };
 
+    /**
+     * The stage of initializing {@link ResourceManager}.
+     */
+    public static final String STAGE_RESOURCES = "resources";
+
+    /**
+     * The stage of initializing {@link JavaFXImageManager}.
+     */
+    public static final String STAGE_IMAGES = "images";
+
+    /**
+     * The stage of initializing {@link FileIconManager}.
+     */
+    public static final String STAGE_FILE_ICONS = "file icons";
+
+    /**
+     * The stage of initializing {@link WorkspaceManager}.
+     */
+    public static final String STAGE_WORKSPACES = "workspaces";
+
+    /**
+     * The stage of initializing {@link ClasspathManager}.
+     */
+    public static final String STAGE_CLASSPATH = "classpath";
+
+    /**
+     * The stage which is finished when all managers which are required to build UI are initialized.
+     */
+    public static final String STAGE_MANAGERS = "managers";
+
+    /**
+     * The gate which is opened when the first frame of UI is shown.
+     */
+    public static final String GATE_FIRST_PAINT = "first paint";
+
+    /**
+     * The stage of scanning available resources.
+     */
+    public static final String STAGE_ASSETS = "assets";
+
     @NotNull
     private static final Editor EDITOR = new Editor();
 
@@ -132,6 +172,12 @@ public class Editor extends JmeToJFXApplication {
     @NotNull
     private final StampedLock lock;
 
+    /**
+     * The pipeline of initialization stages.
+     */
+    @NotNull
+    private final StartupPipeline startupPipeline;
+
     /**
      * The node for preview.
      */
@@ -200,18 +246,20 @@ public class Editor extends JmeToJFXApplication {
 
     private Editor() {
         this.lock = new StampedLock();
+        this.startupPipeline = new StartupPipeline();
         this.previewNode = new Node("Preview Node");
     }
 
     /**
-     * Lock the render thread for other actions.
+     * Lock committing of queued changes of the scene graph for other actions. The render thread isn't blocked by this
+     * lock, so it should be used only for short actions.
      */
     public final long asyncLock() {
         return lock.readLock();
     }
 
     /**
-     * Unlock the render thread.
+     * Unlock committing of queued changes of the scene graph.
      */
     public final void asyncUnlock(final long stamp) {
         lock.unlockRead(stamp);
@@ -224,6 +272,8 @@ public class Editor extends JmeToJFXApplication {
         final WorkspaceManager workspaceManager = WorkspaceManager.getInstance();
         workspaceManager.save();
 
+        SavableSnapshot.deleteSpilledFiles();
+
         System.exit(0);
     }
 
@@ -303,12 +353,20 @@ public class Editor extends JmeToJFXApplication {
 
         viewPort.addProcessor(postProcessor);
 
-        InitializeManager.register(ResourceManager.class);
-        InitializeManager.register(JavaFXImageManager.class);
-        InitializeManager.register(FileIconManager.class);
-        InitializeManager.register(WorkspaceManager.class);
-        InitializeManager.register(ClasspathManager.class);
-        InitializeManager.initialize();
+        // managers are initialized in parallel with launching JavaFX, scanning resources is started after showing UI
+        FXEventManager.getInstance();
+
+        startupPipeline.stage(STAGE_RESOURCES, ResourceManager::getInstance)
+                .stage(STAGE_IMAGES, JavaFXImageManager::getInstance)
+                .stage(STAGE_FILE_ICONS, FileIconManager::getInstance)
+                .stage(STAGE_WORKSPACES, WorkspaceManager::getInstance)
+                .stage(STAGE_CLASSPATH, ClasspathManager::getInstance)
+                .stage(STAGE_MANAGERS, () -> {}, STAGE_RESOURCES, STAGE_IMAGES, STAGE_FILE_ICONS, STAGE_WORKSPACES,
+                        STAGE_CLASSPATH)
+                .gate(GATE_FIRST_PAINT)
+                .stage(STAGE_ASSETS, () -> ResourceManager.getInstance().loadResources(), STAGE_MANAGERS,
+                        GATE_FIRST_PAINT)
+                .start();
 
         if (Config.ENABLE_PBR) {
             environmentCamera = new EnvironmentCamera(64, Vector3f.ZERO);
@@ -325,14 +383,22 @@ public class Editor extends JmeToJFXApplication {
     }
 
     /**
-     * Lock the render thread for doing actions with game scene.
+     * @return the pipeline of initialization stages.
+     */
+    @NotNull
+    public StartupPipeline getStartupPipeline() {
+        return startupPipeline;
+    }
+
+    /**
+     * Lock the editor thread for committing queued changes of the scene graph.
      */
     private long syncLock() {
         return lock.writeLock();
     }
 
     /**
-     * Unlock the render thread.
+     * Unlock the editor thread.
      */
     private void syncUnlock(final long stamp) {
         lock.unlockWrite(stamp);
@@ -377,11 +443,9 @@ public class Editor extends JmeToJFXApplication {
 
     @Override
     public void update() {
-        final long stamp = syncLock();
         try {
 
-            final EditorThreadExecutor editorThreadExecutor = EditorThreadExecutor.getInstance();
-            editorThreadExecutor.execute();
+            commitEditorThreadTasks();
 
             //System.out.println(cam.getRotation());
             //System.out.println(cam.getLocation());
@@ -402,14 +466,27 @@ public class Editor extends JmeToJFXApplication {
             final WorkspaceManager workspaceManager = WorkspaceManager.getInstance();
             workspaceManager.clear();
             System.exit(2);
-        } finally {
-            syncUnlock(stamp);
         }
 
         listener.setLocation(cam.getLocation());
         listener.setRotation(cam.getRotation());
     }
 
+    /**
+     * Execute queued changes of the scene graph. Other threads prepare detached subgraphs without any locks and commit
+     * them through the editor thread tasks, so the lock is held only while these tasks are executing and not for the
+     * whole frame.
+     */
+    private void commitEditorThreadTasks() {
+        final long stamp = syncLock();
+        try {
+            final EditorThreadExecutor editorThreadExecutor = EditorThreadExecutor.getInstance();
+            editorThreadExecutor.execute();
+        } finally {
+            syncUnlock(stamp);
+        }
+    }
+
     /**
      * @return the processor of post effects.
      */
@@ -15,6 +15,7 @@ import com.ss.editor.config.Config;
 import com.ss.editor.config.EditorConfig;
 import com.ss.editor.executor.impl.EditorThreadExecutor;
 import com.ss.editor.manager.JMEFilePreviewManager;
+import com.ss.editor.manager.StartupPipeline;
 import com.ss.editor.ui.builder.EditorFXSceneBuilder;
 import com.ss.editor.ui.component.log.LogView;
 import com.ss.editor.ui.dialog.ConfirmDialog;
@@ -181,6 +182,11 @@ public class JFXApplication extends Application {
 
         stage.maximizedProperty().addListener((observable, oldValue, newValue) -> config.setMaximized(newValue));
 
+        // the stage is already shown, so the FX thread waits only for managers which are required to build UI
+        final Editor editor = Editor.getInstance();
+        final StartupPipeline startupPipeline = editor.getStartupPipeline();
+        startupPipeline.await(Editor.STAGE_MANAGERS);
+
         buildScene();
     }
 
@@ -251,7 +257,10 @@ public class JFXApplication extends Application {
         final Stage stage = requireNonNull(getStage());
         stage.focusedProperty().addListener((observable, oldValue, newValue) -> editor.setPaused(!newValue));
 
-        Platform.runLater(scene::notifyFinishBuild);
+        Platform.runLater(() -> {
+            scene.notifyFinishBuild();
+            editor.getStartupPipeline().open(Editor.GATE_FIRST_PAINT);
+        });
     }
 
     /**
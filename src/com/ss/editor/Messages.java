@@ -34,6 +34,7 @@ public class Messages {
     public static final String ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_DELETE_FILE;
     public static final String ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_DELETE_FILE_QUESTION;
     public static final String ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_CONVERT_FILE;
+    public static final String ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_CONVERT_FOLDER;
     public static final String ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_OPEN_FILE_BY_EXTERNAL_EDITOR;
     public static final String ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_RENAME_FILE;
 
@@ -161,6 +162,7 @@ public class Messages {
     public static final String SCENE_FILE_EDITOR_TOOL_FILTERS;
     public static final String SCENE_FILE_EDITOR_TOOL_LAYERS;
 
+    public static final String MODEL_NODE_TREE_SHOW_MORE;
     public static final String MODEL_NODE_TREE_ACTION_REMOVE;
     public static final String MODEL_NODE_TREE_ACTION_RENAME;
     public static final String MODEL_NODE_TREE_ACTION_OPTIMIZE_GEOMETRY;
@@ -184,6 +186,7 @@ public class Messages {
     public static final String MODEL_NODE_TREE_ACTION_ANIMATION_PLAY_SETTINGS;
     public static final String MODEL_NODE_TREE_ACTION_ANIMATION_STOP;
     public static final String MODEL_NODE_TREE_ACTION_ANIMATION_MANUAL_EXTRAXT_SUB_ANIMATION;
+    public static final String MODEL_NODE_TREE_ACTION_ANIMATION_COMPRESS;
     public static final String MODEL_NODE_TREE_ACTION_CREATE_AUDIO_NODE;
     public static final String MODEL_NODE_TREE_ACTION_AUDIO_PLAY;
     public static final String MODEL_NODE_TREE_ACTION_AUDIO_STOP;
@@ -215,6 +218,7 @@ public class Messages {
     public static final String MODEL_NODE_TREE_ACTION_EMITTER_CREATE_INFLUENCER_SIZE;
     public static final String MODEL_NODE_TREE_ACTION_EMITTER_CREATE_INFLUENCER_SPRITE;
     public static final String MODEL_NODE_TREE_ACTION_CREATE_LAYER;
+    public static final String MODEL_NODE_TREE_ACTION_SELECT_LAYER_MEMBERS;
     public static final String MODEL_NODE_TREE_ACTION_ADD_USER_DATA;
     public static final String MODEL_NODE_TREE_ACTION_ADD_CONTROL;
     public static final String MODEL_NODE_TREE_ACTION_ADD_CONTROL_RIGID_BODY;
@@ -492,6 +496,10 @@ public class Messages {
     public static final String CREATE_CAPSULE_COLLISION_SHAPE_DIALOG_TITLE;
     public static final String ADD_VEHICLE_WHEEL_DIALOG_TITLE;
 
+    public static final String GENERATE_COLLISION_SHAPE_DIALOG_TITLE;
+    public static final String GENERATE_COLLISION_SHAPE_DIALOG_QUALITY_LABEL;
+    public static final String GENERATE_COLLISION_SHAPE_DIALOG_BUTTON_OK;
+
     static {
 
         final Locale locale = Locale.getDefault();
@@ -531,6 +539,7 @@ public class Messages {
         ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_DELETE_FILE = bundle.getString("AssetComponentResourceTreeContextMenuDeleteFile");
         ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_DELETE_FILE_QUESTION = bundle.getString("AssetComponentResourceTreeContextMenuDeleteFileQuestion");
         ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_CONVERT_FILE = bundle.getString("AssetComponentResourceTreeContextMenuConvertFile");
+        ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_CONVERT_FOLDER = bundle.getString("AssetComponentResourceTreeContextMenuConvertFolder");
         ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_OPEN_FILE_BY_EXTERNAL_EDITOR = bundle.getString("AssetComponentResourceTreeContextMenuOpenFileByExternalEditor");
         ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_RENAME_FILE = bundle.getString("AssetComponentResourceTreeContextMenuRenameFile");
 
@@ -657,6 +666,7 @@ public class Messages {
         SCENE_FILE_EDITOR_TOOL_FILTERS = bundle.getString("SceneFileEditorToolFilters");
         SCENE_FILE_EDITOR_TOOL_LAYERS = bundle.getString("SceneFileEditorToolLayers");
 
+        MODEL_NODE_TREE_SHOW_MORE = bundle.getString("ModelNodeTreeShowMore");
         MODEL_NODE_TREE_ACTION_REMOVE = bundle.getString("ModelNodeTreeActionRemove");
         MODEL_NODE_TREE_ACTION_RENAME = bundle.getString("ModelNodeTreeActionRename");
         MODEL_NODE_TREE_ACTION_OPTIMIZE_GEOMETRY = bundle.getString("ModelNodeTreeActionOptimizeGeometry");
@@ -680,6 +690,7 @@ public class Messages {
         MODEL_NODE_TREE_ACTION_ANIMATION_PLAY_SETTINGS = bundle.getString("ModelNodeTreeActionAnimationPlaySettings");
         MODEL_NODE_TREE_ACTION_ANIMATION_STOP = bundle.getString("ModelNodeTreeActionAnimationStop");
         MODEL_NODE_TREE_ACTION_ANIMATION_MANUAL_EXTRAXT_SUB_ANIMATION = bundle.getString("ModelNodeTreeActionAnimationManualExtractSubAnimation");
+        MODEL_NODE_TREE_ACTION_ANIMATION_COMPRESS = bundle.getString("ModelNodeTreeActionAnimationCompress");
         MODEL_NODE_TREE_ACTION_CREATE_AUDIO_NODE = bundle.getString("ModelNodeTreeActionCreateAudioNode");
         MODEL_NODE_TREE_ACTION_AUDIO_PLAY = bundle.getString("ModelNodeTreeActionAudioPlay");
         MODEL_NODE_TREE_ACTION_AUDIO_STOP = bundle.getString("ModelNodeTreeActionAudioStop");
@@ -711,6 +722,7 @@ public class Messages {
         MODEL_NODE_TREE_ACTION_EMITTER_CREATE_INFLUENCER_SIZE = bundle.getString("ModelNodeTreeActionEmitterCreateInfluencerSize");
         MODEL_NODE_TREE_ACTION_EMITTER_CREATE_INFLUENCER_SPRITE = bundle.getString("ModelNodeTreeActionEmitterCreateInfluencerSprite");
         MODEL_NODE_TREE_ACTION_CREATE_LAYER = bundle.getString("ModelNodeTreeActionCreateLayer");
+        MODEL_NODE_TREE_ACTION_SELECT_LAYER_MEMBERS = bundle.getString("ModelNodeTreeActionSelectLayerMembers");
         MODEL_NODE_TREE_ACTION_ADD_USER_DATA = bundle.getString("ModelNodeTreeActionAddUserData");
         MODEL_NODE_TREE_ACTION_ADD_CONTROL = bundle.getString("ModelNodeTreeActionAddControl");
         MODEL_NODE_TREE_ACTION_ADD_CONTROL_RIGID_BODY = bundle.getString("ModelNodeTreeActionAddControlRigidBody");
@@ -987,5 +999,9 @@ public class Messages {
         CREATE_CONE_COLLISION_SHAPE_DIALOG_TITLE = bundle.getString("CreateConeCollisionShapeDialogTitle");
         CREATE_CAPSULE_COLLISION_SHAPE_DIALOG_TITLE = bundle.getString("CreateCapsuleCollisionShapeDialogTitle");
         ADD_VEHICLE_WHEEL_DIALOG_TITLE = bundle.getString("AddVehicleWheelDialogTitle");
+
+        GENERATE_COLLISION_SHAPE_DIALOG_TITLE = bundle.getString("GenerateCollisionShapeDialogTitle");
+        GENERATE_COLLISION_SHAPE_DIALOG_QUALITY_LABEL = bundle.getString("GenerateCollisionShapeDialogQualityLabel");
+        GENERATE_COLLISION_SHAPE_DIALOG_BUTTON_OK = bundle.getString("GenerateCollisionShapeDialogButtonOk");
     }
 }
\ No newline at end of file
@@ -61,6 +61,11 @@ public abstract class Config {
      */
     public static final boolean ENABLE_PBR;
 
+    /**
+     * The max time in millis to execute tasks in the FX UI Thread per one batch.
+     */
+    public static final int FX_TASK_TIME_BUDGET;
+
     static {
 
         final GraphicsEnvironment graphicsEnvironment = GraphicsEnvironment.getLocalGraphicsEnvironment();
@@ -71,6 +76,7 @@ public abstract class Config {
         DEV_DEBUG = vars.getBoolean("Dev.debug", false);
         DEV_DEBUG_JFX = vars.getBoolean("Dev.debugJFX", false);
         ENABLE_PBR = vars.getBoolean("Graphics.enablePBR", true);
+        FX_TASK_TIME_BUDGET = vars.getInteger("Performance.fxTaskTimeBudget", 8);
 
         GRAPHICS_DEVICE = device;
         OPERATING_SYSTEM = new OperatingSystem();
@@ -0,0 +1,34 @@
+package com.ss.editor.executor;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The interface to implement a handle of a submitted background task.
+ *
+ * @author JavaSaBr
+ */
+public interface EditorTaskHandle {
+
+    /**
+     * Cancel the task if it isn't started yet.
+     *
+     * @return true if the task was cancelled.
+     */
+    boolean cancel();
+
+    /**
+     * @return true if the task was cancelled.
+     */
+    boolean isCancelled();
+
+    /**
+     * @return true if the task was executed or cancelled.
+     */
+    boolean isDone();
+
+    /**
+     * @return the priority of the task.
+     */
+    @NotNull
+    EditorTaskPriority getPriority();
+}
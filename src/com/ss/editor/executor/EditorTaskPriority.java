@@ -0,0 +1,23 @@
+package com.ss.editor.executor;
+
+/**
+ * The list of priorities of background tasks.
+ *
+ * @author JavaSaBr
+ */
+public enum EditorTaskPriority {
+    /**
+     * Tasks which results are visible in UI right now (previews, thumbnails and etc.).
+     */
+    HIGH,
+    /**
+     * Usual tasks.
+     */
+    NORMAL,
+    /**
+     * Long bulk tasks (converting, baking and etc.).
+     */
+    LOW;
+
+    public static final EditorTaskPriority[] VALUES = values();
+}
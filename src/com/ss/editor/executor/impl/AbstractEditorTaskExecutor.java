@@ -5,11 +5,9 @@ import com.ss.editor.executor.EditorTaskExecutor;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.Lock;
 
-import rlib.concurrent.lock.LockFactory;
-import rlib.concurrent.lock.Lockable;
 import rlib.concurrent.util.ConcurrentUtils;
 import rlib.logging.Logger;
 import rlib.logging.LoggerManager;
@@ -17,32 +15,32 @@ import rlib.util.array.Array;
 import rlib.util.array.ArrayFactory;
 
 /**
- * The base implementation of the {@link EditorThreadExecutor}.
+ * The base implementation of the {@link EditorTaskExecutor}. New tasks are added to a lock-free queue from any thread
+ * and the thread of this executor drains the queue by batches, so each task is retired in constant time.
  *
  * @author JavaSaBr
  */
-public abstract class AbstractEditorTaskExecutor extends EditorThread implements EditorTaskExecutor, Lockable {
+public abstract class AbstractEditorTaskExecutor extends EditorThread implements EditorTaskExecutor {
 
     @NotNull
     protected static final Logger LOGGER = LoggerManager.getLogger(EditorTaskExecutor.class);
 
     /**
-     * The array of task to execute for each iteration.
+     * The max count of tasks to take from the queue for one iteration.
      */
-    @NotNull
-    protected final Array<Runnable> execute;
+    protected static final int DRAIN_LIMIT = 1000;
 
     /**
-     * The array of executed task of the iteration.
+     * The array of task to execute for each iteration.
      */
     @NotNull
-    final Array<Runnable> executed;
+    protected final Array<Runnable> execute;
 
     /**
-     * The array of task to execute.
+     * The queue of task to execute.
      */
     @NotNull
-    final Array<Runnable> waitTasks;
+    final ConcurrentLinkedQueue<Runnable> waitTasks;
 
     /**
      * Is this executor waiting new tasks.
@@ -50,97 +48,80 @@ public abstract class AbstractEditorTaskExecutor extends EditorThread implements
     @NotNull
     final AtomicBoolean wait;
 
-    /**
-     * The synchronizer.
-     */
-    @NotNull
-    private final Lock lock;
-
     public AbstractEditorTaskExecutor() {
-        this.execute = createExecuteArray();
-        this.executed = createExecuteArray();
-        this.waitTasks = createExecuteArray();
-        this.lock = LockFactory.newAtomicLock();
+        this.execute = ArrayFactory.newArray(Runnable.class);
+        this.waitTasks = new ConcurrentLinkedQueue<>();
         this.wait = new AtomicBoolean(false);
     }
 
-    @NotNull
-    private Array<Runnable> createExecuteArray() {
-        return ArrayFactory.newArray(Runnable.class);
-    }
-
     @Override
     public void execute(@NotNull final Runnable task) {
-        lock();
-        try {
 
-            waitTasks.add(task);
-            if (!wait.get()) return;
+        waitTasks.add(task);
+        if (!wait.get()) return;
 
-            synchronized (wait) {
-                if (wait.compareAndSet(true, false)) {
-                    ConcurrentUtils.notifyAllInSynchronize(wait);
-                }
+        synchronized (wait) {
+            if (wait.compareAndSet(true, false)) {
+                ConcurrentUtils.notifyAllInSynchronize(wait);
             }
-
-        } finally {
-            unlock();
         }
     }
 
     /**
      * Execute the array of tasks.
      */
-    protected abstract void doExecute(@NotNull final Array<Runnable> execute, @NotNull final Array<Runnable> executed);
+    protected abstract void doExecute(@NotNull final Array<Runnable> execute);
+
+    /**
+     * Execute the current batch of tasks.
+     */
+    protected void executeBatch() {
+        doExecute(execute);
+    }
 
     @Override
     public void run() {
         while (true) {
 
-            executed.clear();
             execute.clear();
+            drainTo(execute);
 
-            lock();
-            try {
-
-                if (waitTasks.isEmpty()) {
-                    wait.getAndSet(true);
-                } else {
-                    execute.addAll(waitTasks);
-                }
-
-            } finally {
-                unlock();
-            }
-
-            if (wait.get()) {
-                synchronized (wait) {
-                    if (wait.get()) {
-                        ConcurrentUtils.waitInSynchronize(wait);
-                    }
-                }
+            if (execute.isEmpty()) {
+                waitTasks();
+                continue;
             }
 
-            if (execute.isEmpty()) continue;
-            doExecute(execute, executed);
-            if (executed.isEmpty()) continue;
-
-            lock();
-            try {
-                waitTasks.removeAll(executed);
-            } finally {
-                unlock();
-            }
+            executeBatch();
         }
     }
 
-    @Override
-    public void lock() {
-        lock.lock();
+    /**
+     * Move waiting tasks from the queue to the array.
+     *
+     * @param container the array.
+     */
+    private void drainTo(@NotNull final Array<Runnable> container) {
+        for (int i = 0; i < DRAIN_LIMIT; i++) {
+            final Runnable task = waitTasks.poll();
+            if (task == null) break;
+            container.add(task);
+        }
     }
 
-    @Override
-    public void unlock() {
-        lock.unlock();
+    /**
+     * Wait for new tasks.
+     */
+    private void waitTasks() {
+        synchronized (wait) {
+
+            wait.set(true);
+
+            // re-check to not miss a task which was added before setting the flag
+            if (waitTasks.isEmpty()) {
+                ConcurrentUtils.waitInSynchronize(wait);
+            }
+
+            wait.set(false);
+        }
     }
 }
@@ -0,0 +1,109 @@
+package com.ss.editor.executor.impl;
+
+import com.ss.editor.executor.EditorTaskHandle;
+import com.ss.editor.executor.EditorTaskPriority;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The wrapper of a background task with its state.
+ *
+ * @author JavaSaBr
+ */
+class BackgroundEditorTask implements EditorTaskHandle {
+
+    private static final int STATE_WAITING = 0;
+    private static final int STATE_RUNNING = 1;
+    private static final int STATE_FINISHED = 2;
+    private static final int STATE_CANCELLED = 3;
+
+    /**
+     * The task.
+     */
+    @NotNull
+    private final Runnable task;
+
+    /**
+     * The priority of the task.
+     */
+    @NotNull
+    private final EditorTaskPriority priority;
+
+    /**
+     * The state of the task.
+     */
+    @NotNull
+    private final AtomicInteger state;
+
+    /**
+     * The time when the task was submitted.
+     */
+    private final long submitTime;
+
+    BackgroundEditorTask(@NotNull final Runnable task, @NotNull final EditorTaskPriority priority) {
+        this.task = task;
+        this.priority = priority;
+        this.state = new AtomicInteger(STATE_WAITING);
+        this.submitTime = System.nanoTime();
+    }
+
+    /**
+     * Try to mark this task as running.
+     *
+     * @return false if the task was cancelled.
+     */
+    boolean start() {
+        return state.compareAndSet(STATE_WAITING, STATE_RUNNING);
+    }
+
+    /**
+     * Mark this task as finished.
+     */
+    void finish() {
+        state.set(STATE_FINISHED);
+    }
+
+    /**
+     * @return the task.
+     */
+    @NotNull
+    Runnable getTask() {
+        return task;
+    }
+
+    /**
+     * @return the time when the task was submitted.
+     */
+    long getSubmitTime() {
+        return submitTime;
+    }
+
+    @Override
+    public boolean cancel() {
+        return state.compareAndSet(STATE_WAITING, STATE_CANCELLED);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return state.get() == STATE_CANCELLED;
+    }
+
+    @Override
+    public boolean isDone() {
+        final int current = state.get();
+        return current == STATE_FINISHED || current == STATE_CANCELLED;
+    }
+
+    @NotNull
+    @Override
+    public EditorTaskPriority getPriority() {
+        return priority;
+    }
+
+    @Override
+    public String toString() {
+        return "BackgroundEditorTask{" + "task=" + task + ", priority=" + priority + ", state=" + state + '}';
+    }
+}
@@ -1,51 +1,139 @@
 package com.ss.editor.executor.impl;
 
+import com.ss.editor.EditorThread;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.executor.EditorTaskPriority;
+import com.ss.editor.util.EditorUtil;
+
 import org.jetbrains.annotations.NotNull;
-import rlib.util.array.Array;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
-import static java.lang.Math.min;
+import rlib.logging.Logger;
+import rlib.logging.LoggerManager;
 
 /**
- * The implementation of the {@link EditorThreadExecutor} for executing task in the background.
+ * The worker of the {@link WorkStealingEditorTaskExecutor} for executing task in the background. Each worker has own
+ * queues of tasks for each priority and steals tasks from other workers when own queues are empty.
  *
  * @author JavaSaBr
  */
-public class BackgroundEditorTaskExecutor extends AbstractEditorTaskExecutor {
+public class BackgroundEditorTaskExecutor extends EditorThread {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(BackgroundEditorTaskExecutor.class);
 
     /**
-     * The runtime of this process.
+     * The max time to sleep without new tasks.
      */
-    private static final Runtime RUNTIME = Runtime.getRuntime();
+    private static final long MAX_IDLE_TIME = TimeUnit.MILLISECONDS.toNanos(500);
 
     /**
-     * The max count of task to execute using the same time.
+     * The owner pool.
      */
-    private static final int PROP_MAXIMUM_UPDATE = 500 / RUNTIME.availableProcessors();
+    @NotNull
+    private final WorkStealingEditorTaskExecutor pool;
 
     /**
-     * The max count of task to execute in the one iteration.
+     * The queues of tasks for each priority.
      */
-    private static final int PROP_EXECUTE_LIMIT = 5;
+    @NotNull
+    private final ConcurrentLinkedDeque<BackgroundEditorTask>[] queues;
+
+    @SuppressWarnings("unchecked")
+    BackgroundEditorTaskExecutor(@NotNull final WorkStealingEditorTaskExecutor pool, final int order) {
+        this.pool = pool;
+        this.queues = new ConcurrentLinkedDeque[EditorTaskPriority.VALUES.length];
+
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ConcurrentLinkedDeque<>();
+        }
 
-    public BackgroundEditorTaskExecutor(final int order) {
         setName(BackgroundEditorTaskExecutor.class.getSimpleName() + "_" + order);
         setPriority(NORM_PRIORITY - 2);
-        start();
+        setDaemon(true);
     }
 
-    @Override
-    protected void doExecute(@NotNull final Array<Runnable> execute, @NotNull final Array<Runnable> executed) {
+    /**
+     * Add a new task to the queue of this worker.
+     *
+     * @param task the task.
+     */
+    @FromAnyThread
+    void push(@NotNull final BackgroundEditorTask task) {
+        queues[task.getPriority().ordinal()].addLast(task);
+    }
 
-        final Runnable[] array = execute.array();
+    /**
+     * Take a next own task with the priority.
+     *
+     * @param priority the priority.
+     * @return the task or null.
+     */
+    @Nullable
+    @BackgroundThread
+    BackgroundEditorTask poll(@NotNull final EditorTaskPriority priority) {
+        return queues[priority.ordinal()].pollFirst();
+    }
 
-        for (int i = 0, length = min(execute.size(), PROP_MAXIMUM_UPDATE); i < length; ) {
-            for (int count = 0, limit = PROP_EXECUTE_LIMIT; count < limit && i < length; count++, i++) {
+    /**
+     * Steal a task with the priority from the tail of the queue of this worker.
+     *
+     * @param priority the priority.
+     * @return the task or null.
+     */
+    @Nullable
+    @FromAnyThread
+    BackgroundEditorTask steal(@NotNull final EditorTaskPriority priority) {
+        return queues[priority.ordinal()].pollLast();
+    }
 
-                final Runnable task = array[i];
-                task.run();
+    /**
+     * Wake up this worker.
+     */
+    @FromAnyThread
+    void wakeUp() {
+        LockSupport.unpark(this);
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+
+            final BackgroundEditorTask task = pool.findTask(this);
 
-                executed.add(task);
+            if (task == null) {
+                pool.waitTask(this);
+                continue;
             }
+
+            execute(task);
+        }
+    }
+
+    /**
+     * Park this worker while there are no tasks.
+     */
+    @BackgroundThread
+    void park() {
+        LockSupport.parkNanos(this, MAX_IDLE_TIME);
+    }
+
+    @BackgroundThread
+    private void execute(@NotNull final BackgroundEditorTask task) {
+        if (!task.start()) return;
+
+        pool.notifyStarted(task);
+        try {
+            task.getTask().run();
+        } catch (final Exception e) {
+            EditorUtil.handleException(LOGGER, this, e);
+        } finally {
+            task.finish();
         }
     }
 }
@@ -2,102 +2,124 @@ package com.ss.editor.executor.impl;
 
 import com.ss.editor.annotation.FXThread;
 import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.config.Config;
 import com.ss.editor.util.EditorUtil;
 import com.sun.javafx.application.PlatformImpl;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
-import rlib.concurrent.util.ConcurrentUtils;
 import rlib.concurrent.util.ThreadUtils;
 import rlib.util.array.Array;
 
 /**
- * The executor to execute tasks in the FX UI Thread.
+ * The executor to execute tasks in the FX UI Thread. Tasks are executed by batches which are limited by time, so the
+ * FX UI Thread has time to process pulses between batches.
  *
  * @author JavaSaBr
  */
 public class FXEditorTaskExecutor extends AbstractEditorTaskExecutor {
 
-    private static final int EXECUTE_LIMIT = 300;
+    /**
+     * The max time in nanos to execute tasks in one batch.
+     */
+    private static final long EXECUTE_TIME_BUDGET = TimeUnit.MILLISECONDS.toNanos(Config.FX_TASK_TIME_BUDGET);
+
+    /**
+     * The time in millis to give to the FX UI Thread between batches.
+     */
+    private static final long YIELD_TIME = 2;
 
     /**
      * The task for executing editor tasks in the FX UI Thread.
      */
     @NotNull
-    private final Runnable fxTask = () -> doExecute(execute, executed);
+    private final Runnable fxTask = () -> doExecute(execute);
+
+    /**
+     * The table of the latest versions of coalesced tasks.
+     */
+    @NotNull
+    private final ConcurrentHashMap<CoalescedTaskKey, Runnable> coalescedTasks;
+
+    /**
+     * The index of a next task to execute in the current batch.
+     */
+    private volatile int position;
 
     public FXEditorTaskExecutor() {
+        this.coalescedTasks = new ConcurrentHashMap<>();
         setName(FXEditorTaskExecutor.class.getSimpleName());
         setPriority(NORM_PRIORITY);
         PlatformImpl.startup(this::start);
     }
 
+    /**
+     * Add a new coalesced task. If a task with the same owner and key is still waiting, it will be replaced by the new
+     * task, so only the latest task will be executed.
+     *
+     * @param owner the owner of the task.
+     * @param key   the key of the task.
+     * @param task  the task.
+     */
+    @FromAnyThread
+    public void execute(@NotNull final Object owner, @NotNull final Object key, @NotNull final Runnable task) {
+
+        final CoalescedTaskKey taskKey = new CoalescedTaskKey(owner, key);
+        final Runnable prev = coalescedTasks.put(taskKey, task);
+        if (prev != null) return;
+
+        execute(() -> {
+            final Runnable latest = coalescedTasks.remove(taskKey);
+            if (latest != null) latest.run();
+        });
+    }
+
     @Override
     @FXThread
-    protected void doExecute(@NotNull final Array<Runnable> execute, @NotNull final Array<Runnable> executed) {
+    protected void doExecute(@NotNull final Array<Runnable> execute) {
 
         final Runnable[] array = execute.array();
+        final long startTime = System.nanoTime();
 
-        for (int i = 0, length = execute.size(); i < length; ) {
-            try {
-
-                for (int count = 0; count < EXECUTE_LIMIT && i < length; count++, i++) {
+        int i = position;
 
-                    final Runnable task = array[i];
-                    try {
-                        task.run();
-                    } catch (final Exception e) {
-                        EditorUtil.handleException(LOGGER, this, e);
-                    }
-
-                    executed.add(task);
-                }
+        for (final int length = execute.size(); i < length; ) {
 
+            final Runnable task = array[i++];
+            try {
+                task.run();
             } catch (final Exception e) {
-                LOGGER.warning(e);
+                EditorUtil.handleException(LOGGER, this, e);
+            }
+
+            if (System.nanoTime() - startTime > EXECUTE_TIME_BUDGET) {
+                break;
             }
         }
-    }
 
+        position = i;
+    }
 
     @Override
-    public void run() {
-        while (true) {
-
-            executed.clear();
-            execute.clear();
+    protected void executeBatch() {
 
-            lock();
-            try {
-
-                if (waitTasks.isEmpty()) {
-                    wait.getAndSet(true);
-                } else {
-                    execute.addAll(waitTasks);
-                }
-
-            } finally {
-                unlock();
-            }
+        position = 0;
 
-            if (wait.get()) {
-                synchronized (wait) {
-                    if (wait.get()) {
-                        ConcurrentUtils.waitInSynchronize(wait);
-                    }
-                }
-            }
+        while (true) {
 
-            if (execute.isEmpty()) continue;
             executeInFXUIThread();
-            if (executed.isEmpty()) continue;
 
-            lock();
-            try {
-                waitTasks.removeAll(executed);
-            } finally {
-                unlock();
+            if (position >= execute.size()) {
+                break;
             }
+
+            // gives the time to process a pulse in the FX UI Thread
+            ThreadUtils.sleep(YIELD_TIME);
         }
     }
 
@@ -113,4 +135,40 @@ public class FXEditorTaskExecutor extends AbstractEditorTaskExecutor {
             }
         }
     }
+
+    /**
+     * The key of a coalesced task.
+     */
+    private static final class CoalescedTaskKey {
+
+        /**
+         * The owner of the task.
+         */
+        @NotNull
+        private final Object owner;
+
+        /**
+         * The key of the task.
+         */
+        @NotNull
+        private final Object key;
+
+        private CoalescedTaskKey(@NotNull final Object owner, @NotNull final Object key) {
+            this.owner = owner;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(@Nullable final Object object) {
+            if (this == object) return true;
+            if (object == null || getClass() != object.getClass()) return false;
+            final CoalescedTaskKey other = (CoalescedTaskKey) object;
+            return owner == other.owner && Objects.equals(key, other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(owner) + key.hashCode();
+        }
+    }
 }
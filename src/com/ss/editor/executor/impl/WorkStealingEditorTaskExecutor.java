@@ -0,0 +1,227 @@
+package com.ss.editor.executor.impl;
+
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.executor.EditorTaskExecutor;
+import com.ss.editor.executor.EditorTaskHandle;
+import com.ss.editor.executor.EditorTaskPriority;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The implementation of the {@link EditorTaskExecutor} for executing tasks in the background using a pool of
+ * work-stealing workers. A new task is added to the queue of the current worker (if it's called from a worker) or to
+ * the queue of a next worker, and idle workers steal tasks from busy workers, so one long task doesn't block the
+ * tasks which were queued after it.
+ *
+ * @author JavaSaBr
+ */
+public class WorkStealingEditorTaskExecutor implements EditorTaskExecutor {
+
+    /**
+     * The list of workers.
+     */
+    @NotNull
+    private final BackgroundEditorTaskExecutor[] workers;
+
+    /**
+     * The queue of idle workers.
+     */
+    @NotNull
+    private final ConcurrentLinkedQueue<BackgroundEditorTaskExecutor> idleWorkers;
+
+    /**
+     * The index of a next worker to add a task.
+     */
+    @NotNull
+    private final AtomicInteger nextWorker;
+
+    /**
+     * The count of waiting tasks.
+     */
+    @NotNull
+    private final AtomicInteger queueDepth;
+
+    /**
+     * The count of started tasks.
+     */
+    @NotNull
+    private final LongAdder startedTasks;
+
+    /**
+     * The summary time in nanos between submitting and starting of tasks.
+     */
+    @NotNull
+    private final LongAdder waitTime;
+
+    public WorkStealingEditorTaskExecutor(final int size) {
+        this.workers = new BackgroundEditorTaskExecutor[Math.max(size, 1)];
+        this.idleWorkers = new ConcurrentLinkedQueue<>();
+        this.nextWorker = new AtomicInteger(0);
+        this.queueDepth = new AtomicInteger(0);
+        this.startedTasks = new LongAdder();
+        this.waitTime = new LongAdder();
+
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new BackgroundEditorTaskExecutor(this, i + 1);
+        }
+
+        for (final BackgroundEditorTaskExecutor worker : workers) {
+            worker.start();
+        }
+    }
+
+    @Override
+    @FromAnyThread
+    public void execute(@NotNull final Runnable task) {
+        submit(task, EditorTaskPriority.NORMAL);
+    }
+
+    /**
+     * Submit a new task with the priority.
+     *
+     * @param task     the task.
+     * @param priority the priority.
+     * @return the handle of the task.
+     */
+    @NotNull
+    @FromAnyThread
+    public EditorTaskHandle submit(@NotNull final Runnable task, @NotNull final EditorTaskPriority priority) {
+
+        final BackgroundEditorTask backgroundTask = new BackgroundEditorTask(task, priority);
+        final Thread currentThread = Thread.currentThread();
+
+        final BackgroundEditorTaskExecutor worker;
+
+        if (currentThread instanceof BackgroundEditorTaskExecutor && isOwnWorker(currentThread)) {
+            worker = (BackgroundEditorTaskExecutor) currentThread;
+        } else {
+            worker = workers[Math.floorMod(nextWorker.getAndIncrement(), workers.length)];
+        }
+
+        queueDepth.incrementAndGet();
+        worker.push(backgroundTask);
+
+        final BackgroundEditorTaskExecutor idle = idleWorkers.poll();
+        if (idle != null) idle.wakeUp();
+
+        return backgroundTask;
+    }
+
+    private boolean isOwnWorker(@NotNull final Thread thread) {
+        for (final BackgroundEditorTaskExecutor worker : workers) {
+            if (worker == thread) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Find a next task for the worker. At first checks the own queue of the worker and then tries to steal a task
+     * from other workers, higher priorities are checked first.
+     *
+     * @param worker the worker.
+     * @return the task or null.
+     */
+    @Nullable
+    @BackgroundThread
+    BackgroundEditorTask findTask(@NotNull final BackgroundEditorTaskExecutor worker) {
+
+        for (final EditorTaskPriority priority : EditorTaskPriority.VALUES) {
+
+            BackgroundEditorTask task = worker.poll(priority);
+
+            if (task == null) {
+                task = steal(worker, priority);
+            }
+
+            if (task != null) {
+                queueDepth.decrementAndGet();
+                return task;
+            }
+        }
+
+        return null;
+    }
+
+    @Nullable
+    @BackgroundThread
+    private BackgroundEditorTask steal(@NotNull final BackgroundEditorTaskExecutor thief,
+                                       @NotNull final EditorTaskPriority priority) {
+
+        for (final BackgroundEditorTaskExecutor worker : workers) {
+            if (worker == thief) continue;
+            final BackgroundEditorTask task = worker.steal(priority);
+            if (task != null) return task;
+        }
+
+        return null;
+    }
+
+    /**
+     * Park the worker until a new task is submitted.
+     *
+     * @param worker the worker.
+     */
+    @BackgroundThread
+    void waitTask(@NotNull final BackgroundEditorTaskExecutor worker) {
+
+        idleWorkers.add(worker);
+
+        // re-check to not miss a task which was submitted before registering this worker as idle
+        if (queueDepth.get() < 1) {
+            worker.park();
+        }
+
+        idleWorkers.remove(worker);
+    }
+
+    /**
+     * Notify about starting the task.
+     *
+     * @param task the task.
+     */
+    @BackgroundThread
+    void notifyStarted(@NotNull final BackgroundEditorTask task) {
+        startedTasks.increment();
+        waitTime.add(System.nanoTime() - task.getSubmitTime());
+    }
+
+    /**
+     * @return the count of waiting tasks.
+     */
+    @FromAnyThread
+    public int getQueueDepth() {
+        return Math.max(queueDepth.get(), 0);
+    }
+
+    /**
+     * @return the count of started tasks.
+     */
+    @FromAnyThread
+    public long getStartedTasks() {
+        return startedTasks.sum();
+    }
+
+    /**
+     * @return the average time in milliseconds between submitting and starting of tasks.
+     */
+    @FromAnyThread
+    public double getAverageLatency() {
+        final long count = startedTasks.sum();
+        if (count < 1) return 0D;
+        return waitTime.sum() / (double) count / 1_000_000D;
+    }
+
+    /**
+     * @return the count of workers.
+     */
+    @FromAnyThread
+    public int getParallelism() {
+        return workers.length;
+    }
+}
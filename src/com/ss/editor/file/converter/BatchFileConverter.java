@@ -0,0 +1,274 @@
+package com.ss.editor.file.converter;
+
+import static java.util.Objects.requireNonNull;
+import com.jme3.asset.AssetManager;
+import com.ss.editor.FileExtensions;
+import com.ss.editor.JFXApplication;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FXThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.executor.EditorTaskPriority;
+import com.ss.editor.manager.ExecutorManager;
+import com.ss.editor.ui.scene.EditorFXScene;
+import com.ss.editor.util.EditorUtil;
+import org.jetbrains.annotations.NotNull;
+import rlib.logging.Logger;
+import rlib.logging.LoggerManager;
+import rlib.util.FileUtils;
+import rlib.util.array.Array;
+import rlib.util.array.ArrayFactory;
+import rlib.util.pools.Pool;
+import rlib.util.pools.PoolFactory;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The implementation of converting all supported model files in a folder tree. Files are converted in parallel by
+ * background workers, each file is converted by an asset manager from the pool of this converting, so assets loaded
+ * by one file can be reused by next files. The pool is cleared at the end. Files which have a converted file newer than
+ * them are skipped.
+ *
+ * @author JavaSaBr
+ */
+public class BatchFileConverter {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(BatchFileConverter.class);
+
+    @NotNull
+    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
+    @NotNull
+    private static final JFXApplication JFX_APPLICATION = JFXApplication.getInstance();
+
+    @NotNull
+    private static final String[] EXTENSIONS = {
+            FileExtensions.MODEL_BLENDER,
+            FileExtensions.MODEL_FBX,
+            FileExtensions.MODEL_OBJ,
+            FileExtensions.MODEL_MESH_XML
+    };
+
+    @NotNull
+    private static final String PROGRESS_KEY = "progress";
+
+    /**
+     * The pool of free asset managers.
+     */
+    @NotNull
+    private final Pool<AssetManager> assetManagers;
+
+    /**
+     * The registry of file converters.
+     */
+    @NotNull
+    private final FileConverterRegistry registry;
+
+    /**
+     * The folder to convert.
+     */
+    @NotNull
+    private final Path folder;
+
+    /**
+     * The count of processed files.
+     */
+    @NotNull
+    private final AtomicInteger processed;
+
+    /**
+     * The count of failed files.
+     */
+    @NotNull
+    private final AtomicInteger failed;
+
+    /**
+     * The count of files to convert.
+     */
+    private volatile int total;
+
+    /**
+     * The count of skipped files.
+     */
+    private volatile int skipped;
+
+    /**
+     * The start time of converting.
+     */
+    private volatile long startTime;
+
+    public BatchFileConverter(@NotNull final FileConverterRegistry registry, @NotNull final Path folder) {
+        this.assetManagers = PoolFactory.newConcurrentAtomicARSWLockPool(AssetManager.class);
+        this.registry = registry;
+        this.folder = folder;
+        this.processed = new AtomicInteger();
+        this.failed = new AtomicInteger();
+    }
+
+    /**
+     * @return true if the file can be converted by batch converting.
+     */
+    @FromAnyThread
+    public static boolean isSupported(@NotNull final Path file) {
+        return FileUtils.containsExtensions(EXTENSIONS, file);
+    }
+
+    /**
+     * Start converting.
+     */
+    @FXThread
+    public void start() {
+
+        final EditorFXScene scene = JFX_APPLICATION.getScene();
+        scene.incrementLoading();
+
+        startTime = System.currentTimeMillis();
+
+        EXECUTOR_MANAGER.addBackgroundTask(this::prepare);
+    }
+
+    /**
+     * Find files to convert and submit converting of them.
+     */
+    @BackgroundThread
+    private void prepare() {
+
+        final Array<Path> files = ArrayFactory.newArray(Path.class);
+
+        try {
+            Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+                    final Path fileName = dir.getFileName();
+                    if (!dir.equals(folder) && fileName != null && fileName.toString().startsWith(".")) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                    if (isSupported(file)) files.add(file);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+        }
+
+        final Array<Runnable> tasks = ArrayFactory.newArray(Runnable.class);
+
+        int skipped = 0;
+
+        for (final Path file : files) {
+
+            final Array<FileConverterDescription> descriptions = registry.getDescriptions(file);
+            if (descriptions.isEmpty()) continue;
+
+            final FileConverterDescription description = requireNonNull(descriptions.first());
+            final FileConverter converter = registry.newCreator(description, file);
+            final Path destination = converter.getDestination(file);
+
+            if (isUpToDate(file, destination)) {
+                skipped++;
+                continue;
+            }
+
+            tasks.add(() -> convert(converter, file, destination));
+        }
+
+        this.skipped = skipped;
+        this.total = tasks.size();
+
+        if (tasks.isEmpty()) {
+            finish();
+            return;
+        }
+
+        // each file is a separated task to not block more important background tasks for a long time
+        tasks.forEach(task -> EXECUTOR_MANAGER.addBackgroundTask(task, EditorTaskPriority.LOW));
+    }
+
+    /**
+     * @return true if the destination file is newer than the source file.
+     */
+    @BackgroundThread
+    private boolean isUpToDate(@NotNull final Path source, @NotNull final Path destination) {
+
+        if (!Files.exists(destination)) {
+            return false;
+        }
+
+        try {
+            final FileTime sourceTime = Files.getLastModifiedTime(source);
+            final FileTime destinationTime = Files.getLastModifiedTime(destination);
+            return destinationTime.compareTo(sourceTime) >= 0;
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+        }
+
+        return false;
+    }
+
+    /**
+     * Convert the file.
+     */
+    @BackgroundThread
+    private void convert(@NotNull final FileConverter converter, @NotNull final Path source,
+                         @NotNull final Path destination) {
+
+        final AssetManager assetManager = assetManagers.take(EditorUtil::createIsolatedAssetManager);
+
+        try {
+            converter.convert(source, destination, assetManager);
+        } catch (final Exception e) {
+            failed.incrementAndGet();
+            LOGGER.warning(this, "can't convert " + source + ": " + e.getMessage());
+        } finally {
+            assetManagers.put(assetManager);
+        }
+
+        final int processed = this.processed.incrementAndGet();
+        final double progress = processed / (double) total;
+
+        EXECUTOR_MANAGER.addFXTask(this, PROGRESS_KEY, () -> {
+            final EditorFXScene scene = JFX_APPLICATION.getScene();
+            scene.setLoadingProgress(progress);
+        });
+
+        if (processed == total) {
+            finish();
+        }
+    }
+
+    /**
+     * Finish converting.
+     */
+    @FromAnyThread
+    private void finish() {
+
+        final long time = System.currentTimeMillis() - startTime;
+
+        // all asset managers are returned to the pool at this moment
+        while (!assetManagers.isEmpty()) {
+            final AssetManager assetManager = assetManagers.take();
+            if (assetManager != null) assetManager.clearCache();
+        }
+
+        LOGGER.info(this, "converted " + (total - failed.get()) + " files, skipped " + skipped +
+                " up-to-date files, failed " + failed.get() + " files in " + folder + " for " + time + " ms.");
+
+        EXECUTOR_MANAGER.addFXTask(() -> {
+            final EditorFXScene scene = JFX_APPLICATION.getScene();
+            scene.decrementLoading();
+        });
+    }
+}
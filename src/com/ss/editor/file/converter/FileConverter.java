@@ -1,9 +1,13 @@
 package com.ss.editor.file.converter;
 
+import com.jme3.asset.AssetManager;
+import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.FXThread;
+import com.ss.editor.annotation.FromAnyThread;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
 import java.nio.file.Path;
 
 /**
@@ -30,6 +34,28 @@ public interface FileConverter {
     @FXThread
     void convert(@NotNull Path source, @NotNull Path destination);
 
+    /**
+     * Convert a source file to destination file in the current thread using the asset manager. The destination file
+     * is replaced atomically.
+     *
+     * @param source       the source file.
+     * @param destination  the destination file.
+     * @param assetManager the asset manager to load the source file.
+     * @throws IOException if the destination file can't be written.
+     */
+    @BackgroundThread
+    void convert(@NotNull Path source, @NotNull Path destination, @NotNull AssetManager assetManager)
+            throws IOException;
+
+    /**
+     * Get a default destination file for a source file.
+     *
+     * @param source the source file.
+     * @return the destination file.
+     */
+    @NotNull
+    @FromAnyThread
+    Path getDestination(@NotNull Path source);
 
     /**
      * @return the result file format name.
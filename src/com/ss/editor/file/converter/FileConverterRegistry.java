@@ -1,5 +1,6 @@
 package com.ss.editor.file.converter;
 
+import com.ss.editor.annotation.FXThread;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.file.converter.impl.BlendToJ3oFileConverter;
 import com.ss.editor.file.converter.impl.FBXToJ3oFileConverter;
@@ -105,4 +106,15 @@ public class FileConverterRegistry {
         final Supplier<FileConverter> constructor = description.getConstructor();
         return constructor.get();
     }
+
+    /**
+     * Convert all supported model files in the folder tree in parallel.
+     *
+     * @param folder the folder.
+     */
+    @FXThread
+    public void convertFolder(@NotNull final Path folder) {
+        final BatchFileConverter converter = new BatchFileConverter(this, folder);
+        converter.start();
+    }
 }
@@ -1,6 +1,9 @@
 package com.ss.editor.file.converter.impl;
 
 import static com.ss.editor.util.EditorUtil.getAssetFile;
+import static com.ss.editor.util.EditorUtil.toAssetPath;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.util.Objects.requireNonNull;
 import static rlib.util.FileUtils.containsExtensions;
 
@@ -8,11 +11,11 @@ import com.jme3.asset.AssetManager;
 import com.jme3.asset.ModelKey;
 import com.jme3.export.binary.BinaryExporter;
 import com.jme3.scene.Spatial;
-import com.ss.editor.Editor;
 import com.ss.editor.JFXApplication;
 import com.ss.editor.annotation.FXThread;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.config.EditorConfig;
+import com.ss.editor.executor.EditorTaskPriority;
 import com.ss.editor.file.converter.FileConverter;
 import com.ss.editor.manager.ExecutorManager;
 import com.ss.editor.model.tool.TangentGenerator;
@@ -25,15 +28,17 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Objects;
 
 import rlib.logging.Logger;
 import rlib.logging.LoggerManager;
 import rlib.util.FileUtils;
 import rlib.util.array.Array;
 import rlib.util.array.ArrayFactory;
+import rlib.util.pools.Pool;
+import rlib.util.pools.PoolFactory;
 
 /**
  * The base implementation of a file converter.
@@ -51,6 +56,13 @@ public abstract class AbstractFileConverter implements FileConverter {
     @NotNull
     private static final EditorConfig EDITOR_CONFIG = EditorConfig.getInstance();
 
+    /**
+     * The isolated asset managers to convert single files.
+     */
+    @NotNull
+    private static final Pool<AssetManager> ASSET_MANAGERS =
+            PoolFactory.newConcurrentAtomicARSWLockPool(AssetManager.class);
+
     @NotNull
     protected static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
 
@@ -60,18 +72,19 @@ public abstract class AbstractFileConverter implements FileConverter {
     @NotNull
     protected static final JFXApplication JFX_APPLICATION = JFXApplication.getInstance();
 
-    @NotNull
-    protected static final Editor EDITOR = Editor.getInstance();
-
     @Override
     public void convert(@NotNull final Path source) {
+        convert(source, getDestination(source));
+    }
+
+    @NotNull
+    @Override
+    public Path getDestination(@NotNull final Path source) {
 
         final String targetFileName = FileUtils.getNameWithoutExtension(source) + "." + getTargetExtension();
 
         final Path parent = source.getParent();
-        final Path targetFile = parent.resolve(targetFileName);
-
-        convert(source, targetFile);
+        return parent.resolve(targetFileName);
     }
 
     @Override
@@ -96,16 +109,35 @@ public abstract class AbstractFileConverter implements FileConverter {
                 EditorUtil.handleException(LOGGER, this, e);
                 EXECUTOR_MANAGER.addFXTask(() -> notifyFileCreatedImpl(null));
             }
-        });
+        }, EditorTaskPriority.LOW);
     }
 
-    private void convertImpl(@NotNull final Path source, @NotNull final Path destination, final boolean overwrite) {
+    private void convertImpl(@NotNull final Path source, @NotNull final Path destination, final boolean overwrite)
+            throws IOException {
+
+        // the shared asset manager of the editor has listeners which shouldn't be notified about converting
+        final AssetManager assetManager = ASSET_MANAGERS.take(EditorUtil::createIsolatedAssetManager);
+        try {
+            convert(source, destination, assetManager);
+        } finally {
+            // the source file can be changed before the next converting
+            assetManager.clearCache();
+            ASSET_MANAGERS.put(assetManager);
+        }
 
-        final Path assetFile = requireNonNull(getAssetFile(source), "Not found asset file for " + source);
-        final ModelKey modelKey = new ModelKey(assetFile.toString());
+        if (overwrite) {
+            notifyFileChanged(destination);
+        } else {
+            notifyFileCreated(destination);
+        }
+    }
+
+    @Override
+    public void convert(@NotNull final Path source, @NotNull final Path destination,
+                        @NotNull final AssetManager assetManager) throws IOException {
 
-        final AssetManager assetManager = EDITOR.getAssetManager();
-        assetManager.clearAssetEventListeners();
+        final Path assetFile = requireNonNull(getAssetFile(source), "Not found asset file for " + source);
+        final ModelKey modelKey = new ModelKey(toAssetPath(assetFile));
 
         final Spatial model = assetManager.loadAsset(modelKey);
 
@@ -114,17 +146,23 @@ public abstract class AbstractFileConverter implements FileConverter {
         }
 
         final BinaryExporter exporter = BinaryExporter.getInstance();
+        final Path parent = requireNonNull(destination.getParent());
+        final Path tempFile = Files.createTempFile(parent, "." + destination.getFileName(), ".tmp");
 
-        try (final OutputStream out = Files.newOutputStream(destination)) {
-            exporter.save(model, out);
-        } catch (final IOException e) {
-            LOGGER.warning(this, e);
-        }
+        try {
 
-        if (overwrite) {
-            notifyFileChanged(destination);
-        } else {
-            notifyFileCreated(destination);
+            try (final OutputStream out = Files.newOutputStream(tempFile)) {
+                exporter.save(model, out);
+            }
+
+            try {
+                Files.move(tempFile, destination, REPLACE_EXISTING, ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, destination, REPLACE_EXISTING);
+            }
+
+        } finally {
+            Files.deleteIfExists(tempFile);
         }
     }
 
@@ -1,5 +1,6 @@
 package com.ss.editor.manager;
 
+import static java.util.Objects.requireNonNull;
 import static rlib.util.array.ArrayFactory.toArray;
 
 import com.jme3.asset.AssetManager;
@@ -15,7 +16,6 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Path;
 
-import rlib.manager.InitializeManager;
 import rlib.util.FileUtils;
 import rlib.util.Util;
 import rlib.util.array.Array;
@@ -40,12 +40,18 @@ public class ClasspathManager {
     private static final String[] EXTENSIONS = toArray(FileExtensions.JAVA_LIBRARY);
 
     @Nullable
-    private static ClasspathManager instance;
+    private static volatile ClasspathManager instance;
 
     @NotNull
     public static ClasspathManager getInstance() {
-        if (instance == null) instance = new ClasspathManager();
-        return instance;
+        if (instance == null) {
+            synchronized (ClasspathManager.class) {
+                if (instance == null) {
+                    instance = new ClasspathManager();
+                }
+            }
+        }
+        return requireNonNull(instance);
     }
 
     /**
@@ -55,7 +61,6 @@ public class ClasspathManager {
     private volatile URLClassLoader additionalCL;
 
     private ClasspathManager() {
-        InitializeManager.valid(getClass());
         updateAdditionalCL();
     }
 
@@ -2,12 +2,13 @@ package com.ss.editor.manager;
 
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.executor.EditorTaskExecutor;
-import com.ss.editor.executor.impl.BackgroundEditorTaskExecutor;
+import com.ss.editor.executor.EditorTaskHandle;
+import com.ss.editor.executor.EditorTaskPriority;
 import com.ss.editor.executor.impl.EditorThreadExecutor;
 import com.ss.editor.executor.impl.FXEditorTaskExecutor;
+import com.ss.editor.executor.impl.WorkStealingEditorTaskExecutor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import rlib.concurrent.atomic.AtomicInteger;
 import rlib.logging.Logger;
 import rlib.logging.LoggerManager;
 
@@ -46,10 +47,10 @@ public class ExecutorManager {
     private final ScheduledExecutorService scheduledExecutorService;
 
     /**
-     * The list of background tasks executors.
+     * The executor of background tasks.
      */
     @NotNull
-    private final EditorTaskExecutor[] backgroundTaskExecutors;
+    private final WorkStealingEditorTaskExecutor backgroundTaskExecutor;
 
     /**
      * The executor of editor tasks.
@@ -61,28 +62,15 @@ public class ExecutorManager {
      * The executor of javaFX tasks.
      */
     @NotNull
-    private final EditorTaskExecutor fxEditorTaskExecutor;
-
-    /**
-     * The index of a next background executor.
-     */
-    @NotNull
-    private final AtomicInteger nextBackgroundTaskExecutor;
+    private final FXEditorTaskExecutor fxEditorTaskExecutor;
 
     private ExecutorManager() {
 
         this.scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
-        this.backgroundTaskExecutors = new EditorTaskExecutor[PROP_BACKGROUND_TASK_EXECUTORS];
-
-        for (int i = 0, length = backgroundTaskExecutors.length; i < length; i++) {
-            backgroundTaskExecutors[i] = new BackgroundEditorTaskExecutor(i + 1);
-        }
-
+        this.backgroundTaskExecutor = new WorkStealingEditorTaskExecutor(PROP_BACKGROUND_TASK_EXECUTORS);
         this.editorThreadExecutor = EditorThreadExecutor.getInstance();
         this.fxEditorTaskExecutor = new FXEditorTaskExecutor();
 
-        this.nextBackgroundTaskExecutor = new AtomicInteger(0);
-
         LOGGER.info("initialized.");
     }
 
@@ -90,21 +78,26 @@ public class ExecutorManager {
      * Add a new background task.
      *
      * @param task the background task.
+     * @return the handle of the task.
      */
+    @NotNull
     @FromAnyThread
-    public void addBackgroundTask(@NotNull final Runnable task) {
-
-        final EditorTaskExecutor[] executors = getBackgroundTaskExecutors();
-        final AtomicInteger nextTaskExecutor = getNextBackgroundTaskExecutor();
-
-        final int index = nextTaskExecutor.incrementAndGet();
+    public EditorTaskHandle addBackgroundTask(@NotNull final Runnable task) {
+        return addBackgroundTask(task, EditorTaskPriority.NORMAL);
+    }
 
-        if (index < executors.length) {
-            executors[index].execute(task);
-        } else {
-            nextTaskExecutor.set(0);
-            executors[0].execute(task);
-        }
+    /**
+     * Add a new background task with the priority.
+     *
+     * @param task     the background task.
+     * @param priority the priority of the task.
+     * @return the handle of the task.
+     */
+    @NotNull
+    @FromAnyThread
+    public EditorTaskHandle addBackgroundTask(@NotNull final Runnable task, @NotNull final EditorTaskPriority priority) {
+        final WorkStealingEditorTaskExecutor executor = getBackgroundTaskExecutor();
+        return executor.submit(task, priority);
     }
 
     /**
@@ -118,6 +111,20 @@ public class ExecutorManager {
         executor.execute(task);
     }
 
+    /**
+     * Add a new coalesced javaFX task. If a task with the same owner and key is still waiting, it will be replaced by
+     * the new task, so only the latest task will be executed.
+     *
+     * @param owner the owner of the task (is compared by identity).
+     * @param key   the key of the task.
+     * @param task  the javaFX task.
+     */
+    @FromAnyThread
+    public void addFXTask(@NotNull final Object owner, @NotNull final Object key, @NotNull final Runnable task) {
+        final FXEditorTaskExecutor executor = getFxTaskExecutor();
+        executor.execute(owner, key, task);
+    }
+
     /**
      * Add a new editor task.
      *
@@ -130,27 +137,43 @@ public class ExecutorManager {
     }
 
     /**
-     * @return the list of background tasks executors.
+     * @return the executor of background tasks.
      */
     @NotNull
-    private EditorTaskExecutor[] getBackgroundTaskExecutors() {
-        return backgroundTaskExecutors;
+    private WorkStealingEditorTaskExecutor getBackgroundTaskExecutor() {
+        return backgroundTaskExecutor;
     }
 
     /**
-     * @return the executor of javaFX tasks.
+     * @return the count of waiting background tasks.
      */
-    @NotNull
-    private EditorTaskExecutor getFxTaskExecutor() {
-        return fxEditorTaskExecutor;
+    @FromAnyThread
+    public int getBackgroundQueueDepth() {
+        return getBackgroundTaskExecutor().getQueueDepth();
     }
 
     /**
-     * @return the index of a next background executor.
+     * @return the average time in milliseconds between submitting and starting of background tasks.
+     */
+    @FromAnyThread
+    public double getBackgroundAverageLatency() {
+        return getBackgroundTaskExecutor().getAverageLatency();
+    }
+
+    /**
+     * @return the count of threads to execute background tasks.
+     */
+    @FromAnyThread
+    public int getBackgroundParallelism() {
+        return getBackgroundTaskExecutor().getParallelism();
+    }
+
+    /**
+     * @return the executor of javaFX tasks.
      */
     @NotNull
-    private AtomicInteger getNextBackgroundTaskExecutor() {
-        return nextBackgroundTaskExecutor;
+    private FXEditorTaskExecutor getFxTaskExecutor() {
+        return fxEditorTaskExecutor;
     }
 
     /**
@@ -2,6 +2,7 @@ package com.ss.editor.manager;
 
 import static com.ss.editor.util.EditorUtil.toAssetPath;
 import static java.lang.String.valueOf;
+import static java.util.Objects.requireNonNull;
 import com.ss.editor.FileExtensions;
 import com.ss.editor.annotation.FXThread;
 import com.ss.editor.util.EditorUtil;
@@ -10,7 +11,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import rlib.logging.Logger;
 import rlib.logging.LoggerManager;
-import rlib.manager.InitializeManager;
 import rlib.util.FileUtils;
 import rlib.util.dictionary.DictionaryFactory;
 import rlib.util.dictionary.ObjectDictionary;
@@ -83,12 +83,18 @@ public class FileIconManager {
     }
 
     @Nullable
-    private static FileIconManager instance;
+    private static volatile FileIconManager instance;
 
     @NotNull
     public static FileIconManager getInstance() {
-        if (instance == null) instance = new FileIconManager();
-        return instance;
+        if (instance == null) {
+            synchronized (FileIconManager.class) {
+                if (instance == null) {
+                    instance = new FileIconManager();
+                }
+            }
+        }
+        return requireNonNull(instance);
     }
 
     /**
@@ -98,7 +104,6 @@ public class FileIconManager {
     private final ObjectDictionary<String, Image> imageCache;
 
     private FileIconManager() {
-        InitializeManager.valid(getClass());
         this.imageCache = DictionaryFactory.newObjectDictionary();
     }
 
@@ -25,25 +25,38 @@ import com.jme3x.jfx.injfx.processor.FrameTransferSceneProcessor;
 import com.ss.editor.Editor;
 import com.ss.editor.FileExtensions;
 import com.ss.editor.JFXApplication;
+import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.EditorThread;
 import com.ss.editor.annotation.FXThread;
 import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.executor.EditorTaskPriority;
 import com.ss.editor.executor.impl.EditorThreadExecutor;
 import com.ss.editor.model.tool.TangentGenerator;
 import com.ss.editor.ui.css.CSSIds;
 import com.ss.editor.ui.scene.EditorFXScene;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
 import javafx.scene.layout.StackPane;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import rlib.logging.Logger;
+import rlib.logging.LoggerManager;
 import rlib.ui.util.FXUtils;
 import rlib.util.array.Array;
 import rlib.util.array.ArrayFactory;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * The class to manage previews of JME files.
+ * The class to manage previews of JME files. Models are loaded in the background, only the latest requested file is
+ * rendered and rendered previews are cached, so showing the same file again doesn't need rendering.
  *
  * @author JavaSaBr
  */
@@ -59,6 +72,17 @@ public class JMEFilePreviewManager extends AbstractControl {
     private static final Quaternion CAMERA_ROTATION = new Quaternion(0.9159756F, 0.04995022F, -0.37940952F,
             0.12059049F);
 
+    /**
+     * The count of frames which should be rendered with a new model before showing and caching its preview, so the
+     * transferred frame doesn't contain the previous model.
+     */
+    private static final int CAPTURE_FRAME = 3;
+
+    /**
+     * The max count of cached previews.
+     */
+    private static final int MAX_CACHED_PREVIEWS = 64;
+
     @NotNull
     private static final Array<String> JME_FORMATS = ArrayFactory.newArray(String.class);
 
@@ -73,6 +97,12 @@ public class JMEFilePreviewManager extends AbstractControl {
         AUDIO_FORMATS.add(FileExtensions.AUDIO_WAV);
     }
 
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(JMEFilePreviewManager.class);
+
+    @NotNull
+    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
     @NotNull
     private static final EditorThreadExecutor EDITOR_THREAD_EXECUTOR = EditorThreadExecutor.getInstance();
 
@@ -125,11 +155,35 @@ public class JMEFilePreviewManager extends AbstractControl {
     };
 
     /**
-     * The preview container.
+     * The cache of rendered previews by keys of requests in the access order.
+     */
+    @NotNull
+    private final LinkedHashMap<String, Image> previewCache;
+
+    /**
+     * The latest request to show a preview.
+     */
+    @NotNull
+    private final AtomicReference<PreviewRequest> currentRequest;
+
+    /**
+     * True if processing of requests is scheduled.
+     */
+    @NotNull
+    private final AtomicBoolean processScheduled;
+
+    /**
+     * The image view with a result preview.
      */
     @NotNull
     private final ImageView imageView;
 
+    /**
+     * The image view to transfer rendered frames.
+     */
+    @NotNull
+    private final ImageView renderView;
+
     /**
      * The test box.
      */
@@ -148,20 +202,45 @@ public class JMEFilePreviewManager extends AbstractControl {
     @Nullable
     private volatile FrameTransferSceneProcessor processor;
 
+    /**
+     * The request which is rendering now.
+     */
+    @Nullable
+    private PreviewRequest renderedRequest;
+
     /**
      * The count of frames.
      */
     private int frame;
 
+    /**
+     * The count of rendered frames with the current model.
+     */
+    private int renderedFrames;
+
+    /**
+     * True if the light probe was requested to update.
+     */
+    private boolean probeRequested;
+
+    /**
+     * True if the light probe was updated.
+     */
+    private boolean probeReady;
+
     private JMEFilePreviewManager() {
+        this.previewCache = new LinkedHashMap<>(16, 0.75F, true);
+        this.currentRequest = new AtomicReference<>();
+        this.processScheduled = new AtomicBoolean(false);
         this.imageView = new ImageView();
-        this.imageView.setId(CSSIds.JME_PREVIEW_MANAGER_IMAGE_VIEW);
+        this.renderView = new ImageView();
+        this.renderView.setId(CSSIds.JME_PREVIEW_MANAGER_IMAGE_VIEW);
         this.testBox = new Geometry("Box", new Box(2, 2, 2));
         this.modelNode = new Node("Model Node");
 
         final EditorFXScene scene = JFX_APPLICATION.getScene();
         final StackPane container = scene.getHideLayer();
-        FXUtils.addToPane(imageView, container);
+        FXUtils.addToPane(renderView, container);
 
         TangentGenerator.useMikktspaceGenerator(testBox);
 
@@ -172,25 +251,45 @@ public class JMEFilePreviewManager extends AbstractControl {
     @Override
     protected void controlUpdate(final float tpf) {
 
-        if (frame == 2) {
-            EDITOR.updatePreviewProbe(probeHandler);
+        // the environment of previews is static, so the light probe is updated only once
+        if (!probeRequested) {
+            if (frame++ == 2) {
+                probeRequested = true;
+                EDITOR.updatePreviewProbe(probeHandler);
+            }
+            return;
         }
 
-        frame++;
+        final PreviewRequest request = renderedRequest;
+        if (request == null || !probeReady) return;
+
+        // frames of previous updates are already rendered and passed to transferring
+        if (renderedFrames < CAPTURE_FRAME) return;
+
+        renderedRequest = null;
+
+        EXECUTOR_MANAGER.addFXTask(() -> showRenderedPreview(request));
     }
 
     @EditorThread
     private void notifyProbeComplete() {
-        final Node rootNode = EDITOR.getPreviewNode();
-        rootNode.attachChild(modelNode);
+
+        probeReady = true;
+        renderedFrames = 0;
+
+        if (renderedRequest != null) {
+            final Node rootNode = EDITOR.getPreviewNode();
+            rootNode.attachChild(modelNode);
+        }
     }
 
     @Override
     protected void controlRender(@NotNull final RenderManager renderManager, @NotNull final ViewPort viewPort) {
+        if (renderedRequest != null && probeReady) renderedFrames++;
     }
 
     /**
-     * Show a file.
+     * Show a file. Rapid requests are coalesced, so only the latest requested file is loaded and rendered.
      *
      * @param file      the file.
      * @param fitWidth  the target width of preview.
@@ -198,72 +297,238 @@ public class JMEFilePreviewManager extends AbstractControl {
      */
     @FromAnyThread
     public void show(@NotNull final Path file, final int fitWidth, final int fitHeight) {
-        imageView.setFitHeight(fitHeight);
-        imageView.setFitWidth(fitWidth);
+        renderView.setFitHeight(fitHeight);
+        renderView.setFitWidth(fitWidth);
 
         final Path assetFile = requireNonNull(getAssetFile(file), "File can't be null.");
         final String path = toAssetPath(assetFile);
         final String extension = getExtension(assetFile);
 
-        if (FileExtensions.JME_MATERIAL.equals(extension)) {
-            EDITOR_THREAD_EXECUTOR.addToExecute(() -> showMaterial(path));
-        } else if (FileExtensions.JME_OBJECT.equals(extension)) {
-            EDITOR_THREAD_EXECUTOR.addToExecute(() -> showObject(path));
-        } else {
-            EDITOR_THREAD_EXECUTOR.addToExecute(this::clear);
+        if (!FileExtensions.JME_MATERIAL.equals(extension) && !FileExtensions.JME_OBJECT.equals(extension)) {
+            clear();
+            return;
+        }
+
+        currentRequest.set(new PreviewRequest(file, path, extension, fitWidth, fitHeight));
+
+        if (processScheduled.compareAndSet(false, true)) {
+            EXECUTOR_MANAGER.addBackgroundTask(this::processRequests, EditorTaskPriority.HIGH);
+        }
+    }
+
+    /**
+     * Process the latest request to show a preview.
+     */
+    @BackgroundThread
+    private void processRequests() {
+        while (true) {
+
+            final PreviewRequest request = currentRequest.get();
+
+            if (request != null) {
+                processRequest(request);
+            }
+
+            processScheduled.set(false);
+
+            // a new request could come after processing but before resetting the flag
+            if (currentRequest.get() == request || !processScheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Process the request to show a preview and the next requests which come during loading.
+     *
+     * @param first the request.
+     */
+    @BackgroundThread
+    private void processRequest(@NotNull final PreviewRequest first) {
+
+        PreviewRequest request = first;
+
+        while (request != null) {
+
+            final Image cached = getCachedPreview(request);
+
+            if (cached != null) {
+                final PreviewRequest toShow = request;
+                EDITOR_THREAD_EXECUTOR.addToExecute(() -> hideModel(toShow));
+                EXECUTOR_MANAGER.addFXTask(() -> showCachedPreview(toShow, cached));
+                return;
+            }
+
+            final Spatial model = loadModel(request);
+            final PreviewRequest latest = currentRequest.get();
+
+            // the request was changed during loading, so the loaded model isn't needed
+            if (latest != request) {
+                request = latest;
+                continue;
+            }
+
+            if (model == null) {
+                clear();
+                return;
+            }
+
+            final PreviewRequest toShow = request;
+            EXECUTOR_MANAGER.addFXTask(() -> hidePreview(toShow));
+            EDITOR_THREAD_EXECUTOR.addToExecute(() -> showModel(toShow, model));
+            return;
         }
     }
 
     /**
-     * Show a j3o object.
+     * Load a model to show a preview of the request.
      *
-     * @param path the path to object.
+     * @param request the request.
+     * @return the model or null.
+     */
+    @Nullable
+    @BackgroundThread
+    private Spatial loadModel(@NotNull final PreviewRequest request) {
+
+        final AssetManager assetManager = EDITOR.getAssetManager();
+        final String path = request.getPath();
+
+        try {
+
+            if (FileExtensions.JME_OBJECT.equals(request.getExtension())) {
+                return assetManager.loadModel(path);
+            }
+
+            final Material material = assetManager.loadMaterial(path);
+            final Geometry box = testBox.clone(false);
+            box.setMaterial(material);
+
+            return box;
+
+        } catch (final RuntimeException e) {
+            LOGGER.warning(this, e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Show a loaded model.
+     *
+     * @param request the request.
+     * @param model   the model.
      */
     @EditorThread
-    private void showObject(@NotNull final String path) {
+    private void showModel(@NotNull final PreviewRequest request, @NotNull final Spatial model) {
+        if (currentRequest.get() != request) return;
         if (processor != null) processor.setEnabled(true);
 
-        frame = 0;
-
         final Camera camera = EDITOR.getPreviewCamera();
         camera.setLocation(CAMERA_LOCATION);
         camera.setRotation(CAMERA_ROTATION);
 
-        final AssetManager assetManager = EDITOR.getAssetManager();
-        final Spatial model = assetManager.loadModel(path);
-
         modelNode.detachAllChildren();
         modelNode.attachChild(model);
 
+        renderedRequest = request;
+        renderedFrames = 0;
+
+        if (!probeReady) return;
+
         final Node rootNode = EDITOR.getPreviewNode();
-        rootNode.detachChild(modelNode);
+        rootNode.attachChild(modelNode);
     }
 
     /**
-     * Show a j3m material.
+     * Hide a model to show a cached preview.
      *
-     * @param path the path to material.
+     * @param request the request.
      */
     @EditorThread
-    private void showMaterial(@NotNull final String path) {
-        if (processor != null) processor.setEnabled(true);
+    private void hideModel(@NotNull final PreviewRequest request) {
+        if (currentRequest.get() != request) return;
+        clearImpl();
+    }
 
-        frame = 0;
+    /**
+     * Hide the previous preview while a model of the request isn't rendered.
+     *
+     * @param request the request.
+     */
+    @FXThread
+    private void hidePreview(@NotNull final PreviewRequest request) {
+        if (currentRequest.get() != request) return;
+        imageView.imageProperty().unbind();
+        imageView.setImage(null);
+    }
 
-        final Camera camera = EDITOR.getPreviewCamera();
-        camera.setLocation(CAMERA_LOCATION);
-        camera.setRotation(CAMERA_ROTATION);
+    /**
+     * Show the rendered preview when frames with the model of the request were transferred and cache it.
+     *
+     * @param request the request.
+     */
+    @FXThread
+    private void showRenderedPreview(@NotNull final PreviewRequest request) {
+        if (currentRequest.get() != request) return;
+        imageView.imageProperty().bind(renderView.imageProperty());
+        capturePreview(request);
+    }
 
-        final AssetManager assetManager = EDITOR.getAssetManager();
-        final Material material = assetManager.loadMaterial(path);
+    /**
+     * Show the cached preview.
+     *
+     * @param request the request.
+     * @param preview the preview.
+     */
+    @FXThread
+    private void showCachedPreview(@NotNull final PreviewRequest request, @NotNull final Image preview) {
+        if (currentRequest.get() != request) return;
+        imageView.imageProperty().unbind();
+        imageView.setImage(preview);
+    }
+
+    /**
+     * Copy the rendered preview to the cache.
+     *
+     * @param request the request.
+     */
+    @FXThread
+    private void capturePreview(@NotNull final PreviewRequest request) {
 
-        testBox.setMaterial(material);
+        final Image image = renderView.getImage();
+        if (image == null) return;
 
-        modelNode.detachAllChildren();
-        modelNode.attachChild(testBox);
+        final int width = (int) image.getWidth();
+        final int height = (int) image.getHeight();
+        if (width < 1 || height < 1) return;
 
-        final Node rootNode = EDITOR.getPreviewNode();
-        rootNode.detachChild(modelNode);
+        final WritableImage preview = new WritableImage(image.getPixelReader(), width, height);
+
+        synchronized (previewCache) {
+
+            previewCache.put(request.getKey(), preview);
+
+            final Iterator<String> iterator = previewCache.keySet().iterator();
+
+            while (previewCache.size() > MAX_CACHED_PREVIEWS && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Get a cached preview of the request.
+     *
+     * @param request the request.
+     * @return the preview or null.
+     */
+    @Nullable
+    @FromAnyThread
+    private Image getCachedPreview(@NotNull final PreviewRequest request) {
+        synchronized (previewCache) {
+            return previewCache.get(request.getKey());
+        }
     }
 
     /**
@@ -271,12 +536,15 @@ public class JMEFilePreviewManager extends AbstractControl {
      */
     @FromAnyThread
     public void clear() {
+        currentRequest.set(null);
         EDITOR_THREAD_EXECUTOR.addToExecute(this::clearImpl);
     }
 
     @EditorThread
     private void clearImpl() {
 
+        renderedRequest = null;
+
         final Node rootNode = EDITOR.getPreviewNode();
         rootNode.detachChild(modelNode);
 
@@ -311,11 +579,102 @@ public class JMEFilePreviewManager extends AbstractControl {
         rootNode.addControl(this);
         rootNode.attachChild(sky);
         rootNode.addLight(light);
-        rootNode.attachChild(modelNode);
 
-        processor = bind(EDITOR, imageView, imageView, EDITOR.getPreviewViewPort(), false);
+        processor = bind(EDITOR, renderView, renderView, EDITOR.getPreviewViewPort(), false);
         processor.setEnabled(false);
 
         return processor;
     }
+
+    /**
+     * The request to show a preview of a file.
+     */
+    private static final class PreviewRequest {
+
+        /**
+         * The file.
+         */
+        @NotNull
+        private final Path file;
+
+        /**
+         * The asset path of the file.
+         */
+        @NotNull
+        private final String path;
+
+        /**
+         * The extension of the file.
+         */
+        @NotNull
+        private final String extension;
+
+        /**
+         * The target width of preview.
+         */
+        private final int width;
+
+        /**
+         * The target height of preview.
+         */
+        private final int height;
+
+        /**
+         * The key of the preview in the cache.
+         */
+        @Nullable
+        private volatile String key;
+
+        private PreviewRequest(@NotNull final Path file, @NotNull final String path, @NotNull final String extension,
+                               final int width, final int height) {
+            this.file = file;
+            this.path = path;
+            this.extension = extension;
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * @return the asset path of the file.
+         */
+        @NotNull
+        private String getPath() {
+            return path;
+        }
+
+        /**
+         * @return the extension of the file.
+         */
+        @NotNull
+        private String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Get the key of the preview in the cache, the key depends on the last modified time of the file, so previews
+         * of changed files aren't taken from the cache.
+         *
+         * @return the key of the preview.
+         */
+        @NotNull
+        @BackgroundThread
+        private String getKey() {
+
+            String key = this.key;
+            if (key != null) return key;
+
+            long lastModified = 0;
+
+            try {
+                lastModified = Files.getLastModifiedTime(file).toMillis();
+            } catch (final IOException e) {
+                LOGGER.warning(e);
+            }
+
+            key = path + "|" + lastModified + "|" + width + "x" + height;
+            this.key = key;
+
+            return key;
+        }
+    }
 }
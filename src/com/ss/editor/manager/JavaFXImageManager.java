@@ -1,15 +1,17 @@
 package com.ss.editor.manager;
 
-import static java.awt.Image.SCALE_DEFAULT;
+import static java.awt.image.BufferedImage.TYPE_INT_ARGB;
 import static java.util.Objects.requireNonNull;
-import static rlib.util.Util.get;
 import com.ss.editor.FileExtensions;
+import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.FXThread;
+import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.config.Config;
 import com.ss.editor.file.reader.TGAReader;
 import com.ss.editor.ui.Icons;
 import com.ss.editor.ui.event.FXEventManager;
 import com.ss.editor.ui.event.impl.DeletedFileEvent;
+import com.ss.editor.ui.event.impl.FileChangedEvent;
 import com.sun.jimi.core.Jimi;
 import com.sun.jimi.core.JimiReader;
 import javafx.embed.swing.SwingFXUtils;
@@ -18,7 +20,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import rlib.logging.Logger;
 import rlib.logging.LoggerManager;
-import rlib.manager.InitializeManager;
 import rlib.util.FileUtils;
 import rlib.util.StringUtils;
 import rlib.util.array.Array;
@@ -34,13 +35,21 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
- * The class to manage previews of images to JavaFX
+ * The class to manage previews of images to JavaFX. Previews are built in the background and cached in two tiers:
+ * decoded images in the memory and PNG files in the user folder, both tiers are limited by size and evict least
+ * recently used previews.
  *
  * @author JavaSaBr
  */
@@ -52,9 +61,25 @@ public class JavaFXImageManager {
     @NotNull
     private static final FXEventManager FX_EVENT_MANAGER = FXEventManager.getInstance();
 
+    @NotNull
+    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
     @NotNull
     private static final String PREVIEW_CACHE_FOLDER = "preview-cache";
 
+    @NotNull
+    private static final String CACHE_FILE_EXTENSION = ".png";
+
+    /**
+     * The max size of decoded previews in the memory in bytes.
+     */
+    private static final long MAX_MEMORY_CACHE_SIZE = 32 * 1024 * 1024;
+
+    /**
+     * The max size of preview files on the disk in bytes.
+     */
+    private static final long MAX_DISK_CACHE_SIZE = 128 * 1024 * 1024;
+
     @NotNull
     private static final Array<String> FX_FORMATS = ArrayFactory.newArray(String.class);
 
@@ -89,12 +114,18 @@ public class JavaFXImageManager {
     }
 
     @Nullable
-    private static JavaFXImageManager instance;
+    private static volatile JavaFXImageManager instance;
 
     @NotNull
     public static JavaFXImageManager getInstance() {
-        if (instance == null) instance = new JavaFXImageManager();
-        return instance;
+        if (instance == null) {
+            synchronized (JavaFXImageManager.class) {
+                if (instance == null) {
+                    instance = new JavaFXImageManager();
+                }
+            }
+        }
+        return requireNonNull(instance);
     }
 
     /**
@@ -103,19 +134,56 @@ public class JavaFXImageManager {
     @NotNull
     private final ObjectDictionary<Path, IIOMetadata> iioMetadatas;
 
+    /**
+     * The cache of decoded previews by request keys in the access order.
+     */
+    @NotNull
+    private final LinkedHashMap<String, MemoryEntry> memoryCache;
+
+    /**
+     * The sizes of cached preview files by their keys in the access order.
+     */
+    @NotNull
+    private final LinkedHashMap<String, Long> diskCache;
+
+    /**
+     * The table of waiters of loading previews by request keys.
+     */
+    @NotNull
+    private final ObjectDictionary<String, Array<Consumer<Image>>> waiters;
+
     /**
      * The cache folder.
      */
     @NotNull
     private final Path cacheFolder;
 
+    /**
+     * The current size of the memory cache in bytes.
+     */
+    private long memoryCacheSize;
+
+    /**
+     * The current size of the disk cache in bytes.
+     */
+    private long diskCacheSize;
+
+    /**
+     * True if the disk cache was loaded.
+     */
+    private boolean diskCacheLoaded;
+
     private JavaFXImageManager() {
-        InitializeManager.valid(getClass());
         final Path appFolder = Config.getAppFolderInUserHome();
         this.cacheFolder = appFolder.resolve(PREVIEW_CACHE_FOLDER);
         this.iioMetadatas = DictionaryFactory.newObjectDictionary();
-        if (Files.exists(cacheFolder)) FileUtils.delete(cacheFolder);
-        FX_EVENT_MANAGER.addEventHandler(DeletedFileEvent.EVENT_TYPE, event -> processEvent((DeletedFileEvent) event));
+        this.memoryCache = new LinkedHashMap<>(16, 0.75F, true);
+        this.diskCache = new LinkedHashMap<>(16, 0.75F, true);
+        this.waiters = DictionaryFactory.newObjectDictionary();
+        EXECUTOR_MANAGER.addFXTask(() -> {
+            FX_EVENT_MANAGER.addEventHandler(DeletedFileEvent.EVENT_TYPE, event -> processEvent((DeletedFileEvent) event));
+            FX_EVENT_MANAGER.addEventHandler(FileChangedEvent.EVENT_TYPE, event -> processEvent((FileChangedEvent) event));
+        });
     }
 
     /**
@@ -127,164 +195,456 @@ public class JavaFXImageManager {
     }
 
     /**
-     * Get image preview.
+     * Load a preview of the image. If the preview is in the memory cache, the handler is notified immediately,
+     * otherwise the preview is built in the background and the handler is notified later in the FX UI Thread, so
+     * a caller should show a placeholder until that.
      *
-     * @param file   the image file.
-     * @param width  the required width.
-     * @param height the required height.
-     * @return the image.
+     * @param file    the image file.
+     * @param width   the required width.
+     * @param height  the required height.
+     * @param handler the handler of the loaded preview.
      */
-    @NotNull
     @FXThread
-    public Image getTexturePreview(@Nullable final Path file, final int width, final int height) {
-        if (file == null || !Files.exists(file)) return Icons.IMAGE_512;
+    public void loadTexturePreview(@Nullable final Path file, final int width, final int height,
+                                   @NotNull final Consumer<Image> handler) {
 
-        final String absolutePath = file.toAbsolutePath().toString();
-        final String fileHash = StringUtils.toMD5(absolutePath) + ".png";
+        if (file == null) {
+            handler.accept(Icons.IMAGE_512);
+            return;
+        }
 
-        final Path cacheFolder = getCacheFolder();
-        final Path imageFolder = cacheFolder.resolve(String.valueOf(width)).resolve(String.valueOf(height));
-        final Path cacheFile = imageFolder.resolve(fileHash);
+        final String requestKey = file.toAbsolutePath() + "|" + width + "x" + height;
+        final MemoryEntry entry = memoryCache.get(requestKey);
 
-        if (Files.exists(cacheFile)) {
+        if (entry != null) {
+            handler.accept(entry.getImage());
+            return;
+        }
 
-            try {
+        final Array<Consumer<Image>> handlers = waiters.get(requestKey);
 
-                final FileTime lastModCacheFile = Files.getLastModifiedTime(cacheFile);
-                final FileTime lastModFile = Files.getLastModifiedTime(file);
+        if (handlers != null) {
+            handlers.add(handler);
+            return;
+        }
 
-                if (lastModCacheFile.compareTo(lastModFile) >= 0) {
-                    return new Image(cacheFile.toUri().toString(), width, height, false, false);
-                }
+        final Array<Consumer<Image>> newHandlers = ArrayFactory.newArray(Consumer.class);
+        newHandlers.add(handler);
 
-            } catch (final IOException e) {
-                LOGGER.warning(e);
+        waiters.put(requestKey, newHandlers);
+
+        EXECUTOR_MANAGER.addBackgroundTask(() -> buildPreview(file, width, height, requestKey));
+    }
+
+    /**
+     * Build a preview of the image or read it from the disk cache.
+     */
+    @BackgroundThread
+    private void buildPreview(@NotNull final Path file, final int width, final int height,
+                              @NotNull final String requestKey) {
+
+        String cacheKey = null;
+        Image image = null;
+
+        try {
+
+            if (Files.exists(file)) {
+
+                cacheKey = getCacheKey(file, width, height);
+                image = readFromDiskCache(cacheKey);
+
+                if (image == null) {
+
+                    final BufferedImage preview = createPreview(file, width, height);
+
+                    if (preview != null) {
+                        writeToDiskCache(cacheKey, preview);
+                        image = SwingFXUtils.toFXImage(preview, null);
+                    }
+                }
             }
+
+        } catch (final Exception e) {
+            LOGGER.warning("can't read " + file);
+        }
+
+        final String resultKey = cacheKey;
+        final Image result = image;
+
+        EXECUTOR_MANAGER.addFXTask(() -> finishLoading(file, requestKey, resultKey, result));
+    }
+
+    /**
+     * Put the loaded preview to the memory cache and notify waiters.
+     */
+    @FXThread
+    private void finishLoading(@NotNull final Path file, @NotNull final String requestKey,
+                               @Nullable final String cacheKey, @Nullable final Image image) {
+
+        final Array<Consumer<Image>> handlers = waiters.remove(requestKey);
+
+        if (image == null || cacheKey == null) {
+            if (handlers != null) handlers.forEach(handler -> handler.accept(Icons.IMAGE_512));
+            return;
+        }
+
+        final MemoryEntry entry = new MemoryEntry(file, cacheKey, image);
+        final MemoryEntry prev = memoryCache.put(requestKey, entry);
+
+        if (prev != null) memoryCacheSize -= prev.getSize();
+        memoryCacheSize += entry.getSize();
+
+        final Iterator<MemoryEntry> iterator = memoryCache.values().iterator();
+
+        while (memoryCacheSize > MAX_MEMORY_CACHE_SIZE && iterator.hasNext()) {
+            final MemoryEntry eldest = iterator.next();
+            if (eldest == entry) break;
+            memoryCacheSize -= eldest.getSize();
+            iterator.remove();
+        }
+
+        if (handlers != null) handlers.forEach(handler -> handler.accept(image));
+    }
+
+    /**
+     * Get a key of a preview in the disk cache, the key depends on the path, the last modified time and the size of
+     * the file, so changed files get new previews and old previews are evicted later.
+     */
+    @NotNull
+    @BackgroundThread
+    private static String getCacheKey(@NotNull final Path file, final int width, final int height) throws IOException {
+
+        final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        final FileTime lastModifiedTime = attributes.lastModifiedTime();
+
+        final String key = file.toAbsolutePath() + "|" + lastModifiedTime.toMillis() + "|" + attributes.size() +
+                "|" + width + "x" + height;
+
+        return StringUtils.toMD5(key);
+    }
+
+    /**
+     * Read a preview from the disk cache.
+     *
+     * @param cacheKey the key of the preview.
+     * @return the preview or null.
+     */
+    @Nullable
+    @BackgroundThread
+    private Image readFromDiskCache(@NotNull final String cacheKey) {
+
+        final Path cacheFile = getCacheFolder().resolve(cacheKey + CACHE_FILE_EXTENSION);
+
+        synchronized (diskCache) {
+            loadDiskCache();
+            if (!diskCache.containsKey(cacheKey)) return null;
+        }
+
+        final Image image = new Image(cacheFile.toUri().toString());
+
+        if (image.isError()) {
+            removeFromDiskCache(cacheKey);
+            return null;
         }
 
-        final Path parent = cacheFile.getParent();
         try {
-            Files.createDirectories(parent);
+            Files.setLastModifiedTime(cacheFile, FileTime.fromMillis(System.currentTimeMillis()));
         } catch (final IOException e) {
             LOGGER.warning(e);
         }
 
-        final String extension = FileUtils.getExtension(file);
+        return image;
+    }
 
-        if (FX_FORMATS.contains(extension)) {
+    /**
+     * Write a preview to the disk cache and evict least recently used previews if the cache is overflowed.
+     *
+     * @param cacheKey the key of the preview.
+     * @param preview  the preview.
+     */
+    @BackgroundThread
+    private void writeToDiskCache(@NotNull final String cacheKey, @NotNull final BufferedImage preview) {
 
-            final String url = file.toUri().toString();
+        final Path cacheFolder = getCacheFolder();
+        final Path cacheFile = cacheFolder.resolve(cacheKey + CACHE_FILE_EXTENSION);
 
-            Image image = new Image(url);
+        long size;
 
-            final int imageWidth = (int) image.getWidth();
-            final int imageHeight = (int) image.getHeight();
+        try {
 
-            if (imageWidth > width || imageHeight > height) {
-                if (imageWidth == imageHeight) {
-                    image = new Image(url, width, height, false, false);
-                } else if (imageWidth > imageHeight) {
-                    float mod = imageHeight * 1F / imageWidth;
-                    image = new Image(url, width, height * mod, false, false);
-                } else if (imageHeight > imageWidth) {
-                    float mod = imageWidth * 1F / imageHeight;
-                    image = new Image(url, width * mod, height, false, false);
-                }
+            Files.createDirectories(cacheFolder);
+
+            final Path tempFile = Files.createTempFile(cacheFolder, cacheKey, ".tmp");
+
+            try (final OutputStream out = Files.newOutputStream(tempFile)) {
+                ImageIO.write(preview, "png", out);
             }
 
-            final BufferedImage bufferedImage = SwingFXUtils.fromFXImage(image, null);
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            size = Files.size(cacheFile);
 
-            try (final OutputStream out = Files.newOutputStream(cacheFile)) {
-                ImageIO.write(bufferedImage, "png", out);
-            } catch (final IOException e) {
-                LOGGER.warning(e);
+        } catch (final IOException e) {
+            LOGGER.warning(e);
+            return;
+        }
+
+        final Array<Path> toDelete = ArrayFactory.newArray(Path.class);
+
+        synchronized (diskCache) {
+
+            loadDiskCache();
+
+            final Long prev = diskCache.put(cacheKey, size);
+            if (prev != null) diskCacheSize -= prev;
+            diskCacheSize += size;
+
+            final Iterator<Map.Entry<String, Long>> iterator = diskCache.entrySet().iterator();
+
+            while (diskCacheSize > MAX_DISK_CACHE_SIZE && iterator.hasNext()) {
+
+                final Map.Entry<String, Long> eldest = iterator.next();
+                if (cacheKey.equals(eldest.getKey())) break;
+
+                diskCacheSize -= eldest.getValue();
+                iterator.remove();
+
+                toDelete.add(cacheFolder.resolve(eldest.getKey() + CACHE_FILE_EXTENSION));
             }
+        }
 
-            return image;
+        toDelete.forEach(FileUtils::delete);
+    }
 
-        } else if (FileExtensions.IMAGE_TGA.equals(extension)) {
+    /**
+     * Remove a preview from the disk cache.
+     *
+     * @param cacheKey the key of the preview.
+     */
+    @FromAnyThread
+    private void removeFromDiskCache(@NotNull final String cacheKey) {
 
-            try {
+        synchronized (diskCache) {
+            final Long size = diskCache.remove(cacheKey);
+            if (size != null) diskCacheSize -= size;
+        }
 
-                final byte[] content = requireNonNull(get(file, Files::readAllBytes));
+        final Path cacheFile = getCacheFolder().resolve(cacheKey + CACHE_FILE_EXTENSION);
 
-                final BufferedImage awtImage = (BufferedImage) TGAReader.getImage(content);
-                if (awtImage == null) return Icons.IMAGE_512;
+        try {
+            Files.deleteIfExists(cacheFile);
+        } catch (final IOException e) {
+            LOGGER.warning(e);
+        }
+    }
 
-                final int imageWidth = awtImage.getWidth();
-                final int imageHeight = awtImage.getHeight();
+    /**
+     * Load the list of cached previews from the disk in the order of their last access.
+     */
+    @BackgroundThread
+    private void loadDiskCache() {
 
-                java.awt.Image newImage = awtImage;
+        if (diskCacheLoaded) return;
+        diskCacheLoaded = true;
 
-                if (imageWidth > width || imageHeight > height) {
-                    if (imageWidth == imageHeight) {
-                        newImage = awtImage.getScaledInstance(width, height, SCALE_DEFAULT);
-                    } else if (imageWidth > imageHeight) {
-                        float mod = imageHeight * 1F / imageWidth;
-                        newImage = awtImage.getScaledInstance(width, (int) (height * mod), SCALE_DEFAULT);
-                    } else if (imageHeight > imageWidth) {
-                        float mod = imageWidth * 1F / imageHeight;
-                        newImage = awtImage.getScaledInstance((int) (width * mod), height, SCALE_DEFAULT);
-                    }
-                }
+        final Path cacheFolder = getCacheFolder();
+        if (!Files.isDirectory(cacheFolder)) return;
 
-                final BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        final Array<Path> files = ArrayFactory.newArray(Path.class);
+        final ObjectDictionary<Path, FileTime> lastAccess = DictionaryFactory.newObjectDictionary();
 
-                final Graphics2D g2d = bufferedImage.createGraphics();
-                g2d.drawImage(newImage, 0, 0, null);
-                g2d.dispose();
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(cacheFolder)) {
+            for (final Path file : stream) {
 
-                Image javaFXImage;
+                final String fileName = file.getFileName().toString();
 
-                try (final OutputStream out = Files.newOutputStream(cacheFile)) {
-                    ImageIO.write(bufferedImage, "png", out);
-                    javaFXImage = new Image(cacheFile.toUri().toString());
+                // previews of old versions or not finished writings
+                if (Files.isDirectory(file) || !fileName.endsWith(CACHE_FILE_EXTENSION)) {
+                    FileUtils.delete(file);
+                    continue;
                 }
 
-                return javaFXImage;
+                lastAccess.put(file, Files.getLastModifiedTime(file));
+                files.add(file);
+            }
+        } catch (final IOException e) {
+            LOGGER.warning(e);
+        }
+
+        files.sort((first, second) -> lastAccess.get(first).compareTo(lastAccess.get(second)));
+
+        for (final Path file : files) {
+
+            final String fileName = file.getFileName().toString();
+            final String cacheKey = fileName.substring(0, fileName.length() - CACHE_FILE_EXTENSION.length());
 
+            try {
+                final long size = Files.size(file);
+                diskCache.put(cacheKey, size);
+                diskCacheSize += size;
             } catch (final IOException e) {
-                LOGGER.warning("can't read " + file);
+                LOGGER.warning(e);
             }
+        }
+
+        final Iterator<Map.Entry<String, Long>> iterator = diskCache.entrySet().iterator();
 
-        } else if (!JIMI_FORMATS.contains(extension)) {
-            return Icons.IMAGE_512;
+        while (diskCacheSize > MAX_DISK_CACHE_SIZE && iterator.hasNext()) {
+            final Map.Entry<String, Long> eldest = iterator.next();
+            diskCacheSize -= eldest.getValue();
+            iterator.remove();
+            FileUtils.delete(cacheFolder.resolve(eldest.getKey() + CACHE_FILE_EXTENSION));
         }
+    }
 
-        try {
+    /**
+     * Create a preview of the image.
+     *
+     * @param file   the image file.
+     * @param width  the max width.
+     * @param height the max height.
+     * @return the preview or null.
+     */
+    @Nullable
+    @BackgroundThread
+    private static BufferedImage createPreview(@NotNull final Path file, final int width, final int height)
+            throws IOException {
 
+        final String extension = FileUtils.getExtension(file);
+
+        java.awt.Image awtImage = null;
+
+        if (FX_FORMATS.contains(extension)) {
+            awtImage = ImageIO.read(file.toFile());
+        } else if (FileExtensions.IMAGE_TGA.equals(extension)) {
+            awtImage = TGAReader.getImage(Files.readAllBytes(file));
+        } else if (JIMI_FORMATS.contains(extension)) {
             final JimiReader reader = Jimi.createJimiReader(file.toString());
-            final java.awt.Image awtImage = reader.getImage();
+            awtImage = reader.getImage();
+        }
 
-            if (awtImage == null) {
-                return Icons.IMAGE_512;
-            }
+        if (awtImage == null) {
+            return null;
+        }
 
-            final java.awt.Image newImage = awtImage.getScaledInstance(width, height, java.awt.Image.SCALE_FAST);
-            final BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        return scale(toBufferedImage(awtImage), width, height);
+    }
 
-            final Graphics2D g2d = bufferedImage.createGraphics();
-            g2d.drawImage(newImage, 0, 0, null);
-            g2d.dispose();
+    /**
+     * Convert the AWT image to the buffered image with alpha channel.
+     */
+    @Nullable
+    private static BufferedImage toBufferedImage(@NotNull final java.awt.Image awtImage) {
 
-            Image javaFXImage;
+        if (awtImage instanceof BufferedImage && ((BufferedImage) awtImage).getType() == TYPE_INT_ARGB) {
+            return (BufferedImage) awtImage;
+        }
 
-            try (final OutputStream out = Files.newOutputStream(cacheFile)) {
-                ImageIO.write(bufferedImage, "png", out);
-                javaFXImage = new Image(cacheFile.toUri().toString());
-            }
+        final int imageWidth = awtImage.getWidth(null);
+        final int imageHeight = awtImage.getHeight(null);
 
-            return javaFXImage;
+        if (imageWidth < 1 || imageHeight < 1) {
+            return null;
+        }
 
-        } catch (final Exception e) {
-            LOGGER.warning("can't read " + file);
+        final BufferedImage result = new BufferedImage(imageWidth, imageHeight, TYPE_INT_ARGB);
+
+        final Graphics2D g2d = result.createGraphics();
+        g2d.drawImage(awtImage, 0, 0, null);
+        g2d.dispose();
+
+        return result;
+    }
+
+    /**
+     * Scale the image to fit the size with keeping aspect ratio. Large images are scaled in several steps to keep
+     * quality of bilinear filtering.
+     */
+    @Nullable
+    private static BufferedImage scale(@Nullable final BufferedImage image, final int width, final int height) {
+
+        if (image == null) {
+            return null;
         }
 
-        return Icons.IMAGE_512;
+        final int imageWidth = image.getWidth();
+        final int imageHeight = image.getHeight();
+
+        if (imageWidth <= width && imageHeight <= height) {
+            return image;
+        }
+
+        final float mod = Math.min(width * 1F / imageWidth, height * 1F / imageHeight);
+        final int targetWidth = Math.max((int) (imageWidth * mod), 1);
+        final int targetHeight = Math.max((int) (imageHeight * mod), 1);
+
+        BufferedImage result = image;
+
+        int currentWidth = imageWidth;
+        int currentHeight = imageHeight;
+
+        do {
+
+            currentWidth = Math.max(currentWidth / 2, targetWidth);
+            currentHeight = Math.max(currentHeight / 2, targetHeight);
+
+            final BufferedImage step = new BufferedImage(currentWidth, currentHeight, TYPE_INT_ARGB);
+
+            final Graphics2D g2d = step.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.drawImage(result, 0, 0, currentWidth, currentHeight, null);
+            g2d.dispose();
+
+            result = step;
+
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+
+        return result;
     }
 
+    /**
+     * Remove previews of the deleted file from caches.
+     */
+    @FXThread
     private void processEvent(@NotNull final DeletedFileEvent event) {
-        //TODO need to add remove from cache
+
+        final Array<String> cacheKeys = invalidate(event.getFile());
+        if (cacheKeys.isEmpty()) return;
+
+        EXECUTOR_MANAGER.addBackgroundTask(() -> cacheKeys.forEach(this::removeFromDiskCache));
+    }
+
+    /**
+     * Remove previews of the changed file from the memory cache.
+     */
+    @FXThread
+    private void processEvent(@NotNull final FileChangedEvent event) {
+        invalidate(event.getFile());
+    }
+
+    /**
+     * Remove previews of the file or files in the folder from the memory cache.
+     *
+     * @param file the file or the folder.
+     * @return the list of keys of removed previews in the disk cache.
+     */
+    @NotNull
+    @FXThread
+    private Array<String> invalidate(@NotNull final Path file) {
+
+        final Array<String> cacheKeys = ArrayFactory.newArray(String.class);
+        final Iterator<MemoryEntry> iterator = memoryCache.values().iterator();
+
+        while (iterator.hasNext()) {
+
+            final MemoryEntry entry = iterator.next();
+            if (!entry.getFile().startsWith(file)) continue;
+
+            memoryCacheSize -= entry.getSize();
+            cacheKeys.add(entry.getCacheKey());
+            iterator.remove();
+        }
+
+        return cacheKeys;
     }
 
     @Nullable
@@ -314,4 +674,71 @@ public class JavaFXImageManager {
 
         return null;
     }
+
+    /**
+     * The entry of the memory cache.
+     */
+    private static final class MemoryEntry {
+
+        /**
+         * The image file.
+         */
+        @NotNull
+        private final Path file;
+
+        /**
+         * The key of the preview in the disk cache.
+         */
+        @NotNull
+        private final String cacheKey;
+
+        /**
+         * The decoded preview.
+         */
+        @NotNull
+        private final Image image;
+
+        /**
+         * The estimated size of the preview in bytes.
+         */
+        private final long size;
+
+        private MemoryEntry(@NotNull final Path file, @NotNull final String cacheKey, @NotNull final Image image) {
+            this.file = file;
+            this.cacheKey = cacheKey;
+            this.image = image;
+            this.size = (long) image.getWidth() * (long) image.getHeight() * 4;
+        }
+
+        /**
+         * @return the image file.
+         */
+        @NotNull
+        private Path getFile() {
+            return file;
+        }
+
+        /**
+         * @return the key of the preview in the disk cache.
+         */
+        @NotNull
+        private String getCacheKey() {
+            return cacheKey;
+        }
+
+        /**
+         * @return the decoded preview.
+         */
+        @NotNull
+        private Image getImage() {
+            return image;
+        }
+
+        /**
+         * @return the estimated size of the preview in bytes.
+         */
+        private long getSize() {
+            return size;
+        }
+    }
 }
@@ -1,14 +1,11 @@
 package com.ss.editor.manager;
 
 import static com.ss.editor.FileExtensions.*;
-import static com.ss.editor.util.EditorUtil.getAssetFile;
 import static com.ss.editor.util.EditorUtil.getRealFile;
-import static com.ss.editor.util.EditorUtil.toAssetPath;
 import static java.lang.System.currentTimeMillis;
 import static java.nio.file.StandardWatchEventKinds.*;
 import static java.util.Objects.requireNonNull;
 import static rlib.util.ArrayUtils.contains;
-import static rlib.util.ArrayUtils.move;
 import static rlib.util.FileUtils.getFiles;
 import static rlib.util.FileUtils.toUrl;
 import static rlib.util.Util.get;
@@ -20,23 +17,20 @@ import com.jme3.asset.AssetManager;
 import com.ss.editor.Editor;
 import com.ss.editor.EditorThread;
 import com.ss.editor.FileExtensions;
+import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.config.EditorConfig;
+import com.ss.editor.model.asset.AssetIndex;
 import com.ss.editor.ui.event.FXEventManager;
 import com.ss.editor.ui.event.impl.*;
-import com.ss.editor.util.SimpleFileVisitor;
-import com.ss.editor.util.SimpleFolderVisitor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import rlib.classpath.ClassPathScanner;
 import rlib.classpath.ClassPathScannerFactory;
-import rlib.concurrent.util.ThreadUtils;
 import rlib.logging.Logger;
 import rlib.logging.LoggerManager;
-import rlib.manager.InitializeManager;
 import rlib.util.FileUtils;
 import rlib.util.StringUtils;
-import rlib.util.Util;
 import rlib.util.array.Array;
 import rlib.util.array.ArrayComparator;
 import rlib.util.array.ArrayFactory;
@@ -50,8 +44,11 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.*;
 import java.nio.file.attribute.FileTime;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * The class to manage working with resources of an editor.
@@ -72,6 +69,21 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     @NotNull
     private static final ArrayComparator<String> STRING_ARRAY_COMPARATOR = StringUtils::compareIgnoreCase;
 
+    /**
+     * The delay in ms before saving the changed asset index.
+     */
+    private static final long INDEX_SAVE_DELAY = 5000;
+
+    /**
+     * The time in ms to wait for next events to merge them with received events.
+     */
+    private static final long DEBOUNCE_TIME = 20;
+
+    /**
+     * The max time in ms to collect events before handling them.
+     */
+    private static final long MAX_DEBOUNCE_TIME = 200;
+
     @NotNull
     private static final WatchService WATCH_SERVICE;
 
@@ -85,12 +97,18 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     }
 
     @Nullable
-    private static ResourceManager instance;
+    private static volatile ResourceManager instance;
 
     @NotNull
     public static ResourceManager getInstance() {
-        if (instance == null) instance = new ResourceManager();
-        return instance;
+        if (instance == null) {
+            synchronized (ResourceManager.class) {
+                if (instance == null) {
+                    instance = new ResourceManager();
+                }
+            }
+        }
+        return requireNonNull(instance);
     }
 
     /**
@@ -124,16 +142,22 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     private final Array<String> materialDefinitionsInClasspath;
 
     /**
-     * The list of available material definitions in the classpath.
+     * The flag of scheduled saving of the asset index.
      */
     @NotNull
-    private final Array<String> materialDefinitions;
+    private final AtomicBoolean indexSaveScheduled;
 
     /**
-     * The list of keys for watching to folders.
+     * The index of the current asset folder.
+     */
+    @Nullable
+    private volatile AssetIndex assetIndex;
+
+    /**
+     * The table of watched folders by keys for watching to folders.
      */
     @NotNull
-    private final Array<WatchKey> watchKeys;
+    private final ObjectDictionary<WatchKey, Path> watchKeys;
 
     /**
      * The classpath scanner.
@@ -142,32 +166,15 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     private final ClassPathScanner classPathScanner;
 
     public ResourceManager() {
-        InitializeManager.valid(getClass());
-
         this.assetCacheTable = DictionaryFactory.newObjectDictionary();
         this.additionalEnvs = ArrayFactory.newArray(Path.class);
-        this.watchKeys = ArrayFactory.newArray(WatchKey.class);
+        this.watchKeys = DictionaryFactory.newObjectDictionary();
         this.classLoaders = ArrayFactory.newArray(URLClassLoader.class);
         this.resourcesInClasspath = ArrayFactory.newArray(String.class);
         this.materialDefinitionsInClasspath = ArrayFactory.newArray(String.class);
-        this.materialDefinitions = ArrayFactory.newArray(String.class);
+        this.indexSaveScheduled = new AtomicBoolean(false);
 
         classPathScanner = ClassPathScannerFactory.newManifestScanner(Editor.class, "Class-Path");
-        classPathScanner.scanning(path -> {
-
-            if (!(path.contains("jme3-core") || path.contains("jme3-effects") || path.contains("tonegod"))) {
-                return false;
-            } else if (path.contains("natives")) {
-                return false;
-            } else if (path.contains("sources") || path.contains("javadoc")) {
-                return false;
-            }
-
-            return true;
-        });
-
-        classPathScanner.getAllResources(resourcesInClasspath);
-        prepareClasspathResources();
 
         final ExecutorManager executorManager = ExecutorManager.getInstance();
         executorManager.addFXTask(() -> {
@@ -183,10 +190,34 @@ public class ResourceManager extends EditorThread implements AssetEventListener
         assetManager.addAssetEventListener(this);
 
         updateAdditionalEnvs();
-        reload();
         start();
     }
 
+    /**
+     * Scan resources in the classpath and in the current asset folder. It's called once in the background after
+     * showing UI, requests to available resources are waiting for finishing scanning.
+     */
+    @BackgroundThread
+    public synchronized void loadResources() {
+
+        classPathScanner.scanning(path -> {
+
+            if (!(path.contains("jme3-core") || path.contains("jme3-effects") || path.contains("tonegod"))) {
+                return false;
+            } else if (path.contains("natives")) {
+                return false;
+            } else if (path.contains("sources") || path.contains("javadoc")) {
+                return false;
+            }
+
+            return true;
+        });
+
+        classPathScanner.getAllResources(resourcesInClasspath);
+        prepareClasspathResources();
+        reload();
+    }
+
     /**
      * Get a classpath scanner.
      *
@@ -291,13 +322,7 @@ public class ResourceManager extends EditorThread implements AssetEventListener
         final Path file = event.getFile();
         final String extension = FileUtils.getExtension(file);
 
-        final Path assetFile = requireNonNull(getAssetFile(file), "Not found asset file for " + file);
-        final String assetPath = toAssetPath(assetFile);
-
-        if (extension.endsWith(FileExtensions.JME_MATERIAL_DEFINITION)) {
-            final Array<String> materialDefinitions = getMaterialDefinitions();
-            materialDefinitions.fastRemove(assetPath);
-        } else if (extension.endsWith(FileExtensions.JAVA_LIBRARY)) {
+        if (extension.endsWith(FileExtensions.JAVA_LIBRARY)) {
 
             final Editor editor = Editor.getInstance();
             final AssetManager assetManager = editor.getAssetManager();
@@ -353,11 +378,25 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     }
 
     /**
-     * @return the list of available material definitions in the classpath.
+     * @return the index of the current asset folder or null.
      */
-    @NotNull
-    private Array<String> getMaterialDefinitions() {
-        return materialDefinitions;
+    @Nullable
+    @FromAnyThread
+    public AssetIndex getAssetIndex() {
+        return assetIndex;
+    }
+
+    /**
+     * Schedule saving of the asset index, a few changes in a short time are saved once.
+     */
+    @FromAnyThread
+    private void scheduleSaveAssetIndex() {
+        if (!indexSaveScheduled.compareAndSet(false, true)) return;
+        EXECUTOR_MANAGER.schedule(() -> {
+            indexSaveScheduled.set(false);
+            final AssetIndex assetIndex = getAssetIndex();
+            if (assetIndex != null) assetIndex.save();
+        }, INDEX_SAVE_DELAY);
     }
 
     /**
@@ -369,6 +408,26 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     }
 
     /**
+     * Request the list of all available material definitions, the list is built in the background after scanning
+     * resources, so the caller isn't blocked by the scanning.
+     *
+     * @param handler the handler of the list, it's called in the FX thread.
+     */
+    @FromAnyThread
+    public void requestAvailableMaterialDefinitions(@NotNull final Consumer<Array<String>> handler) {
+
+        final Editor editor = Editor.getInstance();
+        final StartupPipeline startupPipeline = editor.getStartupPipeline();
+        startupPipeline.whenFinished(Editor.STAGE_ASSETS).whenCompleteAsync((result, throwable) -> {
+            final Array<String> definitions = getAvailableMaterialDefinitions();
+            EXECUTOR_MANAGER.addFXTask(() -> handler.accept(definitions));
+        }, EXECUTOR_MANAGER::addBackgroundTask);
+    }
+
+    /**
+     * Get the list of all available material definitions, it waits for finishing scanning resources, so it shouldn't
+     * be called in the FX thread, see {@link #requestAvailableMaterialDefinitions(Consumer)}.
+     *
      * @return the list of all available material definitions.
      */
     @NotNull
@@ -376,9 +435,9 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     public synchronized Array<String> getAvailableMaterialDefinitions() {
 
         final Array<String> result = ArrayFactory.newArray(String.class);
-        final Array<String> materialDefinitions = getMaterialDefinitions();
 
-        move(materialDefinitions, result, false);
+        final AssetIndex assetIndex = getAssetIndex();
+        if (assetIndex != null) result.addAll(assetIndex.getAssetPaths(JME_MATERIAL_DEFINITION));
 
         final Array<String> materialDefinitionsInClasspath = getMaterialDefinitionsInClasspath();
         materialDefinitionsInClasspath.forEach(result, (resource, container) -> {
@@ -398,8 +457,8 @@ public class ResourceManager extends EditorThread implements AssetEventListener
         final ObjectDictionary<String, Reference> lastModifyTable = getAssetCacheTable();
         lastModifyTable.clear();
 
-        final Array<WatchKey> watchKeys = getWatchKeys();
-        watchKeys.forEach(WatchKey::cancel);
+        final ObjectDictionary<WatchKey, Path> watchKeys = getWatchKeys();
+        watchKeys.forEach((watchKey, folder) -> watchKey.cancel());
         watchKeys.clear();
 
         final Editor editor = Editor.getInstance();
@@ -409,29 +468,24 @@ public class ResourceManager extends EditorThread implements AssetEventListener
         classLoaders.forEach(assetManager, (loader, manager) -> manager.removeClassLoader(loader));
         classLoaders.clear();
 
-        final Array<String> materialDefinitions = getMaterialDefinitions();
-        materialDefinitions.clear();
-
         final EditorConfig editorConfig = EditorConfig.getInstance();
         final Path currentAsset = editorConfig.getCurrentAsset();
-        if (currentAsset == null) return;
 
-        try {
-            Files.walkFileTree(currentAsset, (SimpleFileVisitor) (file, attrs) -> handleFile(file));
-        } catch (IOException e) {
-            LOGGER.warning(e);
+        if (currentAsset == null) {
+            this.assetIndex = null;
+            return;
         }
 
-        try {
-            watchKeys.add(currentAsset.register(WATCH_SERVICE, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY));
-            Files.walkFileTree(currentAsset, (SimpleFolderVisitor) (file, attrs) -> registerFiles(watchKeys, file));
-        } catch (final IOException e) {
-            LOGGER.warning(e);
-        }
-    }
+        final AssetIndex assetIndex = AssetIndex.load(currentAsset);
+        assetIndex.save();
+
+        this.assetIndex = assetIndex;
 
-    private static void registerFiles(@NotNull final Array<WatchKey> watchKeys, @NotNull final Path file) {
-        watchKeys.add(get(file, toRegister -> toRegister.register(WATCH_SERVICE, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY)));
+        final Array<Path> libraries = assetIndex.getFiles(JAVA_LIBRARY);
+        libraries.forEach(this::handleFile);
+
+        final Array<Path> folders = assetIndex.getFolders();
+        folders.forEach(this::registerWatchKey);
     }
 
     /**
@@ -443,11 +497,7 @@ public class ResourceManager extends EditorThread implements AssetEventListener
 
         final String extension = FileUtils.getExtension(file);
 
-        if (extension.endsWith(FileExtensions.JME_MATERIAL_DEFINITION)) {
-            final Path assetFile = requireNonNull(getAssetFile(file), "Not found asset file for " + file);
-            final Array<String> materialDefinitions = getMaterialDefinitions();
-            materialDefinitions.add(toAssetPath(assetFile));
-        } else if (extension.endsWith(FileExtensions.JAVA_LIBRARY)) {
+        if (extension.endsWith(FileExtensions.JAVA_LIBRARY)) {
 
             final Editor editor = Editor.getInstance();
             final AssetManager assetManager = editor.getAssetManager();
@@ -468,106 +518,306 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     public void run() {
         super.run();
 
-        while (true) {
-            ThreadUtils.sleep(200);
+        final Map<Path, WatchEvent.Kind<?>> events = new LinkedHashMap<>();
+        final Array<Path> overflowFolders = ArrayFactory.newArray(Path.class);
+
+        while (!Thread.currentThread().isInterrupted()) {
 
-            final Array<WatchKey> watchKeys = getWatchKeys();
+            WatchKey watchKey;
 
-            List<WatchEvent<?>> watchEvents = null;
-            WatchKey watchKey = null;
+            try {
+                watchKey = WATCH_SERVICE.take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
 
-            synchronized (this) {
-                for (final WatchKey key : watchKeys) {
-                    watchKey = key;
-                    watchEvents = key.pollEvents();
-                    if (!watchEvents.isEmpty()) break;
+            // collect events which come during the debounce time to handle duplicates only once
+            final long startTime = currentTimeMillis();
+
+            while (watchKey != null) {
+
+                collectEvents(watchKey, events, overflowFolders);
+
+                if (currentTimeMillis() - startTime > MAX_DEBOUNCE_TIME) break;
+
+                try {
+                    watchKey = WATCH_SERVICE.poll(DEBOUNCE_TIME, TimeUnit.MILLISECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
                 }
             }
 
-            if (watchEvents == null || watchEvents.isEmpty()) continue;
+            // the collected events are handled first, so rescanning reports only lost changes
+            events.forEach(this::handleWatchEvent);
+            events.clear();
 
-            for (final WatchEvent<?> watchEvent : watchEvents) {
+            overflowFolders.forEach(this::rescan);
+            overflowFolders.clear();
+        }
+    }
 
-                final Path file = (Path) watchEvent.context();
-                final Path folder = (Path) watchKey.watchable();
-                final Path realFile = folder.resolve(file);
+    /**
+     * Collect events of the watch key and merge them with previous events of the same files.
+     *
+     * @param watchKey        the watch key.
+     * @param events          the table of collected events.
+     * @param overflowFolders the list of folders which lost some events.
+     */
+    private void collectEvents(@NotNull final WatchKey watchKey, @NotNull final Map<Path, WatchEvent.Kind<?>> events,
+                               @NotNull final Array<Path> overflowFolders) {
 
-                if (watchEvent.kind() == ENTRY_CREATE) {
+        final Path folder = findWatchedFolder(watchKey);
 
-                    final boolean directory = Files.isDirectory(realFile);
+        if (folder == null) {
+            watchKey.cancel();
+            return;
+        }
 
-                    final CreatedFileEvent event = new CreatedFileEvent();
-                    event.setFile(realFile);
-                    event.setNeedSelect(false);
-                    event.setDirectory(directory);
+        for (final WatchEvent<?> watchEvent : watchKey.pollEvents()) {
 
-                    if (directory) {
-                        registerWatchKey(realFile);
-                    }
+            final WatchEvent.Kind<?> kind = watchEvent.kind();
 
-                    FX_EVENT_MANAGER.notify(event);
+            if (kind == OVERFLOW) {
+                if (!overflowFolders.contains(folder)) overflowFolders.add(folder);
+                continue;
+            }
 
-                } else if (watchEvent.kind() == ENTRY_DELETE) {
+            final Path realFile = folder.resolve((Path) watchEvent.context());
+            final WatchEvent.Kind<?> result = mergeEvents(events.remove(realFile), kind);
 
-                    final boolean directory = Files.isDirectory(realFile);
+            if (result != null) {
+                events.put(realFile, result);
+            }
+        }
 
-                    final DeletedFileEvent event = new DeletedFileEvent();
-                    event.setFile(realFile);
-                    event.setDirectory(directory);
+        if (!watchKey.reset()) {
+            removeWatchKey(watchKey);
+        }
+    }
 
-                    removeWatchKeyFor(realFile);
+    /**
+     * Merge a new event of a file with a previous event of the same file.
+     *
+     * @param prev the previous kind of the event or null.
+     * @param next the new kind of the event.
+     * @return the result kind or null if nothing is changed.
+     */
+    @Nullable
+    private static WatchEvent.Kind<?> mergeEvents(@Nullable final WatchEvent.Kind<?> prev,
+                                                  @NotNull final WatchEvent.Kind<?> next) {
+
+        if (prev == null) {
+            return next;
+        } else if (prev == ENTRY_CREATE && next == ENTRY_MODIFY) {
+            return ENTRY_CREATE;
+        } else if (prev == ENTRY_CREATE && next == ENTRY_DELETE) {
+            return null;
+        } else if (prev == ENTRY_DELETE && next == ENTRY_CREATE) {
+            return ENTRY_MODIFY;
+        }
 
-                    FX_EVENT_MANAGER.notify(event);
+        return next;
+    }
 
-                } else if (watchEvent.kind() == ENTRY_MODIFY) {
+    /**
+     * Handle a merged event of the file.
+     *
+     * @param file the file.
+     * @param kind the kind of the event.
+     */
+    private void handleWatchEvent(@NotNull final Path file, @NotNull final WatchEvent.Kind<?> kind) {
 
-                    final FileChangedEvent event = new FileChangedEvent();
-                    event.setFile(realFile);
+        if (kind == ENTRY_CREATE && Files.isDirectory(file)) {
+            handleCreatedFolder(file);
+            return;
+        }
 
-                    FX_EVENT_MANAGER.notify(event);
-                }
-            }
+        updateAssetIndex(kind, file);
+
+        if (kind == ENTRY_CREATE) {
+            notifyCreated(file, false);
+        } else if (kind == ENTRY_DELETE) {
+            removeWatchKeysFor(file);
+            notifyDeleted(file, false);
+        } else if (kind == ENTRY_MODIFY) {
+            notifyChanged(file);
+        }
+    }
+
+    /**
+     * Handle a created folder. The folder is watched before indexing, so its content which is created later comes by
+     * events, and the content which was created before watching is found by indexing and announced here.
+     *
+     * @param folder the folder.
+     */
+    private void handleCreatedFolder(@NotNull final Path folder) {
+
+        registerWatchKey(folder);
+        updateAssetIndex(ENTRY_CREATE, folder);
+        registerWatchKeys(folder);
+
+        notifyCreated(folder, true);
+
+        final AssetIndex assetIndex = getAssetIndex();
+        if (assetIndex == null) return;
+
+        final Array<Path> content = assetIndex.getContent(folder);
+        content.forEach(file -> notifyCreated(file, Files.isDirectory(file)));
+    }
+
+    /**
+     * Index the folder again after losing some its events and notify about found changes.
+     *
+     * @param folder the folder.
+     */
+    private void rescan(@NotNull final Path folder) {
+
+        final AssetIndex assetIndex = getAssetIndex();
+        if (assetIndex == null) return;
+
+        final Array<Path> created = ArrayFactory.newArray(Path.class);
+        final Array<Path> deleted = ArrayFactory.newArray(Path.class);
+        final Array<Path> changed = ArrayFactory.newArray(Path.class);
+
+        assetIndex.rescan(folder, created, deleted, changed);
+        scheduleSaveAssetIndex();
+
+        registerWatchKeys(folder);
+
+        deleted.forEach(file -> {
+            removeWatchKeysFor(file);
+            notifyDeleted(file, false);
+        });
+
+        created.forEach(file -> notifyCreated(file, Files.isDirectory(file)));
+        changed.forEach(this::notifyChanged);
+    }
+
+    private void notifyCreated(@NotNull final Path file, final boolean directory) {
+
+        final CreatedFileEvent event = new CreatedFileEvent();
+        event.setFile(file);
+        event.setNeedSelect(false);
+        event.setDirectory(directory);
+
+        FX_EVENT_MANAGER.notify(event);
+    }
+
+    private void notifyDeleted(@NotNull final Path file, final boolean directory) {
+
+        final DeletedFileEvent event = new DeletedFileEvent();
+        event.setFile(file);
+        event.setDirectory(directory);
+
+        FX_EVENT_MANAGER.notify(event);
+    }
+
+    private void notifyChanged(@NotNull final Path file) {
+
+        final FileChangedEvent event = new FileChangedEvent();
+        event.setFile(file);
+
+        FX_EVENT_MANAGER.notify(event);
+    }
+
+    /**
+     * Update the asset index by the event of the file.
+     *
+     * @param kind the kind of the event.
+     * @param file the file.
+     */
+    @FromAnyThread
+    private void updateAssetIndex(@NotNull final WatchEvent.Kind<?> kind, @NotNull final Path file) {
+
+        final AssetIndex assetIndex = getAssetIndex();
+        if (assetIndex == null) return;
+
+        if (kind == ENTRY_DELETE) {
+            assetIndex.notifyDeleted(file);
+        } else {
+            assetIndex.notifyChanged(file);
         }
+
+        scheduleSaveAssetIndex();
     }
 
     /**
-     * Find a watch key for the file.
+     * Find a watched folder of the watch key.
      *
-     * @param path the file.
-     * @return the watch key or null.
+     * @param watchKey the watch key.
+     * @return the folder or null.
      */
     @Nullable
     @FromAnyThread
-    private synchronized WatchKey findWatchKey(@NotNull final Path path) {
-        final Array<WatchKey> watchKeys = getWatchKeys();
-        return watchKeys.search(path, (watchKey, toCheck) -> watchKey.watchable().equals(toCheck));
+    private synchronized Path findWatchedFolder(@NotNull final WatchKey watchKey) {
+        return getWatchKeys().get(watchKey);
     }
 
     /**
-     * Remove a watch key for the file.
+     * Remove the invalid watch key.
      *
-     * @param path the file.
+     * @param watchKey the watch key.
      */
     @FromAnyThread
-    private synchronized void removeWatchKeyFor(@NotNull final Path path) {
+    private synchronized void removeWatchKey(@NotNull final WatchKey watchKey) {
+        getWatchKeys().remove(watchKey);
+    }
+
+    /**
+     * Remove watch keys for the folder and all its subfolders.
+     *
+     * @param path the folder.
+     */
+    @FromAnyThread
+    private synchronized void removeWatchKeysFor(@NotNull final Path path) {
+
+        final ObjectDictionary<WatchKey, Path> watchKeys = getWatchKeys();
+        final Array<WatchKey> toRemove = ArrayFactory.newArray(WatchKey.class);
+
+        watchKeys.forEach((watchKey, folder) -> {
+            if (folder.startsWith(path)) toRemove.add(watchKey);
+        });
+
+        toRemove.forEach(watchKey -> {
+            watchKeys.remove(watchKey);
+            watchKey.cancel();
+        });
+    }
 
-        final WatchKey watchKey = findWatchKey(path);
-        if (watchKey == null) return;
+    /**
+     * Register watch keys for the new folder and all its subfolders.
+     *
+     * @param path the folder.
+     */
+    @FromAnyThread
+    private void registerWatchKeys(@NotNull final Path path) {
 
-        final Array<WatchKey> watchKeys = getWatchKeys();
-        watchKeys.fastRemove(watchKey);
+        final AssetIndex assetIndex = getAssetIndex();
 
-        watchKey.cancel();
+        if (assetIndex == null) {
+            registerWatchKey(path);
+            return;
+        }
+
+        final Array<Path> folders = assetIndex.getFolders(path);
+        folders.forEach(this::registerWatchKey);
     }
 
     /**
-     * Register a watch key for the file.
+     * Register a watch key for the folder.
      *
-     * @param path the file.
+     * @param path the folder.
      */
     @FromAnyThread
     private synchronized void registerWatchKey(@NotNull final Path path) {
-        Util.run(() -> getWatchKeys().add(path.register(WATCH_SERVICE, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY)));
+        try {
+            final WatchKey watchKey = path.register(WATCH_SERVICE, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+            getWatchKeys().put(watchKey, path);
+        } catch (final IOException e) {
+            LOGGER.warning(e);
+        }
     }
 
     /**
@@ -585,10 +835,10 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     }
 
     /**
-     * @return the list of keys for watching to folders.
+     * @return the table of watched folders by keys for watching to folders.
      */
     @NotNull
-    private Array<WatchKey> getWatchKeys() {
+    private ObjectDictionary<WatchKey, Path> getWatchKeys() {
         return watchKeys;
     }
 }
@@ -0,0 +1,299 @@
+package com.ss.editor.manager;
+
+import com.ss.editor.annotation.FromAnyThread;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import rlib.logging.Logger;
+import rlib.logging.LoggerManager;
+import rlib.util.array.Array;
+import rlib.util.array.ArrayFactory;
+import rlib.util.dictionary.DictionaryFactory;
+import rlib.util.dictionary.ObjectDictionary;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The pipeline of initialization stages of the editor. Every stage starts in the background when all stages which
+ * it depends on are finished, so independent stages are run in parallel. A gate is a stage without a task which is
+ * finished by an external event, for example, by showing the first frame of UI. Time of every stage is logged and a
+ * total report is logged when all stages are finished.
+ *
+ * @author JavaSaBr
+ */
+public class StartupPipeline {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(StartupPipeline.class);
+
+    @NotNull
+    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
+    /**
+     * The stage of the pipeline.
+     */
+    private static final class Stage {
+
+        /**
+         * The name of this stage.
+         */
+        @NotNull
+        private final String name;
+
+        /**
+         * The task of this stage or null if this stage is a gate.
+         */
+        @Nullable
+        private final Runnable task;
+
+        /**
+         * The names of stages which this stage depends on.
+         */
+        @NotNull
+        private final String[] dependencies;
+
+        /**
+         * The future of finishing this stage.
+         */
+        @NotNull
+        private final CompletableFuture<Void> future;
+
+        /**
+         * The time of starting this stage in nanoseconds since starting the pipeline.
+         */
+        private volatile long startTime;
+
+        /**
+         * The time of finishing this stage in nanoseconds since starting the pipeline.
+         */
+        private volatile long endTime;
+
+        private Stage(@NotNull final String name, @Nullable final Runnable task,
+                      @NotNull final String[] dependencies) {
+            this.name = name;
+            this.task = task;
+            this.dependencies = dependencies;
+            this.future = new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * The table of stages by names.
+     */
+    @NotNull
+    private final ObjectDictionary<String, Stage> stages;
+
+    /**
+     * The stages in order of registration.
+     */
+    @NotNull
+    private final Array<Stage> order;
+
+    /**
+     * The time of starting this pipeline in nanoseconds.
+     */
+    private volatile long startTime;
+
+    public StartupPipeline() {
+        this.stages = DictionaryFactory.newObjectDictionary();
+        this.order = ArrayFactory.newArray(Stage.class);
+    }
+
+    /**
+     * Register a new stage.
+     *
+     * @param name         the name of the stage.
+     * @param task         the task of the stage.
+     * @param dependencies the names of stages which the stage depends on.
+     * @return this pipeline.
+     */
+    @NotNull
+    @FromAnyThread
+    public synchronized StartupPipeline stage(@NotNull final String name, @NotNull final Runnable task,
+                                              @NotNull final String... dependencies) {
+        register(new Stage(name, task, dependencies));
+        return this;
+    }
+
+    /**
+     * Register a new gate, the gate is finished by calling {@link #open(String)}.
+     *
+     * @param name the name of the gate.
+     * @return this pipeline.
+     */
+    @NotNull
+    @FromAnyThread
+    public synchronized StartupPipeline gate(@NotNull final String name) {
+        register(new Stage(name, null, new String[0]));
+        return this;
+    }
+
+    private void register(@NotNull final Stage stage) {
+
+        if (stages.containsKey(stage.name)) {
+            throw new IllegalArgumentException("The stage " + stage.name + " is already registered.");
+        }
+
+        for (final String dependency : stage.dependencies) {
+            if (!stages.containsKey(dependency)) {
+                throw new IllegalArgumentException("The stage " + stage.name + " depends on unknown stage " +
+                        dependency + ".");
+            }
+        }
+
+        stages.put(stage.name, stage);
+        order.add(stage);
+    }
+
+    /**
+     * Start all registered stages.
+     */
+    @FromAnyThread
+    public synchronized void start() {
+        startTime = System.nanoTime();
+
+        for (final Stage stage : order) {
+
+            final Runnable task = stage.task;
+            if (task == null) continue;
+
+            final CompletableFuture<?>[] dependencies = new CompletableFuture<?>[stage.dependencies.length];
+
+            for (int i = 0; i < dependencies.length; i++) {
+                dependencies[i] = getStage(stage.dependencies[i]).future;
+            }
+
+            CompletableFuture.allOf(dependencies)
+                    .thenRunAsync(() -> run(stage, task), EXECUTOR_MANAGER::addBackgroundTask)
+                    .exceptionally(throwable -> fail(stage, throwable));
+        }
+
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[order.size()];
+
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = order.get(i).future;
+        }
+
+        CompletableFuture.allOf(futures).whenComplete((result, throwable) -> report());
+    }
+
+    /**
+     * Finish a gate.
+     *
+     * @param name the name of the gate.
+     */
+    @FromAnyThread
+    public void open(@NotNull final String name) {
+
+        final Stage stage = getStage(name);
+        if (stage.future.isDone()) return;
+
+        stage.startTime = stage.endTime = System.nanoTime() - startTime;
+        stage.future.complete(null);
+
+        LOGGER.info(this, "the gate \"" + name + "\" was opened in " + toMillis(stage.endTime) + " ms.");
+    }
+
+    /**
+     * Wait for finishing a stage.
+     *
+     * @param name the name of the stage.
+     */
+    @FromAnyThread
+    public void await(@NotNull final String name) {
+
+        final Stage stage = getStage(name);
+        final long start = System.nanoTime();
+
+        try {
+            stage.future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (final ExecutionException e) {
+            throw new RuntimeException("The stage \"" + name + "\" was failed.", e.getCause());
+        }
+
+        final long waited = System.nanoTime() - start;
+
+        if (waited > TimeUnit.MILLISECONDS.toNanos(1)) {
+            LOGGER.info(this, Thread.currentThread().getName() + " was waiting for the stage \"" + name +
+                    "\" for " + toMillis(waited) + " ms.");
+        }
+    }
+
+    /**
+     * Get a future of finishing a stage to run something after the stage without blocking the current thread.
+     *
+     * @param name the name of the stage.
+     * @return the future of finishing the stage.
+     */
+    @NotNull
+    @FromAnyThread
+    public CompletableFuture<Void> whenFinished(@NotNull final String name) {
+        return getStage(name).future.thenRun(() -> {});
+    }
+
+    @NotNull
+    private synchronized Stage getStage(@NotNull final String name) {
+
+        final Stage stage = stages.get(name);
+
+        if (stage == null) {
+            throw new IllegalArgumentException("Not found the stage " + name);
+        }
+
+        return stage;
+    }
+
+    /**
+     * Run the task of the stage.
+     */
+    private void run(@NotNull final Stage stage, @NotNull final Runnable task) {
+        stage.startTime = System.nanoTime() - startTime;
+        try {
+            task.run();
+        } catch (final RuntimeException | Error e) {
+            stage.future.completeExceptionally(e);
+            throw e;
+        }
+        stage.endTime = System.nanoTime() - startTime;
+        stage.future.complete(null);
+
+        LOGGER.info(this, "the stage \"" + stage.name + "\" took " + toMillis(stage.endTime - stage.startTime) +
+                " ms.");
+    }
+
+    /**
+     * Handle a failed stage.
+     */
+    @Nullable
+    private Void fail(@NotNull final Stage stage, @NotNull final Throwable throwable) {
+        stage.future.completeExceptionally(throwable);
+        LOGGER.warning(this, "the stage \"" + stage.name + "\" was failed.");
+        LOGGER.warning(this, throwable);
+        return null;
+    }
+
+    /**
+     * Log the report of timings of all stages.
+     */
+    private synchronized void report() {
+
+        final StringBuilder builder = new StringBuilder("startup report:\n");
+
+        for (final Stage stage : order) {
+            builder.append(String.format("  %-20s start %6d ms, end %6d ms, took %6d ms%n", stage.name,
+                    toMillis(stage.startTime), toMillis(stage.endTime), toMillis(stage.endTime - stage.startTime)));
+        }
+
+        builder.append("  total ").append(toMillis(System.nanoTime() - startTime)).append(" ms");
+
+        LOGGER.info(this, builder.toString());
+    }
+
+    private static long toMillis(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
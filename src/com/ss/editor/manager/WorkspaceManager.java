@@ -11,10 +11,10 @@ import com.ss.editor.util.EditorUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
-import rlib.manager.InitializeManager;
 import rlib.util.dictionary.DictionaryFactory;
 import rlib.util.dictionary.ObjectDictionary;
 
@@ -29,12 +29,18 @@ public class WorkspaceManager {
     public static final String FILE_WORKSPACE = "workspace";
 
     @Nullable
-    private static WorkspaceManager instance;
+    private static volatile WorkspaceManager instance;
 
     @NotNull
     public static WorkspaceManager getInstance() {
-        if (instance == null) instance = new WorkspaceManager();
-        return instance;
+        if (instance == null) {
+            synchronized (WorkspaceManager.class) {
+                if (instance == null) {
+                    instance = new WorkspaceManager();
+                }
+            }
+        }
+        return requireNonNull(instance);
     }
 
     /**
@@ -44,7 +50,6 @@ public class WorkspaceManager {
     private final ObjectDictionary<Path, Workspace> workspaces;
 
     private WorkspaceManager() {
-        InitializeManager.valid(getClass());
         this.workspaces = DictionaryFactory.newObjectDictionary();
     }
 
@@ -100,8 +105,16 @@ public class WorkspaceManager {
         Workspace workspace;
 
         try {
-            workspace = EditorUtil.deserialize(requireNonNull(get(workspaceFile, Files::readAllBytes)));
-        } catch (final RuntimeException e) {
+
+            final byte[] content = requireNonNull(get(workspaceFile, Files::readAllBytes));
+
+            if (Workspace.isCompactFormat(content)) {
+                workspace = Workspace.read(content);
+            } else {
+                workspace = EditorUtil.deserialize(content);
+            }
+
+        } catch (final RuntimeException | IOException e) {
             workspace = new Workspace();
         }
 
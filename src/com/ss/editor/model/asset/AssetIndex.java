@@ -0,0 +1,710 @@
+package com.ss.editor.model.asset;
+
+import static com.ss.editor.util.EditorUtil.toAssetPath;
+
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.manager.WorkspaceManager;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import rlib.logging.Logger;
+import rlib.logging.LoggerManager;
+import rlib.util.FileUtils;
+import rlib.util.StringUtils;
+import rlib.util.array.Array;
+import rlib.util.array.ArrayFactory;
+
+/**
+ * The persistent index of files of an asset folder. The index is stored in the editor folder of the asset folder and
+ * is validated on loading by comparing modification times of folders, so only changed folders are listed again.
+ * Direct children of every folder are tracked, so operations with a folder visit only its content. Counts of files by
+ * extensions are kept for the whole content of every folder to check a folder for files of some types at once.
+ *
+ * @author JavaSaBr
+ */
+public class AssetIndex {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(AssetIndex.class);
+
+    public static final String FILE_ASSET_INDEX = "asset-index";
+
+    private static final int MAGIC = 0x53534149;
+    private static final int VERSION = 1;
+
+    private static final byte TYPE_FILE = 0;
+    private static final byte TYPE_FOLDER = 1;
+
+    /**
+     * Load an index of the asset folder or create a new one if the index doesn't exist or is broken.
+     *
+     * @param assetFolder the asset folder.
+     * @return the validated index.
+     */
+    @NotNull
+    @FromAnyThread
+    public static AssetIndex load(@NotNull final Path assetFolder) {
+
+        final AssetIndex index = new AssetIndex(assetFolder);
+        final Path indexFile = index.getIndexFile();
+
+        if (Files.exists(indexFile)) {
+            try {
+                index.read(indexFile);
+            } catch (final IOException | RuntimeException e) {
+                LOGGER.warning("can't read the asset index " + indexFile + ", it will be rebuilt.");
+                index.entries.clear();
+                index.children.clear();
+                index.extensionCounts.clear();
+            }
+        }
+
+        if (index.entries.isEmpty()) {
+            index.rebuild();
+        } else {
+            index.validate();
+        }
+
+        return index;
+    }
+
+    /**
+     * The asset folder.
+     */
+    @NotNull
+    private final Path assetFolder;
+
+    /**
+     * The table of entries by asset paths.
+     */
+    @NotNull
+    private final Map<String, Entry> entries;
+
+    /**
+     * The table of asset paths of direct children by asset paths of folders.
+     */
+    @NotNull
+    private final Map<String, Set<String>> children;
+
+    /**
+     * The table of counts of files by extensions in the whole content of folders by asset paths of folders.
+     */
+    @NotNull
+    private final Map<String, Map<String, Integer>> extensionCounts;
+
+    /**
+     * True if this index has unsaved changes.
+     */
+    private boolean dirty;
+
+    private AssetIndex(@NotNull final Path assetFolder) {
+        this.assetFolder = assetFolder;
+        this.entries = new HashMap<>();
+        this.children = new HashMap<>();
+        this.extensionCounts = new HashMap<>();
+    }
+
+    /**
+     * @return the asset folder.
+     */
+    @NotNull
+    public Path getAssetFolder() {
+        return assetFolder;
+    }
+
+    /**
+     * @return the file to store this index.
+     */
+    @NotNull
+    private Path getIndexFile() {
+        return assetFolder.resolve(WorkspaceManager.FOLDER_EDITOR).resolve(FILE_ASSET_INDEX);
+    }
+
+    /**
+     * Get asset paths of all indexed files with the extension.
+     *
+     * @param extension the extension.
+     * @return the list of asset paths.
+     */
+    @NotNull
+    @FromAnyThread
+    public synchronized Array<String> getAssetPaths(@NotNull final String extension) {
+
+        final Array<String> result = ArrayFactory.newArray(String.class);
+
+        entries.forEach((assetPath, entry) -> {
+            if (entry.type == TYPE_FILE && extension.equals(FileUtils.getExtension(assetPath))) {
+                result.add(assetPath);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Get all indexed files with the extension.
+     *
+     * @param extension the extension.
+     * @return the list of files.
+     */
+    @NotNull
+    @FromAnyThread
+    public synchronized Array<Path> getFiles(@NotNull final String extension) {
+        final Array<Path> result = ArrayFactory.newArray(Path.class);
+        getAssetPaths(extension).forEach(assetPath -> result.add(toFile(assetPath)));
+        return result;
+    }
+
+    /**
+     * @return the list of all indexed folders including the asset folder.
+     */
+    @NotNull
+    @FromAnyThread
+    public synchronized Array<Path> getFolders() {
+
+        final Array<Path> result = ArrayFactory.newArray(Path.class);
+
+        entries.forEach((assetPath, entry) -> {
+            if (entry.type == TYPE_FOLDER) result.add(toFile(assetPath));
+        });
+
+        return result;
+    }
+
+    /**
+     * Check existing the file in this index.
+     *
+     * @param file the file.
+     * @return true if the file is indexed.
+     */
+    @FromAnyThread
+    public synchronized boolean contains(@NotNull final Path file) {
+        return entries.containsKey(toKey(file));
+    }
+
+    /**
+     * Check existing files with any of the extensions in the whole content of the folder.
+     *
+     * @param folder     the indexed folder.
+     * @param extensions the extensions.
+     * @return true if the folder contains a file with any of the extensions.
+     */
+    @FromAnyThread
+    public synchronized boolean containsExtensions(@NotNull final Path folder,
+                                                   @NotNull final Array<String> extensions) {
+        if (!folder.startsWith(assetFolder)) return false;
+
+        final Map<String, Integer> counts = extensionCounts.get(toKey(folder));
+        if (counts == null) return false;
+
+        for (final String extension : extensions) {
+            if (counts.containsKey(extension)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Handle a created or modified file, created folders are indexed with their content.
+     *
+     * @param file the file.
+     */
+    @FromAnyThread
+    public synchronized void notifyChanged(@NotNull final Path file) {
+        if (!file.startsWith(assetFolder) || isHidden(file)) return;
+
+        final BasicFileAttributes attrs = readAttributes(file);
+
+        if (attrs == null) {
+            notifyDeleted(file);
+        } else if (attrs.isDirectory() && entries.containsKey(toKey(file))) {
+            relist(file, attrs);
+        } else if (attrs.isDirectory()) {
+            index(file);
+        } else {
+            put(file, attrs);
+        }
+    }
+
+    /**
+     * Handle a deleted file, deleted folders are removed with their content.
+     *
+     * @param file the file.
+     */
+    @FromAnyThread
+    public synchronized void notifyDeleted(@NotNull final Path file) {
+        if (!file.startsWith(assetFolder)) return;
+        remove(toKey(file));
+    }
+
+    /**
+     * Index the folder again, it's used when some events of the folder could be lost.
+     *
+     * @param folder  the folder.
+     * @param created the container of created files.
+     * @param deleted the container of deleted files.
+     * @param changed the container of changed files.
+     */
+    @FromAnyThread
+    public synchronized void rescan(@NotNull final Path folder, @NotNull final Array<Path> created,
+                                    @NotNull final Array<Path> deleted, @NotNull final Array<Path> changed) {
+        if (!folder.startsWith(assetFolder)) return;
+
+        final String folderKey = toKey(folder);
+        final Map<String, Entry> before = new HashMap<>();
+
+        forEachInFolder(folderKey, assetPath -> before.put(assetPath, entries.get(assetPath)));
+
+        remove(folderKey);
+        index(folder);
+
+        forEachInFolder(folderKey, assetPath -> {
+
+            final Entry entry = entries.get(assetPath);
+            final Entry prev = before.remove(assetPath);
+
+            if (prev == null) {
+                created.add(toFile(assetPath));
+            } else if (entry.type == TYPE_FILE && (prev.size != entry.size || prev.lastModified != entry.lastModified)) {
+                changed.add(toFile(assetPath));
+            }
+        });
+
+        before.keySet().forEach(assetPath -> deleted.add(toFile(assetPath)));
+    }
+
+    /**
+     * Get all indexed folders in the folder including the folder.
+     *
+     * @param folder the folder.
+     * @return the list of folders.
+     */
+    @NotNull
+    @FromAnyThread
+    public synchronized Array<Path> getFolders(@NotNull final Path folder) {
+
+        final Array<Path> result = ArrayFactory.newArray(Path.class);
+        if (!folder.startsWith(assetFolder)) return result;
+
+        final String folderKey = toKey(folder);
+        final Entry folderEntry = entries.get(folderKey);
+        if (folderEntry == null || folderEntry.type != TYPE_FOLDER) return result;
+
+        result.add(toFile(folderKey));
+
+        forEachInFolder(folderKey, assetPath -> {
+            if (entries.get(assetPath).type == TYPE_FOLDER) result.add(toFile(assetPath));
+        });
+
+        return result;
+    }
+
+    /**
+     * Get all indexed files and folders in the folder, a folder goes before its content.
+     *
+     * @param folder the folder.
+     * @return the list of files and folders.
+     */
+    @NotNull
+    @FromAnyThread
+    public synchronized Array<Path> getContent(@NotNull final Path folder) {
+
+        final Array<Path> result = ArrayFactory.newArray(Path.class);
+        if (!folder.startsWith(assetFolder)) return result;
+
+        forEachInFolder(toKey(folder), assetPath -> result.add(toFile(assetPath)));
+
+        return result;
+    }
+
+    /**
+     * Rebuild this index from scratch.
+     */
+    @FromAnyThread
+    public synchronized void rebuild() {
+        entries.clear();
+        children.clear();
+        extensionCounts.clear();
+        index(assetFolder);
+    }
+
+    /**
+     * Validate this index by comparing modification times of indexed folders and files with the file system.
+     */
+    private void validate() {
+
+        final Array<String> folders = ArrayFactory.newArray(String.class);
+        final Array<String> files = ArrayFactory.newArray(String.class);
+
+        entries.forEach((assetPath, entry) -> {
+            if (entry.type == TYPE_FOLDER) {
+                folders.add(assetPath);
+            } else {
+                files.add(assetPath);
+            }
+        });
+
+        // the content of a folder is listed again only if the folder was changed
+        for (final String assetPath : folders) {
+
+            final Entry entry = entries.get(assetPath);
+            if (entry == null) continue;
+
+            final Path folder = toFile(assetPath);
+            final BasicFileAttributes attrs = readAttributes(folder);
+
+            if (attrs == null || !attrs.isDirectory()) {
+                remove(assetPath);
+            } else if (attrs.lastModifiedTime().toMillis() != entry.lastModified) {
+                relist(folder, attrs);
+            }
+        }
+
+        // modifying content of a file doesn't change its folder
+        for (final String assetPath : files) {
+
+            final Entry entry = entries.get(assetPath);
+            if (entry == null) continue;
+
+            final Path file = toFile(assetPath);
+            final BasicFileAttributes attrs = readAttributes(file);
+
+            if (attrs == null || attrs.isDirectory()) {
+                remove(assetPath);
+                if (attrs != null) index(file);
+            } else if (attrs.lastModifiedTime().toMillis() != entry.lastModified || attrs.size() != entry.size) {
+                put(file, attrs);
+            }
+        }
+    }
+
+    /**
+     * Update direct children of the changed folder.
+     */
+    private void relist(@NotNull final Path folder, @NotNull final BasicFileAttributes folderAttrs) {
+
+        final String folderKey = toKey(folder);
+        final Array<String> toRemove = ArrayFactory.newArray(String.class);
+        final Set<String> folderChildren = children.get(folderKey);
+
+        if (folderChildren != null) {
+            folderChildren.forEach(toRemove::add);
+        }
+
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(folder)) {
+            for (final Path child : stream) {
+
+                if (isHidden(child)) continue;
+
+                final String childKey = toKey(child);
+                toRemove.fastRemove(childKey);
+
+                if (entries.containsKey(childKey)) continue;
+
+                final BasicFileAttributes attrs = readAttributes(child);
+                if (attrs == null) continue;
+
+                if (attrs.isDirectory()) {
+                    index(child);
+                } else {
+                    put(child, attrs);
+                }
+            }
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+        }
+
+        toRemove.forEach(this::remove);
+        put(folder, folderAttrs);
+    }
+
+    /**
+     * Index the file or the folder with all its content.
+     */
+    private void index(@NotNull final Path file) {
+        try {
+            Files.walkFileTree(file, new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+                    if (isHidden(dir)) return FileVisitResult.SKIP_SUBTREE;
+                    put(dir, attrs);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(final Path child, final BasicFileAttributes attrs) {
+                    if (!isHidden(child)) put(child, attrs);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(final Path child, final IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+        }
+    }
+
+    private void put(@NotNull final Path file, @NotNull final BasicFileAttributes attrs) {
+        final byte type = attrs.isDirectory() ? TYPE_FOLDER : TYPE_FILE;
+        final String assetPath = toKey(file);
+        final Entry prev = entries.put(assetPath, new Entry(type, attrs.size(), attrs.lastModifiedTime().toMillis()));
+        link(assetPath);
+        dirty = true;
+
+        final boolean wasFile = prev != null && prev.type == TYPE_FILE;
+
+        if (type == TYPE_FILE && !wasFile) {
+            count(assetPath, 1);
+        } else if (type != TYPE_FILE && wasFile) {
+            count(assetPath, -1);
+        }
+    }
+
+    private void remove(@NotNull final String assetPath) {
+
+        final Entry entry = entries.remove(assetPath);
+        if (entry == null) return;
+
+        dirty = true;
+
+        if (entry.type == TYPE_FILE) {
+            count(assetPath, -1);
+        }
+
+        if (!assetPath.isEmpty()) {
+            final Set<String> siblings = children.get(getParentKey(assetPath));
+            if (siblings != null) siblings.remove(assetPath);
+        }
+
+        if (entry.type == TYPE_FOLDER) {
+            removeContent(assetPath);
+        }
+    }
+
+    /**
+     * Remove all content of the folder.
+     */
+    private void removeContent(@NotNull final String folderKey) {
+
+        final Set<String> folderChildren = children.remove(folderKey);
+        if (folderChildren == null) return;
+
+        for (final String child : folderChildren) {
+
+            final Entry entry = entries.remove(child);
+
+            if (entry != null && entry.type == TYPE_FILE) {
+                count(child, -1);
+            }
+
+            removeContent(child);
+        }
+    }
+
+    /**
+     * Change the count of files with the extension of the file in all folders which contain the file.
+     */
+    private void count(@NotNull final String assetPath, final int delta) {
+
+        final String extension = FileUtils.getExtension(assetPath.substring(assetPath.lastIndexOf('/') + 1));
+
+        String folderKey = assetPath;
+
+        do {
+
+            folderKey = getParentKey(folderKey);
+
+            final Map<String, Integer> counts = extensionCounts.computeIfAbsent(folderKey, key -> new HashMap<>());
+            final int count = counts.getOrDefault(extension, 0) + delta;
+
+            if (count > 0) {
+                counts.put(extension, count);
+            } else {
+                counts.remove(extension);
+            }
+
+            if (counts.isEmpty()) {
+                extensionCounts.remove(folderKey);
+            }
+
+        } while (!folderKey.isEmpty());
+    }
+
+    /**
+     * Add the asset path to children of its folder.
+     */
+    private void link(@NotNull final String assetPath) {
+        if (assetPath.isEmpty()) return;
+        children.computeIfAbsent(getParentKey(assetPath), key -> new HashSet<>()).add(assetPath);
+    }
+
+    /**
+     * Visit asset paths of all content of the folder, a folder is visited before its content.
+     */
+    private void forEachInFolder(@NotNull final String folderKey, @NotNull final Consumer<String> consumer) {
+
+        final Set<String> folderChildren = children.get(folderKey);
+        if (folderChildren == null) return;
+
+        for (final String child : folderChildren) {
+            consumer.accept(child);
+            forEachInFolder(child, consumer);
+        }
+    }
+
+    /**
+     * Save this index if it has unsaved changes, the file is replaced atomically.
+     */
+    @FromAnyThread
+    public synchronized void save() {
+        if (!dirty) return;
+
+        final Path indexFile = getIndexFile();
+        final Path tempFile = indexFile.resolveSibling(FILE_ASSET_INDEX + ".tmp");
+
+        try {
+
+            Files.createDirectories(indexFile.getParent());
+
+            final BufferedOutputStream stream = new BufferedOutputStream(Files.newOutputStream(tempFile));
+
+            try (final DataOutputStream out = new DataOutputStream(stream)) {
+
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+
+                for (final Map.Entry<String, Entry> element : entries.entrySet()) {
+                    final Entry entry = element.getValue();
+                    out.writeUTF(element.getKey());
+                    out.writeByte(entry.type);
+                    out.writeLong(entry.size);
+                    out.writeLong(entry.lastModified);
+                }
+            }
+
+            try {
+                Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            dirty = false;
+
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+        }
+    }
+
+    private void read(@NotNull final Path indexFile) throws IOException {
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("unsupported format of the asset index.");
+            }
+
+            for (int i = 0, count = in.readInt(); i < count; i++) {
+                final String assetPath = in.readUTF();
+                final byte type = in.readByte();
+                final long size = in.readLong();
+                final long lastModified = in.readLong();
+                entries.put(assetPath, new Entry(type, size, lastModified));
+                link(assetPath);
+
+                if (type == TYPE_FILE) {
+                    count(assetPath, 1);
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private String toKey(@NotNull final Path file) {
+        return toAssetPath(assetFolder.relativize(file));
+    }
+
+    @NotNull
+    private Path toFile(@NotNull final String assetPath) {
+        return assetPath.isEmpty() ? assetFolder : assetFolder.resolve(assetPath);
+    }
+
+    @NotNull
+    private static String getParentKey(@NotNull final String assetPath) {
+        final int index = assetPath.lastIndexOf('/');
+        return index < 0 ? StringUtils.EMPTY : assetPath.substring(0, index);
+    }
+
+    /**
+     * Hidden files and folders (such as the editor folder or VCS folders) aren't indexed.
+     */
+    private boolean isHidden(@NotNull final Path file) {
+        if (file.equals(assetFolder)) return false;
+        final Path fileName = file.getFileName();
+        return fileName != null && fileName.toString().startsWith(".");
+    }
+
+    @Nullable
+    private static BasicFileAttributes readAttributes(@NotNull final Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AssetIndex{" + "assetFolder=" + assetFolder + ", entries=" + entries.size() + '}';
+    }
+
+    /**
+     * The entry of the index.
+     */
+    private static final class Entry {
+
+        /**
+         * The type of the file.
+         */
+        private final byte type;
+
+        /**
+         * The size of the file.
+         */
+        private final long size;
+
+        /**
+         * The last modified time of the file.
+         */
+        private final long lastModified;
+
+        private Entry(final byte type, final long size, final long lastModified) {
+            this.type = type;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+}
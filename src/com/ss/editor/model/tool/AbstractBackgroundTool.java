@@ -0,0 +1,118 @@
+package com.ss.editor.model.tool;
+
+import com.ss.editor.annotation.FXThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.executor.EditorTaskHandle;
+import com.ss.editor.executor.EditorTaskPriority;
+import com.ss.editor.manager.ExecutorManager;
+import com.ss.editor.util.EditorUtil;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import rlib.logging.Logger;
+import rlib.logging.LoggerManager;
+import rlib.util.array.Array;
+
+/**
+ * The base implementation of a tool which processes parts of its work by parallel background tasks. The tool can be
+ * cancelled at any moment, a failed task cancels the other tasks and notifies the fail handler.
+ *
+ * @author JavaSaBr
+ */
+public abstract class AbstractBackgroundTool {
+
+    @NotNull
+    protected static final Logger LOGGER = LoggerManager.getLogger(AbstractBackgroundTool.class);
+
+    @NotNull
+    protected static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
+    /**
+     * The handler of a failed processing.
+     */
+    @NotNull
+    private final Runnable failHandler;
+
+    /**
+     * The handles of submitted tasks.
+     */
+    @Nullable
+    private volatile EditorTaskHandle[] handles;
+
+    /**
+     * True if the processing was cancelled.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * @param failHandler the handler of a failed processing, it's called on the FX thread.
+     */
+    protected AbstractBackgroundTool(@NotNull final Runnable failHandler) {
+        this.failHandler = failHandler;
+    }
+
+    /**
+     * Start processing.
+     */
+    @FXThread
+    public abstract void start();
+
+    /**
+     * Submit the tasks to the background executor.
+     *
+     * @param tasks    the tasks.
+     * @param priority the priority of the tasks.
+     */
+    @FromAnyThread
+    protected void submit(@NotNull final Array<Runnable> tasks, @NotNull final EditorTaskPriority priority) {
+
+        final EditorTaskHandle[] handles = new EditorTaskHandle[tasks.size()];
+
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = EXECUTOR_MANAGER.addBackgroundTask(tasks.get(i), priority);
+        }
+
+        this.handles = handles;
+
+        // the tool could be cancelled while the tasks were submitted
+        if (cancelled) cancel();
+    }
+
+    /**
+     * Cancel processing, the handlers of results will not be called.
+     */
+    @FromAnyThread
+    public void cancel() {
+        cancelled = true;
+
+        final EditorTaskHandle[] handles = this.handles;
+        if (handles == null) return;
+
+        for (final EditorTaskHandle handle : handles) {
+            handle.cancel();
+        }
+    }
+
+    /**
+     * Cancel processing and notify the fail handler.
+     *
+     * @param exception the reason of the fail.
+     */
+    @FromAnyThread
+    protected void fail(@NotNull final Exception exception) {
+        if (cancelled) return;
+
+        cancel();
+        EditorUtil.handleException(LOGGER, this, exception);
+        EXECUTOR_MANAGER.addFXTask(failHandler);
+    }
+
+    /**
+     * @return true if processing was cancelled.
+     */
+    @FromAnyThread
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,605 @@
+package com.ss.editor.model.tool;
+
+import static java.util.Objects.requireNonNull;
+
+import com.jme3.bullet.collision.shapes.CollisionShape;
+import com.jme3.bullet.collision.shapes.CompoundCollisionShape;
+import com.jme3.bullet.collision.shapes.HullCollisionShape;
+import com.jme3.bullet.collision.shapes.MeshCollisionShape;
+import com.jme3.bullet.util.CollisionShapeFactory;
+import com.jme3.export.binary.BinaryExporter;
+import com.jme3.math.Transform;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.UserData;
+import com.jme3.scene.VertexBuffer.Type;
+import com.jme3.scene.mesh.IndexBuffer;
+import com.jme3.terrain.geomipmap.TerrainPatch;
+import com.jme3.terrain.geomipmap.TerrainQuad;
+import com.jme3.util.BufferUtils;
+import com.ss.editor.Editor;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.EditorThread;
+import com.ss.editor.annotation.FXThread;
+import com.ss.editor.executor.EditorTaskPriority;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import rlib.util.array.Array;
+import rlib.util.array.ArrayFactory;
+
+/**
+ * The generator of a collision shape of a spatial. The meshes of geometries are copied on the editor thread and then
+ * collision shapes of them are built in parallel by background workers, the generation can be cancelled at any
+ * moment. Built shapes are cached by the content of meshes, so generating a shape for the same meshes again is cheap,
+ * every generation gets own copies of cached shapes.
+ *
+ * @author JavaSaBr
+ */
+public class CollisionShapeGenerator extends AbstractBackgroundTool {
+
+    @NotNull
+    private static final Editor EDITOR = Editor.getInstance();
+
+    /**
+     * The max count of cached shapes.
+     */
+    private static final int CACHE_SIZE = 64;
+
+    /**
+     * The cache of built shapes.
+     */
+    @NotNull
+    private static final Map<CacheKey, CollisionShape> CACHE = new LinkedHashMap<CacheKey, CollisionShape>(CACHE_SIZE, 0.75F, true) {
+
+        @Override
+        protected boolean removeEldestEntry(@NotNull final Map.Entry<CacheKey, CollisionShape> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * The quality of hull shapes. Points of a mesh are clustered by a grid with the count of cells per axis and only
+     * the most distant point of a cell from the center is used for the hull.
+     */
+    public enum Quality {
+        LOW(4),
+        MEDIUM(8),
+        HIGH(16),
+        FULL(0);
+
+        public static final Quality[] VALUES = values();
+
+        /**
+         * The count of cells per axis or 0 to use all points.
+         */
+        private final int cells;
+
+        Quality(final int cells) {
+            this.cells = cells;
+        }
+    }
+
+    /**
+     * The key of a cached shape.
+     */
+    private static final class CacheKey {
+
+        /**
+         * The positions of vertices.
+         */
+        @NotNull
+        private final float[] positions;
+
+        /**
+         * The indexes of triangles or null for hull shapes.
+         */
+        @Nullable
+        private final int[] indexes;
+
+        /**
+         * The hash of mesh content.
+         */
+        private final long hash;
+
+        /**
+         * The scale of the shape.
+         */
+        @NotNull
+        private final Vector3f scale;
+
+        /**
+         * The quality of the hull or null for mesh shapes.
+         */
+        @Nullable
+        private final Quality quality;
+
+        private CacheKey(@NotNull final float[] positions, @Nullable final int[] indexes,
+                         @NotNull final Vector3f scale, @Nullable final Quality quality) {
+            this.positions = positions;
+            this.indexes = indexes;
+            this.hash = hash(positions, indexes);
+            this.scale = scale;
+            this.quality = quality;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (this == object) return true;
+            if (!(object instanceof CacheKey)) return false;
+            final CacheKey other = (CacheKey) object;
+            return hash == other.hash && quality == other.quality && scale.equals(other.scale) &&
+                    Arrays.equals(positions, other.positions) && Arrays.equals(indexes, other.indexes);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (int) (hash ^ (hash >>> 32));
+            result = 31 * result + scale.hashCode();
+            result = 31 * result + (quality != null ? quality.hashCode() : 0);
+            return result;
+        }
+    }
+
+    /**
+     * The copied mesh of a geometry to build a shape.
+     */
+    private static final class Part {
+
+        /**
+         * The transform of the geometry relative to the generated spatial.
+         */
+        @NotNull
+        private final Transform transform;
+
+        /**
+         * The positions of vertices.
+         */
+        @Nullable
+        private final float[] positions;
+
+        /**
+         * The indexes of triangles.
+         */
+        @Nullable
+        private final int[] indexes;
+
+        /**
+         * The built shape.
+         */
+        @Nullable
+        private volatile CollisionShape shape;
+
+        private Part(@NotNull final Transform transform, @Nullable final float[] positions,
+                     @Nullable final int[] indexes) {
+            this.transform = transform;
+            this.positions = positions;
+            this.indexes = indexes;
+        }
+    }
+
+    /**
+     * The spatial to generate a shape.
+     */
+    @NotNull
+    private final Spatial spatial;
+
+    /**
+     * The quality of hull shapes.
+     */
+    @NotNull
+    private final Quality quality;
+
+    /**
+     * The handler of the generated shape.
+     */
+    @NotNull
+    private final Consumer<CollisionShape> handler;
+
+    /**
+     * The parts of the shape.
+     */
+    @NotNull
+    private final Array<Part> parts;
+
+    /**
+     * The count of parts to build.
+     */
+    @NotNull
+    private final AtomicInteger remaining;
+
+    /**
+     * True if need to generate a dynamic shape.
+     */
+    private final boolean dynamic;
+
+    /**
+     * @param spatial the spatial to generate a shape.
+     * @param dynamic true if need to generate a dynamic shape.
+     * @param quality the quality of hull shapes.
+     * @param handler     the handler of the generated shape, it's called on the FX thread.
+     * @param failHandler the handler of a failed generation, it's called on the FX thread.
+     */
+    public CollisionShapeGenerator(@NotNull final Spatial spatial, final boolean dynamic,
+                                   @NotNull final Quality quality, @NotNull final Consumer<CollisionShape> handler,
+                                   @NotNull final Runnable failHandler) {
+        super(failHandler);
+        this.spatial = spatial;
+        this.dynamic = dynamic;
+        this.quality = quality;
+        this.handler = handler;
+        this.parts = ArrayFactory.newArray(Part.class);
+        this.remaining = new AtomicInteger();
+    }
+
+    @Override
+    @FXThread
+    public void start() {
+        EXECUTOR_MANAGER.addEditorThreadTask(() -> {
+            try {
+                prepare();
+            } catch (final RuntimeException e) {
+                fail(e);
+            }
+        });
+    }
+
+    /**
+     * Copy meshes of geometries and submit building of their shapes.
+     */
+    @EditorThread
+    private void prepare() {
+        if (isCancelled()) return;
+
+        if (spatial instanceof Geometry) {
+            final Geometry geometry = (Geometry) spatial;
+            parts.add(copy(geometry.getMesh(), getTransform(geometry, spatial)));
+        } else if (spatial instanceof TerrainQuad || spatial instanceof TerrainPatch) {
+            final Part part = new Part(new Transform(), null, null);
+            part.shape = CollisionShapeFactory.createMeshShape(spatial);
+            parts.add(part);
+        } else if (spatial instanceof Node) {
+            collect((Node) spatial);
+        }
+
+        final Array<Part> toBuild = ArrayFactory.newArray(Part.class);
+
+        for (final Part part : parts) {
+            if (part.shape == null) toBuild.add(part);
+        }
+
+        remaining.set(toBuild.size());
+
+        if (toBuild.isEmpty()) {
+            EXECUTOR_MANAGER.addBackgroundTask(this::finish);
+            return;
+        }
+
+        final Array<Runnable> tasks = ArrayFactory.newArray(Runnable.class);
+
+        for (final Part part : toBuild) {
+            tasks.add(() -> build(part));
+        }
+
+        submit(tasks, EditorTaskPriority.NORMAL);
+    }
+
+    /**
+     * Collect parts of children of the node.
+     */
+    @EditorThread
+    private void collect(@NotNull final Node node) {
+
+        for (final Spatial child : node.getChildren()) {
+
+            if (Boolean.TRUE.equals(child.getUserData(UserData.JME_PHYSICSIGNORE))) {
+                continue;
+            }
+
+            final Transform transform = getTransform(child, spatial);
+
+            if (child instanceof TerrainQuad) {
+                final Part part = new Part(transform, null, null);
+                part.shape = CollisionShapeFactory.createMeshShape(child);
+                parts.add(part);
+            } else if (child instanceof Node) {
+                collect((Node) child);
+            } else if (child instanceof Geometry) {
+                parts.add(copy(((Geometry) child).getMesh(), transform));
+            }
+        }
+    }
+
+    /**
+     * Copy the mesh.
+     */
+    @NotNull
+    @EditorThread
+    private Part copy(@NotNull final Mesh mesh, @NotNull final Transform transform) {
+
+        final FloatBuffer buffer = mesh.getFloatBuffer(Type.Position);
+        final float[] positions = buffer == null ? new float[0] : BufferUtils.getFloatArray(buffer);
+
+        if (dynamic) {
+            return new Part(transform, positions, null);
+        }
+
+        final IndexBuffer indexBuffer = mesh.getIndicesAsList();
+        final int[] indexes = new int[indexBuffer.size()];
+
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = indexBuffer.get(i);
+        }
+
+        return new Part(transform, positions, indexes);
+    }
+
+    /**
+     * Build a shape of the part.
+     */
+    @BackgroundThread
+    private void build(@NotNull final Part part) {
+        if (isCancelled()) return;
+
+        try {
+            part.shape = dynamic ? buildHullShape(part) : buildMeshShape(part);
+        } catch (final Exception e) {
+            fail(e);
+            return;
+        }
+
+        if (remaining.decrementAndGet() == 0) {
+            finish();
+        }
+    }
+
+    /**
+     * Build a hull shape of the part.
+     */
+    @NotNull
+    @BackgroundThread
+    private CollisionShape buildHullShape(@NotNull final Part part) {
+
+        final float[] positions = part.positions;
+        final Vector3f scale = part.transform.getScale();
+        final CacheKey key = new CacheKey(requireNonNull(positions), null, scale.clone(), quality);
+
+        CollisionShape shape = getFromCache(key);
+        if (shape != null) return shape;
+
+        shape = new HullCollisionShape(quality == Quality.FULL ? positions : simplify(positions, quality.cells));
+        shape.setScale(scale);
+
+        putToCache(key, shape);
+        return shape;
+    }
+
+    /**
+     * Build a mesh shape of the part.
+     */
+    @NotNull
+    @BackgroundThread
+    private CollisionShape buildMeshShape(@NotNull final Part part) {
+
+        final float[] positions = part.positions;
+        final int[] indexes = part.indexes;
+        final Vector3f scale = part.transform.getScale();
+        final CacheKey key = new CacheKey(requireNonNull(positions), indexes, scale.clone(), null);
+
+        CollisionShape shape = getFromCache(key);
+        if (shape != null) return shape;
+
+        final Mesh mesh = new Mesh();
+        mesh.setBuffer(Type.Position, 3, positions);
+        mesh.setBuffer(Type.Index, 3, indexes);
+        mesh.updateCounts();
+
+        shape = new MeshCollisionShape(mesh);
+        shape.setScale(scale);
+
+        putToCache(key, shape);
+        return shape;
+    }
+
+    /**
+     * Compose built shapes and notify the handler.
+     */
+    @BackgroundThread
+    private void finish() {
+        if (isCancelled()) return;
+
+        final CollisionShape result;
+
+        if (spatial instanceof Geometry || spatial instanceof TerrainQuad || spatial instanceof TerrainPatch) {
+            result = parts.first().shape;
+        } else {
+
+            final CompoundCollisionShape compound = new CompoundCollisionShape();
+
+            for (final Part part : parts) {
+                final Transform transform = part.transform;
+                compound.addChildShape(part.shape, transform.getTranslation(),
+                        transform.getRotation().toRotationMatrix());
+            }
+
+            result = compound;
+        }
+
+        EXECUTOR_MANAGER.addFXTask(() -> {
+            if (!isCancelled()) handler.accept(result);
+        });
+    }
+
+    /**
+     * Simplify points of a hull by clustering them by a grid.
+     *
+     * @param positions the positions.
+     * @param cells     the count of cells per axis.
+     * @return the simplified positions.
+     */
+    @NotNull
+    @BackgroundThread
+    private static float[] simplify(@NotNull final float[] positions, final int cells) {
+
+        final int count = positions.length / 3;
+        if (count <= cells * cells * 2) return positions;
+
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, minZ = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE, maxZ = -Float.MAX_VALUE;
+
+        for (int i = 0; i < positions.length; i += 3) {
+            minX = Math.min(minX, positions[i]);
+            minY = Math.min(minY, positions[i + 1]);
+            minZ = Math.min(minZ, positions[i + 2]);
+            maxX = Math.max(maxX, positions[i]);
+            maxY = Math.max(maxY, positions[i + 1]);
+            maxZ = Math.max(maxZ, positions[i + 2]);
+        }
+
+        final float centerX = (minX + maxX) * 0.5F;
+        final float centerY = (minY + maxY) * 0.5F;
+        final float centerZ = (minZ + maxZ) * 0.5F;
+
+        final int[] bestPoints = new int[cells * cells * cells];
+        final float[] bestDistances = new float[bestPoints.length];
+
+        Arrays.fill(bestPoints, -1);
+
+        for (int i = 0; i < count; i++) {
+
+            final float x = positions[i * 3];
+            final float y = positions[i * 3 + 1];
+            final float z = positions[i * 3 + 2];
+
+            final int cellX = toCell(x - minX, maxX - minX, cells);
+            final int cellY = toCell(y - minY, maxY - minY, cells);
+            final int cellZ = toCell(z - minZ, maxZ - minZ, cells);
+            final int cell = (cellZ * cells + cellY) * cells + cellX;
+
+            final float dx = x - centerX;
+            final float dy = y - centerY;
+            final float dz = z - centerZ;
+            final float distance = dx * dx + dy * dy + dz * dz;
+
+            if (bestPoints[cell] == -1 || distance > bestDistances[cell]) {
+                bestPoints[cell] = i;
+                bestDistances[cell] = distance;
+            }
+        }
+
+        final float[] result = new float[bestPoints.length * 3];
+
+        int length = 0;
+
+        for (final int point : bestPoints) {
+            if (point == -1) continue;
+            result[length++] = positions[point * 3];
+            result[length++] = positions[point * 3 + 1];
+            result[length++] = positions[point * 3 + 2];
+        }
+
+        return Arrays.copyOf(result, length);
+    }
+
+    private static int toCell(final float offset, final float size, final int cells) {
+        if (size <= 0F) return 0;
+        return Math.min(cells - 1, (int) (offset / size * cells));
+    }
+
+    /**
+     * Calculate a FNV-1a hash of mesh content.
+     */
+    @BackgroundThread
+    private static long hash(@NotNull final float[] positions, @Nullable final int[] indexes) {
+
+        long hash = 0xcbf29ce484222325L;
+
+        for (final float position : positions) {
+            hash = (hash ^ Float.floatToIntBits(position)) * 0x100000001b3L;
+        }
+
+        if (indexes != null) {
+            for (final int index : indexes) {
+                hash = (hash ^ index) * 0x100000001b3L;
+            }
+        }
+
+        return hash;
+    }
+
+    /**
+     * Get a copy of the cached shape.
+     */
+    @Nullable
+    @BackgroundThread
+    private static CollisionShape getFromCache(@NotNull final CacheKey key) {
+
+        final CollisionShape shape;
+
+        synchronized (CACHE) {
+            shape = CACHE.get(key);
+        }
+
+        return shape == null ? null : copy(shape);
+    }
+
+    /**
+     * Put a copy of the shape to the cache, so changes of the shape don't affect the cache.
+     */
+    @BackgroundThread
+    private static void putToCache(@NotNull final CacheKey key, @NotNull final CollisionShape shape) {
+
+        final CollisionShape copy = copy(shape);
+
+        synchronized (CACHE) {
+            CACHE.put(key, copy);
+        }
+    }
+
+    /**
+     * Copy the shape by serializing, mesh shapes keep their built hierarchies.
+     */
+    @NotNull
+    @BackgroundThread
+    private static CollisionShape copy(@NotNull final CollisionShape shape) {
+        return BinaryExporter.saveAndLoad(EDITOR.getAssetManager(), shape);
+    }
+
+    /**
+     * Get a transform of the spatial relative to the parent, only scale of the parent is applied.
+     */
+    @NotNull
+    @EditorThread
+    private static Transform getTransform(@NotNull final Spatial spatial, @NotNull final Spatial parent) {
+
+        final Transform transform = new Transform();
+
+        Spatial current = spatial;
+
+        while (current != null) {
+
+            if (current == parent) {
+                final Transform scale = new Transform();
+                scale.setScale(current.getLocalScale());
+                transform.combineWithParent(scale);
+                break;
+            }
+
+            transform.combineWithParent(current.getLocalTransform());
+            current = current.getParent();
+        }
+
+        return transform;
+    }
+}
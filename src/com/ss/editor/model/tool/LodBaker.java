@@ -0,0 +1,338 @@
+package com.ss.editor.model.tool;
+
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FXThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.executor.EditorTaskPriority;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+import jme3tools.optimize.LodGenerator;
+import jme3tools.optimize.LodGenerator.TriangleReductionMethod;
+import rlib.util.array.Array;
+import rlib.util.array.ArrayFactory;
+
+/**
+ * The baker of levels of details for all geometries of a spatial. Levels of every mesh are computed by separated
+ * background tasks in parallel, meshes which are shared between geometries are baked only once. Meshes which already
+ * have levels with triangle counts of the requested reduction values are skipped. Constant reduction values are the
+ * counts of triangles to remove from the largest mesh, other meshes lose the proportional counts of triangles.
+ *
+ * @author JavaSaBr
+ */
+public class LodBaker extends AbstractBackgroundTool {
+
+    @NotNull
+    private static final String PROGRESS_KEY = "progress";
+
+    /**
+     * The allowed difference between the requested and the actual triangle count of a level, collapsing a vertex
+     * removes several triangles at once, so the actual count is usually a bit less than requested.
+     */
+    private static final float TRIANGLE_COUNT_TOLERANCE = 0.01F;
+
+    /**
+     * The result of baking a mesh.
+     */
+    public static final class Result {
+
+        /**
+         * The geometry of the mesh.
+         */
+        @NotNull
+        private final Geometry geometry;
+
+        /**
+         * The reduction values for the mesh.
+         */
+        @NotNull
+        private final float[] values;
+
+        /**
+         * The previous levels.
+         */
+        @NotNull
+        private final VertexBuffer[] prevLevels;
+
+        /**
+         * The new levels.
+         */
+        @Nullable
+        private volatile VertexBuffer[] newLevels;
+
+        private Result(@NotNull final Geometry geometry, @NotNull final float[] values) {
+            this.geometry = geometry;
+            this.values = values;
+            this.prevLevels = getLodLevels(geometry.getMesh());
+        }
+
+        /**
+         * @return the geometry of the mesh.
+         */
+        @NotNull
+        public Geometry getGeometry() {
+            return geometry;
+        }
+
+        /**
+         * @return the previous levels.
+         */
+        @NotNull
+        public VertexBuffer[] getPrevLevels() {
+            return prevLevels;
+        }
+
+        /**
+         * @return the new levels.
+         */
+        @Nullable
+        public VertexBuffer[] getNewLevels() {
+            return newLevels;
+        }
+    }
+
+    /**
+     * The reduction method.
+     */
+    @NotNull
+    private final TriangleReductionMethod method;
+
+    /**
+     * The results of meshes to bake.
+     */
+    @NotNull
+    private final Array<Result> results;
+
+    /**
+     * The handler of progress, it's called on the FX thread.
+     */
+    @NotNull
+    private final DoubleConsumer progressHandler;
+
+    /**
+     * The handler of baked results, it's called on the FX thread.
+     */
+    @NotNull
+    private final Consumer<Array<Result>> finishHandler;
+
+    /**
+     * The count of baked meshes.
+     */
+    @NotNull
+    private final AtomicInteger processed;
+
+    /**
+     * @param geometries      the geometries to bake.
+     * @param method          the reduction method.
+     * @param values          the reduction values.
+     * @param progressHandler the handler of progress.
+     * @param finishHandler   the handler of baked results.
+     * @param failHandler     the handler of a failed baking, it's called on the FX thread.
+     */
+    public LodBaker(@NotNull final Array<Geometry> geometries, @NotNull final TriangleReductionMethod method,
+                    @NotNull final float[] values, @NotNull final DoubleConsumer progressHandler,
+                    @NotNull final Consumer<Array<Result>> finishHandler, @NotNull final Runnable failHandler) {
+        super(failHandler);
+        this.method = method;
+        this.progressHandler = progressHandler;
+        this.finishHandler = finishHandler;
+        this.processed = new AtomicInteger();
+        this.results = ArrayFactory.newArray(Result.class);
+
+        final int maxTriangleCount = getMaxTriangleCount(geometries);
+        final Map<Mesh, Boolean> meshes = new IdentityHashMap<>();
+
+        for (final Geometry geometry : geometries) {
+
+            final Mesh mesh = geometry.getMesh();
+            if (mesh == null || meshes.put(mesh, Boolean.TRUE) != null) continue;
+
+            final float[] meshValues = getValues(mesh, values, maxTriangleCount);
+            if (isBaked(mesh, meshValues)) continue;
+
+            results.add(new Result(geometry, meshValues));
+        }
+    }
+
+    /**
+     * Collect all geometries of the spatial.
+     *
+     * @param spatial the spatial.
+     * @return the geometries.
+     */
+    @NotNull
+    @FromAnyThread
+    public static Array<Geometry> collectGeometries(@NotNull final Spatial spatial) {
+        final Array<Geometry> geometries = ArrayFactory.newArray(Geometry.class);
+        spatial.depthFirstTraversal(child -> {
+            if (child instanceof Geometry) geometries.add((Geometry) child);
+        });
+        return geometries;
+    }
+
+    /**
+     * Get the max count of triangles of meshes of the geometries.
+     *
+     * @param geometries the geometries.
+     * @return the max count of triangles.
+     */
+    @FromAnyThread
+    public static int getMaxTriangleCount(@NotNull final Array<Geometry> geometries) {
+
+        int maxTriangleCount = 1;
+
+        for (final Geometry geometry : geometries) {
+            final Mesh mesh = geometry.getMesh();
+            if (mesh == null) continue;
+            maxTriangleCount = Math.max(maxTriangleCount, mesh.getTriangleCount());
+        }
+
+        return maxTriangleCount;
+    }
+
+    /**
+     * @return the count of meshes to bake.
+     */
+    @FromAnyThread
+    public int getCount() {
+        return results.size();
+    }
+
+    @Override
+    @FXThread
+    public void start() {
+
+        if (results.isEmpty()) {
+            EXECUTOR_MANAGER.addFXTask(this::finish);
+            return;
+        }
+
+        final Array<Runnable> tasks = ArrayFactory.newArray(Runnable.class);
+
+        for (final Result result : results) {
+            tasks.add(() -> bake(result));
+        }
+
+        submit(tasks, EditorTaskPriority.LOW);
+    }
+
+    /**
+     * Bake levels of the mesh.
+     */
+    @BackgroundThread
+    private void bake(@NotNull final Result result) {
+        if (isCancelled()) return;
+
+        try {
+            final LodGenerator generator = new LodGenerator(result.geometry);
+            result.newLevels = generator.computeLods(method, result.values);
+        } catch (final Exception e) {
+            fail(e);
+            return;
+        }
+
+        final int processed = this.processed.incrementAndGet();
+        final double progress = processed / (double) results.size();
+
+        EXECUTOR_MANAGER.addFXTask(this, PROGRESS_KEY, () -> {
+            if (!isCancelled()) progressHandler.accept(progress);
+        });
+
+        if (processed == results.size()) {
+            EXECUTOR_MANAGER.addFXTask(this::finish);
+        }
+    }
+
+    /**
+     * Notify the finish handler.
+     */
+    @FXThread
+    private void finish() {
+        if (!isCancelled()) finishHandler.accept(results);
+    }
+
+    /**
+     * Get the reduction values for the mesh, constant values are scaled by the size of the mesh.
+     */
+    @NotNull
+    private float[] getValues(@NotNull final Mesh mesh, @NotNull final float[] values, final int maxTriangleCount) {
+        if (method != TriangleReductionMethod.CONSTANT) return values;
+
+        final float scale = mesh.getTriangleCount() / (float) maxTriangleCount;
+        final float[] result = new float[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            result[i] = Math.round(values[i] * scale);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return true if the mesh already has levels with triangle counts of the reduction values.
+     */
+    @FromAnyThread
+    private boolean isBaked(@NotNull final Mesh mesh, @NotNull final float[] values) {
+
+        // the first level is the full index buffer
+        if (mesh.getNumLodLevels() != values.length + 1) {
+            return false;
+        }
+
+        final int triangleCount = mesh.getLodLevel(0).getNumElements();
+        final int tolerance = Math.max(2, (int) (triangleCount * TRIANGLE_COUNT_TOLERANCE));
+
+        for (int i = 0; i < values.length; i++) {
+
+            final int expected = getTriangleCount(triangleCount, values[i]);
+            final int actual = mesh.getLodLevel(i + 1).getNumElements();
+
+            if (Math.abs(expected - actual) > tolerance) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Calculate a triangle count of a level in the same way as {@link LodGenerator}.
+     */
+    private int getTriangleCount(final int triangleCount, final float value) {
+        switch (method) {
+            case PROPORTIONAL:
+                return (int) (triangleCount - triangleCount * value);
+            case CONSTANT:
+                return value < triangleCount ? triangleCount - (int) value : 0;
+            default:
+                return triangleCount;
+        }
+    }
+
+    /**
+     * Get the current levels of the mesh.
+     */
+    @NotNull
+    private static VertexBuffer[] getLodLevels(@NotNull final Mesh mesh) {
+
+        final int count = mesh.getNumLodLevels();
+        final VertexBuffer[] levels = new VertexBuffer[count];
+
+        for (int i = 0; i < count; i++) {
+            levels[i] = mesh.getLodLevel(i);
+        }
+
+        return levels;
+    }
+}
@@ -1,6 +1,7 @@
 package com.ss.editor.model.undo;
 
 import com.ss.editor.annotation.FXThread;
+import com.ss.editor.annotation.FromAnyThread;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -24,4 +25,40 @@ public interface EditorOperation {
     @FXThread
     default void undo(@NotNull final UndoableEditor editor) {
     }
+
+    /**
+     * Get the size in bytes of data which is kept in the memory by this operation, such as snapshots of buffers.
+     *
+     * @return the size in bytes.
+     */
+    @FromAnyThread
+    default long getMemoryUsage() {
+        return 0;
+    }
+
+    /**
+     * Try to merge the next executed operation to this operation, so undoing this operation will revert both of them.
+     *
+     * @param operation the next operation which was already executed.
+     * @return true if the operation was merged.
+     */
+    @FXThread
+    default boolean merge(@NotNull final EditorOperation operation) {
+        return false;
+    }
+
+    /**
+     * Reduce memory usage of this operation when it's far from the top of the history, for example by spilling large
+     * snapshots to the disk.
+     */
+    @FXThread
+    default void compact() {
+    }
+
+    /**
+     * Release resources of this operation when it is removed from the history.
+     */
+    @FXThread
+    default void release() {
+    }
 }
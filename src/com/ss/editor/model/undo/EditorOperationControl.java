@@ -11,25 +11,50 @@ import rlib.util.array.Array;
 import rlib.util.array.ArrayFactory;
 
 /**
- * The implementation of controller to support undo/redo operations.
+ * The implementation of controller to support undo/redo operations. The history is limited by the count of operations
+ * and by the size of data which is kept by the operations, consecutive operations which are executed quickly one after
+ * another (for example, dragging a slider) are merged into one entry.
  *
  * @author JavaSaBr
  */
 public class EditorOperationControl {
 
-    private static final int HISTORY_SIZE = 20;
+    /**
+     * The max count of operations in the history.
+     */
+    private static final int HISTORY_SIZE = 1000;
+
+    /**
+     * The max size in bytes of data which is kept by operations in the history.
+     */
+    private static final long HISTORY_MEMORY_LIMIT = 256L * 1024 * 1024;
+
+    /**
+     * The approximate size in bytes of an operation itself.
+     */
+    private static final long OPERATION_MEMORY_USAGE = 256;
+
+    /**
+     * The count of the latest operations which aren't compacted.
+     */
+    private static final int COMPACT_DEPTH = 2;
+
+    /**
+     * The max time in ms between executing operations to merge them.
+     */
+    private static final long MERGE_TIME = 500;
 
     /**
      * The list of operations.
      */
     @NotNull
-    private final Array<EditorOperation> operations;
+    private final Array<OperationEntry> operations;
 
     /**
      * The list of operations to redo.
      */
     @NotNull
-    private final Array<EditorOperation> toRedo;
+    private final Array<OperationEntry> toRedo;
 
     /**
      * The editor with supporting endo/redo.
@@ -37,17 +62,22 @@ public class EditorOperationControl {
     @NotNull
     private final UndoableEditor editor;
 
+    /**
+     * The time of executing the last operation.
+     */
+    private long lastExecuteTime;
+
     public EditorOperationControl(@NotNull final UndoableEditor editor) {
         this.editor = editor;
-        this.operations = ArrayFactory.newArray(EditorOperation.class);
-        this.toRedo = ArrayFactory.newArray(EditorOperation.class);
+        this.operations = ArrayFactory.newArray(OperationEntry.class);
+        this.toRedo = ArrayFactory.newArray(OperationEntry.class);
     }
 
     /**
      * @return the list of operations.
      */
     @NotNull
-    private Array<EditorOperation> getOperations() {
+    private Array<OperationEntry> getOperations() {
         return operations;
     }
 
@@ -55,7 +85,7 @@ public class EditorOperationControl {
      * @return the list of operations to redo.
      */
     @NotNull
-    private Array<EditorOperation> getToRedo() {
+    private Array<OperationEntry> getToRedo() {
         return toRedo;
     }
 
@@ -94,13 +124,24 @@ public class EditorOperationControl {
         operation.redo(editor);
         editor.incrementChange();
 
-        final Array<EditorOperation> operations = getOperations();
-        operations.add(operation);
+        final Array<OperationEntry> toRedo = getToRedo();
+        final boolean canMerge = toRedo.isEmpty();
 
-        if (operations.size() > HISTORY_SIZE) operations.poll();
-
-        final Array<EditorOperation> toRedo = getToRedo();
+        toRedo.forEach(entry -> entry.getOperation().release());
         toRedo.clear();
+
+        final long currentTime = System.currentTimeMillis();
+        final Array<OperationEntry> operations = getOperations();
+        final OperationEntry last = operations.last();
+
+        if (!canMerge || last == null || currentTime - lastExecuteTime > MERGE_TIME || !last.merge(operation)) {
+            operations.add(new OperationEntry(operation));
+        }
+
+        lastExecuteTime = currentTime;
+
+        compact(operations);
+        trim();
     }
 
     /**
@@ -122,16 +163,24 @@ public class EditorOperationControl {
     @FXThread
     private synchronized void undoImpl() {
 
-        final Array<EditorOperation> operations = getOperations();
-        final EditorOperation operation = operations.pop();
-        if (operation == null) return;
+        final Array<OperationEntry> operations = getOperations();
+        final OperationEntry entry = operations.pop();
+        if (entry == null) return;
 
         final UndoableEditor editor = getEditor();
-        operation.undo(editor);
-        editor.decrementChange();
+        entry.getOperation().undo(editor);
+
+        for (int i = 0, length = entry.getChanges(); i < length; i++) {
+            editor.decrementChange();
+        }
+
+        entry.setCompacted(false);
+        lastExecuteTime = 0;
 
-        final Array<EditorOperation> toRedo = getToRedo();
-        toRedo.add(operation);
+        final Array<OperationEntry> toRedo = getToRedo();
+        toRedo.add(entry);
+
+        compact(toRedo);
     }
 
     /**
@@ -153,17 +202,125 @@ public class EditorOperationControl {
     @FXThread
     private void redoImpl() {
 
-        final Array<EditorOperation> toRedo = getToRedo();
-        final EditorOperation operation = toRedo.pop();
-        if (operation == null) return;
+        final Array<OperationEntry> toRedo = getToRedo();
+        final OperationEntry entry = toRedo.pop();
+        if (entry == null) return;
 
-        operation.redo(editor);
+        final UndoableEditor editor = getEditor();
+        entry.getOperation().redo(editor);
+
+        for (int i = 0, length = entry.getChanges(); i < length; i++) {
+            editor.incrementChange();
+        }
+
+        entry.setCompacted(false);
+        lastExecuteTime = 0;
+
+        final Array<OperationEntry> operations = getOperations();
+        operations.add(entry);
 
+        compact(operations);
+    }
+
+    /**
+     * Roll back the state of the history after an operation which couldn't be applied to the editor, so the history
+     * keeps consistent with the actual state of the editor.
+     *
+     * @param operation the failed operation.
+     */
+    @FXThread
+    public void rollback(@NotNull final EditorOperation operation) {
+
+        final Array<OperationEntry> operations = getOperations();
+        final Array<OperationEntry> toRedo = getToRedo();
         final UndoableEditor editor = getEditor();
-        editor.incrementChange();
 
-        final Array<EditorOperation> operations = getOperations();
-        operations.add(operation);
+        final OperationEntry lastDone = operations.last();
+        final OperationEntry lastUndone = toRedo.last();
+
+        if (lastDone != null && lastDone.getOperation() == operation) {
+
+            // the failed redo, the operation isn't applied, so the next operations can't be redone
+            operations.pop();
+
+            for (int i = 0, length = lastDone.getChanges(); i < length; i++) {
+                editor.decrementChange();
+            }
+
+            lastDone.getOperation().release();
+            toRedo.forEach(entry -> entry.getOperation().release());
+            toRedo.clear();
+
+        } else if (lastUndone != null && lastUndone.getOperation() == operation) {
+
+            // the failed undo, the operation is still applied, so the previous operations can't be undone
+            toRedo.pop();
+
+            for (int i = 0, length = lastUndone.getChanges(); i < length; i++) {
+                editor.incrementChange();
+            }
+
+            lastUndone.getOperation().release();
+            operations.forEach(entry -> entry.getOperation().release());
+            operations.clear();
+
+        } else {
+            clearImpl();
+        }
+
+        lastExecuteTime = 0;
+    }
+
+    /**
+     * Compact operations which are far from the top of the list.
+     */
+    @FXThread
+    private void compact(@NotNull final Array<OperationEntry> entries) {
+
+        final OperationEntry[] array = entries.array();
+
+        for (int i = 0, length = entries.size() - COMPACT_DEPTH; i < length; i++) {
+
+            final OperationEntry entry = array[i];
+            if (entry.isCompacted()) continue;
+
+            entry.getOperation().compact();
+            entry.setCompacted(true);
+        }
+    }
+
+    /**
+     * Remove the oldest operations while the history is over the limits.
+     */
+    @FXThread
+    private void trim() {
+
+        final Array<OperationEntry> operations = getOperations();
+        final Array<OperationEntry> toRedo = getToRedo();
+
+        long memoryUsage = getMemoryUsage(operations) + getMemoryUsage(toRedo);
+
+        while (operations.size() > 1 && (operations.size() > HISTORY_SIZE || memoryUsage > HISTORY_MEMORY_LIMIT)) {
+            final OperationEntry entry = operations.poll();
+            memoryUsage -= entry.getMemoryUsage();
+            entry.getOperation().release();
+        }
+    }
+
+    /**
+     * Calculate the size in bytes of data which is kept by the operations.
+     */
+    @FXThread
+    private long getMemoryUsage(@NotNull final Array<OperationEntry> entries) {
+
+        long result = 0;
+
+        for (final OperationEntry entry : entries.array()) {
+            if (entry == null) break;
+            result += entry.getMemoryUsage();
+        }
+
+        return result;
     }
 
     /**
@@ -184,10 +341,12 @@ public class EditorOperationControl {
      */
     private void clearImpl() {
 
-        final Array<EditorOperation> operations = getOperations();
+        final Array<OperationEntry> operations = getOperations();
+        operations.forEach(entry -> entry.getOperation().release());
         operations.clear();
 
-        final Array<EditorOperation> toRedo = getToRedo();
+        final Array<OperationEntry> toRedo = getToRedo();
+        toRedo.forEach(entry -> entry.getOperation().release());
         toRedo.clear();
     }
 
@@ -199,4 +358,81 @@ public class EditorOperationControl {
                 ", editor=" + editor +
                 '}';
     }
+
+    /**
+     * The entry of the history with an operation and the count of changes which were merged to the operation.
+     */
+    private static final class OperationEntry {
+
+        /**
+         * The operation.
+         */
+        @NotNull
+        private final EditorOperation operation;
+
+        /**
+         * The count of changes of the editor by this entry.
+         */
+        private int changes;
+
+        /**
+         * True if the operation was compacted.
+         */
+        private boolean compacted;
+
+        private OperationEntry(@NotNull final EditorOperation operation) {
+            this.operation = operation;
+            this.changes = 1;
+        }
+
+        /**
+         * @return the operation.
+         */
+        @NotNull
+        private EditorOperation getOperation() {
+            return operation;
+        }
+
+        /**
+         * @return the count of changes of the editor by this entry.
+         */
+        private int getChanges() {
+            return changes;
+        }
+
+        /**
+         * @return true if the operation was compacted.
+         */
+        private boolean isCompacted() {
+            return compacted;
+        }
+
+        /**
+         * @param compacted true if the operation was compacted.
+         */
+        private void setCompacted(final boolean compacted) {
+            this.compacted = compacted;
+        }
+
+        /**
+         * @return the size in bytes of this entry.
+         */
+        private long getMemoryUsage() {
+            return OPERATION_MEMORY_USAGE + operation.getMemoryUsage();
+        }
+
+        /**
+         * Try to merge the next operation to the operation of this entry.
+         */
+        private boolean merge(@NotNull final EditorOperation next) {
+            if (!operation.merge(next)) return false;
+            changes++;
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return operation.toString();
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package com.ss.editor.model.undo;
 
+import org.jetbrains.annotations.NotNull;
+
 /**
  * The interface to implement an undoable editor.
  *
@@ -16,4 +18,11 @@ public interface UndoableEditor {
      * Decrement changes count.
      */
     void decrementChange();
+
+    /**
+     * Notify about an operation which couldn't be applied to the editor.
+     *
+     * @param operation the failed operation.
+     */
+    void notifyOperationFailed(@NotNull EditorOperation operation);
 }
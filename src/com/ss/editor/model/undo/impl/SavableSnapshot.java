@@ -0,0 +1,265 @@
+package com.ss.editor.model.undo.impl;
+
+import static rlib.util.ClassUtils.unsafeCast;
+
+import com.jme3.export.Savable;
+import com.jme3.export.binary.BinaryExporter;
+import com.jme3.export.binary.BinaryImporter;
+import com.ss.editor.Editor;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.executor.EditorTaskPriority;
+import com.ss.editor.manager.ExecutorManager;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import rlib.logging.Logger;
+import rlib.logging.LoggerManager;
+
+/**
+ * The snapshot of a large object which is kept by an undo operation. While the object isn't used by the model, it can
+ * be spilled to a compressed temp file, and it's loaded back as a copy when the operation needs it again. Spilling and
+ * loading are executed in the background, the loaded objects are passed to the editor thread in order of requests,
+ * so they are ordered with applying undo operations.
+ *
+ * @author JavaSaBr
+ */
+public class SavableSnapshot<T extends Savable> {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(SavableSnapshot.class);
+
+    @NotNull
+    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
+    @NotNull
+    private static final Editor EDITOR = Editor.getInstance();
+
+    /**
+     * The min size in bytes of an object to spill it to a file.
+     */
+    private static final long SPILL_THRESHOLD = 1024 * 1024;
+
+    /**
+     * The last request of an object of any snapshot, the next request is handled after it.
+     */
+    @NotNull
+    private static CompletableFuture<Void> lastRequest = CompletableFuture.completedFuture(null);
+
+    /**
+     * The files with spilled objects of all snapshots.
+     */
+    @NotNull
+    private static final Set<Path> SPILLED_FILES = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Delete files with spilled objects of all snapshots, it's called on exit from the editor.
+     */
+    @FromAnyThread
+    public static void deleteSpilledFiles() {
+        SPILLED_FILES.forEach(SavableSnapshot::deleteFile);
+    }
+
+    /**
+     * The size in bytes of the object.
+     */
+    private final long memoryUsage;
+
+    /**
+     * The object or null if it was spilled to the file.
+     */
+    @Nullable
+    private volatile T value;
+
+    /**
+     * The file with the spilled object.
+     */
+    @Nullable
+    private volatile Path file;
+
+    /**
+     * The version of the state, it's changed when the object is requested, so a running spilling is discarded.
+     */
+    private long version;
+
+    public SavableSnapshot(@NotNull final T value, final long memoryUsage) {
+        this.value = value;
+        this.memoryUsage = memoryUsage;
+    }
+
+    /**
+     * Get the object, if the object was spilled, it's loaded from the file in the background.
+     *
+     * @param handler     the handler of the object, it's called in the editor thread.
+     * @param failHandler the handler of failed loading, it's called in the FX thread.
+     */
+    @FromAnyThread
+    public void get(@NotNull final Consumer<T> handler, @NotNull final Runnable failHandler) {
+
+        final CompletableFuture<T> loading = CompletableFuture.supplyAsync(this::load,
+                task -> EXECUTOR_MANAGER.addBackgroundTask(task, EditorTaskPriority.HIGH));
+
+        synchronized (SavableSnapshot.class) {
+            lastRequest = lastRequest.thenCompose(result -> loading)
+                    .thenAcceptAsync(handler, EXECUTOR_MANAGER::addEditorThreadTask)
+                    .exceptionally(throwable -> {
+                        LOGGER.warning(this, throwable);
+                        EXECUTOR_MANAGER.addFXTask(failHandler);
+                        return null;
+                    });
+        }
+    }
+
+    /**
+     * Load the object from the file if it was spilled.
+     */
+    @NotNull
+    @BackgroundThread
+    private synchronized T load() {
+        version++;
+
+        final T current = value;
+        if (current != null) return current;
+
+        final Path file = this.file;
+
+        if (file == null) {
+            throw new IllegalStateException("The snapshot was released.");
+        }
+
+        final BinaryImporter importer = new BinaryImporter();
+        importer.setAssetManager(EDITOR.getAssetManager());
+
+        final T loaded;
+
+        try (final InputStream in = new InflaterInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            loaded = unsafeCast(importer.load(in));
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        this.value = loaded;
+        this.file = null;
+
+        deleteFile(file);
+
+        return loaded;
+    }
+
+    /**
+     * Spill the object to a temp file in the background if it's large enough. The object must not be used by the model
+     * until it is got from this snapshot again.
+     */
+    @FromAnyThread
+    public void spill() {
+        EXECUTOR_MANAGER.addBackgroundTask(this::spillImpl, EditorTaskPriority.LOW);
+    }
+
+    @BackgroundThread
+    private void spillImpl() {
+
+        final T current;
+        final long version;
+
+        synchronized (this) {
+            current = value;
+            version = this.version;
+        }
+
+        if (current == null || memoryUsage < SPILL_THRESHOLD) return;
+
+        final Path tempFile;
+        try {
+            tempFile = Files.createTempFile("undo-", ".bin");
+            SPILLED_FILES.add(tempFile);
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+            return;
+        }
+
+        final BinaryExporter exporter = new BinaryExporter();
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+        try (final OutputStream out = new DeflaterOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)), deflater)) {
+            exporter.save(current, out);
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.warning(this, e);
+            deleteFile(tempFile);
+            return;
+        } finally {
+            deflater.end();
+        }
+
+        synchronized (this) {
+
+            // the object was requested or released during spilling
+            if (this.version != version || value != current) {
+                deleteFile(tempFile);
+                return;
+            }
+
+            this.file = tempFile;
+            this.value = null;
+        }
+    }
+
+    /**
+     * Release resources of this snapshot when it isn't needed anymore.
+     */
+    @FromAnyThread
+    public void release() {
+        EXECUTOR_MANAGER.addBackgroundTask(() -> {
+            synchronized (this) {
+                version++;
+
+                final Path file = this.file;
+                if (file == null) return;
+
+                this.file = null;
+                deleteFile(file);
+            }
+        }, EditorTaskPriority.LOW);
+    }
+
+    /**
+     * @param object the object.
+     * @return true if the object is kept by this snapshot in the memory.
+     */
+    @FromAnyThread
+    public boolean contains(@Nullable final Object object) {
+        return object != null && value == object;
+    }
+
+    /**
+     * @return the size in bytes of the object in the memory or 0 if it was spilled.
+     */
+    @FromAnyThread
+    public long getMemoryUsage() {
+        return value == null ? 0 : memoryUsage;
+    }
+
+    private static void deleteFile(@NotNull final Path file) {
+        try {
+            Files.deleteIfExists(file);
+            SPILLED_FILES.remove(file);
+        } catch (final IOException e) {
+            LOGGER.warning(e);
+        }
+    }
+}
@@ -2,38 +2,56 @@ package com.ss.editor.model.workspace;
 
 import static com.ss.editor.util.EditorUtil.getAssetFile;
 import static com.ss.editor.util.EditorUtil.toAssetPath;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.util.Objects.requireNonNull;
 import static rlib.util.ClassUtils.unsafeCast;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.manager.ExecutorManager;
 import com.ss.editor.manager.WorkspaceManager;
 import com.ss.editor.ui.component.editor.EditorDescription;
 import com.ss.editor.ui.component.editor.FileEditor;
 import com.ss.editor.ui.component.editor.state.EditorState;
-import com.ss.editor.util.EditorUtil;
+import org.apache.commons.lang3.SystemUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import rlib.logging.Logger;
 import rlib.logging.LoggerManager;
+import rlib.util.ClassUtils;
 import rlib.util.StringUtils;
 import rlib.util.array.Array;
 import rlib.util.array.ArrayFactory;
+import rlib.util.dictionary.DictionaryFactory;
+import rlib.util.dictionary.ObjectDictionary;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
+import java.lang.reflect.Constructor;
 import java.nio.ByteBuffer;
-import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 /**
- * The workspace of an editor.
+ * The workspace of an editor. The workspace is stored in a compact versioned binary format, changes of the workspace
+ * are saved by a debounced background task and the workspace file is replaced atomically. Old workspace files which
+ * were stored by the java serialization can be still read.
  *
  * @author JavaSaBr
  */
@@ -44,6 +62,30 @@ public class Workspace implements Serializable {
     @NotNull
     private static final Logger LOGGER = LoggerManager.getLogger(Workspace.class);
 
+    @NotNull
+    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
+    /**
+     * The lock to write workspace files.
+     */
+    @NotNull
+    private static final Object SAVE_LOCK = new Object();
+
+    /**
+     * The magic number of a workspace file.
+     */
+    private static final int MAGIC = 0x53535753;
+
+    /**
+     * The current version of the workspace format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The delay in ms after the last change before saving the workspace.
+     */
+    private static final long SAVE_DELAY = 2000;
+
     /**
      * The changes counter.
      */
@@ -80,6 +122,23 @@ public class Workspace implements Serializable {
     @Nullable
     private volatile String currentEditedFile;
 
+    /**
+     * The cache of encoded not changed states of editors.
+     */
+    @Nullable
+    private transient volatile Map<EditorState, byte[]> encodedStates;
+
+    /**
+     * The flag of scheduling a saving of this workspace.
+     */
+    @Nullable
+    private transient volatile AtomicBoolean saveScheduled;
+
+    /**
+     * The time of the last change.
+     */
+    private transient volatile long lastChangeTime;
+
     public Workspace() {
         this.changes = new AtomicInteger();
     }
@@ -89,6 +148,14 @@ public class Workspace implements Serializable {
      */
     public void notifyRestored() {
 
+        if (encodedStates == null) {
+            encodedStates = new IdentityHashMap<>();
+        }
+
+        if (saveScheduled == null) {
+            saveScheduled = new AtomicBoolean();
+        }
+
         if (openedFiles == null) {
             openedFiles = new HashMap<>();
         }
@@ -96,7 +163,7 @@ public class Workspace implements Serializable {
         if (editorStateMap == null) {
             editorStateMap = new HashMap<>();
         } else {
-            editorStateMap.forEach((key, editorState) -> editorState.setChangeHandler(this::incrementChanges));
+            editorStateMap.forEach((key, editorState) -> editorState.setChangeHandler(() -> notifyChanged(editorState)));
         }
 
         if (expandedFolders == null) {
@@ -191,7 +258,7 @@ public class Workspace implements Serializable {
 
         if (!editorStateMap.containsKey(assetPath)) {
             final EditorState editorState = stateFactory.get();
-            editorState.setChangeHandler(this::incrementChanges);
+            editorState.setChangeHandler(() -> notifyChanged(editorState));
             editorStateMap.put(assetPath, editorState);
             incrementChanges();
         }
@@ -210,8 +277,11 @@ public class Workspace implements Serializable {
         final Path assetFile = getAssetFile(getAssetFolder(), file);
         final String assetPath = toAssetPath(assetFile);
 
+        editorState.setChangeHandler(() -> notifyChanged(editorState));
+
         final Map<String, EditorState> editorStateMap = getEditorStateMap();
-        editorStateMap.put(assetPath, editorState);
+        final EditorState prev = editorStateMap.put(assetPath, editorState);
+        if (prev != null) getEncodedStates().remove(prev);
 
         incrementChanges();
     }
@@ -227,8 +297,10 @@ public class Workspace implements Serializable {
         final String assetPath = toAssetPath(assetFile);
 
         final Map<String, EditorState> editorStateMap = getEditorStateMap();
-        if (editorStateMap.remove(assetPath) == null) return;
+        final EditorState editorState = editorStateMap.remove(assetPath);
+        if (editorState == null) return;
 
+        getEncodedStates().remove(editorState);
         incrementChanges();
     }
 
@@ -313,11 +385,54 @@ public class Workspace implements Serializable {
         return requireNonNull(assetFolder);
     }
 
+    /**
+     * @return the cache of encoded not changed states of editors.
+     */
+    @NotNull
+    private Map<EditorState, byte[]> getEncodedStates() {
+        return requireNonNull(encodedStates);
+    }
+
+    /**
+     * Handle changes of an editor state.
+     *
+     * @param editorState the changed editor state.
+     */
+    @FromAnyThread
+    private synchronized void notifyChanged(@NotNull final EditorState editorState) {
+        getEncodedStates().remove(editorState);
+        incrementChanges();
+    }
+
     /**
      * Increase a counter of changes.
      */
     private void incrementChanges() {
         changes.incrementAndGet();
+        lastChangeTime = System.currentTimeMillis();
+
+        final AtomicBoolean saveScheduled = this.saveScheduled;
+
+        if (saveScheduled != null && saveScheduled.compareAndSet(false, true)) {
+            EXECUTOR_MANAGER.schedule(this::scheduledSave, SAVE_DELAY);
+        }
+    }
+
+    /**
+     * Save this workspace if there were no changes during the save delay, otherwise postpone the saving.
+     */
+    @BackgroundThread
+    private void scheduledSave() {
+
+        final long delay = lastChangeTime + SAVE_DELAY - System.currentTimeMillis();
+
+        if (delay > 0) {
+            EXECUTOR_MANAGER.schedule(this::scheduledSave, delay);
+            return;
+        }
+
+        requireNonNull(saveScheduled).set(false);
+        save(false);
     }
 
     /**
@@ -329,50 +444,230 @@ public class Workspace implements Serializable {
 
     /**
      * Save this workspace.
+     *
+     * @param force true if the workspace should be saved even without changes.
      */
+    @FromAnyThread
     public void save(final boolean force) {
         if (!force && changes.get() == 0) return;
 
         final Path assetFolder = getAssetFolder();
         final Path workspaceFile = assetFolder.resolve(WorkspaceManager.FOLDER_EDITOR).resolve(WorkspaceManager.FILE_WORKSPACE);
+        final Path tempFile = workspaceFile.resolveSibling(WorkspaceManager.FILE_WORKSPACE + ".tmp");
 
-        try {
+        synchronized (SAVE_LOCK) {
+
+            final byte[] content;
+            try {
+                content = encode();
+            } catch (final IOException e) {
+                LOGGER.warning(this, e);
+                return;
+            }
+
+            try {
 
-            if (!Files.exists(workspaceFile)) {
                 Files.createDirectories(workspaceFile.getParent());
-                Files.createFile(workspaceFile);
+
+                try (final FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+                    final ByteBuffer buffer = ByteBuffer.wrap(content);
+
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+
+                    channel.force(true);
+                }
+
+                if (SystemUtils.IS_OS_WINDOWS) {
+                    Files.setAttribute(tempFile, "dos:hidden", Boolean.TRUE, LinkOption.NOFOLLOW_LINKS);
+                }
+
+                try {
+                    Files.move(tempFile, workspaceFile, REPLACE_EXISTING, ATOMIC_MOVE);
+                } catch (final AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile, workspaceFile, REPLACE_EXISTING);
+                }
+
+            } catch (final IOException e) {
+                LOGGER.warning(this, e);
+                changes.incrementAndGet();
+            } finally {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (final IOException e) {
+                    LOGGER.warning(this, e);
+                }
             }
+        }
+    }
+
+    /**
+     * Encode this workspace to the compact format. Editor states which weren't changed since the last saving aren't
+     * encoded again.
+     *
+     * @return the encoded workspace.
+     * @throws IOException if an I/O error occurs.
+     */
+    @NotNull
+    @FromAnyThread
+    private synchronized byte[] encode() throws IOException {
+
+        changes.set(0);
+
+        final Map<String, String> openedFiles = getOpenedFiles();
+        final Map<String, EditorState> editorStateMap = getEditorStateMap();
+        final Map<EditorState, byte[]> encodedStates = getEncodedStates();
+        final List<String> expandedFolders = getExpandedFolders();
+        final String currentEditedFile = getCurrentEditedFile();
+
+        final ByteArrayOutputStream bout = new ByteArrayOutputStream(1024);
+        final DataOutputStream out = new DataOutputStream(bout);
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeBoolean(currentEditedFile != null);
 
-        } catch (final IOException e) {
-            LOGGER.warning(e);
+        if (currentEditedFile != null) {
+            out.writeUTF(currentEditedFile);
         }
 
-        try {
+        out.writeInt(expandedFolders.size());
 
-            final Boolean hidden = (Boolean) Files.getAttribute(workspaceFile, "dos:hidden", LinkOption.NOFOLLOW_LINKS);
+        for (final String folder : expandedFolders) {
+            out.writeUTF(folder);
+        }
+
+        out.writeInt(openedFiles.size());
+
+        for (final Map.Entry<String, String> entry : openedFiles.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeUTF(entry.getValue());
+        }
+
+        out.writeInt(editorStateMap.size());
+
+        final ByteArrayOutputStream stateBout = new ByteArrayOutputStream(64);
+        final DataOutputStream stateOut = new DataOutputStream(stateBout);
+
+        for (final Map.Entry<String, EditorState> entry : editorStateMap.entrySet()) {
+
+            final EditorState editorState = entry.getValue();
+            byte[] encoded = encodedStates.get(editorState);
 
-            if (hidden != null && !hidden) {
-                Files.setAttribute(workspaceFile, "dos:hidden", Boolean.TRUE, LinkOption.NOFOLLOW_LINKS);
+            if (encoded == null) {
+                stateBout.reset();
+                editorState.write(stateOut);
+                stateOut.flush();
+                encoded = stateBout.toByteArray();
+                encodedStates.put(editorState, encoded);
             }
 
-        } catch (final IOException e) {
-            LOGGER.warning(e);
+            out.writeUTF(entry.getKey());
+            out.writeUTF(editorState.getClass().getName());
+            out.writeInt(encoded.length);
+            out.write(encoded);
         }
 
-        changes.set(0);
+        out.flush();
+
+        return bout.toByteArray();
+    }
+
+    /**
+     * Check the content of a workspace file is stored in the compact format.
+     *
+     * @param content the content of a workspace file.
+     * @return true if the content is stored in the compact format.
+     */
+    @FromAnyThread
+    public static boolean isCompactFormat(@NotNull final byte[] content) {
+        return content.length >= 4 && ByteBuffer.wrap(content).getInt() == MAGIC;
+    }
+
+    /**
+     * Read a workspace from the content of a workspace file in the compact format. Editor states of unknown types are
+     * skipped.
+     *
+     * @param content the content of a workspace file.
+     * @return the read workspace.
+     * @throws IOException if the content is broken or has an unsupported version.
+     */
+    @NotNull
+    @FromAnyThread
+    public static Workspace read(@NotNull final byte[] content) throws IOException {
+
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(content));
+
+        if (in.readInt() != MAGIC) {
+            throw new IOException("unknown format of the workspace file.");
+        }
+
+        final int version = in.readInt();
+
+        if (version > VERSION) {
+            throw new IOException("unsupported version " + version + " of the workspace file.");
+        }
+
+        final Workspace workspace = new Workspace();
+
+        if (in.readBoolean()) {
+            workspace.currentEditedFile = in.readUTF();
+        }
 
-        final byte[] serialize = EditorUtil.serialize(this);
+        final int foldersCount = in.readInt();
+        final List<String> expandedFolders = new ArrayList<>(foldersCount);
 
-        try (final SeekableByteChannel channel = Files.newByteChannel(workspaceFile, StandardOpenOption.WRITE)) {
+        for (int i = 0; i < foldersCount; i++) {
+            expandedFolders.add(in.readUTF());
+        }
+
+        final int filesCount = in.readInt();
+        final Map<String, String> openedFiles = new HashMap<>(filesCount);
+
+        for (int i = 0; i < filesCount; i++) {
+            openedFiles.put(in.readUTF(), in.readUTF());
+        }
 
-            final ByteBuffer buffer = ByteBuffer.wrap(serialize);
-            buffer.position(serialize.length);
-            buffer.flip();
+        final int statesCount = in.readInt();
+        final Map<String, EditorState> editorStateMap = new HashMap<>(statesCount);
+        final Map<EditorState, byte[]> encodedStates = new IdentityHashMap<>(statesCount);
+        final ObjectDictionary<String, Constructor<EditorState>> constructors = DictionaryFactory.newObjectDictionary();
 
-            channel.write(buffer);
+        for (int i = 0; i < statesCount; i++) {
 
-        } catch (final IOException e) {
-            LOGGER.warning(e);
+            final String assetPath = in.readUTF();
+            final String className = in.readUTF();
+            final byte[] encoded = new byte[in.readInt()];
+
+            in.readFully(encoded);
+
+            Constructor<EditorState> constructor = constructors.get(className);
+
+            if (constructor == null && !constructors.containsKey(className)) {
+                constructor = ClassUtils.getConstructor(className);
+                constructors.put(className, constructor);
+            }
+
+            if (constructor == null) {
+                LOGGER.warning("unknown editor state type " + className);
+                continue;
+            }
+
+            final EditorState editorState = ClassUtils.newInstance(constructor);
+            editorState.read(new DataInputStream(new ByteArrayInputStream(encoded)));
+
+            editorStateMap.put(assetPath, editorState);
+            encodedStates.put(editorState, encoded);
         }
+
+        workspace.expandedFolders = expandedFolders;
+        workspace.openedFiles = openedFiles;
+        workspace.editorStateMap = editorStateMap;
+        workspace.encodedStates = encodedStates;
+
+        return workspace;
     }
 }
@@ -1,17 +1,15 @@
 package com.ss.editor.state.editor.impl.scene;
 
 import static com.ss.editor.state.editor.impl.model.ModelEditorUtils.findToSelect;
+import static java.util.Collections.newSetFromMap;
 import static java.util.Objects.requireNonNull;
 
 import com.jme3.app.state.AppState;
 import com.jme3.asset.AssetManager;
 import com.jme3.audio.AudioNode;
 import com.jme3.bounding.BoundingBox;
-import com.jme3.bounding.BoundingSphere;
-import com.jme3.bounding.BoundingVolume;
 import com.jme3.collision.CollisionResult;
 import com.jme3.collision.CollisionResults;
-import com.jme3.effect.ParticleEmitter;
 import com.jme3.input.InputManager;
 import com.jme3.input.KeyInput;
 import com.jme3.input.controls.KeyTrigger;
@@ -30,14 +28,13 @@ import com.jme3.math.Vector3f;
 import com.jme3.renderer.Camera;
 import com.jme3.renderer.queue.RenderQueue;
 import com.jme3.scene.Geometry;
-import com.jme3.scene.Mesh;
 import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
 import com.jme3.scene.debug.Grid;
-import com.jme3.scene.debug.WireBox;
-import com.jme3.scene.debug.WireSphere;
 import com.jme3.scene.shape.Line;
 import com.jme3.scene.shape.Quad;
+import com.ss.editor.annotation.EditorThread;
+import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.control.transform.MoveToolControl;
 import com.ss.editor.control.transform.RotationToolControl;
 import com.ss.editor.control.transform.ScaleToolControl;
@@ -55,6 +52,9 @@ import com.ss.editor.util.NodeUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.IdentityHashMap;
+import java.util.Set;
+
 import javafx.scene.input.KeyCode;
 import rlib.function.BooleanFloatConsumer;
 import rlib.geom.util.AngleUtils;
@@ -131,10 +131,10 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
     protected final Array<EditorAudioNode> audioNodes;
 
     /**
-     * The selection models of selected models.
+     * The batch of selection shapes of selected models.
      */
-    @NotNull
-    protected final ObjectDictionary<Spatial, Spatial> selectionShape;
+    @Nullable
+    private SelectionBatch selectionBatch;
 
     /**
      * The array of selected models.
@@ -142,6 +142,12 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
     @NotNull
     protected final Array<Spatial> selected;
 
+    /**
+     * The spatial index of the current model.
+     */
+    @NotNull
+    private final SpatialIndex spatialIndex;
+
     /**
      * The node for the placement of controls.
      */
@@ -254,7 +260,7 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
         this.modelNode = new Node("ModelNode");
         this.modelNode.setUserData(SceneEditorControl.class.getName(), true);
         this.selected = ArrayFactory.newArray(Spatial.class);
-        this.selectionShape = DictionaryFactory.newObjectDictionary();
+        this.spatialIndex = new SpatialIndex();
         this.toolNode = new Node("ToolNode");
         this.transformToolNode = new Node("TransformToolNode");
         this.lightNodes = ArrayFactory.newArray(EditorLightNode.class);
@@ -336,9 +342,34 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
 
     @Override
     public void notifyTransformed(@NotNull final Spatial spatial) {
+        spatialIndex.notifyChanged(spatial);
         getFileEditor().notifyTransformed(spatial);
     }
 
+    /**
+     * Notify about changed bounds of the spatial, for example, after changing its transformation or mesh.
+     *
+     * @param spatial the spatial.
+     */
+    @FromAnyThread
+    public void notifyBoundsChanged(@NotNull final Spatial spatial) {
+        EXECUTOR_MANAGER.addEditorThreadTask(() -> {
+            spatialIndex.notifyChanged(spatial);
+            getSelectionBatch().invalidate();
+        });
+    }
+
+    /**
+     * Notify about changed structure of the current model, for example, after adding or removing children.
+     */
+    @FromAnyThread
+    public void notifyStructureChanged() {
+        EXECUTOR_MANAGER.addEditorThreadTask(() -> {
+            spatialIndex.invalidate();
+            getSelectionBatch().invalidate();
+        });
+    }
+
     /**
      * Create collision plane.
      */
@@ -367,10 +398,12 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
     private void createToolElements() {
 
         selectionMaterial = createColorMaterial(new ColorRGBA(1F, 170 / 255F, 64 / 255F, 1F));
+        selectionBatch = new SelectionBatch(selectionMaterial);
         grid = createGrid();
 
         final Node toolNode = getToolNode();
         toolNode.attachChild(grid);
+        toolNode.attachChild(selectionBatch.getNode());
     }
 
     @NotNull
@@ -653,11 +686,10 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
         audioNodes.forEach(EditorAudioNode::updateModel);
 
         final Array<Spatial> selected = getSelected();
-        selected.forEach(this, (spatial, state) -> {
 
-            final ObjectDictionary<Spatial, Spatial> selectionShape = state.getSelectionShape();
-            final Spatial shape = selectionShape.get(spatial);
-            if (shape == null) return;
+        if (!selected.isEmpty()) {
+
+            Spatial spatial = selected.last();
 
             if (spatial instanceof EditorLightNode) {
                 spatial = ((EditorLightNode) spatial).getModel();
@@ -665,14 +697,10 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
                 spatial = ((EditorAudioNode) spatial).getModel();
             }
 
-            state.updateTransformNode(spatial.getWorldTransform());
-
-            requireNonNull(spatial);
+            if (spatial != null) updateTransformNode(spatial.getWorldTransform());
+        }
 
-            shape.setLocalTranslation(spatial.getWorldTranslation());
-            shape.setLocalRotation(spatial.getWorldRotation());
-            shape.setLocalScale(spatial.getWorldScale());
-        });
+        getSelectionBatch().update();
 
         final Node toolNode = getToolNode();
         transformToolNode.detachAllChildren();
@@ -730,11 +758,11 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
     }
 
     /**
-     * @return the selection models of selected models.
+     * @return the batch of selection shapes of selected models.
      */
     @NotNull
-    private ObjectDictionary<Spatial, Spatial> getSelectionShape() {
-        return selectionShape;
+    private SelectionBatch getSelectionBatch() {
+        return requireNonNull(selectionBatch);
     }
 
     /**
@@ -782,18 +810,23 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
     private void updateSelectionImpl(@NotNull final Array<Spatial> spatials) {
 
         final Array<Spatial> selected = getSelected();
+        final Set<Spatial> toSelect = newSetFromMap(new IdentityHashMap<>(spatials.size()));
+        spatials.forEach(toSelect::add);
 
         for (final ArrayIterator<Spatial> iterator = selected.iterator(); iterator.hasNext(); ) {
 
             final Spatial spatial = iterator.next();
-            if (spatials.contains(spatial)) continue;
+            if (toSelect.contains(spatial)) continue;
 
             removeFromSelection(spatial);
             iterator.fastRemove();
         }
 
+        final Set<Spatial> alreadySelected = newSetFromMap(new IdentityHashMap<>(selected.size()));
+        selected.forEach(alreadySelected::add);
+
         for (final Spatial spatial : spatials) {
-            if (!selected.contains(spatial)) {
+            if (alreadySelected.add(spatial)) {
                 addToSelection(spatial);
             }
         }
@@ -841,28 +874,11 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
      */
     private void addToSelection(@NotNull final Spatial spatial) {
 
-        Spatial shape;
-
-        if (spatial instanceof ParticleEmitter) {
-            shape = buildBoxSelection(spatial);
-        } else if (spatial instanceof Geometry) {
-            shape = buildGeometrySelection((Geometry) spatial);
-        } else {
-            shape = buildBoxSelection(spatial);
-        }
-
-        if (shape == null) return;
-
-        if (isShowSelection()) {
-            final Node toolNode = getToolNode();
-            toolNode.attachChild(shape);
-        }
+        final SelectionBatch selectionBatch = getSelectionBatch();
+        if (!selectionBatch.add(spatial)) return;
 
         final Array<Spatial> selected = getSelected();
         selected.add(spatial);
-
-        final ObjectDictionary<Spatial, Spatial> selectionShape = getSelectionShape();
-        selectionShape.put(spatial, shape);
     }
 
     /**
@@ -872,65 +888,8 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
         setTransformCenter(null);
         setToTransform(null);
 
-        final ObjectDictionary<Spatial, Spatial> selectionShape = getSelectionShape();
-        final Spatial shape = selectionShape.remove(spatial);
-        if (shape != null) shape.removeFromParent();
-    }
-
-    /**
-     * Build the selection box for the spatial.
-     */
-    private Spatial buildBoxSelection(@NotNull final Spatial spatial) {
-        spatial.updateModelBound();
-
-        final BoundingVolume bound = spatial.getWorldBound();
-
-        if (bound instanceof BoundingBox) {
-
-            final BoundingBox boundingBox = (BoundingBox) bound;
-
-            final Geometry geometry = WireBox.makeGeometry(boundingBox);
-            geometry.setName("SelectionShape");
-            geometry.setMaterial(getSelectionMaterial());
-            geometry.setLocalTranslation(boundingBox.getCenter().subtract(spatial.getWorldTranslation()));
-
-            return geometry;
-
-        } else if (bound instanceof BoundingSphere) {
-
-            final BoundingSphere boundingSphere = (BoundingSphere) bound;
-
-            final WireSphere wire = new WireSphere();
-            wire.fromBoundingSphere(boundingSphere);
-
-            final Geometry geometry = new Geometry("SelectionShape", wire);
-            geometry.setMaterial(getSelectionMaterial());
-            geometry.setLocalTranslation(boundingSphere.getCenter().subtract(spatial.getWorldTranslation()));
-
-            return geometry;
-        }
-
-        final Geometry geometry = WireBox.makeGeometry(new BoundingBox(Vector3f.ZERO, 1, 1, 1));
-        geometry.setName("SelectionShape");
-        geometry.setMaterial(getSelectionMaterial());
-        geometry.setLocalTranslation(spatial.getWorldTranslation());
-
-        return geometry;
-    }
-
-    /**
-     * Build selection grid for the geometry.
-     */
-    private Spatial buildGeometrySelection(@NotNull final Geometry spatial) {
-
-        final Mesh mesh = spatial.getMesh();
-        if (mesh == null) return null;
-
-        final Geometry geometry = new Geometry("SelectionShape", mesh);
-        geometry.setMaterial(getSelectionMaterial());
-        geometry.setLocalTransform(spatial.getWorldTransform());
-
-        return geometry;
+        final SelectionBatch selectionBatch = getSelectionBatch();
+        selectionBatch.remove(spatial);
     }
 
     /**
@@ -998,9 +957,7 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
 
         final CollisionResults results = new CollisionResults();
 
-        final Node modelNode = getModelNode();
-        modelNode.updateModelBound();
-        modelNode.collideWith(ray, results);
+        collideWith(getModelNode(), ray, results);
 
         if (results.size() < 1) {
             EXECUTOR_MANAGER.addFXTask(() -> notifySelected(null));
@@ -1039,9 +996,7 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
 
         final CollisionResults results = new CollisionResults();
 
-        final Node stateNode = getStateNode();
-        stateNode.updateModelBound();
-        stateNode.collideWith(ray, results);
+        collideWith(getStateNode(), ray, results);
 
         final CollisionResult closestCollision = results.getClosestCollision();
         if (closestCollision == null) return Vector3f.ZERO;
@@ -1071,9 +1026,8 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
 
         final CollisionResults results = new CollisionResults();
 
-        final M currentModel = requireNonNull(getCurrentModel());
-        currentModel.updateModelBound();
-        currentModel.collideWith(ray, results);
+        requireNonNull(getCurrentModel());
+        spatialIndex.collideWith(ray, results);
 
         final CollisionResult closestCollision = results.getClosestCollision();
         if (closestCollision == null) return null;
@@ -1081,6 +1035,27 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
         return closestCollision.getGeometry();
     }
 
+    /**
+     * Collide the ray with children of the node, the current model is checked by the spatial index.
+     */
+    @EditorThread
+    private void collideWith(@NotNull final Node node, @NotNull final Ray ray, @NotNull final CollisionResults results) {
+
+        final M currentModel = getCurrentModel();
+        final Node modelNode = getModelNode();
+
+        for (final Spatial child : node.getChildren()) {
+            if (child == currentModel) {
+                spatialIndex.collideWith(ray, results);
+            } else if (child == modelNode) {
+                collideWith(modelNode, ray, results);
+            } else {
+                child.updateModelBound();
+                child.collideWith(ray, results);
+            }
+        }
+    }
+
     protected void notifySelected(@Nullable final Object object) {
         getFileEditor().notifySelected(object);
     }
@@ -1091,13 +1066,13 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
     private void updateShowSelectionImpl(final boolean showSelection) {
         if (isShowSelection() == showSelection) return;
 
-        final ObjectDictionary<Spatial, Spatial> selectionShape = getSelectionShape();
+        final SelectionBatch selectionBatch = getSelectionBatch();
         final Node toolNode = getToolNode();
 
-        if (showSelection && !selectionShape.isEmpty()) {
-            selectionShape.forEach(toolNode::attachChild);
-        } else if (!showSelection && !selectionShape.isEmpty()) {
-            selectionShape.forEach(toolNode::detachChild);
+        if (showSelection) {
+            toolNode.attachChild(selectionBatch.getNode());
+        } else {
+            toolNode.detachChild(selectionBatch.getNode());
         }
 
         setShowSelection(showSelection);
@@ -1248,6 +1223,8 @@ public abstract class AbstractSceneEditorAppState<T extends AbstractSceneFileEdi
         modelNode.attachChild(model);
 
         setCurrentModel(model);
+
+        spatialIndex.setModel(model);
     }
 
     /**
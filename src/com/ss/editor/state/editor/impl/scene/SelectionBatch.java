@@ -0,0 +1,445 @@
+package com.ss.editor.state.editor.impl.scene;
+
+import com.jme3.bounding.BoundingBox;
+import com.jme3.bounding.BoundingSphere;
+import com.jme3.bounding.BoundingVolume;
+import com.jme3.effect.ParticleEmitter;
+import com.jme3.material.Material;
+import com.jme3.math.Transform;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.util.BufferUtils;
+import com.ss.editor.annotation.EditorThread;
+import com.ss.editor.scene.EditorAudioNode;
+import com.ss.editor.scene.EditorLightNode;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import rlib.util.array.Array;
+import rlib.util.array.ArrayFactory;
+import rlib.util.dictionary.DictionaryFactory;
+import rlib.util.dictionary.ObjectDictionary;
+
+/**
+ * The batch of selection shapes. Selection boxes of all selected spatials are merged into one dynamically updated
+ * line mesh, so they are rendered by one draw call. A limited count of selected geometries are outlined by their
+ * meshes, other geometries are shown by oriented boxes in the batch. Shapes are rewritten only for spatials which
+ * world transforms were changed since the last update.
+ *
+ * @author JavaSaBr
+ */
+class SelectionBatch {
+
+    /**
+     * The max count of geometries which are outlined by their meshes.
+     */
+    private static final int MAX_OUTLINES = 16;
+
+    /**
+     * The count of vertices of a box.
+     */
+    private static final int BOX_VERTICES = 8;
+
+    /**
+     * The indexes of lines of a box.
+     */
+    private static final int[] BOX_INDEXES = {
+            0, 1, 1, 2, 2, 3, 3, 0,
+            4, 5, 5, 6, 6, 7, 7, 4,
+            0, 4, 1, 5, 2, 6, 3, 7
+    };
+
+    /**
+     * The signs of corners of a box.
+     */
+    private static final float[] BOX_CORNERS = {
+            -1, -1, -1, 1, -1, -1, 1, 1, -1, -1, 1, -1,
+            -1, -1, 1, 1, -1, 1, 1, 1, 1, -1, 1, 1
+    };
+
+    /**
+     * The selection entry of a spatial.
+     */
+    private static final class Entry {
+
+        /**
+         * The spatial which transform and bound are used to build the shape.
+         */
+        @NotNull
+        private final Spatial target;
+
+        /**
+         * The last applied world transform of the target.
+         */
+        @NotNull
+        private final Transform transform;
+
+        /**
+         * The outline of the geometry or null if the entry is shown by a box.
+         */
+        @Nullable
+        private final Geometry outline;
+
+        /**
+         * True if the target can change its bound by itself.
+         */
+        private final boolean dynamic;
+
+        /**
+         * The position of the box in the batch.
+         */
+        private int slot;
+
+        /**
+         * True if the shape should be rewritten.
+         */
+        private boolean dirty;
+
+        private Entry(@NotNull final Spatial target, @Nullable final Geometry outline) {
+            this.target = target;
+            this.outline = outline;
+            this.transform = new Transform();
+            this.dynamic = target instanceof ParticleEmitter;
+            this.slot = -1;
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * The node of all selection shapes.
+     */
+    @NotNull
+    private final Node node;
+
+    /**
+     * The geometry of the batch of boxes.
+     */
+    @NotNull
+    private final Geometry boxes;
+
+    /**
+     * The mesh of the batch of boxes.
+     */
+    @NotNull
+    private final Mesh mesh;
+
+    /**
+     * The table of entries by selected spatials.
+     */
+    @NotNull
+    private final ObjectDictionary<Spatial, Entry> entries;
+
+    /**
+     * The entries by slots of the batch.
+     */
+    @NotNull
+    private final Array<Entry> slots;
+
+    /**
+     * The box to compute corners.
+     */
+    @NotNull
+    private final BoundingBox box;
+
+    /**
+     * The vector to compute corners.
+     */
+    @NotNull
+    private final Vector3f corner;
+
+    /**
+     * The positions of boxes.
+     */
+    @NotNull
+    private FloatBuffer positions;
+
+    /**
+     * The view of the positions with the full capacity to write boxes, the limit of the positions is reduced to
+     * the count of boxes.
+     */
+    @NotNull
+    private FloatBuffer positionWriter;
+
+    /**
+     * The indexes of lines of boxes.
+     */
+    @NotNull
+    private IntBuffer indexes;
+
+    /**
+     * The count of outlined geometries.
+     */
+    private int outlines;
+
+    /**
+     * True if the batch has changes since the last update.
+     */
+    private boolean changed;
+
+    SelectionBatch(@NotNull final Material material) {
+        this.entries = DictionaryFactory.newObjectDictionary();
+        this.slots = ArrayFactory.newArray(Entry.class);
+        this.box = new BoundingBox();
+        this.corner = new Vector3f();
+        this.positions = BufferUtils.createFloatBuffer(0);
+        this.positionWriter = positions.duplicate();
+        this.indexes = BufferUtils.createIntBuffer(0);
+        this.mesh = new Mesh();
+        this.mesh.setMode(Mesh.Mode.Lines);
+        this.mesh.setDynamic();
+        this.mesh.setBuffer(VertexBuffer.Type.Position, 3, positions);
+        this.mesh.setBuffer(VertexBuffer.Type.Index, 2, indexes);
+        this.boxes = new Geometry("SelectionShape", mesh);
+        this.boxes.setMaterial(material);
+        this.boxes.setCullHint(Spatial.CullHint.Never);
+        this.node = new Node("SelectionShapes");
+        this.node.setCullHint(Spatial.CullHint.Never);
+    }
+
+    /**
+     * @return the node of all selection shapes.
+     */
+    @NotNull
+    Node getNode() {
+        return node;
+    }
+
+    /**
+     * Add the spatial to the batch.
+     *
+     * @param spatial the spatial.
+     * @return false if the spatial can't be shown.
+     */
+    @EditorThread
+    boolean add(@NotNull final Spatial spatial) {
+
+        Spatial target = spatial;
+
+        if (spatial instanceof EditorLightNode) {
+            target = ((EditorLightNode) spatial).getModel();
+        } else if (spatial instanceof EditorAudioNode) {
+            target = ((EditorAudioNode) spatial).getModel();
+        }
+
+        if (target == null) target = spatial;
+
+        Geometry outline = null;
+
+        if (spatial instanceof Geometry && !(spatial instanceof ParticleEmitter)) {
+
+            final Mesh mesh = ((Geometry) spatial).getMesh();
+            if (mesh == null) return false;
+
+            if (outlines < MAX_OUTLINES) {
+                outline = new Geometry("SelectionShape", mesh);
+                outline.setMaterial(boxes.getMaterial());
+                node.attachChild(outline);
+                outlines++;
+            }
+        }
+
+        final Entry entry = new Entry(target, outline);
+
+        if (outline == null) {
+            entry.slot = slots.size();
+            slots.add(entry);
+            ensureCapacity(slots.size());
+            changed = true;
+        }
+
+        entries.put(spatial, entry);
+        return true;
+    }
+
+    /**
+     * Remove the spatial from the batch.
+     *
+     * @param spatial the spatial.
+     */
+    @EditorThread
+    void remove(@NotNull final Spatial spatial) {
+
+        final Entry entry = entries.remove(spatial);
+        if (entry == null) return;
+
+        final Geometry outline = entry.outline;
+
+        if (outline != null) {
+            outline.removeFromParent();
+            outlines--;
+            return;
+        }
+
+        final Entry last = slots.pop();
+
+        if (last != entry) {
+            last.slot = entry.slot;
+            last.dirty = true;
+            slots.set(entry.slot, last);
+        }
+
+        changed = true;
+    }
+
+    /**
+     * Mark all shapes to be rewritten, for example, after changing bounds of spatials.
+     */
+    @EditorThread
+    void invalidate() {
+        entries.forEach(entry -> entry.dirty = true);
+    }
+
+    /**
+     * Rewrite shapes of spatials which world transforms were changed.
+     */
+    @EditorThread
+    void update() {
+
+        for (final Entry entry : entries) {
+            update(entry);
+        }
+
+        if (!changed) return;
+
+        final int count = slots.size();
+
+        positions.limit(count * BOX_VERTICES * 3);
+        indexes.limit(count * BOX_INDEXES.length);
+
+        mesh.setBuffer(VertexBuffer.Type.Position, 3, positions);
+        mesh.setBuffer(VertexBuffer.Type.Index, 2, indexes);
+
+        if (count < 1) {
+            node.detachChild(boxes);
+        } else {
+            node.attachChild(boxes);
+        }
+
+        changed = false;
+    }
+
+    /**
+     * Rewrite the shape of the entry if its world transform was changed.
+     */
+    private void update(@NotNull final Entry entry) {
+
+        final Spatial target = entry.target;
+        final Transform worldTransform = target.getWorldTransform();
+
+        if (!entry.dirty && !entry.dynamic && entry.transform.equals(worldTransform)) {
+            return;
+        }
+
+        entry.transform.set(worldTransform);
+        entry.dirty = false;
+
+        final Geometry outline = entry.outline;
+
+        if (outline != null) {
+            outline.setLocalTransform(worldTransform);
+        } else {
+            writeBox(entry);
+            changed = true;
+        }
+    }
+
+    /**
+     * Write corners of the box of the entry to the batch.
+     */
+    private void writeBox(@NotNull final Entry entry) {
+
+        final Spatial target = entry.target;
+        final Transform transform;
+        final BoundingVolume bound;
+
+        // geometries are shown by oriented boxes of their meshes, other spatials by their world bounds
+        if (target instanceof Geometry && !entry.dynamic) {
+            final Mesh targetMesh = ((Geometry) target).getMesh();
+            bound = targetMesh == null ? null : targetMesh.getBound();
+            transform = entry.transform;
+        } else {
+            target.updateModelBound();
+            bound = target.getWorldBound();
+            transform = Transform.IDENTITY;
+        }
+
+        final BoundingBox box = this.box;
+
+        if (bound instanceof BoundingBox) {
+            final BoundingBox boundingBox = (BoundingBox) bound;
+            box.setCenter(boundingBox.getCenter());
+            box.setXExtent(boundingBox.getXExtent());
+            box.setYExtent(boundingBox.getYExtent());
+            box.setZExtent(boundingBox.getZExtent());
+        } else if (bound instanceof BoundingSphere) {
+            final BoundingSphere boundingSphere = (BoundingSphere) bound;
+            final float radius = boundingSphere.getRadius();
+            box.setCenter(boundingSphere.getCenter());
+            box.setXExtent(radius);
+            box.setYExtent(radius);
+            box.setZExtent(radius);
+        } else {
+            box.setCenter(entry.transform.getTranslation());
+            box.setXExtent(1F);
+            box.setYExtent(1F);
+            box.setZExtent(1F);
+        }
+
+        final Vector3f center = box.getCenter();
+        final Vector3f corner = this.corner;
+        final FloatBuffer positions = this.positionWriter;
+
+        int position = entry.slot * BOX_VERTICES * 3;
+
+        for (int i = 0; i < BOX_CORNERS.length; i += 3) {
+
+            corner.set(center.getX() + BOX_CORNERS[i] * box.getXExtent(),
+                    center.getY() + BOX_CORNERS[i + 1] * box.getYExtent(),
+                    center.getZ() + BOX_CORNERS[i + 2] * box.getZExtent());
+
+            transform.transformVector(corner, corner);
+
+            positions.put(position++, corner.getX());
+            positions.put(position++, corner.getY());
+            positions.put(position++, corner.getZ());
+        }
+    }
+
+    /**
+     * Grow buffers of the batch to store the count of boxes.
+     */
+    private void ensureCapacity(final int count) {
+
+        final int capacity = indexes.capacity() / BOX_INDEXES.length;
+        if (capacity >= count) return;
+
+        final int newCapacity = Math.max(count, capacity * 2);
+
+        final FloatBuffer newPositions = BufferUtils.createFloatBuffer(newCapacity * BOX_VERTICES * 3);
+        final IntBuffer newIndexes = BufferUtils.createIntBuffer(newCapacity * BOX_INDEXES.length);
+
+        positions.clear();
+        newPositions.put(positions);
+        newPositions.clear();
+
+        for (int i = 0; i < newCapacity; i++) {
+            for (final int index : BOX_INDEXES) {
+                newIndexes.put(i * BOX_VERTICES + index);
+            }
+        }
+
+        newIndexes.clear();
+
+        this.positions = newPositions;
+        this.positionWriter = newPositions.duplicate();
+        this.indexes = newIndexes;
+    }
+}
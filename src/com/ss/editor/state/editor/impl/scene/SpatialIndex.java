@@ -0,0 +1,570 @@
+package com.ss.editor.state.editor.impl.scene;
+
+import static java.util.Objects.requireNonNull;
+
+import com.jme3.bounding.BoundingBox;
+import com.jme3.bounding.BoundingSphere;
+import com.jme3.bounding.BoundingVolume;
+import com.jme3.collision.CollisionResults;
+import com.jme3.effect.ParticleEmitter;
+import com.jme3.math.Ray;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Spatial;
+import com.ss.editor.annotation.EditorThread;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import rlib.util.array.Array;
+import rlib.util.array.ArrayFactory;
+import rlib.util.dictionary.DictionaryFactory;
+import rlib.util.dictionary.ObjectDictionary;
+
+/**
+ * The bounding volume hierarchy over world bounds of geometries of a model. The hierarchy is rebuilt lazily after
+ * structure changes of the model, after transforming of spatials only bounds of changed geometries and their parent
+ * nodes are refitted. Geometries which can change bounds by themselves, such as particle emitters or geometries with
+ * controls, are refitted before every query.
+ *
+ * @author JavaSaBr
+ */
+class SpatialIndex {
+
+    /**
+     * The max count of geometries in a leaf node.
+     */
+    private static final int LEAF_SIZE = 4;
+
+    /**
+     * The geometries of the index.
+     */
+    @NotNull
+    private final Array<Geometry> geometries;
+
+    /**
+     * The table of geometry positions in the index.
+     */
+    @NotNull
+    private final ObjectDictionary<Geometry, Integer> positions;
+
+    /**
+     * The positions of geometries which bounds were changed.
+     */
+    @NotNull
+    private final BitSet changed;
+
+    /**
+     * The positions of geometries which can change bounds by themselves.
+     */
+    @NotNull
+    private int[] dynamic;
+
+    /**
+     * The bounds of geometries, 6 values per geometry: min x, y, z and max x, y, z.
+     */
+    @NotNull
+    private float[] geometryBounds;
+
+    /**
+     * The leaf nodes of geometries.
+     */
+    @NotNull
+    private int[] geometryNodes;
+
+    /**
+     * The bounds of nodes, 6 values per node.
+     */
+    @NotNull
+    private float[] nodeBounds;
+
+    /**
+     * The first geometry of leaf nodes or the right child of inner nodes, the left child of an inner node is the next
+     * node.
+     */
+    @NotNull
+    private int[] nodeFirst;
+
+    /**
+     * The count of geometries of leaf nodes or 0 for inner nodes.
+     */
+    @NotNull
+    private int[] nodeCount;
+
+    /**
+     * The parents of nodes.
+     */
+    @NotNull
+    private int[] nodeParents;
+
+    /**
+     * The count of nodes.
+     */
+    private int nodeSize;
+
+    /**
+     * The indexed model.
+     */
+    @Nullable
+    private Spatial model;
+
+    /**
+     * True if the hierarchy needs to be rebuilt.
+     */
+    private boolean invalid;
+
+    SpatialIndex() {
+        this.geometries = ArrayFactory.newArray(Geometry.class);
+        this.positions = DictionaryFactory.newObjectDictionary();
+        this.changed = new BitSet();
+        this.dynamic = new int[0];
+        this.geometryBounds = new float[0];
+        this.geometryNodes = new int[0];
+        this.nodeBounds = new float[0];
+        this.nodeFirst = new int[0];
+        this.nodeCount = new int[0];
+        this.nodeParents = new int[0];
+        this.invalid = true;
+    }
+
+    /**
+     * Set the model to index.
+     *
+     * @param model the model.
+     */
+    @EditorThread
+    void setModel(@Nullable final Spatial model) {
+        this.model = model;
+        invalidate();
+    }
+
+    /**
+     * Notify about changed structure of the model.
+     */
+    @EditorThread
+    void invalidate() {
+        invalid = true;
+        changed.clear();
+    }
+
+    /**
+     * Notify about changed bounds of geometries of the spatial.
+     *
+     * @param spatial the spatial.
+     */
+    @EditorThread
+    void notifyChanged(@NotNull final Spatial spatial) {
+        if (invalid) return;
+        spatial.depthFirstTraversal(child -> {
+            if (!(child instanceof Geometry)) return;
+            final Integer position = positions.get((Geometry) child);
+            if (position != null) changed.set(position);
+        });
+    }
+
+    /**
+     * Collide the ray with geometries of the model, only geometries which bounds are crossed by the ray are checked
+     * by triangles.
+     *
+     * @param ray     the ray.
+     * @param results the results.
+     */
+    @EditorThread
+    void collideWith(@NotNull final Ray ray, @NotNull final CollisionResults results) {
+        if (!prepare()) return;
+
+        final Vector3f origin = ray.getOrigin();
+        final Vector3f direction = ray.getDirection();
+        final float limit = ray.getLimit();
+
+        final float invX = 1F / direction.getX();
+        final float invY = 1F / direction.getY();
+        final float invZ = 1F / direction.getZ();
+
+        final float[] range = new float[2];
+        final int[] stack = new int[64];
+
+        int stackSize = 0;
+        stack[stackSize++] = 0;
+
+        while (stackSize > 0) {
+
+            final int node = stack[--stackSize];
+
+            if (!intersects(nodeBounds, node, origin, invX, invY, invZ, limit, range)) {
+                continue;
+            }
+
+            final int count = nodeCount[node];
+
+            if (count == 0) {
+                stack[stackSize++] = node + 1;
+                stack[stackSize++] = nodeFirst[node];
+                continue;
+            }
+
+            for (int i = nodeFirst[node], last = i + count; i < last; i++) {
+                if (intersects(geometryBounds, i, origin, invX, invY, invZ, limit, range)) {
+                    geometries.get(i).collideWith(ray, results);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuild or refit the hierarchy before a query.
+     *
+     * @return false if the index is empty.
+     */
+    @EditorThread
+    private boolean prepare() {
+
+        if (invalid) {
+            rebuild();
+        } else {
+
+            for (final int position : dynamic) {
+                refit(position);
+            }
+
+            for (int position = changed.nextSetBit(0); position >= 0; position = changed.nextSetBit(position + 1)) {
+                refit(position);
+            }
+
+            changed.clear();
+        }
+
+        return nodeSize > 0;
+    }
+
+    /**
+     * Refit bounds of the geometry and its parent nodes.
+     */
+    private void refit(final int position) {
+
+        updateBounds(geometries.get(position), position);
+
+        int node = geometryNodes[position];
+
+        while (node != -1) {
+
+            final int offset = node * 6;
+            final int count = nodeCount[node];
+
+            if (count == 0) {
+                union(nodeBounds, node + 1, nodeFirst[node], offset);
+            } else {
+                copyBounds(geometryBounds, nodeFirst[node], nodeBounds, offset);
+                for (int i = nodeFirst[node] + 1, last = nodeFirst[node] + count; i < last; i++) {
+                    unionLocal(nodeBounds, offset, geometryBounds, i * 6);
+                }
+            }
+
+            node = nodeParents[node];
+        }
+    }
+
+    /**
+     * Rebuild the hierarchy.
+     */
+    @EditorThread
+    private void rebuild() {
+        invalid = false;
+
+        geometries.clear();
+        positions.clear();
+        changed.clear();
+        nodeSize = 0;
+
+        final Spatial model = this.model;
+        if (model == null) return;
+
+        model.updateModelBound();
+
+        final Array<Geometry> collected = ArrayFactory.newArray(Geometry.class);
+        model.depthFirstTraversal(child -> {
+            if (child instanceof Geometry) collected.add((Geometry) child);
+        });
+
+        final int size = collected.size();
+        if (size == 0) return;
+
+        final float[] bounds = new float[size * 6];
+        final float[] centers = new float[size * 3];
+        final int[] order = new int[size];
+
+        for (int i = 0; i < size; i++) {
+
+            order[i] = i;
+
+            final Geometry geometry = collected.get(i);
+            readBounds(geometry.getWorldBound(), bounds, i * 6);
+
+            for (int axis = 0; axis < 3; axis++) {
+                centers[i * 3 + axis] = (bounds[i * 6 + axis] + bounds[i * 6 + 3 + axis]) * 0.5F;
+            }
+        }
+
+        final int maxNodes = size * 2;
+
+        geometryBounds = new float[size * 6];
+        geometryNodes = new int[size];
+        nodeBounds = new float[maxNodes * 6];
+        nodeFirst = new int[maxNodes];
+        nodeCount = new int[maxNodes];
+        nodeParents = new int[maxNodes];
+
+        build(order, 0, size, -1, bounds, centers);
+
+        final Array<Geometry> dynamicGeometries = ArrayFactory.newArray(Geometry.class);
+
+        for (int i = 0; i < size; i++) {
+
+            final Geometry geometry = collected.get(order[i]);
+            geometries.add(geometry);
+            positions.put(geometry, i);
+
+            System.arraycopy(bounds, order[i] * 6, geometryBounds, i * 6, 6);
+
+            if (isDynamic(geometry, model)) {
+                dynamicGeometries.add(geometry);
+            }
+        }
+
+        dynamic = new int[dynamicGeometries.size()];
+
+        for (int i = 0; i < dynamic.length; i++) {
+            dynamic[i] = requireNonNull(positions.get(dynamicGeometries.get(i)));
+        }
+    }
+
+    /**
+     * Build a node for the range of geometries by splitting them by the median on the longest axis.
+     *
+     * @return the index of the built node.
+     */
+    private int build(@NotNull final int[] order, final int start, final int end, final int parent,
+                      @NotNull final float[] bounds, @NotNull final float[] centers) {
+
+        final int node = nodeSize++;
+        final int offset = node * 6;
+
+        nodeParents[node] = parent;
+
+        copyBounds(bounds, order[start], nodeBounds, offset);
+
+        for (int i = start + 1; i < end; i++) {
+            unionLocal(nodeBounds, offset, bounds, order[i] * 6);
+        }
+
+        final int count = end - start;
+
+        if (count <= LEAF_SIZE) {
+
+            nodeFirst[node] = start;
+            nodeCount[node] = count;
+
+            for (int i = start; i < end; i++) {
+                geometryNodes[i] = node;
+            }
+
+            return node;
+        }
+
+        int axis = 0;
+        float maxExtent = -1F;
+
+        for (int i = 0; i < 3; i++) {
+
+            float min = Float.POSITIVE_INFINITY;
+            float max = Float.NEGATIVE_INFINITY;
+
+            for (int j = start; j < end; j++) {
+                final float center = centers[order[j] * 3 + i];
+                min = Math.min(min, center);
+                max = Math.max(max, center);
+            }
+
+            if (max - min > maxExtent) {
+                maxExtent = max - min;
+                axis = i;
+            }
+        }
+
+        final int middle = (start + end) >>> 1;
+
+        select(order, start, end - 1, middle, centers, axis);
+
+        nodeCount[node] = 0;
+
+        build(order, start, middle, node, bounds, centers);
+        nodeFirst[node] = build(order, middle, end, node, bounds, centers);
+
+        return node;
+    }
+
+    /**
+     * Partially sort the range of the order so the element at the position is at its sorted place.
+     */
+    private static void select(@NotNull final int[] order, int left, int right, final int position,
+                               @NotNull final float[] centers, final int axis) {
+
+        while (left < right) {
+
+            final float pivot = centers[order[(left + right) >>> 1] * 3 + axis];
+
+            int i = left;
+            int j = right;
+
+            while (i <= j) {
+
+                while (centers[order[i] * 3 + axis] < pivot) i++;
+                while (centers[order[j] * 3 + axis] > pivot) j--;
+
+                if (i <= j) {
+                    final int temp = order[i];
+                    order[i] = order[j];
+                    order[j] = temp;
+                    i++;
+                    j--;
+                }
+            }
+
+            if (position <= j) {
+                right = j;
+            } else if (position >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return true if bounds of the geometry can be changed without notifications.
+     */
+    private static boolean isDynamic(@NotNull final Geometry geometry, @NotNull final Spatial model) {
+
+        if (geometry instanceof ParticleEmitter) {
+            return true;
+        }
+
+        for (Spatial spatial = geometry; spatial != null; spatial = spatial.getParent()) {
+            if (spatial.getNumControls() > 0) return true;
+            if (spatial == model) break;
+        }
+
+        return false;
+    }
+
+    private void updateBounds(@NotNull final Geometry geometry, final int position) {
+        geometry.updateModelBound();
+        readBounds(geometry.getWorldBound(), geometryBounds, position * 6);
+    }
+
+    private void union(@NotNull final float[] bounds, final int first, final int second, final int offset) {
+        copyBounds(bounds, first, bounds, offset);
+        unionLocal(bounds, offset, bounds, second * 6);
+    }
+
+    private static void copyBounds(@NotNull final float[] source, final int index, @NotNull final float[] target,
+                                   final int offset) {
+        System.arraycopy(source, index * 6, target, offset, 6);
+    }
+
+    private static void unionLocal(@NotNull final float[] target, final int offset, @NotNull final float[] source,
+                                   final int sourceOffset) {
+        for (int i = 0; i < 3; i++) {
+            target[offset + i] = Math.min(target[offset + i], source[sourceOffset + i]);
+            target[offset + 3 + i] = Math.max(target[offset + 3 + i], source[sourceOffset + 3 + i]);
+        }
+    }
+
+    /**
+     * Read the bounding volume as min and max points, an empty volume is stored as inverted bounds.
+     */
+    private static void readBounds(@Nullable final BoundingVolume volume, @NotNull final float[] bounds,
+                                   final int offset) {
+
+        if (volume instanceof BoundingBox) {
+
+            final BoundingBox box = (BoundingBox) volume;
+            final Vector3f center = box.getCenter();
+
+            bounds[offset] = center.getX() - box.getXExtent();
+            bounds[offset + 1] = center.getY() - box.getYExtent();
+            bounds[offset + 2] = center.getZ() - box.getZExtent();
+            bounds[offset + 3] = center.getX() + box.getXExtent();
+            bounds[offset + 4] = center.getY() + box.getYExtent();
+            bounds[offset + 5] = center.getZ() + box.getZExtent();
+
+        } else if (volume instanceof BoundingSphere) {
+
+            final BoundingSphere sphere = (BoundingSphere) volume;
+            final Vector3f center = sphere.getCenter();
+            final float radius = sphere.getRadius();
+
+            bounds[offset] = center.getX() - radius;
+            bounds[offset + 1] = center.getY() - radius;
+            bounds[offset + 2] = center.getZ() - radius;
+            bounds[offset + 3] = center.getX() + radius;
+            bounds[offset + 4] = center.getY() + radius;
+            bounds[offset + 5] = center.getZ() + radius;
+
+        } else {
+            Arrays.fill(bounds, offset, offset + 3, Float.POSITIVE_INFINITY);
+            Arrays.fill(bounds, offset + 3, offset + 6, Float.NEGATIVE_INFINITY);
+        }
+    }
+
+    /**
+     * @return true if the bounds are empty.
+     */
+    private static boolean isEmpty(@NotNull final float[] bounds, final int index) {
+        return bounds[index * 6] > bounds[index * 6 + 3];
+    }
+
+    /**
+     * Check intersection of the ray with the bounds by the slab method.
+     */
+    private static boolean intersects(@NotNull final float[] bounds, final int index, @NotNull final Vector3f origin,
+                                      final float invX, final float invY, final float invZ, final float limit,
+                                      @NotNull final float[] range) {
+        if (isEmpty(bounds, index)) return false;
+
+        final int offset = index * 6;
+
+        range[0] = 0F;
+        range[1] = limit;
+
+        return clip(range, bounds[offset], bounds[offset + 3], origin.getX(), invX) &&
+                clip(range, bounds[offset + 1], bounds[offset + 4], origin.getY(), invY) &&
+                clip(range, bounds[offset + 2], bounds[offset + 5], origin.getZ(), invZ);
+    }
+
+    /**
+     * Clip the range of the ray by the slab of one axis, NaN values of a ray parallel to the slab are ignored.
+     *
+     * @return false if the range became empty.
+     */
+    private static boolean clip(@NotNull final float[] range, final float min, final float max, final float origin,
+                                final float inv) {
+
+        float near = (min - origin) * inv;
+        float far = (max - origin) * inv;
+
+        if (near > far) {
+            final float temp = near;
+            near = far;
+            far = temp;
+        }
+
+        if (near > range[0]) range[0] = near;
+        if (far < range[1]) range[1] = far;
+
+        return range[0] <= range[1];
+    }
+}
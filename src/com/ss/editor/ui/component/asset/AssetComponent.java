@@ -20,6 +20,7 @@ import com.ss.editor.ui.util.UIUtils;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import javafx.geometry.Insets;
@@ -94,7 +95,10 @@ public class AssetComponent extends VBox implements ScreenComponent {
         final ResourceElement element = ResourceElementFactory.createFor(file);
         final TreeItem<ResourceElement> treeItem = UIUtils.findItemForValue(resourceTree.getRoot(), element);
 
-        if (treeItem == null) {
+        if (treeItem == null && Files.exists(file)) {
+            resourceTree.expandTo(file, true);
+            return;
+        } else if (treeItem == null) {
             getWaitedFilesToSelect().add(file);
             return;
         }
@@ -0,0 +1,85 @@
+package com.ss.editor.ui.component.asset.tree;
+
+import com.ss.editor.annotation.FXThread;
+import com.ss.editor.ui.component.asset.tree.resource.ResourceElement;
+import com.ss.editor.ui.component.asset.tree.resource.ResourceLoadingElement;
+
+import org.jetbrains.annotations.NotNull;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+import rlib.util.array.Array;
+import rlib.util.array.ArrayFactory;
+
+/**
+ * The implementation of a tree item of a folder which loads its children only when it is expanded the first time.
+ * Until that the item contains only a loading placeholder.
+ *
+ * @author JavaSaBr
+ */
+class FolderTreeItem extends TreeItem<ResourceElement> {
+
+    /**
+     * The list of waiters of finishing loading of children.
+     */
+    @NotNull
+    private final Array<Runnable> waiters;
+
+    /**
+     * True if children of this item were loaded.
+     */
+    private boolean loaded;
+
+    /**
+     * True if children of this item are loading now.
+     */
+    private boolean loading;
+
+    FolderTreeItem(@NotNull final ResourceElement element) {
+        super(element);
+        this.waiters = ArrayFactory.newArray(Runnable.class);
+        getChildren().add(new TreeItem<>(ResourceLoadingElement.getInstance()));
+    }
+
+    /**
+     * @return true if children of this item were loaded.
+     */
+    @FXThread
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Start loading of children.
+     *
+     * @param waiter the waiter of finishing loading.
+     * @return true if loading should be started by the caller.
+     */
+    @FXThread
+    boolean startLoading(@NotNull final Runnable waiter) {
+        waiters.add(waiter);
+        if (loading) return false;
+        loading = true;
+        return true;
+    }
+
+    /**
+     * Finish loading of children.
+     *
+     * @param children the loaded children.
+     */
+    @FXThread
+    void finishLoading(@NotNull final Array<TreeItem<ResourceElement>> children) {
+
+        final ObservableList<TreeItem<ResourceElement>> items = getChildren();
+        items.setAll(children);
+
+        loaded = true;
+        loading = false;
+
+        final Array<Runnable> toNotify = ArrayFactory.newArray(Runnable.class);
+        toNotify.addAll(waiters);
+        waiters.clear();
+        toNotify.forEach(Runnable::run);
+    }
+}
@@ -5,10 +5,12 @@ import static com.ss.editor.ui.util.UIUtils.findItemForValue;
 import static java.util.Objects.requireNonNull;
 
 import com.ss.editor.config.EditorConfig;
+import com.ss.editor.executor.EditorTaskPriority;
 import com.ss.editor.file.converter.FileConverterDescription;
 import com.ss.editor.file.converter.FileConverterRegistry;
 import com.ss.editor.manager.ExecutorManager;
 import com.ss.editor.ui.component.asset.tree.context.menu.action.ConvertFileAction;
+import com.ss.editor.ui.component.asset.tree.context.menu.action.ConvertFolderAction;
 import com.ss.editor.ui.component.asset.tree.context.menu.action.CopyFileAction;
 import com.ss.editor.ui.component.asset.tree.context.menu.action.CutFileAction;
 import com.ss.editor.ui.component.asset.tree.context.menu.action.DeleteFileAction;
@@ -47,6 +49,7 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import rlib.function.IntObjectConsumer;
 import rlib.ui.util.FXUtils;
+import rlib.util.FileUtils;
 import rlib.util.StringUtils;
 import rlib.util.array.Array;
 import rlib.util.array.ArrayComparator;
@@ -265,25 +268,25 @@ public class ResourceTree extends TreeView<ResourceElement> {
 
         final Path file = element.getFile();
 
-        if(actionTester == null || actionTester.test(NewFileAction.class)) {
+        if (actionTester == null || actionTester.test(NewFileAction.class)) {
             items.add(new NewFileAction(element));
         }
 
         if (element instanceof FileElement) {
 
-            if(actionTester == null || actionTester.test(OpenFileAction.class)) {
+            if (actionTester == null || actionTester.test(OpenFileAction.class)) {
                 items.add(new OpenFileAction(element));
             }
 
-            if(actionTester == null || actionTester.test(OpenFileByExternalEditorAction.class)) {
+            if (actionTester == null || actionTester.test(OpenFileByExternalEditorAction.class)) {
                 items.add(new OpenFileByExternalEditorAction(element));
             }
 
-            if(actionTester == null || actionTester.test(OpenWithFileAction.class)) {
+            if (actionTester == null || actionTester.test(OpenWithFileAction.class)) {
                 items.add(new OpenWithFileAction(element));
             }
 
-            if(actionTester == null || actionTester.test(ConvertFileAction.class)) {
+            if (actionTester == null || actionTester.test(ConvertFileAction.class)) {
 
                 final Array<FileConverterDescription> descriptions = FILE_CONVERTER_REGISTRY.getDescriptions(file);
 
@@ -291,25 +294,31 @@ public class ResourceTree extends TreeView<ResourceElement> {
                     items.add(new ConvertFileAction(element, descriptions));
                 }
             }
+
+        } else if (element instanceof FolderElement) {
+
+            if (actionTester == null || actionTester.test(ConvertFolderAction.class)) {
+                items.add(new ConvertFolderAction(element));
+            }
         }
 
         if (EditorUtil.hasFileInClipboard()) items.add(new PasteFileAction(element));
 
         if (!Objects.equals(currentAsset, file)) {
 
-            if(actionTester == null || actionTester.test(CopyFileAction.class)) {
+            if (actionTester == null || actionTester.test(CopyFileAction.class)) {
                 items.add(new CopyFileAction(element));
             }
 
-            if(actionTester == null || actionTester.test(CutFileAction.class)) {
+            if (actionTester == null || actionTester.test(CutFileAction.class)) {
                 items.add(new CutFileAction(element));
             }
 
-            if(actionTester == null || actionTester.test(RenameFileAction.class)) {
+            if (actionTester == null || actionTester.test(RenameFileAction.class)) {
                 items.add(new RenameFileAction(element));
             }
 
-            if(actionTester == null || actionTester.test(DeleteFileAction.class)) {
+            if (actionTester == null || actionTester.test(DeleteFileAction.class)) {
                 items.add(new DeleteFileAction(element));
             }
         }
@@ -391,7 +400,7 @@ public class ResourceTree extends TreeView<ResourceElement> {
 
             final Array<TreeItem<ResourceElement>> allItems = UIUtils.getAllItems(this);
             allItems.forEach(item -> {
-                if (!item.isExpanded()) return;
+                if (!item.isExpanded() || !(item.getValue() instanceof FolderElement)) return;
                 expandedElements.add(item.getValue());
             });
 
@@ -432,17 +441,15 @@ public class ResourceTree extends TreeView<ResourceElement> {
      */
     private void startBackgroundFill(@NotNull final Path assetFolder) {
 
-        final ResourceElement rootElement = createFor(assetFolder);
-        final TreeItem<ResourceElement> newRoot = new TreeItem<>(rootElement);
-        newRoot.setExpanded(true);
-
-        fill(newRoot);
-
-        final Array<String> extensionFilter = getExtensionFilter();
-        if (!extensionFilter.isEmpty()) cleanup(newRoot);
+        final FolderTreeItem newRoot = new FolderTreeItem(createFor(assetFolder));
+        final Array<TreeItem<ResourceElement>> children = loadChildren(newRoot.getValue());
 
         EXECUTOR_MANAGER.addFXTask(() -> {
             setRoot(newRoot);
+            attachExpandHandler(newRoot);
+
+            newRoot.finishLoading(children);
+            newRoot.setExpanded(true);
 
             final Consumer<Boolean> onLoadHandler = getOnLoadHandler();
             if (onLoadHandler != null) onLoadHandler.accept(Boolean.TRUE);
@@ -454,82 +461,172 @@ public class ResourceTree extends TreeView<ResourceElement> {
      */
     private void startBackgroundRefresh(@NotNull final Path assetFolder) {
 
-        final ResourceElement rootElement = createFor(assetFolder);
-        final TreeItem<ResourceElement> newRoot = new TreeItem<>(rootElement);
-        newRoot.setExpanded(true);
+        final FolderTreeItem newRoot = new FolderTreeItem(createFor(assetFolder));
+        final Array<TreeItem<ResourceElement>> children = loadChildren(newRoot.getValue());
 
-        fill(newRoot);
+        EXECUTOR_MANAGER.addFXTask(() -> {
+            setRoot(newRoot);
+            attachExpandHandler(newRoot);
+
+            newRoot.finishLoading(children);
+            newRoot.setExpanded(true);
+
+            restoreExpanded();
+            restoreSelection();
+
+            final Consumer<Boolean> onLoadHandler = getOnLoadHandler();
+            if (onLoadHandler != null) onLoadHandler.accept(Boolean.TRUE);
+        });
+    }
+
+    /**
+     * Listen expanding of folders of the new root to load their children.
+     */
+    private void attachExpandHandler(@NotNull final TreeItem<ResourceElement> root) {
+        root.addEventHandler(TreeItem.<ResourceElement>branchExpandedEvent(), event -> {
+            final TreeItem<ResourceElement> treeItem = event.getTreeItem();
+            if (treeItem instanceof FolderTreeItem) load((FolderTreeItem) treeItem, () -> {});
+        });
+    }
+
+    /**
+     * Restore expanded folders.
+     */
+    private void restoreExpanded() {
 
         final ConcurrentArray<ResourceElement> expandedElements = getExpandedElements();
         final long stamp = expandedElements.writeLock();
         try {
 
             expandedElements.sort(COMPARATOR);
-            expandedElements.forEach(element -> {
+            expandedElements.forEach(element -> markExpand(element.getFile()));
+            expandedElements.clear();
 
-                final TreeItem<ResourceElement> item = findItemForValue(newRoot, element);
-                if (item == null) return;
+        } finally {
+            expandedElements.writeUnlock(stamp);
+        }
+    }
 
-                item.setExpanded(true);
-            });
+    /**
+     * Restore selection.
+     */
+    private void restoreSelection() {
 
-            expandedElements.clear();
+        final ConcurrentArray<ResourceElement> selectedElements = getSelectedElements();
+        final long stamp = selectedElements.writeLock();
+        try {
+
+            final MultipleSelectionModel<TreeItem<ResourceElement>> selectionModel = getSelectionModel();
+
+            selectedElements.forEach(element -> loadItem(element.getFile(), selectionModel::select));
+            selectedElements.clear();
 
         } finally {
-            expandedElements.writeUnlock(stamp);
+            selectedElements.writeUnlock(stamp);
         }
+    }
 
-        EXECUTOR_MANAGER.addFXTask(() -> {
-            setRoot(newRoot);
-            restoreSelection();
+    /**
+     * Load children of the folder item if they aren't loaded yet.
+     *
+     * @param treeItem the folder item.
+     * @param callback the callback to call after loading.
+     */
+    private void load(@NotNull final FolderTreeItem treeItem, @NotNull final Runnable callback) {
 
-            final Consumer<Boolean> onLoadHandler = getOnLoadHandler();
-            if (onLoadHandler != null) onLoadHandler.accept(Boolean.TRUE);
-        });
+        if (treeItem.isLoaded()) {
+            callback.run();
+            return;
+        } else if (!treeItem.startLoading(callback)) {
+            return;
+        }
+
+        final ResourceElement element = treeItem.getValue();
+
+        EXECUTOR_MANAGER.addBackgroundTask(() -> {
+            final Array<TreeItem<ResourceElement>> children = loadChildren(element);
+            EXECUTOR_MANAGER.addFXTask(() -> treeItem.finishLoading(children));
+        }, EditorTaskPriority.HIGH);
     }
 
     /**
-     * Restore selection.
+     * Find a tree item for the file, children of folders on the path to the file are loaded if they aren't loaded
+     * yet.
+     *
+     * @param file    the file.
+     * @param handler the handler of the found item.
      */
-    private void restoreSelection() {
-        EXECUTOR_MANAGER.addFXTask(() -> {
+    private void loadItem(@NotNull final Path file, @NotNull final Consumer<TreeItem<ResourceElement>> handler) {
 
-            final ConcurrentArray<ResourceElement> selectedElements = getSelectedElements();
-            final long stamp = selectedElements.writeLock();
-            try {
+        final TreeItem<ResourceElement> root = getRoot();
+        if (root == null) return;
 
-                final MultipleSelectionModel<TreeItem<ResourceElement>> selectionModel = getSelectionModel();
+        final ResourceElement rootElement = root.getValue();
+        final Path rootFile = rootElement.getFile();
+        if (rootFile == null || !file.startsWith(rootFile)) return;
 
-                selectedElements.forEach(element -> {
-                    final TreeItem<ResourceElement> item = findItemForValue(getRoot(), element);
-                    if (item == null) return;
-                    selectionModel.select(item);
-                });
+        loadItem(root, file, handler);
+    }
 
-                selectedElements.clear();
+    private void loadItem(@NotNull final TreeItem<ResourceElement> treeItem, @NotNull final Path file,
+                          @NotNull final Consumer<TreeItem<ResourceElement>> handler) {
 
-            } finally {
-                selectedElements.writeUnlock(stamp);
+        final ResourceElement element = treeItem.getValue();
+
+        if (file.equals(element.getFile())) {
+            handler.accept(treeItem);
+            return;
+        } else if (!(treeItem instanceof FolderTreeItem)) {
+            return;
+        }
+
+        load((FolderTreeItem) treeItem, () -> {
+
+            final ObservableList<TreeItem<ResourceElement>> children = treeItem.getChildren();
+
+            for (final TreeItem<ResourceElement> child : children) {
+
+                final Path childFile = child.getValue().getFile();
+
+                if (childFile != null && file.startsWith(childFile)) {
+                    loadItem(child, file, handler);
+                    return;
+                }
             }
         });
     }
 
     /**
-     * Fill the node.
+     * Load and sort children of the element, folders get a loading placeholder instead of their children.
      */
-    private void fill(@NotNull final TreeItem<ResourceElement> treeItem) {
+    @NotNull
+    private Array<TreeItem<ResourceElement>> loadChildren(@NotNull final ResourceElement element) {
 
-        final ResourceElement element = treeItem.getValue();
+        final Array<TreeItem<ResourceElement>> result = ArrayFactory.newArray(TreeItem.class);
         final Array<String> extensionFilter = getExtensionFilter();
-        if (!element.hasChildren(extensionFilter)) return;
-
-        final ObservableList<TreeItem<ResourceElement>> items = treeItem.getChildren();
+        if (!element.hasChildren(extensionFilter)) return result;
 
         final Array<ResourceElement> children = element.getChildren(extensionFilter);
+        if (children == null) return result;
+
         children.sort(NAME_COMPARATOR);
-        children.forEach(child -> items.add(new TreeItem<>(child)));
+        children.forEach(child -> {
+            if (!extensionFilter.isEmpty() && child instanceof FolderElement && !child.hasChildren(extensionFilter)) {
+                return;
+            }
+            result.add(createItem(child));
+        });
+
+        return result;
+    }
 
-        items.forEach(this::fill);
+    /**
+     * Create a tree item for the element.
+     */
+    @NotNull
+    private TreeItem<ResourceElement> createItem(@NotNull final ResourceElement element) {
+        if (element instanceof FolderElement) return new FolderTreeItem(element);
+        return new TreeItem<>(element);
     }
 
     /**
@@ -550,17 +647,26 @@ public class ResourceTree extends TreeView<ResourceElement> {
 
         if (folderItem == null) {
             notifyCreated(folder);
-            folderItem = findItemForValue(getRoot(), folder);
+            folderItem = findItemForValue(getRoot(), element);
         }
 
-        if (folderItem == null) return;
+        // not loaded folders will list the file when they are expanded
+        if (folderItem == null || folderItem instanceof FolderTreeItem && !((FolderTreeItem) folderItem).isLoaded()) {
+            return;
+        }
 
-        final TreeItem<ResourceElement> newItem = new TreeItem<>(createFor(file));
+        final ResourceElement newElement = createFor(file);
+        final Array<String> extensionFilter = getExtensionFilter();
 
-        fill(newItem);
+        if (!extensionFilter.isEmpty() && newElement instanceof FileElement) {
+            final String extension = FileUtils.getExtension(file);
+            if (!extensionFilter.contains(extension)) return;
+        }
 
         final ObservableList<TreeItem<ResourceElement>> children = folderItem.getChildren();
-        children.add(newItem);
+        if (findItemForValue(folderItem, newElement) != null) return;
+
+        children.add(createItem(newElement));
 
         FXCollections.sort(children, ITEM_COMPARATOR);
     }
@@ -601,6 +707,11 @@ public class ResourceTree extends TreeView<ResourceElement> {
         final ObservableList<TreeItem<ResourceElement>> prevParentChildren = prevParentItem.getChildren();
         prevParentChildren.remove(prevItem);
 
+        // not loaded folders will list the file when they are expanded
+        if (newParentItem instanceof FolderTreeItem && !((FolderTreeItem) newParentItem).isLoaded()) {
+            return;
+        }
+
         prevItem.setValue(createFor(newFile));
 
         final Array<TreeItem<ResourceElement>> children = ArrayFactory.newArray(TreeItem.class);
@@ -612,6 +723,8 @@ public class ResourceTree extends TreeView<ResourceElement> {
 
             final ResourceElement resourceElement = child.getValue();
             final Path file = resourceElement.getFile();
+            if (file == null) return;
+
             final Path relativeFile = file.subpath(prevFile.getNameCount(), file.getNameCount());
             final Path resultFile = newFile.resolve(relativeFile);
 
@@ -647,6 +760,8 @@ public class ResourceTree extends TreeView<ResourceElement> {
 
             final ResourceElement resourceElement = child.getValue();
             final Path file = resourceElement.getFile();
+            if (file == null) return;
+
             final Path relativeFile = file.subpath(prevFile.getNameCount(), file.getNameCount());
             final Path resultFile = newFile.resolve(relativeFile);
 
@@ -707,27 +822,6 @@ public class ResourceTree extends TreeView<ResourceElement> {
         return openFunction;
     }
 
-    /**
-     * Cleanup the tree.
-     */
-    private void cleanup(@NotNull final TreeItem<ResourceElement> treeItem) {
-
-        final ResourceElement element = treeItem.getValue();
-        if (element instanceof FileElement) return;
-
-        final ObservableList<TreeItem<ResourceElement>> children = treeItem.getChildren();
-
-        for (int i = children.size() - 1; i >= 0; i--) {
-            cleanup(children.get(i));
-        }
-
-        if (children.isEmpty() && treeItem.getParent() != null) {
-            final TreeItem<ResourceElement> parent = treeItem.getParent();
-            final ObservableList<TreeItem<ResourceElement>> parentChildren = parent.getChildren();
-            parentChildren.remove(treeItem);
-        }
-    }
-
     /**
      * Expand tree to the file.
      */
@@ -746,36 +840,17 @@ public class ResourceTree extends TreeView<ResourceElement> {
     }
 
     /**
-     * Mark the element as expanded.
+     * Mark the element as expanded, not loaded folders on the path to the element are loaded.
      */
     public void markExpand(@NotNull final Path file) {
-
-        final ResourceElement element = createFor(file);
-        final TreeItem<ResourceElement> treeItem = findItemForValue(getRoot(), element);
-        if (treeItem == null) return;
-
-        treeItem.setExpanded(true);
+        loadItem(file, treeItem -> treeItem.setExpanded(true));
     }
 
     /**
-     * Expand tree to the file.
+     * Expand tree to the file, not loaded folders on the path to the file are loaded.
      */
     public void expandTo(@NotNull final Path file, final boolean needSelect) {
-
-        final ResourceElement element = createFor(file);
-        final TreeItem<ResourceElement> treeItem = findItemForValue(getRoot(), element);
-        if (treeItem == null) return;
-
-        TreeItem<ResourceElement> parent = treeItem;
-
-        while (parent != null) {
-            parent.setExpanded(true);
-            parent = parent.getParent();
-        }
-
-        if (needSelect) {
-            scrollToAndSelect(treeItem);
-        }
+        loadItem(file, treeItem -> expandTo(treeItem, needSelect));
     }
 
     private void scrollToAndSelect(@NotNull final TreeItem<ResourceElement> treeItem) {
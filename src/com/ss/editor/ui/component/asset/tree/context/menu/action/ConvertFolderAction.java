@@ -0,0 +1,41 @@
+package com.ss.editor.ui.component.asset.tree.context.menu.action;
+
+import com.ss.editor.Messages;
+import com.ss.editor.file.converter.FileConverterRegistry;
+import com.ss.editor.ui.Icons;
+import com.ss.editor.ui.component.asset.tree.resource.ResourceElement;
+
+import org.jetbrains.annotations.NotNull;
+
+import javafx.scene.control.MenuItem;
+import javafx.scene.image.ImageView;
+
+/**
+ * The action to convert all models in a folder.
+ *
+ * @author JavaSaBr
+ */
+public class ConvertFolderAction extends MenuItem {
+
+    private static final FileConverterRegistry FILE_CONVERTER_REGISTRY = FileConverterRegistry.getInstance();
+
+    /**
+     * The action element.
+     */
+    @NotNull
+    private final ResourceElement element;
+
+    public ConvertFolderAction(@NotNull final ResourceElement element) {
+        this.element = element;
+        setText(Messages.ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_CONVERT_FOLDER);
+        setGraphic(new ImageView(Icons.TRANSFORMATION_16));
+        setOnAction(event -> processConvert());
+    }
+
+    /**
+     * Process of converting.
+     */
+    private void processConvert() {
+        FILE_CONVERTER_REGISTRY.convertFolder(element.getFile());
+    }
+}
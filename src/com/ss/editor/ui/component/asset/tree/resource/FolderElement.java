@@ -2,12 +2,18 @@ package com.ss.editor.ui.component.asset.tree.resource;
 
 import static com.ss.editor.ui.component.asset.tree.resource.ResourceElementFactory.createFor;
 
+import com.ss.editor.manager.ResourceManager;
+import com.ss.editor.model.asset.AssetIndex;
+
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 
 import rlib.util.FileUtils;
 import rlib.util.array.Array;
@@ -57,6 +63,50 @@ public class FolderElement extends ResourceElement {
 
     @Override
     public boolean hasChildren(@NotNull final Array<String> extensionFilter) {
-        return true;
+        if (extensionFilter.isEmpty()) return true;
+
+        final ResourceManager resourceManager = ResourceManager.getInstance();
+        final AssetIndex assetIndex = resourceManager.getAssetIndex();
+
+        // folders of the current asset are checked by the index without visiting their content
+        if (assetIndex != null && assetIndex.contains(file)) {
+            return assetIndex.containsExtensions(file, extensionFilter);
+        }
+
+        final boolean[] result = {false};
+
+        try {
+            Files.walkFileTree(file, new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+                    final String fileName = dir.getFileName().toString();
+                    if (!dir.equals(file) && fileName.startsWith(".")) return FileVisitResult.SKIP_SUBTREE;
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(final Path child, final BasicFileAttributes attrs) {
+
+                    final String fileName = child.getFileName().toString();
+                    if (fileName.startsWith(".")) return FileVisitResult.CONTINUE;
+
+                    final String extension = FileUtils.getExtension(child);
+                    if (!extensionFilter.contains(extension)) return FileVisitResult.CONTINUE;
+
+                    result[0] = true;
+                    return FileVisitResult.TERMINATE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(final Path child, final IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+        }
+
+        return result[0];
     }
 }
@@ -30,6 +30,7 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import rlib.ui.util.FXUtils;
 import rlib.util.array.Array;
+import rlib.util.array.ArrayFactory;
 
 /**
  * The creator for creating a new material.
@@ -100,23 +101,14 @@ public class MaterialFileCreator extends AbstractFileCreator {
 
         AutoCompleteComboBoxListener.install(materialTypeComboBox);
 
-        final ObservableList<String> items = materialTypeComboBox.getItems();
-
-        definitions = RESOURCE_MANAGER.getAvailableMaterialDefinitions();
-        definitions.forEach(items::add);
+        // the list of definitions is filled when resources are scanned
+        definitions = ArrayFactory.newArray(String.class);
 
         final SingleSelectionModel<String> selectionModel = materialTypeComboBox.getSelectionModel();
-
-        if (definitions.contains(PBR_MAT_DEF)) {
-            selectionModel.select(PBR_MAT_DEF);
-        } else if (definitions.contains(LIGHTING_MAT_DEF)) {
-            selectionModel.select(LIGHTING_MAT_DEF);
-        } else {
-            selectionModel.select(definitions.first());
-        }
-
         selectionModel.selectedItemProperty().addListener((observable, oldValue, newValue) -> validateFileName());
 
+        RESOURCE_MANAGER.requestAvailableMaterialDefinitions(this::updateDefinitions);
+
         FXUtils.addToPane(materialTypeLabel, materialTypeContainer);
         FXUtils.addToPane(materialTypeComboBox, materialTypeContainer);
         FXUtils.addToPane(materialTypeContainer, root);
@@ -128,6 +120,33 @@ public class MaterialFileCreator extends AbstractFileCreator {
         VBox.setMargin(materialTypeContainer, FILE_NAME_CONTAINER_OFFSET);
     }
 
+    /**
+     * Fill the combo box by the available definitions.
+     *
+     * @param definitions the available definitions.
+     */
+    private void updateDefinitions(@NotNull final Array<String> definitions) {
+        this.definitions = definitions;
+
+        final ComboBox<String> materialTypeComboBox = getMaterialTypeComboBox();
+        final ObservableList<String> items = materialTypeComboBox.getItems();
+        items.clear();
+
+        definitions.forEach(items::add);
+
+        final SingleSelectionModel<String> selectionModel = materialTypeComboBox.getSelectionModel();
+
+        if (definitions.contains(PBR_MAT_DEF)) {
+            selectionModel.select(PBR_MAT_DEF);
+        } else if (definitions.contains(LIGHTING_MAT_DEF)) {
+            selectionModel.select(LIGHTING_MAT_DEF);
+        } else if (!definitions.isEmpty()) {
+            selectionModel.select(definitions.first());
+        }
+
+        validateFileName();
+    }
+
     @Override
     protected void validateFileName() {
         super.validateFileName();
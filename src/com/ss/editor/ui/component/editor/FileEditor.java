@@ -66,7 +66,8 @@ public interface FileEditor {
     boolean isDirty();
 
     /**
-     * Save new changes.
+     * Save new changes. It's called under {@link com.ss.editor.Editor#asyncLock()} which doesn't exclude the render
+     * frame, so the scene graph should be read in an editor thread task.
      */
     default void doSave() {
     }
@@ -11,6 +11,7 @@ import com.ss.editor.file.converter.FileConverterDescription;
 import com.ss.editor.file.converter.FileConverterRegistry;
 import com.ss.editor.manager.ExecutorManager;
 import com.ss.editor.manager.FileIconManager;
+import com.ss.editor.manager.StartupPipeline;
 import com.ss.editor.manager.WorkspaceManager;
 import com.ss.editor.model.workspace.Workspace;
 import com.ss.editor.state.editor.EditorAppState;
@@ -380,7 +381,7 @@ public class EditorAreaComponent extends TabPane implements ScreenComponent {
         final FileEditor editor = description == null ? EDITOR_REGISTRY.createEditorFor(file) : EDITOR_REGISTRY.createEditorFor(description, file);
         if (editor == null) return;
 
-        final long stamp = EDITOR.asyncLock();
+        // an editor loads the file to detached objects and attaches them to the scene using editor thread tasks
         try {
             editor.openFile(file);
         } catch (final Exception e) {
@@ -390,8 +391,6 @@ public class EditorAreaComponent extends TabPane implements ScreenComponent {
                 scene.decrementLoading();
             });
             return;
-        } finally {
-            EDITOR.asyncUnlock(stamp);
         }
 
         EXECUTOR_MANAGER.addFXTask(() -> addEditor(editor, event.isNeedShow()));
@@ -448,12 +447,17 @@ public class EditorAreaComponent extends TabPane implements ScreenComponent {
 
     @Override
     public void notifyFinishBuild() {
-        setIgnoreOpenedFiles(true);
-        try {
-            loadOpenedFiles();
-        } finally {
-            setIgnoreOpenedFiles(false);
-        }
+
+        // restored editors can need classes from libraries of the asset folder, they are loaded by the assets stage
+        final StartupPipeline startupPipeline = EDITOR.getStartupPipeline();
+        startupPipeline.whenFinished(Editor.STAGE_ASSETS).whenCompleteAsync((result, throwable) -> {
+            setIgnoreOpenedFiles(true);
+            try {
+                loadOpenedFiles();
+            } finally {
+                setIgnoreOpenedFiles(false);
+            }
+        }, EXECUTOR_MANAGER::addFXTask);
     }
 
     private void loadOpenedFiles() {
@@ -190,7 +190,10 @@ public abstract class AbstractFileEditor<R extends Pane> implements FileEditor {
     }
 
     /**
-     * The process of saving this file.
+     * The process of saving this file. The saving is executed under {@link Editor#asyncLock()}, which only prevents
+     * committing queued changes of the scene graph, the render frame isn't excluded by this lock. So {@link #doSave()}
+     * can read objects which are changed only through the editor thread tasks, but a snapshot of a scene graph should
+     * be taken in an editor thread task, which is executed under the exclusive lock.
      */
     protected void processSave() {
         final long stamp = EDITOR.asyncLock();
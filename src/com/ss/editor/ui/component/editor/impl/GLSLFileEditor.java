@@ -1,7 +1,5 @@
 package com.ss.editor.ui.component.editor.impl;
 
-import static java.util.Collections.singleton;
-
 import com.ss.editor.FileExtensions;
 import com.ss.editor.Messages;
 import com.ss.editor.ui.component.editor.EditorDescription;
@@ -9,8 +7,6 @@ import com.ss.editor.ui.css.CSSClasses;
 import com.ss.editor.ui.css.CSSIds;
 
 import org.fxmisc.richtext.CodeArea;
-import org.fxmisc.richtext.StyleSpans;
-import org.fxmisc.richtext.StyleSpansBuilder;
 import org.fxmisc.undo.UndoManager;
 import org.jetbrains.annotations.NotNull;
 
@@ -18,9 +14,6 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Collection;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
@@ -45,94 +38,6 @@ public class GLSLFileEditor extends AbstractFileEditor<VBox> {
         DESCRIPTION.addExtension(FileExtensions.GLSL_LIB);
     }
 
-    private static final String[] KEYWORDS = {
-            "define", "undef", "if", "ifdef", "ifndef",
-            "else", "elif", "endif", "error", "pragma",
-            "extension", "version", "line", "attribute", "const",
-            "uniform", "varying", "layout", "centroid", "flat",
-            "smooth", "noperspective", "patch", "sample", "break",
-            "continue", "do", "for", "while", "switch",
-            "case", "default", "if", "subroutine", "in", "out", "inout",
-            "void", "true", "false", "invariant", "discard", "return", "struct"
-    };
-
-    private static final String[] VALUE_TYPES = {
-            "float", "double", "int", "bool", "mat2", "mat3", "mat4", "uint", "uvec2", "uvec3", "uvec4",
-            "sampler1D", "sampler2D", "sampler3D", "samplerCube", "vec2", "vec3", "vec4"
-    };
-
-    private static final String KEYWORD_PATTERN = "\\b(" + String.join("|", KEYWORDS) + ")\\b";
-    private static final String VALUE_TYPE_PATTERN = "\\b(" + String.join("|", VALUE_TYPES) + ")\\b";
-    private static final String PAREN_PATTERN = "\\(|\\)";
-    private static final String BRACE_PATTERN = "\\{|\\}";
-    private static final String BRACKET_PATTERN = "\\[|\\]";
-    private static final String SEMICOLON_PATTERN = "\\;";
-    private static final String STRING_PATTERN = "\"([^\"\\\\]|\\\\.)*\"";
-    private static final String COMMENT_PATTERN = "//[^\n]*" + "|" + "/\\*(.|\\R)*?\\*/";
-
-    private static final Pattern PATTERN = Pattern.compile(
-            "(?<KEYWORD>" + KEYWORD_PATTERN + ")"
-                    + "|(?<VALUETYPE>" + VALUE_TYPE_PATTERN + ")"
-                    + "|(?<PAREN>" + PAREN_PATTERN + ")"
-                    + "|(?<BRACE>" + BRACE_PATTERN + ")"
-                    + "|(?<BRACKET>" + BRACKET_PATTERN + ")"
-                    + "|(?<SEMICOLON>" + SEMICOLON_PATTERN + ")"
-                    + "|(?<STRING>" + STRING_PATTERN + ")"
-                    + "|(?<COMMENT>" + COMMENT_PATTERN + ")"
-    );
-
-    private static StyleSpans<Collection<String>> computeHighlighting(final String text) {
-
-        final Matcher matcher = PATTERN.matcher(text);
-        final StyleSpansBuilder<Collection<String>> spansBuilder = new StyleSpansBuilder<>();
-
-        int lastKwEnd = 0;
-
-        while (matcher.find()) {
-
-            String styleClass = matcher.group("KEYWORD") != null ? "keyword" : null;
-
-            if (styleClass == null) {
-                styleClass = matcher.group("VALUETYPE") != null ? "value-type" : null;
-            }
-
-            if (styleClass == null) {
-                styleClass = matcher.group("PAREN") != null ? "paren" : null;
-            }
-
-            if (styleClass == null) {
-                styleClass = matcher.group("BRACE") != null ? "brace" : null;
-            }
-
-            if (styleClass == null) {
-                styleClass = matcher.group("BRACKET") != null ? "bracket" : null;
-            }
-
-            if (styleClass == null) {
-                styleClass = matcher.group("SEMICOLON") != null ? "semicolon" : null;
-            }
-
-            if (styleClass == null) {
-                styleClass = matcher.group("STRING") != null ? "string" : null;
-            }
-
-            if (styleClass == null) {
-                styleClass = matcher.group("COMMENT") != null ? "comment" : null;
-            }
-
-            assert styleClass != null;
-
-            spansBuilder.add(singleton("plain-code"), matcher.start() - lastKwEnd);
-            spansBuilder.add(singleton(styleClass), matcher.end() - matcher.start());
-
-            lastKwEnd = matcher.end();
-        }
-
-        spansBuilder.add(singleton("plain-code"), text.length() - lastKwEnd);
-
-        return spansBuilder.create();
-    }
-
     /**
      * The original content of the opened file.
      */
@@ -143,6 +48,11 @@ public class GLSLFileEditor extends AbstractFileEditor<VBox> {
      */
     private CodeArea codeArea;
 
+    /**
+     * The highlighter of the code.
+     */
+    private GLSLHighlighter highlighter;
+
     @NotNull
     @Override
     protected VBox createRoot() {
@@ -154,11 +64,12 @@ public class GLSLFileEditor extends AbstractFileEditor<VBox> {
 
         codeArea = new CodeArea();
         codeArea.setId(CSSIds.TEXT_EDITOR_TEXT_AREA);
-        codeArea.richChanges().subscribe(change -> codeArea.setStyleSpans(0, computeHighlighting(codeArea.getText())));
         codeArea.textProperty().addListener((observable, oldValue, newValue) -> updateDirty(newValue));
         codeArea.prefHeightProperty().bind(root.heightProperty());
         codeArea.prefWidthProperty().bind(root.widthProperty());
 
+        highlighter = new GLSLHighlighter(codeArea);
+
         FXUtils.addToPane(codeArea, root);
         FXUtils.addClassTo(codeArea, CSSClasses.MONO_FONT_13);
     }
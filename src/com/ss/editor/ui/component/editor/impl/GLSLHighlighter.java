@@ -0,0 +1,387 @@
+package com.ss.editor.ui.component.editor.impl;
+
+import static java.util.Collections.singleton;
+
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FXThread;
+import com.ss.editor.manager.ExecutorManager;
+
+import org.fxmisc.richtext.CodeArea;
+import org.fxmisc.richtext.PlainTextChange;
+import org.fxmisc.richtext.StyleSpans;
+import org.fxmisc.richtext.StyleSpansBuilder;
+import org.fxmisc.richtext.TwoDimensional.Bias;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The incremental highlighter of GLSL code. The code is lexed by lines, the highlighter keeps the state of lexer at
+ * the start of every line, so after changes only changed lines are lexed again and the next lines are lexed only
+ * while their start state is changed. Lexing is executed in the background after a short delay by chunks of lines,
+ * a chunk is lexed until the start states of lines converge, and its result is applied only if the code wasn't
+ * changed during the lexing.
+ *
+ * @author JavaSaBr
+ */
+class GLSLHighlighter {
+
+    @NotNull
+    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
+    private static final String[] KEYWORDS = {
+            "define", "undef", "if", "ifdef", "ifndef",
+            "else", "elif", "endif", "error", "pragma",
+            "extension", "version", "line", "attribute", "const",
+            "uniform", "varying", "layout", "centroid", "flat",
+            "smooth", "noperspective", "patch", "sample", "break",
+            "continue", "do", "for", "while", "switch",
+            "case", "default", "if", "subroutine", "in", "out", "inout",
+            "void", "true", "false", "invariant", "discard", "return", "struct"
+    };
+
+    private static final String[] VALUE_TYPES = {
+            "float", "double", "int", "bool", "mat2", "mat3", "mat4", "uint", "uvec2", "uvec3", "uvec4",
+            "sampler1D", "sampler2D", "sampler3D", "samplerCube", "vec2", "vec3", "vec4"
+    };
+
+    private static final String KEYWORD_PATTERN = "\\b(" + String.join("|", KEYWORDS) + ")\\b";
+    private static final String VALUE_TYPE_PATTERN = "\\b(" + String.join("|", VALUE_TYPES) + ")\\b";
+    private static final String PAREN_PATTERN = "\\(|\\)";
+    private static final String BRACE_PATTERN = "\\{|\\}";
+    private static final String BRACKET_PATTERN = "\\[|\\]";
+    private static final String SEMICOLON_PATTERN = "\\;";
+    private static final String STRING_PATTERN = "\"([^\"\\\\]|\\\\.)*\"";
+    private static final String LINE_COMMENT_PATTERN = "//.*";
+    private static final String COMMENT_START_PATTERN = "/\\*";
+
+    private static final Pattern PATTERN = Pattern.compile(
+            "(?<KEYWORD>" + KEYWORD_PATTERN + ")"
+                    + "|(?<VALUETYPE>" + VALUE_TYPE_PATTERN + ")"
+                    + "|(?<PAREN>" + PAREN_PATTERN + ")"
+                    + "|(?<BRACE>" + BRACE_PATTERN + ")"
+                    + "|(?<BRACKET>" + BRACKET_PATTERN + ")"
+                    + "|(?<SEMICOLON>" + SEMICOLON_PATTERN + ")"
+                    + "|(?<STRING>" + STRING_PATTERN + ")"
+                    + "|(?<LINECOMMENT>" + LINE_COMMENT_PATTERN + ")"
+                    + "|(?<COMMENTSTART>" + COMMENT_START_PATTERN + ")"
+    );
+
+    private static final String COMMENT_END = "*/";
+
+    /**
+     * The delay after the last change before highlighting.
+     */
+    private static final Duration HIGHLIGHT_DELAY = Duration.ofMillis(100);
+
+    /**
+     * The max count of lines to lex by one pass, the dirty lines and the next lines until the start states converge.
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    /**
+     * The result of lexing lines.
+     */
+    private static class LexResult {
+
+        /**
+         * The style spans of lines.
+         */
+        @NotNull
+        private final StyleSpans<Collection<String>>[] spans;
+
+        /**
+         * The states of lexer at the end of lines.
+         */
+        @NotNull
+        private final boolean[] endStates;
+
+        /**
+         * The count of lexed lines.
+         */
+        private int count;
+
+        @SuppressWarnings("unchecked")
+        private LexResult(final int count) {
+            this.spans = new StyleSpans[count];
+            this.endStates = new boolean[count];
+        }
+    }
+
+    /**
+     * The code area.
+     */
+    @NotNull
+    private final CodeArea codeArea;
+
+    /**
+     * The states of lexer at the start of lines, true if a line starts inside a block comment.
+     */
+    @NotNull
+    private boolean[] startStates;
+
+    /**
+     * The count of lines.
+     */
+    private int lineCount;
+
+    /**
+     * The version of the code.
+     */
+    private int version;
+
+    /**
+     * The first line to highlight.
+     */
+    private int dirtyFrom;
+
+    /**
+     * The line after the last line to highlight.
+     */
+    private int dirtyTo;
+
+    /**
+     * True if a lexing is running now.
+     */
+    private boolean running;
+
+    /**
+     * True if highlighting was requested during the running lexing.
+     */
+    private boolean pending;
+
+    GLSLHighlighter(@NotNull final CodeArea codeArea) {
+        this.codeArea = codeArea;
+        this.startStates = new boolean[64];
+        this.lineCount = 1;
+        codeArea.plainTextChanges().subscribe(this::processChange);
+        codeArea.plainTextChanges().successionEnds(HIGHLIGHT_DELAY).subscribe(change -> highlight());
+    }
+
+    /**
+     * Update states of lines and the dirty range by the change.
+     */
+    @FXThread
+    private void processChange(@NotNull final PlainTextChange change) {
+
+        version++;
+
+        final int from = codeArea.offsetToPosition(change.getPosition(), Bias.Forward).getMajor();
+        final int removed = countLines(change.getRemoved());
+        final int inserted = countLines(change.getInserted());
+        final int delta = inserted - removed;
+
+        if (delta > 0) {
+
+            if (lineCount + delta > startStates.length) {
+                startStates = Arrays.copyOf(startStates, Math.max(startStates.length * 2, lineCount + delta));
+            }
+
+            System.arraycopy(startStates, from + 1, startStates, from + 1 + delta, lineCount - from - 1);
+
+        } else if (delta < 0) {
+            System.arraycopy(startStates, from + 1 - delta, startStates, from + 1, lineCount - from - 1 + delta);
+        }
+
+        lineCount += delta;
+
+        if (dirtyFrom >= dirtyTo) {
+            dirtyFrom = from;
+            dirtyTo = from + inserted + 1;
+        } else {
+            if (dirtyTo > from) dirtyTo = Math.max(from, dirtyTo + delta);
+            dirtyFrom = Math.min(dirtyFrom, from);
+            dirtyTo = Math.max(dirtyTo, from + inserted + 1);
+        }
+
+        dirtyTo = Math.min(dirtyTo, lineCount);
+    }
+
+    /**
+     * Highlight the next chunk of dirty lines in the background.
+     */
+    @FXThread
+    private void highlight() {
+
+        if (running) {
+            pending = true;
+            return;
+        } else if (dirtyFrom >= dirtyTo) {
+            return;
+        }
+
+        final int from = dirtyFrom;
+        final int to = Math.min(lineCount, from + CHUNK_SIZE);
+        final int dirtyCount = Math.min(dirtyTo, to) - from;
+        final int currentVersion = version;
+        final boolean[] prevStartStates = Arrays.copyOfRange(startStates, from, to);
+
+        final String[] lines = new String[to - from];
+
+        for (int i = from; i < to; i++) {
+            lines[i - from] = codeArea.getText(i);
+        }
+
+        running = true;
+
+        EXECUTOR_MANAGER.addBackgroundTask(() -> {
+            final LexResult result = lex(lines, prevStartStates, dirtyCount);
+            EXECUTOR_MANAGER.addFXTask(() -> apply(result, from, currentVersion));
+        });
+    }
+
+    /**
+     * Apply the result of lexing if the code wasn't changed during the lexing.
+     */
+    @FXThread
+    private void apply(@NotNull final LexResult result, final int from, final int lexedVersion) {
+        running = false;
+
+        if (lexedVersion != version) {
+            if (pending) {
+                pending = false;
+                highlight();
+            }
+            return;
+        }
+
+        final StyleSpans<Collection<String>>[] spans = result.spans;
+        final boolean[] endStates = result.endStates;
+        final int count = result.count;
+
+        for (int i = 0; i < count; i++) {
+            codeArea.setStyleSpans(from + i, 0, spans[i]);
+        }
+
+        final int next = from + count;
+        final boolean endState = endStates[count - 1];
+
+        for (int i = 0; i < count - 1; i++) {
+            startStates[from + i + 1] = endStates[i];
+        }
+
+        // the chunk was finished before the start states converged, so the next chunk should be lexed
+        if (next < lineCount && startStates[next] != endState) {
+            startStates[next] = endState;
+            dirtyTo = Math.max(dirtyTo, next + 1);
+        }
+
+        dirtyFrom = next;
+        pending = false;
+
+        if (dirtyFrom < dirtyTo) {
+            highlight();
+        }
+    }
+
+    /**
+     * Lex the dirty lines and the next lines until the start state of a line is the same as before lexing.
+     *
+     * @param lines           the lines.
+     * @param prevStartStates the states of lexer at the start of the lines before lexing.
+     * @param dirtyCount      the count of dirty lines which should be lexed anyway.
+     * @return the result of lexing.
+     */
+    @NotNull
+    @BackgroundThread
+    private static LexResult lex(@NotNull final String[] lines, @NotNull final boolean[] prevStartStates,
+                                 final int dirtyCount) {
+
+        final LexResult result = new LexResult(lines.length);
+        final Matcher matcher = PATTERN.matcher("");
+
+        boolean inComment = prevStartStates[0];
+
+        for (int i = 0; i < lines.length; i++) {
+
+            final String line = lines[i];
+            final int length = line.length();
+            final StyleSpansBuilder<Collection<String>> spansBuilder = new StyleSpansBuilder<>();
+
+            matcher.reset(line);
+
+            int position = 0;
+
+            while (position < length) {
+
+                if (inComment) {
+
+                    final int end = line.indexOf(COMMENT_END, position);
+                    final int commentEnd = end < 0 ? length : end + COMMENT_END.length();
+
+                    spansBuilder.add(singleton("comment"), commentEnd - position);
+
+                    position = commentEnd;
+                    inComment = end < 0;
+                    continue;
+                }
+
+                if (!matcher.find(position)) {
+                    break;
+                }
+
+                spansBuilder.add(singleton("plain-code"), matcher.start() - position);
+
+                if (matcher.group("COMMENTSTART") != null) {
+                    spansBuilder.add(singleton("comment"), matcher.end() - matcher.start());
+                    inComment = true;
+                } else {
+                    spansBuilder.add(singleton(getStyleClass(matcher)), matcher.end() - matcher.start());
+                }
+
+                position = matcher.end();
+            }
+
+            spansBuilder.add(singleton(inComment ? "comment" : "plain-code"), length - position);
+
+            result.spans[i] = spansBuilder.create();
+            result.endStates[i] = inComment;
+            result.count = i + 1;
+
+            final int next = i + 1;
+
+            if (next >= dirtyCount && next < lines.length && prevStartStates[next] == inComment) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    @NotNull
+    private static String getStyleClass(@NotNull final Matcher matcher) {
+
+        if (matcher.group("KEYWORD") != null) {
+            return "keyword";
+        } else if (matcher.group("VALUETYPE") != null) {
+            return "value-type";
+        } else if (matcher.group("PAREN") != null) {
+            return "paren";
+        } else if (matcher.group("BRACE") != null) {
+            return "brace";
+        } else if (matcher.group("BRACKET") != null) {
+            return "bracket";
+        } else if (matcher.group("SEMICOLON") != null) {
+            return "semicolon";
+        } else if (matcher.group("STRING") != null) {
+            return "string";
+        }
+
+        return "comment";
+    }
+
+    private static int countLines(@NotNull final String text) {
+
+        int count = 0;
+
+        for (int i = 0, length = text.length(); i < length; i++) {
+            if (text.charAt(i) == '\n') count++;
+        }
+
+        return count;
+    }
+}
@@ -12,7 +12,6 @@ import org.jetbrains.annotations.NotNull;
 
 import java.nio.file.Path;
 
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.VBox;
 import rlib.ui.util.FXUtils;
@@ -77,9 +76,10 @@ public class ImageViewerEditor extends AbstractFileEditor<VBox> {
     }
 
     private void showImage(@NotNull final Path file) {
-        final Image preview = JAVA_FX_IMAGE_MANAGER.getTexturePreview(file, IMAGE_SIZE, IMAGE_SIZE);
         final ImageView imageView = getImageView();
-        imageView.setImage(preview);
+        JAVA_FX_IMAGE_MANAGER.loadTexturePreview(file, IMAGE_SIZE, IMAGE_SIZE, preview -> {
+            if (file.equals(getEditFile())) imageView.setImage(preview);
+        });
     }
 
     @Override
@@ -226,6 +226,12 @@ public class MaterialFileEditor extends AbstractFileEditor<StackPane> implements
         setDirty(result != 0);
     }
 
+    @Override
+    public void notifyOperationFailed(@NotNull final EditorOperation operation) {
+        final EditorOperationControl operationControl = getOperationControl();
+        operationControl.rollback(operation);
+    }
+
     protected void processChangedFile(@NotNull final FileChangedEvent event) {
 
         final Material currentMaterial = getCurrentMaterial();
@@ -512,14 +518,43 @@ public class MaterialFileEditor extends AbstractFileEditor<StackPane> implements
             final MaterialRenderParamsComponent materialRenderParamsComponent = getMaterialRenderParamsComponent();
             materialRenderParamsComponent.buildFor(material);
 
+            final MaterialDef materialDef = material.getMaterialDef();
             final ComboBox<String> materialDefinitionBox = getMaterialDefinitionBox();
             final ObservableList<String> items = materialDefinitionBox.getItems();
-            items.clear();
+            items.setAll(materialDef.getAssetName());
+
+            materialDefinitionBox.getSelectionModel().select(materialDef.getAssetName());
+
+        } finally {
+            setIgnoreListeners(false);
+        }
+
+        RESOURCE_MANAGER.requestAvailableMaterialDefinitions(definitions -> updateMaterialDefinitions(material, definitions));
+    }
 
-            final Array<String> availableMaterialDefinitions = RESOURCE_MANAGER.getAvailableMaterialDefinitions();
-            availableMaterialDefinitions.forEach(items::add);
+    /**
+     * Update the list of available material definitions when it was built.
+     *
+     * @param material    the material which the list was requested for.
+     * @param definitions the list of available material definitions.
+     */
+    private void updateMaterialDefinitions(@NotNull final Material material, @NotNull final Array<String> definitions) {
+        if (getCurrentMaterial() != material) return;
+
+        setIgnoreListeners(true);
+        try {
 
             final MaterialDef materialDef = material.getMaterialDef();
+            final ComboBox<String> materialDefinitionBox = getMaterialDefinitionBox();
+            final ObservableList<String> items = materialDefinitionBox.getItems();
+            items.clear();
+
+            definitions.forEach(items::add);
+
+            if (!items.contains(materialDef.getAssetName())) {
+                items.add(materialDef.getAssetName());
+            }
+
             materialDefinitionBox.getSelectionModel().select(materialDef.getAssetName());
 
         } finally {
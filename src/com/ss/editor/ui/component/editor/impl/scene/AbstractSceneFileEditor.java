@@ -4,6 +4,8 @@ import static com.ss.editor.control.transform.SceneEditorControl.LOADED_MODEL_KE
 import static com.ss.editor.util.EditorUtil.getAssetFile;
 import static com.ss.editor.util.EditorUtil.toAssetPath;
 import static com.ss.editor.util.MaterialUtils.updateMaterialIdNeed;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.util.Objects.requireNonNull;
 import static rlib.util.ClassUtils.unsafeCast;
 import com.jme3.asset.AssetManager;
@@ -19,12 +21,15 @@ import com.jme3.scene.Geometry;
 import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
 import com.jme3.scene.control.Control;
+import com.jme3.util.clone.Cloner;
 import com.ss.editor.FileExtensions;
 import com.ss.editor.Messages;
+import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.EditorThread;
 import com.ss.editor.annotation.FXThread;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.control.transform.SceneEditorControl.TransformType;
+import com.ss.editor.executor.EditorTaskPriority;
 import com.ss.editor.manager.WorkspaceManager;
 import com.ss.editor.model.undo.EditorOperation;
 import com.ss.editor.model.undo.EditorOperationControl;
@@ -53,9 +58,11 @@ import com.ss.editor.ui.css.CSSIds;
 import com.ss.editor.ui.event.impl.FileChangedEvent;
 import com.ss.editor.util.MaterialUtils;
 import com.ss.editor.util.NodeUtils;
+import com.ss.editor.util.ProgressOutputStream;
 import com.ss.extension.scene.SceneLayer;
 import com.ss.extension.scene.SceneNode;
 import javafx.geometry.Point2D;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.SplitPane;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.image.ImageView;
@@ -72,11 +79,17 @@ import rlib.util.array.Array;
 import rlib.util.array.ArrayFactory;
 import tonegod.emitter.filter.TonegodTranslucentBucketFilter;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -164,6 +177,12 @@ public abstract class AbstractSceneFileEditor<IM extends AbstractSceneFileEditor
     @Nullable
     private Pane editorAreaPane;
 
+    /**
+     * The progress of saving the model.
+     */
+    @Nullable
+    private ProgressBar saveProgress;
+
     /**
      * The selection toggle.
      */
@@ -204,6 +223,16 @@ public abstract class AbstractSceneFileEditor<IM extends AbstractSceneFileEditor
      */
     private boolean ignoreCameraMove;
 
+    /**
+     * True if the model is saving now.
+     */
+    private boolean saving;
+
+    /**
+     * True if need to save the model again after finishing the current saving.
+     */
+    private boolean needSaveAgain;
+
     public AbstractSceneFileEditor() {
         this.editorAppState = createEditorAppState();
         this.operationControl = new EditorOperationControl(this);
@@ -552,10 +581,18 @@ public abstract class AbstractSceneFileEditor<IM extends AbstractSceneFileEditor
     public void notifyChangeProperty(@Nullable final Object parent, @NotNull final Object object, @NotNull final String propertyName) {
 
         final ModelPropertyEditor modelPropertyEditor = getModelPropertyEditor();
-        modelPropertyEditor.syncFor(object);
+        modelPropertyEditor.syncFor(object, propertyName);
 
         final ModelNodeTree modelNodeTree = getModelNodeTree();
-        modelNodeTree.notifyChanged(parent, object);
+        modelNodeTree.notifyChanged(object);
+
+        final MA editorAppState = getEditorAppState();
+
+        if (object instanceof Spatial) {
+            editorAppState.notifyBoundsChanged((Spatial) object);
+        } else if (parent instanceof Spatial) {
+            editorAppState.notifyBoundsChanged((Spatial) parent);
+        }
     }
 
     @Override
@@ -568,6 +605,8 @@ public abstract class AbstractSceneFileEditor<IM extends AbstractSceneFileEditor
     public void notifyAddedChild(@NotNull final Object parent, @NotNull final Object added, final int index) {
 
         final MA editorAppState = getEditorAppState();
+        editorAppState.notifyStructureChanged();
+
         final ModelNodeTree modelNodeTree = getModelNodeTree();
         modelNodeTree.notifyAdded(parent, added, index);
 
@@ -584,6 +623,8 @@ public abstract class AbstractSceneFileEditor<IM extends AbstractSceneFileEditor
     public void notifyRemovedChild(@NotNull final Object parent, @NotNull final Object removed) {
 
         final MA editorAppState = getEditorAppState();
+        editorAppState.notifyStructureChanged();
+
         final ModelNodeTree modelNodeTree = getModelNodeTree();
         modelNodeTree.notifyRemoved(parent, removed);
 
@@ -600,6 +641,8 @@ public abstract class AbstractSceneFileEditor<IM extends AbstractSceneFileEditor
     public void notifyReplaced(@NotNull final Node parent, @NotNull final Spatial oldChild, @NotNull final Spatial newChild) {
 
         final MA editorAppState = getEditorAppState();
+        editorAppState.notifyStructureChanged();
+
         final Spatial currentModel = getCurrentModel();
 
         if (currentModel == oldChild) {
@@ -613,12 +656,20 @@ public abstract class AbstractSceneFileEditor<IM extends AbstractSceneFileEditor
 
     @Override
     public void notifyReplaced(@NotNull final Object parent, @Nullable final Object oldChild, @Nullable final Object newChild) {
+
+        final MA editorAppState = getEditorAppState();
+        editorAppState.notifyStructureChanged();
+
         final ModelNodeTree modelNodeTree = getModelNodeTree();
         modelNodeTree.notifyReplace(parent, oldChild, newChild);
     }
 
     @Override
     public void notifyMoved(@NotNull final Node prevParent, @NotNull final Node newParent, @NotNull final Spatial child, int index) {
+
+        final MA editorAppState = getEditorAppState();
+        editorAppState.notifyStructureChanged();
+
         final ModelNodeTree modelNodeTree = getModelNodeTree();
         modelNodeTree.notifyMoved(prevParent, newParent, child, index);
     }
@@ -637,6 +688,15 @@ public abstract class AbstractSceneFileEditor<IM extends AbstractSceneFileEditor
         return operationControl;
     }
 
+    @Override
+    public void notifyClosed() {
+        super.notifyClosed();
+
+        // releases snapshots which were spilled to the disk by operations
+        final EditorOperationControl operationControl = getOperationControl();
+        operationControl.clear();
+    }
+
     /**
      * Handle the selected object.
      */
@@ -740,6 +800,24 @@ public abstract class AbstractSceneFileEditor<IM extends AbstractSceneFileEditor
         editorAppState.updateSelection(selection);
     }
 
+    /**
+     * Select the few spatials in 3D state, invisible spatials are skipped.
+     *
+     * @param spatials the spatials to select.
+     */
+    @FXThread
+    public void selectSpatials(@NotNull final Array<Spatial> spatials) {
+
+        final Array<Spatial> selection = ArrayFactory.newArray(Spatial.class, spatials.size());
+
+        for (final Spatial spatial : spatials) {
+            if (spatial.isVisible()) selection.add(spatial);
+        }
+
+        final MA editorAppState = getEditorAppState();
+        editorAppState.updateSelection(selection);
+    }
+
     /**
      * @return the editor are panel.
      */
@@ -755,21 +833,193 @@ public abstract class AbstractSceneFileEditor<IM extends AbstractSceneFileEditor
         return editorAreaPane.contains(point2D);
     }
 
+    /**
+     * Save the model in the background. The model is deeply cloned in the editor thread to get a consistent snapshot,
+     * then the snapshot is serialized straight to a temp file in the background and the temp file replaces the edited
+     * file, so the model stays editable during saving and a failed saving doesn't corrupt the file.
+     */
     @Override
+    @FXThread
     public void doSave() {
 
+        if (saving) {
+            needSaveAgain = true;
+            return;
+        }
+
+        saving = true;
+
+        // all operations which were executed before this moment are applied in the editor thread before the snapshot
+        final int changes = changeCounter.get();
         final Path editFile = getEditFile();
         final M currentModel = getCurrentModel();
 
-        final BinaryExporter exporter = BinaryExporter.getInstance();
+        showSaveProgress(ProgressBar.INDETERMINATE_PROGRESS);
+
+        EXECUTOR_MANAGER.addEditorThreadTask(() -> {
+
+            final Spatial snapshot;
+            try {
+                snapshot = createSnapshot(currentModel);
+            } catch (final RuntimeException e) {
+                LOGGER.warning(this, e);
+                EXECUTOR_MANAGER.addFXTask(() -> finishSave(changes, false));
+                return;
+            }
+
+            EXECUTOR_MANAGER.addBackgroundTask(() -> writeSnapshot(editFile, snapshot, changes),
+                    EditorTaskPriority.HIGH);
+        });
+    }
+
+    /**
+     * Create a snapshot of the model which doesn't share meshes and materials with the model, so the model can be
+     * changed during serializing of the snapshot. Layers are cloned together with references to them from user data
+     * of spatials. App states and filters of a scene aren't cloned, because cloning of them changes their materials
+     * which are shared with the running states, so their current instances are written to the snapshot.
+     */
+    @NotNull
+    @EditorThread
+    private Spatial createSnapshot(@NotNull final M currentModel) {
+
+        final Cloner cloner = new Cloner();
+        cloner.setClonedValue(currentModel.getParent(), null);
+
+        if (currentModel instanceof SceneNode) {
+            final SceneNode sceneNode = (SceneNode) currentModel;
+            sceneNode.getAppStates().forEach(appState -> cloner.setClonedValue(appState, appState));
+            sceneNode.getFilters().forEach(filter -> cloner.setClonedValue(filter, filter));
+        }
+
+        return cloner.clone(currentModel);
+    }
 
-        try (final OutputStream out = Files.newOutputStream(editFile)) {
-            exporter.save(currentModel, out);
+    /**
+     * Serialize the snapshot of the model to the file. Serialized data goes straight to a temp file, the progress is
+     * estimated by the size of the previous version of the file.
+     */
+    @BackgroundThread
+    private void writeSnapshot(@NotNull final Path editFile, @NotNull final Spatial snapshot, final int changes) {
+
+        final Path parent = requireNonNull(editFile.getParent());
+
+        boolean success = false;
+        Path tempFile = null;
+
+        try {
+
+            final long expectedSize = Files.exists(editFile) ? Math.max(Files.size(editFile), 1) : 0;
+
+            tempFile = Files.createTempFile(parent, "." + editFile.getFileName(), ".tmp");
+            copyPermissions(editFile, tempFile);
+
+            try (final FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+
+                final OutputStream out = new ProgressOutputStream(new BufferedOutputStream(
+                        Channels.newOutputStream(channel)), written -> {
+                    if (expectedSize < 1) return;
+                    final double progress = Math.min((double) written / expectedSize, 1D);
+                    EXECUTOR_MANAGER.addFXTask(this, "saveProgress", () -> showSaveProgress(progress));
+                });
+
+                final BinaryExporter exporter = BinaryExporter.getInstance();
+                exporter.save(snapshot, out);
+
+                out.flush();
+                channel.force(true);
+            }
+
+            try {
+                Files.move(tempFile, editFile, REPLACE_EXISTING, ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, editFile, REPLACE_EXISTING);
+            }
+
+            success = true;
+
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.warning(this, e);
+        } finally {
+            deleteTempFile(tempFile);
+        }
+
+        final boolean result = success;
+        EXECUTOR_MANAGER.addFXTask(() -> finishSave(changes, result));
+    }
+
+    /**
+     * Copy permissions of the edited file to the temp file, because temp files are created only for the owner.
+     */
+    private void copyPermissions(@NotNull final Path editFile, @NotNull final Path tempFile) throws IOException {
+        if (!Files.exists(editFile)) return;
+
+        final PosixFileAttributeView view = Files.getFileAttributeView(editFile, PosixFileAttributeView.class);
+
+        if (view != null) {
+            Files.setPosixFilePermissions(tempFile, view.readAttributes().permissions());
+        }
+    }
+
+    private void deleteTempFile(@Nullable final Path tempFile) {
+        if (tempFile == null) return;
+        try {
+            Files.deleteIfExists(tempFile);
         } catch (final IOException e) {
             LOGGER.warning(this, e);
         }
+    }
 
-        setDirty(false);
+    /**
+     * Finish saving the model.
+     *
+     * @param changes the count of changes which were saved.
+     * @param success true if the model was saved.
+     */
+    @FXThread
+    private void finishSave(final int changes, final boolean success) {
+
+        saving = false;
+        hideSaveProgress();
+
+        if (success) {
+            // changes which were done during saving are still not saved
+            final int result = changeCounter.addAndGet(-changes);
+            setDirty(result != 0);
+        }
+
+        if (needSaveAgain) {
+            needSaveAgain = false;
+            if (isDirty()) doSave();
+        }
+    }
+
+    /**
+     * Show the progress of saving.
+     *
+     * @param progress the progress from 0 to 1 or {@link ProgressBar#INDETERMINATE_PROGRESS}.
+     */
+    @FXThread
+    private void showSaveProgress(final double progress) {
+
+        final ProgressBar saveProgress = this.saveProgress;
+        if (saveProgress == null || !saving) return;
+
+        saveProgress.setProgress(progress);
+        saveProgress.setVisible(true);
+        saveProgress.setManaged(true);
+    }
+
+    /**
+     * Hide the progress of saving.
+     */
+    @FXThread
+    private void hideSaveProgress() {
+
+        final ProgressBar saveProgress = this.saveProgress;
+        if (saveProgress == null) return;
+
+        saveProgress.setVisible(false);
+        saveProgress.setManaged(false);
     }
 
     @Override
@@ -791,6 +1041,13 @@ public abstract class AbstractSceneFileEditor<IM extends AbstractSceneFileEditor
         setDirty(result != 0);
     }
 
+    @Override
+    @FXThread
+    public void notifyOperationFailed(@NotNull final EditorOperation operation) {
+        final EditorOperationControl operationControl = getOperationControl();
+        operationControl.rollback(operation);
+    }
+
     /**
      * @return the scaling tool toggle.
      */
@@ -851,6 +1108,13 @@ public abstract class AbstractSceneFileEditor<IM extends AbstractSceneFileEditor
     protected void createToolbar(@NotNull final HBox container) {
         FXUtils.addToPane(createSaveAction(), container);
 
+        saveProgress = new ProgressBar();
+        saveProgress.setPrefWidth(80);
+        saveProgress.setVisible(false);
+        saveProgress.setManaged(false);
+
+        FXUtils.addToPane(saveProgress, container);
+
         selectionButton = new ToggleButton();
         selectionButton.setGraphic(new ImageView(Icons.CUBE_16));
         selectionButton.setSelected(true);
@@ -1126,7 +1390,7 @@ public abstract class AbstractSceneFileEditor<IM extends AbstractSceneFileEditor
      */
     @FromAnyThread
     public void notifyTransformed(@NotNull final Spatial spatial) {
-        EXECUTOR_MANAGER.addFXTask(() -> notifyTransformedImpl(spatial));
+        EXECUTOR_MANAGER.addFXTask(this, spatial, () -> notifyTransformedImpl(spatial));
     }
 
     /**
@@ -37,6 +37,8 @@ import javafx.scene.layout.VBox;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import rlib.ui.util.FXUtils;
+import rlib.util.array.Array;
+import rlib.util.array.ArrayFactory;
 
 import java.nio.file.Path;
 import java.util.Objects;
@@ -120,7 +122,7 @@ public class SceneFileEditor extends
 
         final AssetManager assetManager = EDITOR.getAssetManager();
         final SceneNode model = (SceneNode) assetManager.loadAsset(modelKey);
-        model.depthFirstTraversal(this::updateVisibility);
+        updateVisibility(model);
 
         MaterialUtils.cleanUpMaterialParams(model);
 
@@ -152,9 +154,23 @@ public class SceneFileEditor extends
         EXECUTOR_MANAGER.addFXTask(this::loadState);
     }
 
-    private void updateVisibility(@NotNull final Spatial spatial) {
-        final SceneLayer layer = SceneLayer.getLayer(spatial);
-        if (layer != null) spatial.setVisible(layer.isShowed());
+    /**
+     * Update visibility of spatials of the scene by their layers.
+     */
+    private void updateVisibility(@NotNull final SceneNode model) {
+
+        final Array<Spatial> members = ArrayFactory.newArray(Spatial.class);
+
+        for (final SceneLayer layer : model.getLayers()) {
+
+            model.getLayerMembers(layer, members);
+
+            for (final Spatial spatial : members) {
+                spatial.setVisible(layer.isShowed());
+            }
+
+            members.clear();
+        }
     }
 
     /**
@@ -419,7 +435,10 @@ public class SceneFileEditor extends
             layerNodeTree.notifyAdded((Spatial) added);
         }
 
-        EXECUTOR_MANAGER.addEditorThreadTask(() -> getCurrentModel().notifyAdded(added));
+        // attached spatials are already notified by the operations in the editor thread
+        if (parent instanceof LayersRoot || !(added instanceof Spatial)) {
+            EXECUTOR_MANAGER.addEditorThreadTask(() -> getCurrentModel().notifyAdded(added));
+        }
     }
 
     @Override
@@ -434,7 +453,10 @@ public class SceneFileEditor extends
             layerNodeTree.notifyRemoved(null, removed);
         }
 
-        EXECUTOR_MANAGER.addEditorThreadTask(() -> getCurrentModel().notifyRemoved(removed));
+        // detached spatials are already notified by the operations in the editor thread
+        if (parent instanceof LayersRoot || !(removed instanceof Spatial)) {
+            EXECUTOR_MANAGER.addEditorThreadTask(() -> getCurrentModel().notifyRemoved(removed));
+        }
     }
 
     @Override
@@ -458,7 +480,7 @@ public class SceneFileEditor extends
         }
 
         final LayerNodeTree layerNodeTree = getLayerNodeTree();
-        layerNodeTree.notifyChanged(null, object);
+        layerNodeTree.notifyChanged(object);
 
         if (!(object instanceof EditableProperty)) {
             return;
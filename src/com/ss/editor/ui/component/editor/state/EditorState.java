@@ -1,5 +1,10 @@
 package com.ss.editor.ui.component.editor.state;
 
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 
 /**
@@ -13,4 +18,20 @@ public interface EditorState extends Serializable {
      * @param handle the change handler.
      */
     void setChangeHandler(final Runnable handle);
+
+    /**
+     * Write this state to the output of a workspace file.
+     *
+     * @param out the output.
+     * @throws IOException if an I/O error occurs.
+     */
+    void write(@NotNull final DataOutput out) throws IOException;
+
+    /**
+     * Read this state from the input of a workspace file.
+     *
+     * @param in the input.
+     * @throws IOException if an I/O error occurs.
+     */
+    void read(@NotNull final DataInput in) throws IOException;
 }
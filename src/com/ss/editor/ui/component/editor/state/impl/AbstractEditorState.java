@@ -11,6 +11,10 @@ import com.ss.editor.ui.component.editor.state.EditorToolConfig;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import java.util.Objects;
 
 /**
@@ -191,6 +195,31 @@ public abstract class AbstractEditorState implements EditorState, EditorToolConf
         return cameraVRotation;
     }
 
+    @Override
+    public void write(@NotNull final DataOutput out) throws IOException {
+
+        final Vector3f cameraLocation = getCameraLocation();
+
+        out.writeFloat(cameraLocation.getX());
+        out.writeFloat(cameraLocation.getY());
+        out.writeFloat(cameraLocation.getZ());
+        out.writeFloat(cameraVRotation);
+        out.writeFloat(cameraHRotation);
+        out.writeFloat(cameraTDistance);
+        out.writeInt(toolWidth);
+        out.writeBoolean(toolCollapsed);
+    }
+
+    @Override
+    public void read(@NotNull final DataInput in) throws IOException {
+        getCameraLocation().set(in.readFloat(), in.readFloat(), in.readFloat());
+        this.cameraVRotation = in.readFloat();
+        this.cameraHRotation = in.readFloat();
+        this.cameraTDistance = in.readFloat();
+        this.toolWidth = in.readInt();
+        this.toolCollapsed = in.readBoolean();
+    }
+
     @Override
     public String toString() {
         return "AbstractEditorState{" +
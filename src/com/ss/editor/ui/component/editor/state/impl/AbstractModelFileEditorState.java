@@ -2,6 +2,12 @@ package com.ss.editor.ui.component.editor.state.impl;
 
 import com.ss.editor.ui.component.editor.impl.scene.AbstractSceneFileEditor;
 
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * The base implementation of a state container for the {@link AbstractSceneFileEditor}.
  *
@@ -88,6 +94,22 @@ public abstract class AbstractModelFileEditorState extends AbstractEditorState {
         }
     }
 
+    @Override
+    public void write(@NotNull final DataOutput out) throws IOException {
+        super.write(out);
+        out.writeInt(transformationType);
+        out.writeBoolean(enableGrid);
+        out.writeBoolean(enableSelection);
+    }
+
+    @Override
+    public void read(@NotNull final DataInput in) throws IOException {
+        super.read(in);
+        this.transformationType = in.readInt();
+        this.enableGrid = in.readBoolean();
+        this.enableSelection = in.readBoolean();
+    }
+
     @Override
     public String toString() {
         return "AbstractModelFileEditorState{" +
@@ -6,6 +6,10 @@ import com.ss.editor.ui.component.editor.impl.material.MaterialFileEditor;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * The implementation of a state container for the {@link MaterialFileEditor}.
  *
@@ -127,6 +131,24 @@ public class MaterialFileEditorState extends AbstractEditorState {
         }
     }
 
+    @Override
+    public void write(@NotNull final DataOutput out) throws IOException {
+        super.write(out);
+        out.writeInt(modelType);
+        out.writeInt(bucketTypeId);
+        out.writeInt(openedTool);
+        out.writeBoolean(lightEnable);
+    }
+
+    @Override
+    public void read(@NotNull final DataInput in) throws IOException {
+        super.read(in);
+        this.modelType = in.readInt();
+        this.bucketTypeId = in.readInt();
+        this.openedTool = in.readInt();
+        this.lightEnable = in.readBoolean();
+    }
+
     @Override
     public String toString() {
         return "MaterialFileEditorState{" +
@@ -2,6 +2,12 @@ package com.ss.editor.ui.component.editor.state.impl;
 
 import com.ss.editor.ui.component.editor.impl.model.ModelFileEditor;
 
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * The implementation of a state container for the {@link ModelFileEditor}.
  *
@@ -64,6 +70,20 @@ public class ModelFileEditorState extends AbstractModelFileEditorState {
         return enableLight;
     }
 
+    @Override
+    public void write(@NotNull final DataOutput out) throws IOException {
+        super.write(out);
+        out.writeInt(skyType);
+        out.writeBoolean(enableLight);
+    }
+
+    @Override
+    public void read(@NotNull final DataInput in) throws IOException {
+        super.read(in);
+        this.skyType = in.readInt();
+        this.enableLight = in.readBoolean();
+    }
+
     @Override
     public String toString() {
         return "ModelFileEditorState{" +
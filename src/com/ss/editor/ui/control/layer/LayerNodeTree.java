@@ -1,7 +1,6 @@
 package com.ss.editor.ui.control.layer;
 
 import static com.ss.editor.ui.control.tree.node.ModelNodeFactory.createFor;
-import static com.ss.editor.ui.util.UIUtils.findItemForValue;
 import com.jme3.scene.Spatial;
 import com.ss.editor.model.undo.editor.SceneChangeConsumer;
 import com.ss.editor.ui.control.tree.AbstractNodeTree;
@@ -41,12 +40,17 @@ public class LayerNodeTree extends AbstractNodeTree<SceneChangeConsumer> {
         final SceneLayer layer = SceneLayer.getLayer(spatial);
         if (layer == SceneLayer.NO_LAYER) return;
 
-        final ModelNode<?> objectNode = createFor(spatial);
-        final TreeItem<ModelNode<?>> newLayerItem = findItemForValue(getTreeView(), createFor(layer));
+        final TreeItem<ModelNode<?>> newLayerItem = findItem(layer);
 
-        if (newLayerItem != null) {
-            newLayerItem.getChildren().add(new TreeItem<>(objectNode));
+        if (newLayerItem == null) {
+            return;
+        } else if (!isLoaded(newLayerItem)) {
+            markHasChildren(newLayerItem);
+            return;
         }
+
+        final ModelNode<?> objectNode = createFor(spatial);
+        insertChild(newLayerItem, new TreeItem<>(objectNode), -1);
     }
 
     /**
@@ -57,21 +61,40 @@ public class LayerNodeTree extends AbstractNodeTree<SceneChangeConsumer> {
      */
     public void notifyChangedLayer(@NotNull final Spatial object, @Nullable final SceneLayer newLayer) {
 
-        final ModelNode<?> objectNode = createFor(object);
-        TreeItem<ModelNode<?>> objectItem = findItemForValue(getTreeView(), objectNode);
+        TreeItem<ModelNode<?>> objectItem = findItem(object);
 
         if (objectItem == null && newLayer != null) {
+            final ModelNode<?> objectNode = createFor(object);
             objectItem = new TreeItem<>(objectNode);
         } else if (objectItem != null) {
             final TreeItem<ModelNode<?>> parent = objectItem.getParent();
             parent.getChildren().remove(objectItem);
         }
 
-        final TreeItem<ModelNode<?>> newLayerItem =
-                newLayer == null ? null : findItemForValue(getTreeView(), createFor(newLayer));
+        final TreeItem<ModelNode<?>> newLayerItem = newLayer == null ? null : findItem(newLayer);
+
+        if (newLayerItem == null || objectItem == null) {
+            return;
+        } else if (!isLoaded(newLayerItem)) {
+            markHasChildren(newLayerItem);
+            return;
+        }
+
+        insertChild(newLayerItem, objectItem, -1);
+    }
 
-        if (newLayerItem != null) {
-            newLayerItem.getChildren().add(objectItem);
+    @Nullable
+    @Override
+    protected Object getParentElement(@NotNull final Object element) {
+
+        if (element instanceof SceneLayer) {
+            final TreeItem<ModelNode<?>> root = getTreeView().getRoot();
+            return root == null ? null : root.getValue().getElement();
+        } else if (element instanceof Spatial) {
+            final SceneLayer layer = SceneLayer.getLayer((Spatial) element);
+            return layer == SceneLayer.NO_LAYER ? null : layer;
         }
+
+        return null;
     }
 }
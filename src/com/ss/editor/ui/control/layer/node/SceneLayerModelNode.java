@@ -12,11 +12,13 @@ import com.ss.editor.ui.control.model.tree.action.RenameNodeAction;
 import com.ss.editor.ui.control.model.tree.action.operation.RenameNodeOperation;
 import com.ss.editor.ui.control.model.tree.action.operation.scene.ChangeVisibleSceneLayerOperation;
 import com.ss.editor.ui.control.model.tree.action.scene.RemoveSceneLayerAction;
+import com.ss.editor.ui.control.model.tree.action.scene.SelectLayerMembersAction;
 import com.ss.editor.ui.control.tree.AbstractNodeTree;
 import com.ss.editor.ui.control.tree.node.HideableNode;
 import com.ss.editor.ui.control.tree.node.ModelNode;
 import com.ss.editor.ui.control.tree.node.ModelNodeFactory;
 import com.ss.extension.scene.SceneLayer;
+import com.ss.extension.scene.SceneNode;
 import javafx.collections.ObservableList;
 import javafx.scene.control.MenuItem;
 import javafx.scene.image.Image;
@@ -42,6 +44,8 @@ public class SceneLayerModelNode extends ModelNode<SceneLayer> implements Hideab
 
         final SceneLayer layer = getElement();
 
+        items.add(new SelectLayerMembersAction(nodeTree, this));
+
         if (!layer.isBuiltIn()) {
             items.add(new RenameNodeAction(nodeTree, this));
             items.add(new RemoveSceneLayerAction(nodeTree, this));
@@ -71,13 +75,13 @@ public class SceneLayerModelNode extends ModelNode<SceneLayer> implements Hideab
         final Array<ModelNode<?>> result = ArrayFactory.newArray(ModelNode.class);
         final ModelChangeConsumer changeConsumer = (ModelChangeConsumer) requireNonNull(nodeTree.getChangeConsumer());
 
-        final Spatial currentModel = changeConsumer.getCurrentModel();
-        currentModel.depthFirstTraversal(spatial -> {
-            final SceneLayer layer = SceneLayer.getLayer(spatial);
-            if(layer == element) {
-                result.add(ModelNodeFactory.createFor(spatial));
-            }
-        });
+        final SceneNode sceneNode = (SceneNode) changeConsumer.getCurrentModel();
+        final Array<Spatial> members = ArrayFactory.newArray(Spatial.class);
+        sceneNode.getLayerMembers(element, members);
+
+        for (final Spatial spatial : members) {
+            result.add(ModelNodeFactory.createFor(spatial));
+        }
 
         return result;
     }
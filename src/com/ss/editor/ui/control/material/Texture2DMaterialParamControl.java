@@ -35,6 +35,7 @@ import com.ss.editor.ui.tooltip.ImageChannelPreview;
 import com.ss.editor.util.EditorUtil;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.nio.file.Path;
@@ -103,6 +104,12 @@ public class Texture2DMaterialParamControl extends MaterialParamControl {
      */
     private CheckBox flipButton;
 
+    /**
+     * The file of the shown texture.
+     */
+    @Nullable
+    private Path textureFile;
+
     public Texture2DMaterialParamControl(@NotNull final Consumer<EditorOperation> changeHandler,
                                          @NotNull final Material material, @NotNull final String parameterName) {
         super(changeHandler, material, parameterName);
@@ -389,6 +396,8 @@ public class Texture2DMaterialParamControl extends MaterialParamControl {
 
         if (param == null) {
 
+            textureFile = null;
+
             final ImageView preview = getTexturePreview();
             preview.setImage(null);
 
@@ -414,7 +423,13 @@ public class Texture2DMaterialParamControl extends MaterialParamControl {
         final Path realFile = EditorUtil.getRealFile(textureKey.getName());
 
         final ImageView preview = getTexturePreview();
-        preview.setImage(IMAGE_MANAGER.getTexturePreview(realFile, 28, 28));
+        preview.setImage(null);
+
+        textureFile = realFile;
+
+        IMAGE_MANAGER.loadTexturePreview(realFile, 28, 28, image -> {
+            if (realFile == textureFile) preview.setImage(image);
+        });
 
         textureTooltip.showImage(realFile);
     }
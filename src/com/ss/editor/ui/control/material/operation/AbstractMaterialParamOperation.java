@@ -1,12 +1,17 @@
 package com.ss.editor.ui.control.material.operation;
 
+import static rlib.util.ClassUtils.unsafeCast;
+
 import com.jme3.material.Material;
 import com.jme3.shader.VarType;
+import com.ss.editor.model.undo.EditorOperation;
 import com.ss.editor.model.undo.editor.MaterialChangeConsumer;
 import com.ss.editor.model.undo.impl.AbstractEditorOperation;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Objects;
+
 /**
  * Базовая реализация операции по смене параметра материала.
  *
@@ -22,7 +27,7 @@ public abstract class AbstractMaterialParamOperation<T> extends AbstractEditorOp
     /**
      * Новое значение.
      */
-    private final T newValue;
+    private T newValue;
 
     /**
      * Старое значение.
@@ -79,6 +84,17 @@ public abstract class AbstractMaterialParamOperation<T> extends AbstractEditorOp
         });
     }
 
+    @Override
+    public boolean merge(@NotNull final EditorOperation operation) {
+        if (operation.getClass() != getClass()) return false;
+
+        final AbstractMaterialParamOperation<?> other = (AbstractMaterialParamOperation<?>) operation;
+        if (!Objects.equals(paramName, other.paramName) || !Objects.equals(other.oldValue, newValue)) return false;
+
+        newValue = unsafeCast(other.newValue);
+        return true;
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + "{" +
@@ -6,6 +6,7 @@ import com.jme3.animation.LoopMode;
 import com.ss.editor.Messages;
 import com.ss.editor.ui.Icons;
 import com.ss.editor.ui.control.model.node.control.ControlModelNode;
+import com.ss.editor.ui.control.model.tree.action.animation.CompressAnimationsAction;
 import com.ss.editor.ui.control.model.tree.action.animation.PlaySettingsAction;
 import com.ss.editor.ui.control.tree.AbstractNodeTree;
 import com.ss.editor.ui.control.tree.node.ModelNode;
@@ -47,6 +48,7 @@ public class AnimationControlModelNode extends ControlModelNode<AnimControl> {
     public void fillContextMenu(@NotNull final AbstractNodeTree<?> nodeTree,
                                 @NotNull final ObservableList<MenuItem> items) {
         items.add(new PlaySettingsAction(nodeTree, this));
+        items.add(new CompressAnimationsAction(nodeTree, this));
         super.fillContextMenu(nodeTree, items);
     }
 
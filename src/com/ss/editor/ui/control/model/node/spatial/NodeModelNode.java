@@ -15,6 +15,7 @@ import com.ss.editor.ui.control.model.tree.action.emitter.CreateTonegodSoftEmitt
 import com.ss.editor.ui.control.model.tree.action.geometry.CreateBoxAction;
 import com.ss.editor.ui.control.model.tree.action.geometry.CreateQuadAction;
 import com.ss.editor.ui.control.model.tree.action.geometry.CreateSphereAction;
+import com.ss.editor.ui.control.model.tree.action.geometry.GenerateLoDAction;
 import com.ss.editor.ui.control.model.tree.action.light.CreateAmbientLightAction;
 import com.ss.editor.ui.control.model.tree.action.light.CreateDirectionLightAction;
 import com.ss.editor.ui.control.model.tree.action.light.CreatePointLightAction;
@@ -47,7 +48,7 @@ public class NodeModelNode<T extends Node> extends SpatialModelNode<T> {
     @Override
     protected Menu createToolMenu(final @NotNull AbstractNodeTree<?> nodeTree) {
         final Menu toolMenu = new Menu(Messages.MODEL_NODE_TREE_ACTION_TOOLS, new ImageView(Icons.INFLUENCER_16));
-        toolMenu.getItems().addAll(new OptimizeGeometryAction(nodeTree, this));
+        toolMenu.getItems().addAll(new OptimizeGeometryAction(nodeTree, this), new GenerateLoDAction(nodeTree, this));
         return toolMenu;
     }
 
@@ -87,6 +87,18 @@ public class DefaultControlPropertyBuilder extends AbstractPropertyBuilder<Model
         }
     }
 
+    @Override
+    public boolean isSameLayout(@NotNull final Object prevObject, @Nullable final Object prevParent,
+                                @NotNull final Object nextObject, @Nullable final Object nextParent) {
+
+        if (!(prevObject instanceof PhysicsRigidBody)) return true;
+
+        final PhysicsRigidBody prevBody = (PhysicsRigidBody) prevObject;
+        final PhysicsRigidBody nextBody = (PhysicsRigidBody) nextObject;
+
+        return (prevBody.getMass() != 0F) == (nextBody.getMass() != 0F);
+    }
+
     private void build(final @NotNull AbstractCinematicEvent control, final @NotNull VBox container,
                        final @NotNull ModelChangeConsumer changeConsumer) {
 
@@ -104,6 +104,7 @@ public class GeometryPropertyBuilder extends AbstractPropertyBuilder<ModelChange
                 new DefaultModelPropertyControl<>(modelBound, Messages.BOUNDING_VOLUME_MODEL_PROPERTY_CONTROL_NAME, changeConsumer);
 
         boundingVolumeControl.setToStringFunction(BOUNDING_VOLUME_TO_STRING);
+        boundingVolumeControl.setSyncHandler(Geometry::getModelBound);
         boundingVolumeControl.reload();
         boundingVolumeControl.setEditObject(geometry);
 
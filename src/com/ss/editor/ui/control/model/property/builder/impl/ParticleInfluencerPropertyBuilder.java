@@ -96,6 +96,12 @@ public class ParticleInfluencerPropertyBuilder extends AbstractPropertyBuilder<M
         }
     }
 
+    @Override
+    public boolean isSameLayout(@NotNull final Object prevObject, @Nullable final Object prevParent,
+                                @NotNull final Object nextObject, @Nullable final Object nextParent) {
+        return !(prevObject instanceof ParticleInfluencer) || prevParent == nextParent;
+    }
+
     protected void createControls(final @NotNull VBox container, final @NotNull ModelChangeConsumer changeConsumer,
                                   @NotNull final InterpolatedParticleInfluencer influencer, @NotNull final Object parent) {
 
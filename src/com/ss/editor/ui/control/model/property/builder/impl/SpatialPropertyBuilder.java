@@ -237,6 +237,33 @@ public class SpatialPropertyBuilder extends AbstractPropertyBuilder<ModelChangeC
         }
     }
 
+    @Override
+    public boolean isSameLayout(@NotNull final Object prevObject, @Nullable final Object prevParent,
+                                @NotNull final Object nextObject, @Nullable final Object nextParent) {
+
+        if (!(prevObject instanceof Spatial)) return true;
+
+        final Spatial prevSpatial = (Spatial) prevObject;
+        final Spatial nextSpatial = (Spatial) nextObject;
+
+        final Collection<String> prevKeys = prevSpatial.getUserDataKeys();
+        final Collection<String> nextKeys = nextSpatial.getUserDataKeys();
+
+        if (prevKeys.size() != nextKeys.size()) return false;
+
+        for (final String key : prevKeys) {
+
+            final Object prevData = prevSpatial.getUserData(key);
+            final Object nextData = nextSpatial.getUserData(key);
+
+            if (nextData == null || prevData.getClass() != nextData.getClass()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     private boolean canEditTransformation(@NotNull final Spatial spatial) {
         return !(spatial instanceof SceneNode || spatial instanceof SceneLayer);
     }
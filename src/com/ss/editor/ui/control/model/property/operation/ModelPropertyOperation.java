@@ -25,7 +25,8 @@ public class ModelPropertyOperation<D, T> extends AbstractPropertyOperation<Mode
     protected void redoImpl(@NotNull final ModelChangeConsumer editor) {
         EXECUTOR_MANAGER.addEditorThreadTask(() -> {
             apply(target, newValue);
-            EXECUTOR_MANAGER.addFXTask(() -> editor.notifyChangeProperty(null, target, propertyName));
+            EXECUTOR_MANAGER.addFXTask(target, propertyName,
+                    () -> editor.notifyChangeProperty(null, target, propertyName));
         });
     }
 
@@ -33,7 +34,8 @@ public class ModelPropertyOperation<D, T> extends AbstractPropertyOperation<Mode
     protected void undoImpl(@NotNull final ModelChangeConsumer editor) {
         EXECUTOR_MANAGER.addEditorThreadTask(() -> {
             apply(target, oldValue);
-            EXECUTOR_MANAGER.addFXTask(() -> editor.notifyChangeProperty(null, target, propertyName));
+            EXECUTOR_MANAGER.addFXTask(target, propertyName,
+                    () -> editor.notifyChangeProperty(null, target, propertyName));
         });
     }
 }
\ No newline at end of file
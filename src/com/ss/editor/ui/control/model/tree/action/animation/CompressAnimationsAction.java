@@ -0,0 +1,109 @@
+package com.ss.editor.ui.control.model.tree.action.animation;
+
+import static java.util.Objects.requireNonNull;
+import com.jme3.animation.AnimControl;
+import com.jme3.animation.Animation;
+import com.jme3.animation.BoneTrack;
+import com.jme3.animation.Track;
+import com.ss.editor.Messages;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.model.undo.editor.ModelChangeConsumer;
+import com.ss.editor.ui.Icons;
+import com.ss.editor.ui.control.model.tree.action.AbstractNodeAction;
+import com.ss.editor.ui.control.model.tree.action.operation.animation.ChangeBoneTracksOperation;
+import com.ss.editor.ui.control.tree.AbstractNodeTree;
+import com.ss.editor.ui.control.tree.node.ModelNode;
+import com.ss.editor.util.AnimationUtils;
+import com.ss.editor.util.EditorUtil;
+import com.ss.editor.util.PackedBoneTrack;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+
+import javafx.scene.image.Image;
+import rlib.util.array.Array;
+import rlib.util.array.ArrayFactory;
+
+/**
+ * The implementation of the {@link AbstractNodeAction} to compress all animations of the {@link AnimControl} by
+ * removing key frames which can be interpolated from neighbour key frames.
+ *
+ * @author JavaSaBr
+ */
+public class CompressAnimationsAction extends AbstractNodeAction<ModelChangeConsumer> {
+
+    public CompressAnimationsAction(@NotNull final AbstractNodeTree<?> nodeTree, @NotNull final ModelNode<?> node) {
+        super(nodeTree, node);
+    }
+
+    @NotNull
+    @Override
+    protected String getName() {
+        return Messages.MODEL_NODE_TREE_ACTION_ANIMATION_COMPRESS;
+    }
+
+    @Nullable
+    @Override
+    protected Image getIcon() {
+        return Icons.ANIMATION_16;
+    }
+
+    @Override
+    protected void process() {
+        EditorUtil.incrementLoading();
+        EXECUTOR_MANAGER.addBackgroundTask(this::processCompress);
+    }
+
+    /**
+     * Process of compressing animations.
+     */
+    @BackgroundThread
+    private void processCompress() {
+
+        final AnimControl control = (AnimControl) getNode().getElement();
+        final Collection<String> animationNames = control.getAnimationNames();
+
+        final Array<BoneTrack> tracks = ArrayFactory.newArray(BoneTrack.class);
+        final Array<BoneTrack> newData = ArrayFactory.newArray(BoneTrack.class);
+        final Array<BoneTrack> prevData = ArrayFactory.newArray(BoneTrack.class);
+
+        try {
+
+            for (final String animationName : animationNames) {
+
+                final Animation animation = control.getAnim(animationName);
+
+                for (final Track track : animation.getTracks()) {
+                    if (!(track instanceof BoneTrack)) continue;
+
+                    final BoneTrack boneTrack = (BoneTrack) track;
+                    final BoneTrack compressed = AnimationUtils.compressBoneTrack(boneTrack);
+                    if (compressed == null) continue;
+
+                    tracks.add(boneTrack);
+                    newData.add(compressed);
+                    prevData.add(PackedBoneTrack.shallowCopy(boneTrack));
+                }
+            }
+
+        } catch (final RuntimeException e) {
+            EditorUtil.handleException(LOGGER, this, e);
+            EXECUTOR_MANAGER.addFXTask(EditorUtil::decrementLoading);
+            return;
+        }
+
+        EXECUTOR_MANAGER.addFXTask(() -> {
+
+            EditorUtil.decrementLoading();
+
+            // no key frames were removed, so there is nothing to undo
+            if (tracks.isEmpty()) return;
+
+            final ModelChangeConsumer changeConsumer = requireNonNull(getNodeTree().getChangeConsumer());
+            changeConsumer.execute(new ChangeBoneTracksOperation(control, tracks.toArray(BoneTrack.class),
+                    newData.toArray(BoneTrack.class), prevData.toArray(BoneTrack.class)));
+        });
+    }
+}
@@ -1,6 +1,6 @@
 package com.ss.editor.ui.control.model.tree.action.geometry;
 
-import com.jme3.scene.Geometry;
+import com.jme3.scene.Spatial;
 import com.ss.editor.Messages;
 import com.ss.editor.model.undo.editor.ModelChangeConsumer;
 import com.ss.editor.ui.Icons;
@@ -8,17 +8,15 @@ import com.ss.editor.ui.control.model.tree.action.AbstractNodeAction;
 import com.ss.editor.ui.control.model.tree.dialog.geometry.lod.GenerateLodLevelsDialog;
 import com.ss.editor.ui.control.tree.AbstractNodeTree;
 import com.ss.editor.ui.control.tree.node.ModelNode;
-import com.ss.editor.ui.control.model.node.spatial.GeometryModelNode;
 import com.ss.editor.ui.scene.EditorFXScene;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javafx.scene.image.Image;
-import rlib.util.ClassUtils;
 
 /**
- * The action to generate levels of details for the geometry.
+ * The action to generate levels of details for the geometry or all geometries of the node.
  *
  * @author JavaSaBr
  */
@@ -43,9 +41,8 @@ public class GenerateLoDAction extends AbstractNodeAction<ModelChangeConsumer> {
     @Override
     protected void process() {
         final EditorFXScene scene = JFX_APPLICATION.getScene();
-        final GeometryModelNode<Geometry> modelNode = ClassUtils.unsafeCast(getNode());
-        final Geometry geometry = modelNode.getElement();
-        final GenerateLodLevelsDialog dialog = new GenerateLodLevelsDialog(getNodeTree(), geometry);
+        final Spatial spatial = (Spatial) getNode().getElement();
+        final GenerateLodLevelsDialog dialog = new GenerateLodLevelsDialog(getNodeTree(), spatial);
         dialog.show(scene.getWindow());
     }
 }
@@ -4,6 +4,7 @@ import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
 import com.ss.editor.model.undo.editor.ModelChangeConsumer;
 import com.ss.editor.model.undo.impl.AbstractEditorOperation;
+import com.ss.editor.util.NodeUtils;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -37,6 +38,7 @@ public class AddChildOperation extends AbstractEditorOperation<ModelChangeConsum
     protected void redoImpl(@NotNull final ModelChangeConsumer editor) {
         EXECUTOR_MANAGER.addEditorThreadTask(() -> {
             parent.attachChildAt(newChild, 0);
+            NodeUtils.notifyAttached(parent, newChild);
 
             final TonegodTranslucentBucketFilter filter = EDITOR.getTranslucentBucketFilter();
             filter.refresh();
@@ -49,6 +51,7 @@ public class AddChildOperation extends AbstractEditorOperation<ModelChangeConsum
     protected void undoImpl(@NotNull final ModelChangeConsumer editor) {
         EXECUTOR_MANAGER.addEditorThreadTask(() -> {
             parent.detachChild(newChild);
+            NodeUtils.notifyDetached(parent, newChild);
             EXECUTOR_MANAGER.addFXTask(() -> editor.notifyRemovedChild(parent, newChild));
         });
     }
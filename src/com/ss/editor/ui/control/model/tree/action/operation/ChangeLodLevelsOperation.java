@@ -0,0 +1,87 @@
+package com.ss.editor.ui.control.model.tree.action.operation;
+
+import com.jme3.scene.Geometry;
+import com.jme3.scene.VertexBuffer;
+import com.ss.editor.Messages;
+import com.ss.editor.model.undo.editor.ModelChangeConsumer;
+import com.ss.editor.model.undo.impl.AbstractEditorOperation;
+import com.ss.editor.util.GeomUtils;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The operation to change levels of details of meshes of several geometries at once.
+ *
+ * @author JavaSaBr
+ */
+public class ChangeLodLevelsOperation extends AbstractEditorOperation<ModelChangeConsumer> {
+
+    /**
+     * The geometries.
+     */
+    @NotNull
+    private final Geometry[] geometries;
+
+    /**
+     * The new levels of meshes of the geometries.
+     */
+    @NotNull
+    private final VertexBuffer[][] newLevels;
+
+    /**
+     * The previous levels of meshes of the geometries.
+     */
+    @NotNull
+    private final VertexBuffer[][] prevLevels;
+
+    public ChangeLodLevelsOperation(@NotNull final Geometry[] geometries, @NotNull final VertexBuffer[][] newLevels,
+                                    @NotNull final VertexBuffer[][] prevLevels) {
+        this.geometries = geometries;
+        this.newLevels = newLevels;
+        this.prevLevels = prevLevels;
+    }
+
+    @Override
+    protected void redoImpl(@NotNull final ModelChangeConsumer editor) {
+        EXECUTOR_MANAGER.addEditorThreadTask(() -> apply(editor, newLevels));
+    }
+
+    @Override
+    protected void undoImpl(@NotNull final ModelChangeConsumer editor) {
+        EXECUTOR_MANAGER.addEditorThreadTask(() -> apply(editor, prevLevels));
+    }
+
+    /**
+     * Apply the levels to meshes of the geometries.
+     */
+    private void apply(@NotNull final ModelChangeConsumer editor, @NotNull final VertexBuffer[][] levels) {
+
+        for (int i = 0; i < geometries.length; i++) {
+            geometries[i].getMesh().setLodLevels(levels[i]);
+        }
+
+        EXECUTOR_MANAGER.addFXTask(() -> {
+            for (final Geometry geometry : geometries) {
+                editor.notifyChangeProperty(null, geometry, Messages.MODEL_PROPERTY_LOD);
+            }
+        });
+    }
+
+    @Override
+    public long getMemoryUsage() {
+        return getMemoryUsage(newLevels) + getMemoryUsage(prevLevels);
+    }
+
+    private static long getMemoryUsage(@NotNull final VertexBuffer[][] levels) {
+
+        long result = 0;
+
+        for (final VertexBuffer[] buffers : levels) {
+            for (final VertexBuffer buffer : buffers) {
+                result += GeomUtils.getMemoryUsage(buffer);
+            }
+        }
+
+        return result;
+    }
+}
@@ -1,14 +1,20 @@
 package com.ss.editor.ui.control.model.tree.action.operation;
 
+import static rlib.util.ClassUtils.unsafeCast;
+
 import com.jme3.scene.Geometry;
 import com.jme3.scene.Mesh;
+import com.ss.editor.model.undo.UndoableEditor;
 import com.ss.editor.model.undo.editor.ModelChangeConsumer;
 import com.ss.editor.model.undo.impl.AbstractEditorOperation;
+import com.ss.editor.model.undo.impl.SavableSnapshot;
+import com.ss.editor.util.GeomUtils;
 
 import org.jetbrains.annotations.NotNull;
 
 /**
- * The operation to change a mesh of a model.
+ * The operation to change a mesh of a model. The mesh which isn't used by the geometry can be spilled to the disk
+ * when the operation is compacted. If the mesh can't be loaded back, the editor rolls back its history.
  *
  * @author JavaSaBr
  */
@@ -18,13 +24,13 @@ public class ChangeMeshOperation extends AbstractEditorOperation<ModelChangeCons
      * The new mesh.
      */
     @NotNull
-    private final Mesh newMesh;
+    private final SavableSnapshot<Mesh> newMesh;
 
     /**
      * The previous mesh.
      */
     @NotNull
-    private final Mesh oldMesh;
+    private final SavableSnapshot<Mesh> oldMesh;
 
     /**
      * The geometry.
@@ -32,25 +38,78 @@ public class ChangeMeshOperation extends AbstractEditorOperation<ModelChangeCons
     @NotNull
     private final Geometry geometry;
 
+    /**
+     * True if the new mesh is applied to the geometry.
+     */
+    private volatile boolean applied;
+
     public ChangeMeshOperation(@NotNull final Mesh newMesh, @NotNull final Mesh oldMesh, @NotNull final Geometry geometry) {
-        this.newMesh = newMesh;
-        this.oldMesh = oldMesh;
+        this.newMesh = new SavableSnapshot<>(newMesh, GeomUtils.getMemoryUsage(newMesh));
+        this.oldMesh = new SavableSnapshot<>(oldMesh, GeomUtils.getMemoryUsage(oldMesh));
         this.geometry = geometry;
     }
 
     @Override
     protected void redoImpl(@NotNull final ModelChangeConsumer editor) {
-        EXECUTOR_MANAGER.addEditorThreadTask(() -> {
-            geometry.setMesh(newMesh);
-            EXECUTOR_MANAGER.addFXTask(() -> editor.notifyChangeProperty(geometry, newMesh, "mesh"));
-        });
+        applied = true;
+        apply(editor, newMesh, false);
     }
 
     @Override
     protected void undoImpl(@NotNull final ModelChangeConsumer editor) {
-        EXECUTOR_MANAGER.addEditorThreadTask(() -> {
-            geometry.setMesh(oldMesh);
-            EXECUTOR_MANAGER.addFXTask(() -> editor.notifyChangeProperty(geometry, oldMesh, "mesh"));
+        applied = false;
+        apply(editor, oldMesh, true);
+    }
+
+    /**
+     * Apply a mesh from the snapshot to the geometry.
+     *
+     * @param editor      the editor.
+     * @param snapshot    the snapshot of the mesh.
+     * @param prevApplied the state to restore if the mesh can't be loaded.
+     */
+    private void apply(@NotNull final ModelChangeConsumer editor, @NotNull final SavableSnapshot<Mesh> snapshot,
+                       final boolean prevApplied) {
+
+        snapshot.get(mesh -> {
+            geometry.setMesh(mesh);
+            EXECUTOR_MANAGER.addFXTask(() -> editor.notifyChangeProperty(geometry, mesh, "mesh"));
+        }, () -> {
+            applied = prevApplied;
+            final UndoableEditor undoableEditor = unsafeCast(editor);
+            undoableEditor.notifyOperationFailed(this);
         });
     }
+
+    /**
+     * The mesh of a snapshot is shared with the scene only while the geometry uses it, the mesh can be replaced by
+     * a later operation.
+     */
+    @Override
+    public long getMemoryUsage() {
+
+        final Mesh mesh = geometry.getMesh();
+
+        long result = 0;
+
+        if (!oldMesh.contains(mesh)) result += oldMesh.getMemoryUsage();
+        if (!newMesh.contains(mesh)) result += newMesh.getMemoryUsage();
+
+        return result;
+    }
+
+    @Override
+    public void compact() {
+
+        final Mesh mesh = geometry.getMesh();
+
+        if (!oldMesh.contains(mesh)) oldMesh.spill();
+        if (!newMesh.contains(mesh)) newMesh.spill();
+    }
+
+    @Override
+    public void release() {
+        oldMesh.release();
+        newMesh.release();
+    }
 }
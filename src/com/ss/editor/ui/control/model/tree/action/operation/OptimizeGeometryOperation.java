@@ -4,6 +4,8 @@ import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
 import com.ss.editor.model.undo.editor.ModelChangeConsumer;
 import com.ss.editor.model.undo.impl.AbstractEditorOperation;
+import com.ss.editor.util.GeomUtils;
+import com.ss.editor.util.NodeUtils;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -32,20 +34,40 @@ public class OptimizeGeometryOperation extends AbstractEditorOperation<ModelChan
     @NotNull
     private final Node parent;
 
+    /**
+     * The size in bytes of meshes of the new element.
+     */
+    private final long newMemoryUsage;
+
+    /**
+     * The size in bytes of meshes of the old element.
+     */
+    private final long oldMemoryUsage;
+
+    /**
+     * True if the new element is applied to the parent.
+     */
+    private volatile boolean applied;
+
     public OptimizeGeometryOperation(@NotNull final Spatial newSpatial, @NotNull final Spatial oldSpatial,
                                      @NotNull final Node parent) {
         this.newSpatial = newSpatial;
         this.oldSpatial = oldSpatial;
         this.parent = parent;
+        this.newMemoryUsage = GeomUtils.getMemoryUsage(newSpatial);
+        this.oldMemoryUsage = GeomUtils.getMemoryUsage(oldSpatial);
     }
 
     @Override
     protected void redoImpl(@NotNull final ModelChangeConsumer editor) {
+        applied = true;
         EXECUTOR_MANAGER.addEditorThreadTask(() -> {
 
             final int index = parent.getChildIndex(oldSpatial);
             parent.detachChildAt(index);
             parent.attachChildAt(newSpatial, index);
+            NodeUtils.notifyDetached(parent, oldSpatial);
+            NodeUtils.notifyAttached(parent, newSpatial);
 
             EXECUTOR_MANAGER.addFXTask(() -> editor.notifyReplaced(parent, oldSpatial, newSpatial));
         });
@@ -53,13 +75,21 @@ public class OptimizeGeometryOperation extends AbstractEditorOperation<ModelChan
 
     @Override
     protected void undoImpl(@NotNull final ModelChangeConsumer editor) {
+        applied = false;
         EXECUTOR_MANAGER.addEditorThreadTask(() -> {
 
             final int index = parent.getChildIndex(newSpatial);
             parent.detachChildAt(index);
             parent.attachChildAt(oldSpatial, index);
+            NodeUtils.notifyDetached(parent, newSpatial);
+            NodeUtils.notifyAttached(parent, oldSpatial);
 
             EXECUTOR_MANAGER.addFXTask(() -> editor.notifyReplaced(parent, newSpatial, oldSpatial));
         });
     }
+
+    @Override
+    public long getMemoryUsage() {
+        return applied ? oldMemoryUsage : newMemoryUsage;
+    }
 }
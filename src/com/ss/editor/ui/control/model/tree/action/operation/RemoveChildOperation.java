@@ -4,6 +4,7 @@ import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
 import com.ss.editor.model.undo.editor.ModelChangeConsumer;
 import com.ss.editor.model.undo.impl.AbstractEditorOperation;
+import com.ss.editor.util.NodeUtils;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -41,6 +42,7 @@ public class RemoveChildOperation extends AbstractEditorOperation<ModelChangeCon
     protected void redoImpl(@NotNull final ModelChangeConsumer editor) {
         EXECUTOR_MANAGER.addEditorThreadTask(() -> {
             parent.detachChild(child);
+            NodeUtils.notifyDetached(parent, child);
             EXECUTOR_MANAGER.addFXTask(() -> editor.notifyRemovedChild(parent, child));
         });
     }
@@ -49,6 +51,7 @@ public class RemoveChildOperation extends AbstractEditorOperation<ModelChangeCon
     protected void undoImpl(@NotNull final ModelChangeConsumer editor) {
         EXECUTOR_MANAGER.addEditorThreadTask(() -> {
             parent.attachChildAt(child, childIndex);
+            NodeUtils.notifyAttached(parent, child);
             EXECUTOR_MANAGER.addFXTask(() -> editor.notifyAddedChild(parent, child, childIndex));
         });
     }
@@ -0,0 +1,92 @@
+package com.ss.editor.ui.control.model.tree.action.operation.animation;
+
+import com.jme3.animation.AnimControl;
+import com.jme3.animation.BoneTrack;
+import com.ss.editor.model.undo.editor.ModelChangeConsumer;
+import com.ss.editor.model.undo.impl.AbstractEditorOperation;
+import com.ss.editor.util.PackedBoneTrack;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The implementation of the {@link AbstractEditorOperation} to change key frames of bone tracks of an animation
+ * control.
+ *
+ * @author JavaSaBr
+ */
+public class ChangeBoneTracksOperation extends AbstractEditorOperation<ModelChangeConsumer> {
+
+    /**
+     * The animation control.
+     */
+    @NotNull
+    private final AnimControl control;
+
+    /**
+     * The bone tracks to change.
+     */
+    @NotNull
+    private final BoneTrack[] tracks;
+
+    /**
+     * The bone tracks with new key frames.
+     */
+    @NotNull
+    private final BoneTrack[] newData;
+
+    /**
+     * The bone tracks with previous key frames.
+     */
+    @NotNull
+    private final BoneTrack[] prevData;
+
+    /**
+     * True if the new key frames are applied to the bone tracks.
+     */
+    private volatile boolean applied;
+
+    public ChangeBoneTracksOperation(@NotNull final AnimControl control, @NotNull final BoneTrack[] tracks,
+                                     @NotNull final BoneTrack[] newData, @NotNull final BoneTrack[] prevData) {
+        this.control = control;
+        this.tracks = tracks;
+        this.newData = newData;
+        this.prevData = prevData;
+    }
+
+    @Override
+    protected void redoImpl(@NotNull final ModelChangeConsumer editor) {
+        applied = true;
+        EXECUTOR_MANAGER.addEditorThreadTask(() -> apply(editor, newData));
+    }
+
+    @Override
+    protected void undoImpl(@NotNull final ModelChangeConsumer editor) {
+        applied = false;
+        EXECUTOR_MANAGER.addEditorThreadTask(() -> apply(editor, prevData));
+    }
+
+    /**
+     * Apply the key frames to the bone tracks.
+     */
+    private void apply(@NotNull final ModelChangeConsumer editor, @NotNull final BoneTrack[] data) {
+
+        for (int i = 0; i < tracks.length; i++) {
+            PackedBoneTrack.copyData(data[i], tracks[i]);
+        }
+
+        EXECUTOR_MANAGER.addFXTask(() -> editor.notifyChangeProperty(null, control, "tracks"));
+    }
+
+    @Override
+    public long getMemoryUsage() {
+
+        long result = 0;
+
+        // applied key frames share arrays with the bone tracks, so only not applied key frames are counted
+        for (final BoneTrack track : applied ? prevData : newData) {
+            result += PackedBoneTrack.getMemoryUsage(track);
+        }
+
+        return result;
+    }
+}
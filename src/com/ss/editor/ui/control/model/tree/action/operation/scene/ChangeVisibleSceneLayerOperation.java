@@ -4,9 +4,13 @@ import com.jme3.scene.Spatial;
 import com.ss.editor.model.undo.editor.ModelChangeConsumer;
 import com.ss.editor.model.undo.impl.AbstractEditorOperation;
 import com.ss.extension.scene.SceneLayer;
+import com.ss.extension.scene.SceneNode;
 
 import org.jetbrains.annotations.NotNull;
 
+import rlib.util.array.Array;
+import rlib.util.array.ArrayFactory;
+
 /**
  * The implementation of the {@link AbstractEditorOperation} to add a layer to a scene.
  *
@@ -34,14 +38,12 @@ public class ChangeVisibleSceneLayerOperation extends AbstractEditorOperation<Mo
     protected void redoImpl(@NotNull final ModelChangeConsumer editor) {
         EXECUTOR_MANAGER.addEditorThreadTask(() -> {
 
-            final Spatial currentModel = editor.getCurrentModel();
-
             if (needShow && !layer.isShowed()) {
                 layer.show();
-                currentModel.depthFirstTraversal(this::updateSpatial);
+                updateMembers(editor);
             } else if (!needShow && layer.isShowed()) {
                 layer.hide();
-                currentModel.depthFirstTraversal(this::updateSpatial);
+                updateMembers(editor);
             }
 
             needShow = !needShow;
@@ -50,23 +52,32 @@ public class ChangeVisibleSceneLayerOperation extends AbstractEditorOperation<Mo
         });
     }
 
-    private void updateSpatial(@NotNull final Spatial spatial) {
-        if (SceneLayer.getLayer(spatial) != layer) return;
-        spatial.setVisible(layer.isShowed());
+    /**
+     * Update visibility of members of the layer.
+     */
+    private void updateMembers(@NotNull final ModelChangeConsumer editor) {
+
+        final SceneNode sceneNode = (SceneNode) editor.getCurrentModel();
+        final Array<Spatial> members = ArrayFactory.newArray(Spatial.class);
+        sceneNode.getLayerMembers(layer, members);
+
+        final boolean showed = layer.isShowed();
+
+        for (final Spatial spatial : members) {
+            spatial.setVisible(showed);
+        }
     }
 
     @Override
     protected void undoImpl(@NotNull final ModelChangeConsumer editor) {
         EXECUTOR_MANAGER.addEditorThreadTask(() -> {
 
-            final Spatial currentModel = editor.getCurrentModel();
-
             if (needShow && !layer.isShowed()) {
                 layer.show();
-                currentModel.depthFirstTraversal(this::updateSpatial);
+                updateMembers(editor);
             } else if (!needShow && layer.isShowed()) {
                 layer.hide();
-                currentModel.depthFirstTraversal(this::updateSpatial);
+                updateMembers(editor);
             }
 
             needShow = !needShow;
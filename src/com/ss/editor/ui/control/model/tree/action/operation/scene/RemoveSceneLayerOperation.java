@@ -54,20 +54,16 @@ public class RemoveSceneLayerOperation extends AbstractEditorOperation<ModelChan
     @Override
     protected void redoImpl(@NotNull final ModelChangeConsumer editor) {
         EXECUTOR_MANAGER.addEditorThreadTask(() -> {
-            final Spatial currentModel = editor.getCurrentModel();
-            currentModel.depthFirstTraversal(this::clean);
+            sceneNode.getLayerMembers(layer, toRevert);
+            toRevert.forEach(this::clean);
             sceneNode.removeLayer(layer);
             EXECUTOR_MANAGER.addFXTask(() -> editor.notifyRemovedChild(layersRoot, layer));
         });
     }
 
     private void clean(@NotNull final Spatial spatial) {
-        final SceneLayer currentLayer = SceneLayer.getLayer(spatial);
-        if (currentLayer == layer) {
-            toRevert.add(spatial);
-            SceneLayer.setLayer(null, spatial);
-            spatial.setVisible(true);
-        }
+        SceneLayer.setLayer(null, spatial);
+        spatial.setVisible(true);
     }
 
     @Override
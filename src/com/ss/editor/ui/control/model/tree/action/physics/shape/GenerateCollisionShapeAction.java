@@ -1,7 +1,5 @@
 package com.ss.editor.ui.control.model.tree.action.physics.shape;
 
-import static com.jme3.bullet.util.CollisionShapeFactory.createDynamicMeshShape;
-import static com.jme3.bullet.util.CollisionShapeFactory.createMeshShape;
 import static java.util.Objects.requireNonNull;
 import com.jme3.bullet.collision.PhysicsCollisionObject;
 import com.jme3.bullet.collision.shapes.BoxCollisionShape;
@@ -14,10 +12,12 @@ import com.jme3.scene.Mesh;
 import com.jme3.scene.Spatial;
 import com.jme3.scene.shape.Box;
 import com.jme3.scene.shape.Sphere;
+import com.ss.editor.JFXApplication;
 import com.ss.editor.Messages;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.ui.Icons;
 import com.ss.editor.ui.control.model.tree.action.operation.ChangeCollisionShapeOperation;
+import com.ss.editor.ui.control.model.tree.dialog.physics.shape.GenerateCollisionShapeDialog;
 import com.ss.editor.ui.control.tree.AbstractNodeTree;
 import com.ss.editor.ui.control.tree.node.ModelNode;
 import javafx.scene.image.Image;
@@ -31,6 +31,9 @@ import org.jetbrains.annotations.Nullable;
  */
 public class GenerateCollisionShapeAction extends AbstractCreateShapeAction<PhysicsCollisionObject> {
 
+    @NotNull
+    private static final JFXApplication JFX_APPLICATION = JFXApplication.getInstance();
+
     public GenerateCollisionShapeAction(@NotNull final AbstractNodeTree<?> nodeTree, @NotNull final ModelNode<?> node) {
         super(nodeTree, node);
     }
@@ -64,11 +67,10 @@ public class GenerateCollisionShapeAction extends AbstractCreateShapeAction<Phys
         }
 
         if (shape == null) {
-            if (mass > 0) {
-                shape = createDynamicMeshShape(parentElement);
-            } else {
-                shape = createMeshShape(parentElement);
-            }
+            final GenerateCollisionShapeDialog dialog = new GenerateCollisionShapeDialog(nodeTree, object,
+                    parentElement, mass > 0);
+            dialog.show(JFX_APPLICATION.getScene().getWindow());
+            return;
         }
 
         final ChangeConsumer changeConsumer = requireNonNull(nodeTree.getChangeConsumer());
@@ -0,0 +1,65 @@
+package com.ss.editor.ui.control.model.tree.action.scene;
+
+import com.jme3.scene.Spatial;
+import com.ss.editor.Messages;
+import com.ss.editor.model.undo.editor.SceneChangeConsumer;
+import com.ss.editor.ui.Icons;
+import com.ss.editor.ui.component.editor.impl.scene.AbstractSceneFileEditor;
+import com.ss.editor.ui.control.layer.node.SceneLayerModelNode;
+import com.ss.editor.ui.control.model.tree.action.AbstractNodeAction;
+import com.ss.editor.ui.control.tree.AbstractNodeTree;
+import com.ss.editor.ui.control.tree.node.ModelNode;
+import com.ss.extension.scene.SceneLayer;
+import com.ss.extension.scene.SceneNode;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+import javafx.scene.image.Image;
+import rlib.util.array.Array;
+import rlib.util.array.ArrayFactory;
+
+/**
+ * The action to select all spatials of a scene layer.
+ *
+ * @author JavaSaBr
+ */
+public class SelectLayerMembersAction extends AbstractNodeAction<SceneChangeConsumer> {
+
+    public SelectLayerMembersAction(@NotNull final AbstractNodeTree<?> nodeTree, @NotNull final ModelNode<?> node) {
+        super(nodeTree, node);
+    }
+
+    @Nullable
+    @Override
+    protected Image getIcon() {
+        return Icons.LAYERS_16;
+    }
+
+    @NotNull
+    @Override
+    protected String getName() {
+        return Messages.MODEL_NODE_TREE_ACTION_SELECT_LAYER_MEMBERS;
+    }
+
+    @Override
+    protected void process() {
+
+        final AbstractNodeTree<SceneChangeConsumer> nodeTree = getNodeTree();
+        final SceneChangeConsumer changeConsumer = Objects.requireNonNull(nodeTree.getChangeConsumer());
+        if (!(changeConsumer instanceof AbstractSceneFileEditor)) return;
+
+        final SceneNode sceneNode = changeConsumer.getCurrentModel();
+
+        final SceneLayerModelNode modelNode = (SceneLayerModelNode) getNode();
+        final SceneLayer layer = modelNode.getElement();
+
+        final Array<Spatial> members = ArrayFactory.newArray(Spatial.class, sceneNode.getLayerSize(layer));
+        sceneNode.getLayerMembers(layer, members);
+
+        final AbstractSceneFileEditor<?, ?, ?, ?> fileEditor = (AbstractSceneFileEditor<?, ?, ?, ?>) changeConsumer;
+        fileEditor.selectSpatials(members);
+    }
+}
@@ -3,18 +3,19 @@ package com.ss.editor.ui.control.model.tree.dialog.geometry.lod;
 import static java.util.Objects.requireNonNull;
 import static javafx.collections.FXCollections.observableArrayList;
 import com.jme3.scene.Geometry;
-import com.jme3.scene.Mesh;
+import com.jme3.scene.Spatial;
 import com.jme3.scene.VertexBuffer;
+import com.ss.editor.JFXApplication;
 import com.ss.editor.Messages;
-import com.ss.editor.manager.ExecutorManager;
+import com.ss.editor.model.tool.LodBaker;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.ui.Icons;
-import com.ss.editor.ui.control.model.property.operation.ModelPropertyOperation;
+import com.ss.editor.ui.control.model.tree.action.operation.ChangeLodLevelsOperation;
 import com.ss.editor.ui.control.tree.AbstractNodeTree;
 import com.ss.editor.ui.css.CSSClasses;
 import com.ss.editor.ui.css.CSSIds;
-import com.ss.editor.ui.dialog.AbstractSimpleEditorDialog;
-import com.ss.editor.util.EditorUtil;
+import com.ss.editor.ui.dialog.AbstractBackgroundToolDialog;
+import com.ss.editor.ui.scene.EditorFXScene;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -31,16 +32,17 @@ import jme3tools.optimize.LodGenerator.TriangleReductionMethod;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import rlib.ui.util.FXUtils;
+import rlib.util.array.Array;
 
 import java.awt.*;
-import java.util.Objects;
 
 /**
- * The implementation of a dialog for generating lod levels.
+ * The implementation of a dialog for generating lod levels of all geometries of a spatial. Levels are generated in
+ * the background and the generating is cancelled when the dialog is closed.
  *
  * @author JavaSaBr
  */
-public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
+public class GenerateLodLevelsDialog extends AbstractBackgroundToolDialog<LodBaker> {
 
     private static final ObservableList<ReductionMethod> METHOD_TYPES = observableArrayList(ReductionMethod.VALUES);
 
@@ -49,7 +51,7 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
 
     private static final double LIST_WIDTH_PERCENT = 0.94;
 
-    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+    private static final JFXApplication JFX_APPLICATION = JFXApplication.getInstance();
 
     public enum ReductionMethod {
         PROPORTIONAL,
@@ -65,16 +67,15 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
     private final AbstractNodeTree<?> nodeTree;
 
     /**
-     * The geometry.
+     * The geometries.
      */
     @NotNull
-    private final Geometry geometry;
+    private final Array<Geometry> geometries;
 
     /**
-     * The mesh.
+     * The max count of triangles of meshes of the geometries.
      */
-    @NotNull
-    private final Mesh mesh;
+    private final int maxTriangleCount;
 
     /**
      * The list of reduction methods.
@@ -88,10 +89,11 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
     @Nullable
     private ListView<Number> levelsList;
 
-    public GenerateLodLevelsDialog(@NotNull final AbstractNodeTree<?> nodeTree, final @NotNull Geometry geometry) {
+    public GenerateLodLevelsDialog(@NotNull final AbstractNodeTree<?> nodeTree, final @NotNull Spatial spatial) {
         this.nodeTree = nodeTree;
-        this.geometry = geometry;
-        this.mesh = geometry.getMesh();
+        this.geometries = LodBaker.collectGeometries(spatial);
+        this.maxTriangleCount = LodBaker.getMaxTriangleCount(geometries);
+
         updateButtonOk();
     }
 
@@ -104,19 +106,10 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
     }
 
     /**
-     * @return the mesh.
-     */
-    @NotNull
-    public Mesh getMesh() {
-        return mesh;
-    }
-
-    /**
-     * @return the geometry.
+     * @return the max count of triangles of meshes of the geometries.
      */
-    @NotNull
-    private Geometry getGeometry() {
-        return geometry;
+    public int getMaxTriangleCount() {
+        return maxTriangleCount;
     }
 
     /**
@@ -209,7 +202,7 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
         final ObservableList<Number> items = levelsList.getItems();
 
         final Button okButton = getOkButton();
-        okButton.setDisable(items.isEmpty());
+        okButton.setDisable(items.isEmpty() || getTool() != null);
     }
 
     /**
@@ -244,8 +237,7 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
         if (getMethod() == ReductionMethod.PROPORTIONAL) {
             items.add(0.1F);
         } else {
-            final Mesh mesh = getMesh();
-            items.add(mesh.getTriangleCount());
+            items.add(getMaxTriangleCount());
         }
     }
 
@@ -263,25 +255,7 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
 
     @Override
     protected void processOk() {
-        EditorUtil.incrementLoading();
-        EXECUTOR_MANAGER.addBackgroundTask(this::processGenerate);
-        super.processOk();
-    }
-
-    /**
-     * Process of generating.
-     */
-    private void processGenerate() {
-
-        final Geometry geometry = getGeometry();
-        final Mesh mesh = getMesh();
-        final int currentLevels = mesh.getNumLodLevels();
-
-        final VertexBuffer[] prevLodLevels = new VertexBuffer[currentLevels];
-
-        for (int i = 0; i < currentLevels; i++) {
-            prevLodLevels[i] = mesh.getLodLevel(i);
-        }
+        if (getTool() != null) return;
 
         final ReductionMethod method = getMethod();
         final TriangleReductionMethod resultMethod =
@@ -296,21 +270,60 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
             values[i] = items.get(i).floatValue();
         }
 
-        final LodGenerator generator = new LodGenerator(geometry);
-        final VertexBuffer[] newLodLevels = generator.computeLods(resultMethod, values);
+        final LodBaker baker = new LodBaker(geometries, resultMethod, values, this::updateProgress,
+                this::applyResults, this::handleFail);
 
-        EXECUTOR_MANAGER.addFXTask(() -> {
+        if (baker.getCount() < 1) {
+            super.processOk();
+            return;
+        }
 
-            final AbstractNodeTree<?> nodeTree = getNodeTree();
-            final ChangeConsumer consumer = requireNonNull(nodeTree.getChangeConsumer());
+        levelsList.setDisable(true);
+        getReductionMethodComboBox().setDisable(true);
 
-            final ModelPropertyOperation<Geometry, VertexBuffer[]> operation = new ModelPropertyOperation<>(geometry, Messages.MODEL_PROPERTY_LOD, newLodLevels, prevLodLevels);
-            operation.setApplyHandler((geom, buffers) -> geom.getMesh().setLodLevels(buffers));
+        startTool(baker);
+        updateButtonOk();
+    }
 
-            consumer.execute(operation);
+    /**
+     * Update progress of generating.
+     */
+    private void updateProgress(final double progress) {
+        final EditorFXScene scene = JFX_APPLICATION.getScene();
+        scene.setLoadingProgress(progress);
+    }
 
-            EditorUtil.decrementLoading();
-        });
+    /**
+     * Apply generated levels as one operation.
+     */
+    private void applyResults(@NotNull final Array<LodBaker.Result> results) {
+        stopTool();
+
+        final int size = results.size();
+        final Geometry[] geometries = new Geometry[size];
+        final VertexBuffer[][] newLevels = new VertexBuffer[size][];
+        final VertexBuffer[][] prevLevels = new VertexBuffer[size][];
+
+        for (int i = 0; i < size; i++) {
+            final LodBaker.Result result = results.get(i);
+            geometries[i] = result.getGeometry();
+            newLevels[i] = requireNonNull(result.getNewLevels());
+            prevLevels[i] = result.getPrevLevels();
+        }
+
+        final AbstractNodeTree<?> nodeTree = getNodeTree();
+        final ChangeConsumer consumer = requireNonNull(nodeTree.getChangeConsumer());
+        consumer.execute(new ChangeLodLevelsOperation(geometries, newLevels, prevLevels));
+
+        hide();
+    }
+
+    @Override
+    protected void handleFail() {
+        super.handleFail();
+        getLevelsList().setDisable(false);
+        getReductionMethodComboBox().setDisable(false);
+        updateButtonOk();
     }
 
     @NotNull
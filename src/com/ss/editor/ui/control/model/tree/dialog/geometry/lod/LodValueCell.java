@@ -1,6 +1,5 @@
 package com.ss.editor.ui.control.model.tree.dialog.geometry.lod;
 
-import com.jme3.scene.Mesh;
 import com.ss.editor.ui.control.model.tree.dialog.geometry.lod.GenerateLodLevelsDialog.ReductionMethod;
 import com.ss.editor.ui.css.CSSClasses;
 import com.ss.editor.ui.css.CSSIds;
@@ -33,13 +32,13 @@ public class LodValueCell extends TextFieldListCell<Number> {
         public Number fromString(final String string) {
 
             final ReductionMethod method = dialog.getMethod();
-            final Mesh mesh = dialog.getMesh();
+            final int triangleCount = dialog.getMaxTriangleCount();
 
             if (method == ReductionMethod.CONSTANT) {
 
                 final int value = Integer.parseInt(string);
                 if (value < 1) return 1;
-                if (value > mesh.getTriangleCount()) return mesh.getTriangleCount();
+                if (value > triangleCount) return triangleCount;
 
                 return value;
 
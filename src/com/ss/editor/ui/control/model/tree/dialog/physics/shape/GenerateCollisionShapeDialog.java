@@ -0,0 +1,168 @@
+package com.ss.editor.ui.control.model.tree.dialog.physics.shape;
+
+import static java.util.Objects.requireNonNull;
+import static javafx.collections.FXCollections.observableArrayList;
+import com.jme3.bullet.collision.PhysicsCollisionObject;
+import com.jme3.bullet.collision.shapes.CollisionShape;
+import com.jme3.scene.Spatial;
+import com.ss.editor.Messages;
+import com.ss.editor.model.tool.CollisionShapeGenerator;
+import com.ss.editor.model.tool.CollisionShapeGenerator.Quality;
+import com.ss.editor.model.undo.editor.ChangeConsumer;
+import com.ss.editor.ui.control.model.tree.action.operation.ChangeCollisionShapeOperation;
+import com.ss.editor.ui.control.tree.AbstractNodeTree;
+import com.ss.editor.ui.css.CSSClasses;
+import com.ss.editor.ui.css.CSSIds;
+import com.ss.editor.ui.dialog.AbstractBackgroundToolDialog;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import rlib.ui.util.FXUtils;
+
+import java.awt.*;
+
+/**
+ * The implementation of a dialog to generate a collision shape by geometries of a spatial. The shape is generated in
+ * the background and the generation is cancelled when the dialog is closed.
+ *
+ * @author JavaSaBr
+ */
+public class GenerateCollisionShapeDialog extends AbstractBackgroundToolDialog<CollisionShapeGenerator> {
+
+    @NotNull
+    private static final ObservableList<Quality> QUALITIES = observableArrayList(Quality.VALUES);
+
+    @NotNull
+    private static final Point DIALOG_SIZE = new Point(530, 124);
+
+    @NotNull
+    private static final Insets LAST_FIELD_OFFSET = new Insets(6, CANCEL_BUTTON_OFFSET.getRight(), 20, 0);
+
+    /**
+     * The node tree component.
+     */
+    @NotNull
+    private final AbstractNodeTree<?> nodeTree;
+
+    /**
+     * The collision object.
+     */
+    @NotNull
+    private final PhysicsCollisionObject collisionObject;
+
+    /**
+     * The spatial to generate a shape.
+     */
+    @NotNull
+    private final Spatial spatial;
+
+    /**
+     * True if need to generate a dynamic shape.
+     */
+    private final boolean dynamic;
+
+    /**
+     * The list of qualities.
+     */
+    @Nullable
+    private ComboBox<Quality> qualityComboBox;
+
+    public GenerateCollisionShapeDialog(@NotNull final AbstractNodeTree<?> nodeTree,
+                                        @NotNull final PhysicsCollisionObject collisionObject,
+                                        @NotNull final Spatial spatial, final boolean dynamic) {
+        this.nodeTree = nodeTree;
+        this.collisionObject = collisionObject;
+        this.spatial = spatial;
+        this.dynamic = dynamic;
+        getQualityComboBox().setDisable(!dynamic);
+    }
+
+    @NotNull
+    @Override
+    protected String getTitleText() {
+        return Messages.GENERATE_COLLISION_SHAPE_DIALOG_TITLE;
+    }
+
+    @Override
+    protected void createContent(@NotNull final VBox root) {
+        super.createContent(root);
+
+        root.setAlignment(Pos.CENTER_LEFT);
+
+        final HBox qualityContainer = new HBox();
+
+        final Label qualityLabel = new Label(Messages.GENERATE_COLLISION_SHAPE_DIALOG_QUALITY_LABEL + ":");
+        qualityLabel.setId(CSSIds.SETTINGS_DIALOG_LABEL);
+
+        qualityComboBox = new ComboBox<>(QUALITIES);
+        qualityComboBox.setId(CSSIds.SETTINGS_DIALOG_FIELD);
+        qualityComboBox.prefWidthProperty().bind(root.widthProperty());
+        qualityComboBox.getSelectionModel().select(Quality.MEDIUM);
+
+        FXUtils.addToPane(qualityLabel, qualityContainer);
+        FXUtils.addToPane(qualityComboBox, qualityContainer);
+        FXUtils.addToPane(qualityContainer, root);
+
+        FXUtils.addClassTo(qualityLabel, CSSClasses.SPECIAL_FONT_14);
+        FXUtils.addClassTo(qualityComboBox, CSSClasses.SPECIAL_FONT_14);
+
+        VBox.setMargin(qualityContainer, LAST_FIELD_OFFSET);
+    }
+
+    /**
+     * @return the list of qualities.
+     */
+    @NotNull
+    private ComboBox<Quality> getQualityComboBox() {
+        return requireNonNull(qualityComboBox);
+    }
+
+    @Override
+    protected void processOk() {
+        if (getTool() != null) return;
+
+        final Quality quality = getQualityComboBox().getSelectionModel().getSelectedItem();
+
+        getQualityComboBox().setDisable(true);
+        getOkButton().setDisable(true);
+
+        startTool(new CollisionShapeGenerator(spatial, dynamic, quality, this::applyShape, this::handleFail));
+    }
+
+    /**
+     * Apply the generated shape to the collision object.
+     */
+    private void applyShape(@NotNull final CollisionShape shape) {
+        stopTool();
+
+        final ChangeConsumer changeConsumer = requireNonNull(nodeTree.getChangeConsumer());
+        changeConsumer.execute(new ChangeCollisionShapeOperation(shape, collisionObject.getCollisionShape(),
+                collisionObject));
+
+        hide();
+    }
+
+    @Override
+    protected void handleFail() {
+        super.handleFail();
+        getQualityComboBox().setDisable(!dynamic);
+        getOkButton().setDisable(false);
+    }
+
+    @NotNull
+    @Override
+    protected String getButtonOkLabel() {
+        return Messages.GENERATE_COLLISION_SHAPE_DIALOG_BUTTON_OK;
+    }
+
+    @Override
+    protected Point getSize() {
+        return DIALOG_SIZE;
+    }
+}
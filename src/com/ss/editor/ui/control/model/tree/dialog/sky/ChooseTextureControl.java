@@ -237,7 +237,12 @@ public class ChooseTextureControl extends HBox {
         final Path assetFile = requireNonNull(getAssetFile(textureFile));
 
         textureLabel.setText(assetFile.toString());
-        preview.setImage(IMAGE_MANAGER.getTexturePreview(textureFile, 28, 28));
+        preview.setImage(null);
+
+        IMAGE_MANAGER.loadTexturePreview(textureFile, 28, 28, image -> {
+            if (textureFile.equals(getTextureFile())) preview.setImage(image);
+        });
+
         textureTooltip.showImage(textureFile);
     }
 }
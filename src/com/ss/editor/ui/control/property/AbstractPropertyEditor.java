@@ -1,8 +1,8 @@
 package com.ss.editor.ui.control.property;
 
 import static java.util.Objects.requireNonNull;
+import com.ss.editor.annotation.FXThread;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
-import com.ss.editor.ui.control.UpdatableControl;
 import com.ss.editor.ui.control.property.builder.PropertyBuilderFactory;
 import com.ss.editor.ui.css.CSSIds;
 import javafx.collections.ObservableList;
@@ -11,9 +11,14 @@ import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.VBox;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import rlib.util.dictionary.DictionaryFactory;
+import rlib.util.dictionary.ObjectDictionary;
+
+import java.util.ArrayList;
 
 /**
- * The component to contains property controls in the editor.
+ * The component to contains property controls in the editor. Built controls are kept in a pool by classes of edited
+ * objects, so selecting another object of the same class rebinds already built controls instead of building new ones.
  *
  * @author JavaSaBr
  */
@@ -27,6 +32,18 @@ public abstract class AbstractPropertyEditor<C extends ChangeConsumer> extends S
     @NotNull
     private final C changeConsumer;
 
+    /**
+     * The pool of built layouts by classes of objects.
+     */
+    @NotNull
+    private final ObjectDictionary<Class<?>, PropertyLayout> layoutPool;
+
+    /**
+     * The layout of the current editable object.
+     */
+    @Nullable
+    private PropertyLayout currentLayout;
+
     /**
      * The container of controls.
      */
@@ -41,6 +58,7 @@ public abstract class AbstractPropertyEditor<C extends ChangeConsumer> extends S
 
     public AbstractPropertyEditor(@NotNull final C changeConsumer) {
         this.changeConsumer = changeConsumer;
+        this.layoutPool = DictionaryFactory.newObjectDictionary();
         createComponents();
     }
 
@@ -65,48 +83,114 @@ public abstract class AbstractPropertyEditor<C extends ChangeConsumer> extends S
     /**
      * Sync all properties with controls.
      */
+    @FXThread
     public void syncFor(@Nullable final Object object) {
         if (!isNeedUpdate(object)) return;
 
-        final VBox container = getContainer();
-        final ObservableList<Node> children = container.getChildren();
-        children.forEach(node -> {
-            if (node instanceof UpdatableControl) {
-                ((UpdatableControl) node).sync();
-            }
-        });
+        final PropertyLayout currentLayout = getCurrentLayout();
+        if (currentLayout != null) currentLayout.sync();
+    }
+
+    /**
+     * Sync controls of the changed property, if there are no controls of the property or the changed object isn't the
+     * current object, all controls are synced.
+     */
+    @FXThread
+    public void syncFor(@Nullable final Object object, @NotNull final String propertyName) {
+        if (!isNeedUpdate(object)) return;
+
+        final PropertyLayout currentLayout = getCurrentLayout();
+        if (currentLayout == null) return;
+
+        if (getCurrentObject() != object || !currentLayout.sync(propertyName)) {
+            currentLayout.sync();
+        }
     }
 
     /**
      * Build property controls for the object.
      */
+    @FXThread
     public void buildFor(@Nullable final Object object, @Nullable final Object parent) {
         if (getCurrentObject() == object) return;
 
-        final VBox container = getContainer();
-        final ObservableList<Node> children = container.getChildren();
-        children.clear();
+        final PropertyLayout prevLayout = getCurrentLayout();
+
+        if (prevLayout != null) {
+            final Object prevObject = prevLayout.getObject();
+            layoutPool.put(prevObject.getClass(), prevLayout);
+        }
+
+        PropertyLayout layout = null;
 
         if (object != null) {
-            PropertyBuilderFactory.buildFor(object, parent, container, changeConsumer);
+
+            layout = layoutPool.remove(object.getClass());
+
+            if (layout != null && layout.canRebind(object, parent)) {
+                layout.rebind(object, parent);
+            } else {
+                layout = build(object, parent);
+            }
         }
 
+        final ObservableList<Node> children = getContainer().getChildren();
+
+        if (layout == null) {
+            children.clear();
+        } else {
+            children.setAll(layout.getNodes());
+        }
+
+        setCurrentLayout(layout);
         setCurrentObject(object);
     }
 
     /**
      * Re-build property controls for the object.
      */
+    @FXThread
     public void rebuildFor(@Nullable final Object object, @Nullable final Object parent) {
         if (getCurrentObject() != object) return;
 
+        final PropertyLayout layout = object == null ? null : build(object, parent);
+
+        if (layout == null) {
+            getContainer().getChildren().clear();
+        }
+
+        setCurrentLayout(layout);
+    }
+
+    /**
+     * Build new property controls for the object.
+     */
+    @NotNull
+    @FXThread
+    private PropertyLayout build(@NotNull final Object object, @Nullable final Object parent) {
+
         final VBox container = getContainer();
         final ObservableList<Node> children = container.getChildren();
         children.clear();
 
-        if (object != null) {
-            PropertyBuilderFactory.buildFor(object, parent, container, changeConsumer);
-        }
+        PropertyBuilderFactory.buildFor(object, parent, container, changeConsumer);
+
+        return new PropertyLayout(object, parent, new ArrayList<>(children));
+    }
+
+    /**
+     * @return the layout of the current editable object.
+     */
+    @Nullable
+    private PropertyLayout getCurrentLayout() {
+        return currentLayout;
+    }
+
+    /**
+     * @param currentLayout the layout of the current editable object.
+     */
+    private void setCurrentLayout(@Nullable final PropertyLayout currentLayout) {
+        this.currentLayout = currentLayout;
     }
 
     protected boolean isNeedUpdate(@Nullable final Object object) {
@@ -0,0 +1,164 @@
+package com.ss.editor.ui.control.property;
+
+import com.ss.editor.annotation.FXThread;
+import com.ss.editor.ui.control.UpdatableControl;
+import com.ss.editor.ui.control.property.builder.PropertyBuilderFactory;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+import javafx.scene.Node;
+import javafx.scene.shape.Line;
+import rlib.util.array.Array;
+import rlib.util.array.ArrayFactory;
+import rlib.util.dictionary.DictionaryFactory;
+import rlib.util.dictionary.ObjectDictionary;
+
+/**
+ * The built property controls of an object. The layout can be rebound to another object of the same class when all
+ * its controls are edit the object itself and can read actual values from it, so the controls can be reused instead
+ * of building new ones.
+ *
+ * @author JavaSaBr
+ */
+class PropertyLayout {
+
+    /**
+     * The built nodes.
+     */
+    @NotNull
+    private final List<Node> nodes;
+
+    /**
+     * The table of property controls by property names.
+     */
+    @NotNull
+    private final ObjectDictionary<String, Array<AbstractPropertyControl<?, ?, ?>>> controls;
+
+    /**
+     * True if this layout can be rebound to another object.
+     */
+    private final boolean rebindable;
+
+    /**
+     * The current object.
+     */
+    @NotNull
+    private Object object;
+
+    /**
+     * The parent of the current object.
+     */
+    @Nullable
+    private Object parent;
+
+    PropertyLayout(@NotNull final Object object, @Nullable final Object parent, @NotNull final List<Node> nodes) {
+        this.object = object;
+        this.parent = parent;
+        this.nodes = nodes;
+        this.controls = DictionaryFactory.newObjectDictionary();
+
+        boolean rebindable = true;
+
+        for (final Node node : nodes) {
+
+            if (node instanceof Line) {
+                continue;
+            } else if (!(node instanceof AbstractPropertyControl)) {
+                rebindable = false;
+                continue;
+            }
+
+            final AbstractPropertyControl<?, ?, ?> control = (AbstractPropertyControl<?, ?, ?>) node;
+
+            if (!control.hasEditObject() || control.getEditObject() != object || control.getSyncHandler() == null) {
+                rebindable = false;
+            }
+
+            final Array<AbstractPropertyControl<?, ?, ?>> sameControls = controls.get(control.getPropertyName(),
+                    () -> ArrayFactory.newArray(AbstractPropertyControl.class));
+
+            sameControls.add(control);
+        }
+
+        this.rebindable = rebindable;
+    }
+
+    /**
+     * @return the built nodes.
+     */
+    @NotNull
+    List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the current object.
+     */
+    @NotNull
+    Object getObject() {
+        return object;
+    }
+
+    /**
+     * Check that this layout can be rebound to the object.
+     *
+     * @param object the object.
+     * @param parent the parent of the object.
+     * @return true if this layout can be rebound.
+     */
+    @FXThread
+    boolean canRebind(@NotNull final Object object, @Nullable final Object parent) {
+        return rebindable && this.object.getClass() == object.getClass() &&
+                PropertyBuilderFactory.isSameLayout(this.object, this.parent, object, parent);
+    }
+
+    /**
+     * Rebind all controls of this layout to the object and read its actual values.
+     *
+     * @param object the object.
+     * @param parent the parent of the object.
+     */
+    @FXThread
+    void rebind(@NotNull final Object object, @Nullable final Object parent) {
+        this.object = object;
+        this.parent = parent;
+
+        for (final Node node : nodes) {
+            if (!(node instanceof AbstractPropertyControl)) continue;
+            final AbstractPropertyControl<?, Object, ?> control = (AbstractPropertyControl<?, Object, ?>) node;
+            control.setEditObject(object);
+            control.sync();
+        }
+    }
+
+    /**
+     * Sync all controls of this layout.
+     */
+    @FXThread
+    void sync() {
+        for (final Node node : nodes) {
+            if (node instanceof UpdatableControl) {
+                ((UpdatableControl) node).sync();
+            }
+        }
+    }
+
+    /**
+     * Sync controls of the property.
+     *
+     * @param propertyName the property name.
+     * @return false if this layout doesn't have controls of the property.
+     */
+    @FXThread
+    boolean sync(@NotNull final String propertyName) {
+
+        final Array<AbstractPropertyControl<?, ?, ?>> sameControls = controls.get(propertyName);
+        if (sameControls == null) return false;
+
+        sameControls.forEach(AbstractPropertyControl::sync);
+        return true;
+    }
+}
@@ -26,4 +26,20 @@ public interface PropertyBuilder {
     @FXThread
     void buildFor(@NotNull Object object, @Nullable Object parent, @NotNull VBox container,
                   @NotNull ChangeConsumer changeConsumer);
+
+    /**
+     * Check that property controls of the next object would be the same as property controls which were built for the
+     * previous object of the same class, so the built controls can be reused for the next object.
+     *
+     * @param prevObject the previous object.
+     * @param prevParent the parent of the previous object.
+     * @param nextObject the next object.
+     * @param nextParent the parent of the next object.
+     * @return true if the built controls can be reused.
+     */
+    @FXThread
+    default boolean isSameLayout(@NotNull Object prevObject, @Nullable Object prevParent, @NotNull Object nextObject,
+                                 @Nullable Object nextParent) {
+        return true;
+    }
 }
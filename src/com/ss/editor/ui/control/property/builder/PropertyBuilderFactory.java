@@ -50,4 +50,24 @@ public class PropertyBuilderFactory {
             builder.buildFor(object, parent, container, changeConsumer);
         }
     }
+
+    /**
+     * Check that property controls which were built for the previous object can be reused for the next object of the
+     * same class.
+     *
+     * @param prevObject the previous object.
+     * @param prevParent the parent of the previous object.
+     * @param nextObject the next object.
+     * @param nextParent the parent of the next object.
+     * @return true if the built controls can be reused.
+     */
+    public static boolean isSameLayout(@NotNull final Object prevObject, @Nullable final Object prevParent,
+                                       @NotNull final Object nextObject, @Nullable final Object nextParent) {
+
+        for (final PropertyBuilder builder : BUILDERS) {
+            if (!builder.isSameLayout(prevObject, prevParent, nextObject, nextParent)) return false;
+        }
+
+        return true;
+    }
 }
@@ -1,17 +1,25 @@
 package com.ss.editor.ui.control.property.operation;
 
+import static rlib.util.ClassUtils.unsafeCast;
+
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
 import com.ss.editor.manager.ExecutorManager;
+import com.ss.editor.model.undo.EditorOperation;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.model.undo.impl.AbstractEditorOperation;
 import com.ss.editor.util.EditorUtil;
+import com.ss.editor.util.GeomUtils;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Objects;
 import java.util.function.BiConsumer;
 
 /**
- * The implementation of the {@link AbstractEditorOperation} to edit properties of objects.
+ * The implementation of the {@link AbstractEditorOperation} to edit properties of objects. Consecutive changes of the
+ * same property of the same object are merged into one operation.
  *
  * @author JavaSaBr
  */
@@ -29,7 +37,7 @@ public abstract class AbstractPropertyOperation<C extends ChangeConsumer, D, T>
      * The new value of the property.
      */
     @Nullable
-    protected final T newValue;
+    protected T newValue;
 
     /**
      * The old value of the property.
@@ -72,4 +80,50 @@ public abstract class AbstractPropertyOperation<C extends ChangeConsumer, D, T>
             EditorUtil.handleException(LOGGER, this, e);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean merge(@NotNull final EditorOperation operation) {
+        if (operation.getClass() != getClass()) return false;
+
+        final AbstractPropertyOperation<?, ?, ?> other = (AbstractPropertyOperation<?, ?, ?>) operation;
+
+        if (other.target != target || !propertyName.equals(other.propertyName)) {
+            return false;
+        }
+
+        // only a continuous change of the property can be merged
+        if (!Objects.equals(other.oldValue, newValue)) {
+            return false;
+        }
+
+        newValue = unsafeCast(other.newValue);
+        return true;
+    }
+
+    @Override
+    public long getMemoryUsage() {
+        return getMemoryUsage(newValue) + getMemoryUsage(oldValue);
+    }
+
+    /**
+     * Get the size in bytes of large data of the value of the property.
+     */
+    private static long getMemoryUsage(@Nullable final Object value) {
+
+        if (value instanceof VertexBuffer) {
+            return GeomUtils.getMemoryUsage((VertexBuffer) value);
+        } else if (value instanceof Mesh) {
+            return GeomUtils.getMemoryUsage((Mesh) value);
+        } else if (!(value instanceof VertexBuffer[])) {
+            return 0;
+        }
+
+        long result = 0;
+
+        for (final VertexBuffer vertexBuffer : (VertexBuffer[]) value) {
+            result += GeomUtils.getMemoryUsage(vertexBuffer);
+        }
+
+        return result;
+    }
+}
@@ -1,8 +1,10 @@
 package com.ss.editor.ui.control.tree;
 
 import static com.ss.editor.ui.control.tree.node.ModelNodeFactory.createFor;
-import static com.ss.editor.ui.util.UIUtils.findItemForValue;
+import static java.util.Objects.requireNonNull;
 
+import com.jme3.scene.Spatial;
+import com.ss.editor.annotation.EditorThread;
 import com.ss.editor.annotation.FXThread;
 import com.ss.editor.manager.ExecutorManager;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
@@ -18,17 +20,24 @@ import org.jetbrains.annotations.Nullable;
 import java.util.function.Consumer;
 
 import javafx.collections.ObservableList;
+import javafx.event.EventHandler;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.MultipleSelectionModel;
 import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeItem.TreeModificationEvent;
 import javafx.scene.control.TreeView;
 import javafx.scene.layout.VBox;
 import rlib.ui.util.FXUtils;
 import rlib.util.array.Array;
+import rlib.util.array.ArrayFactory;
+import rlib.util.dictionary.DictionaryFactory;
+import rlib.util.dictionary.ObjectDictionary;
 
 /**
- * The implementation of {@link TreeView} to present some structure.
+ * The implementation of {@link TreeView} to present some structure. Tree items are indexed by elements of their model
+ * nodes, so notifications about changes of elements find their items in constant time. Children of items are created
+ * only when the items are expanded the first time and large lists of children are created by pages.
  *
  * @author JavaSaBr
  */
@@ -37,6 +46,11 @@ public abstract class AbstractNodeTree<C extends ChangeConsumer> extends VBox {
     @NotNull
     private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
 
+    /**
+     * The max count of children of an item to create at once.
+     */
+    private static final int PAGE_SIZE = 500;
+
     /**
      * The handler of selected objects.
      */
@@ -49,6 +63,24 @@ public abstract class AbstractNodeTree<C extends ChangeConsumer> extends VBox {
     @Nullable
     private final C changeConsumer;
 
+    /**
+     * The table of tree items by elements of their model nodes.
+     */
+    @NotNull
+    private final ObjectDictionary<Object, TreeItem<ModelNode<?>>> itemIndex;
+
+    /**
+     * The handler of structural changes in the tree to keep the table of tree items up to date.
+     */
+    @NotNull
+    private final EventHandler<TreeModificationEvent<ModelNode<?>>> indexUpdater;
+
+    /**
+     * The handler of expanding items to create their children.
+     */
+    @NotNull
+    private final EventHandler<TreeModificationEvent<ModelNode<?>>> expandHandler;
+
     /**
      * The tree with structure of the model.
      */
@@ -58,6 +90,9 @@ public abstract class AbstractNodeTree<C extends ChangeConsumer> extends VBox {
         setId(CSSIds.ABSTRACT_NODE_TREE_CONTAINER);
         this.selectionHandler = selectionHandler;
         this.changeConsumer = consumer;
+        this.itemIndex = DictionaryFactory.newObjectDictionary();
+        this.indexUpdater = this::updateIndex;
+        this.expandHandler = this::processExpand;
         createComponents();
     }
 
@@ -96,7 +131,15 @@ public abstract class AbstractNodeTree<C extends ChangeConsumer> extends VBox {
             return;
         }
 
-        selectionHandler.accept(treeItem.getValue());
+        final ModelNode<?> modelNode = treeItem.getValue();
+
+        if (modelNode instanceof ShowMoreModelNode) {
+            final TreeItem<ModelNode<?>> parentItem = treeItem.getParent();
+            if (parentItem != null) EXECUTOR_MANAGER.addFXTask(() -> loadNextPage(parentItem));
+            return;
+        }
+
+        selectionHandler.accept(modelNode);
     }
 
     /**
@@ -108,70 +151,477 @@ public abstract class AbstractNodeTree<C extends ChangeConsumer> extends VBox {
     }
 
     /**
-     * Fill the tree for the object.
+     * Find a tree item of the element.
      *
-     * @param object the object.
+     * @param element the element.
+     * @return the tree item or null.
      */
+    @Nullable
     @FXThread
-    public void fill(@NotNull final Object object) {
+    public TreeItem<ModelNode<?>> findItem(@Nullable final Object element) {
+        if (element == null) return null;
+
+        final TreeItem<ModelNode<?>> treeItem = itemIndex.get(element);
+        if (treeItem == null) return null;
+
+        final ModelNode<?> modelNode = treeItem.getValue();
+
+        // the value of the item was replaced by a node of another element
+        if (modelNode == null || !modelNode.getElement().equals(element)) {
+            itemIndex.remove(element);
+            return null;
+        }
+
+        return treeItem;
+    }
+
+    /**
+     * Change the root item of the tree and rebuild the table of tree items.
+     *
+     * @param newRoot the new root item.
+     */
+    @FXThread
+    private void setRoot(@Nullable final TreeItem<ModelNode<?>> newRoot) {
 
         final TreeView<ModelNode<?>> treeView = getTreeView();
         final TreeItem<ModelNode<?>> currentRoot = treeView.getRoot();
 
         if (currentRoot != null) {
+            currentRoot.removeEventHandler(TreeItem.<ModelNode<?>>treeNotificationEvent(), indexUpdater);
+            currentRoot.removeEventHandler(TreeItem.<ModelNode<?>>branchExpandedEvent(), expandHandler);
             treeView.setRoot(null);
         }
 
-        final ModelNode<?> rootElement = createFor(object);
-        final TreeItem<ModelNode<?>> newRoot = new TreeItem<>(rootElement);
-        newRoot.setExpanded(true);
+        itemIndex.clear();
+
+        if (newRoot == null) return;
 
-        fill(newRoot, false, 1);
+        register(newRoot);
+        newRoot.addEventHandler(TreeItem.<ModelNode<?>>treeNotificationEvent(), indexUpdater);
+        newRoot.addEventHandler(TreeItem.<ModelNode<?>>branchExpandedEvent(), expandHandler);
 
         treeView.setRoot(newRoot);
     }
 
     /**
-     * Fill the item.
+     * Update the table of tree items by the modification of the tree.
      */
     @FXThread
-    private void fill(@NotNull final TreeItem<ModelNode<?>> treeItem, final boolean expanded, final int level) {
-        treeItem.setExpanded(expanded || level == 1);
+    private void updateIndex(@NotNull final TreeModificationEvent<ModelNode<?>> event) {
+
+        if (event.wasRemoved()) {
+            event.getRemovedChildren().forEach(this::unregister);
+        }
+
+        if (event.wasAdded()) {
+            event.getAddedChildren().forEach(this::register);
+        }
+
+        final ModelNode<?> newValue = event.getNewValue();
+
+        if (newValue != null && event.getEventType() == TreeItem.<ModelNode<?>>valueChangedEvent()) {
+            itemIndex.put(newValue.getElement(), event.getTreeItem());
+        }
+    }
+
+    /**
+     * Register the tree item and all its children in the table of tree items.
+     */
+    @FXThread
+    private void register(@NotNull final TreeItem<ModelNode<?>> treeItem) {
+
+        final ModelNode<?> modelNode = treeItem.getValue();
+        if (modelNode != null) itemIndex.put(modelNode.getElement(), treeItem);
+
+        final ObservableList<TreeItem<ModelNode<?>>> children = treeItem.getChildren();
+        if (!children.isEmpty()) children.forEach(this::register);
+    }
+
+    /**
+     * Unregister the tree item and all its children from the table of tree items.
+     */
+    @FXThread
+    private void unregister(@NotNull final TreeItem<ModelNode<?>> treeItem) {
+
+        final ModelNode<?> modelNode = treeItem.getValue();
+
+        // the element can be presented by another item already
+        if (modelNode != null && itemIndex.get(modelNode.getElement()) == treeItem) {
+            itemIndex.remove(modelNode.getElement());
+        }
+
+        final ObservableList<TreeItem<ModelNode<?>>> children = treeItem.getChildren();
+        if (!children.isEmpty()) children.forEach(this::unregister);
+    }
+
+    /**
+     * Fill the tree for the object. Only children of the root are created at once, other children are created when
+     * their parents are expanded the first time.
+     *
+     * @param object the object.
+     */
+    @FXThread
+    public void fill(@NotNull final Object object) {
+
+        final ModelNode<?> rootElement = requireNonNull(createFor(object));
+        final TreeItem<ModelNode<?>> newRoot = createItem(rootElement);
+
+        expand(newRoot);
+        setRoot(newRoot);
+    }
+
+    /**
+     * Create a tree item for the model node, children of the item will be created on demand. The item doesn't show an
+     * expander until its children are checked by {@link #checkChildren(Array)}.
+     */
+    @NotNull
+    @FXThread
+    private ModelNodeTreeItem createItem(@NotNull final ModelNode<?> modelNode) {
+        return new ModelNodeTreeItem(modelNode, false);
+    }
+
+    /**
+     * Create a tree item for the model node and check its children.
+     */
+    @NotNull
+    @FXThread
+    private ModelNodeTreeItem createCheckedItem(@NotNull final ModelNode<?> modelNode) {
+        final ModelNodeTreeItem treeItem = createItem(modelNode);
+        checkChildren(ArrayFactory.asArray(treeItem));
+        return treeItem;
+    }
+
+    /**
+     * Create children of the item if they weren't created yet and expand the item.
+     */
+    @FXThread
+    private void expand(@NotNull final TreeItem<ModelNode<?>> treeItem) {
+
+        if (treeItem instanceof ModelNodeTreeItem && !((ModelNodeTreeItem) treeItem).isLoaded()) {
+            load((ModelNodeTreeItem) treeItem);
+        }
+
+        treeItem.setExpanded(true);
+    }
+
+    /**
+     * Handle expanding an item.
+     */
+    @FXThread
+    private void processExpand(@NotNull final TreeModificationEvent<ModelNode<?>> event) {
+
+        final TreeItem<ModelNode<?>> treeItem = event.getTreeItem();
+
+        if (treeItem instanceof ModelNodeTreeItem && !((ModelNodeTreeItem) treeItem).isLoaded()) {
+            load((ModelNodeTreeItem) treeItem);
+        }
+    }
+
+    /**
+     * Create the first page of children of the item.
+     */
+    @FXThread
+    private void load(@NotNull final ModelNodeTreeItem treeItem) {
+        treeItem.setLoaded(true);
 
         final ModelNode<?> element = treeItem.getValue();
-        if (!element.hasChildren(this)) return;
+        if (element.hasChildren(this)) {
+            addPage(treeItem, element.getChildren(this), 0);
+        }
 
+        // the item doesn't have children, so need to update the expander of the item
+        if (treeItem.getChildren().isEmpty()) {
+            refreshCell(treeItem);
+        }
+    }
+
+    /**
+     * Create a next page of children of the item.
+     */
+    @FXThread
+    private void loadNextPage(@NotNull final TreeItem<ModelNode<?>> treeItem) {
+        if (!hasMore(treeItem)) return;
+
+        final TreeView<ModelNode<?>> treeView = getTreeView();
+        final MultipleSelectionModel<TreeItem<ModelNode<?>>> selectionModel = treeView.getSelectionModel();
         final ObservableList<TreeItem<ModelNode<?>>> items = treeItem.getChildren();
+        final TreeItem<ModelNode<?>> moreItem = items.get(items.size() - 1);
 
+        if (selectionModel.getSelectedItem() == moreItem) {
+            selectionModel.clearSelection();
+        }
+
+        items.remove(moreItem);
+
+        final Array<ModelNode<?>> pending = treeItem instanceof ModelNodeTreeItem ?
+                ((ModelNodeTreeItem) treeItem).getPending() : null;
+
+        if (pending != null) {
+            addPage(treeItem, pending, ((ModelNodeTreeItem) treeItem).getPendingIndex());
+            return;
+        }
+
+        // the children were changed after creating the previous page, so the snapshot is taken again
+        final ModelNode<?> element = treeItem.getValue();
         final Array<ModelNode<?>> children = element.getChildren(this);
-        children.forEach(child -> {
+        final Array<ModelNode<?>> notCreated = ArrayFactory.newArray(ModelNode.class, children.size());
+
+        for (final ModelNode<?> child : children) {
+            if (findItem(child.getElement()) == null) notCreated.add(child);
+        }
+
+        addPage(treeItem, notCreated, 0);
+    }
+
+    /**
+     * Drop the snapshot of not created children of the item after changing its children.
+     */
+    @FXThread
+    private void resetPending(@Nullable final TreeItem<ModelNode<?>> treeItem) {
+        if (treeItem instanceof ModelNodeTreeItem) {
+            ((ModelNodeTreeItem) treeItem).setPending(null, 0);
+        }
+    }
+
+    /**
+     * Add a page of the children starting from the index to the item. If there are more children than
+     * {@link #PAGE_SIZE}, a node to load a next page is added at the end and the rest children are kept by the item.
+     */
+    @FXThread
+    private void addPage(@NotNull final TreeItem<ModelNode<?>> treeItem, @NotNull final Array<ModelNode<?>> children,
+                         final int from) {
+
+        final int count = Math.min(children.size() - from, PAGE_SIZE);
+        final int next = from + count;
+
+        if (treeItem instanceof ModelNodeTreeItem) {
+            ((ModelNodeTreeItem) treeItem).setPending(children.size() > next ? children : null, next);
+        }
+
+        if (count < 1) return;
+
+        final ModelNode<?> element = treeItem.getValue();
+        final Array<TreeItem<ModelNode<?>>> page = ArrayFactory.newArray(TreeItem.class, count + 1);
+        final Array<ModelNodeTreeItem> toCheck = ArrayFactory.newArray(ModelNodeTreeItem.class, count);
+
+        for (int i = from; i < next; i++) {
+
+            final ModelNode<?> child = children.get(i);
+            final ModelNodeTreeItem childItem = createItem(child);
+
             element.notifyChildPreAdd(child);
-            items.add(new TreeItem<>(child));
-            element.notifyChildAdded(child);
+            toCheck.add(childItem);
+            page.add(childItem);
+        }
+
+        if (children.size() > next) {
+            page.add(new TreeItem<>(new ShowMoreModelNode(treeItem, children.size() - next)));
+        }
+
+        // adds all items by one change to not update the tree for each item
+        treeItem.getChildren().addAll(page);
+
+        for (int i = from; i < next; i++) {
+            element.notifyChildAdded(children.get(i));
+        }
+
+        checkChildren(toCheck);
+    }
+
+    /**
+     * Check in the editor thread which items have children to show their expanders. The check is executed in the
+     * editor thread to read the model consistently with its changes.
+     */
+    @FXThread
+    private void checkChildren(@NotNull final Array<ModelNodeTreeItem> treeItems) {
+        if (treeItems.isEmpty()) return;
+
+        final Array<ModelNode<?>> modelNodes = ArrayFactory.newArray(ModelNode.class, treeItems.size());
+        treeItems.forEach(treeItem -> modelNodes.add(treeItem.getValue()));
+
+        EXECUTOR_MANAGER.addEditorThreadTask(() -> {
+
+            final boolean[] hasChildren = new boolean[modelNodes.size()];
+
+            for (int i = 0; i < hasChildren.length; i++) {
+                hasChildren[i] = hasChildren(modelNodes.get(i));
+            }
+
+            EXECUTOR_MANAGER.addFXTask(() -> applyHasChildren(treeItems, modelNodes, hasChildren));
         });
+    }
+
+    /**
+     * @return true if the model node has any children, model nodes can report having children without creating them.
+     */
+    @EditorThread
+    private boolean hasChildren(@NotNull final ModelNode<?> modelNode) {
+        return modelNode.hasChildren(this) && !modelNode.getChildren(this).isEmpty();
+    }
+
+    /**
+     * Apply the results of checking children to the items which still weren't expanded.
+     */
+    @FXThread
+    private void applyHasChildren(@NotNull final Array<ModelNodeTreeItem> treeItems,
+                                  @NotNull final Array<ModelNode<?>> modelNodes, @NotNull final boolean[] hasChildren) {
+
+        for (int i = 0; i < hasChildren.length; i++) {
+
+            final ModelNodeTreeItem treeItem = treeItems.get(i);
+
+            if (treeItem.isLoaded() || treeItem.getValue() != modelNodes.get(i)) {
+                continue;
+            } else if (treeItem.isLeaf() != hasChildren[i]) {
+                continue;
+            }
+
+            treeItem.setHasChildren(hasChildren[i]);
+            refreshCell(treeItem);
+        }
+    }
+
+    /**
+     * @return true if not all children of the item were created yet.
+     */
+    @FXThread
+    private static boolean hasMore(@NotNull final TreeItem<ModelNode<?>> treeItem) {
+        final ObservableList<TreeItem<ModelNode<?>>> children = treeItem.getChildren();
+        return !children.isEmpty() && children.get(children.size() - 1).getValue() instanceof ShowMoreModelNode;
+    }
+
+    /**
+     * Update the cell of the item.
+     */
+    @FXThread
+    private void refreshCell(@NotNull final TreeItem<ModelNode<?>> treeItem) {
+        final ModelNode<?> modelNode = treeItem.getValue();
+        treeItem.setValue(null);
+        treeItem.setValue(modelNode);
+    }
+
+    /**
+     * @param treeItem the tree item.
+     * @return true if children of the item were created.
+     */
+    @FXThread
+    protected boolean isLoaded(@NotNull final TreeItem<ModelNode<?>> treeItem) {
+        return !(treeItem instanceof ModelNodeTreeItem) || ((ModelNodeTreeItem) treeItem).isLoaded();
+    }
+
+    /**
+     * Mark the item which children weren't created yet as having children.
+     *
+     * @param treeItem the tree item.
+     */
+    @FXThread
+    protected void markHasChildren(@NotNull final TreeItem<ModelNode<?>> treeItem) {
+        if (isLoaded(treeItem)) return;
+
+        final ModelNodeTreeItem modelNodeTreeItem = (ModelNodeTreeItem) treeItem;
+        if (!modelNodeTreeItem.isLeaf()) return;
+
+        modelNodeTreeItem.setHasChildren(true);
+        refreshCell(modelNodeTreeItem);
+    }
+
+    /**
+     * Insert the child item to the item which children were created. The child item is never inserted after a node
+     * to load a next page.
+     *
+     * @param parentItem the parent item.
+     * @param childItem  the child item.
+     * @param index      the index or -1 to add the child item to the end.
+     */
+    @FXThread
+    protected void insertChild(@NotNull final TreeItem<ModelNode<?>> parentItem,
+                               @NotNull final TreeItem<ModelNode<?>> childItem, final int index) {
+
+        resetPending(parentItem);
+
+        final ObservableList<TreeItem<ModelNode<?>>> children = parentItem.getChildren();
+        final int limit = hasMore(parentItem) ? children.size() - 1 : children.size();
+
+        if (index < 0 || index > limit) {
+            children.add(limit, childItem);
+        } else {
+            children.add(index, childItem);
+        }
+    }
+
+    /**
+     * Find a tree item of the element and create the items of its parents if they weren't created yet.
+     *
+     * @param element the element.
+     * @return the tree item or null.
+     */
+    @Nullable
+    @FXThread
+    private TreeItem<ModelNode<?>> findOrCreateItem(@NotNull final Object element) {
+
+        TreeItem<ModelNode<?>> treeItem = findItem(element);
+        if (treeItem != null) return treeItem;
+
+        final Object parent = getParentElement(element);
+        if (parent == null) return null;
+
+        final TreeItem<ModelNode<?>> parentItem = findOrCreateItem(parent);
+        if (parentItem == null) return null;
+
+        if (parentItem instanceof ModelNodeTreeItem && !((ModelNodeTreeItem) parentItem).isLoaded()) {
+            load((ModelNodeTreeItem) parentItem);
+        }
+
+        treeItem = findItem(element);
 
-        items.forEach(item -> fill(item, expanded, level == -1 ? -1 : level + 1));
+        while (treeItem == null && hasMore(parentItem)) {
+            loadNextPage(parentItem);
+            treeItem = findItem(element);
+        }
+
+        return treeItem;
+    }
+
+    /**
+     * Get a parent element of the element in this tree to find a not created item of the element.
+     *
+     * @param element the element.
+     * @return the parent element or null.
+     */
+    @Nullable
+    @FXThread
+    protected Object getParentElement(@NotNull final Object element) {
+        return element instanceof Spatial ? ((Spatial) element).getParent() : null;
     }
 
     /**
-     * Fill the node.
+     * Re-create children of the node. Children are created at once only if the node is expanded.
      */
     @FXThread
     public void refresh(@NotNull final ModelNode<?> modelNode) {
 
-        final TreeItem<ModelNode<?>> treeItem = findItemForValue(getTreeView(), modelNode);
+        final TreeItem<ModelNode<?>> treeItem = findItem(modelNode.getElement());
         if (treeItem == null) return;
 
         final ObservableList<TreeItem<ModelNode<?>>> items = treeItem.getChildren();
         items.clear();
 
         final ModelNode<?> element = treeItem.getValue();
-        if (!element.hasChildren(this)) return;
 
-        final Array<ModelNode<?>> children = element.getChildren(this);
-        children.forEach(child -> items.add(new TreeItem<>(child)));
+        if (!(treeItem instanceof ModelNodeTreeItem)) {
+            if (element.hasChildren(this)) addPage(treeItem, element.getChildren(this), 0);
+            return;
+        }
+
+        final ModelNodeTreeItem modelNodeTreeItem = (ModelNodeTreeItem) treeItem;
+        modelNodeTreeItem.setLoaded(false);
+        modelNodeTreeItem.setPending(null, 0);
 
-        items.forEach(modelNodeTreeItem -> fill(modelNodeTreeItem, true, -1));
+        if (modelNodeTreeItem.isExpanded()) {
+            load(modelNodeTreeItem);
+        } else {
+            checkChildren(ArrayFactory.asArray(modelNodeTreeItem));
+        }
     }
 
     /**
@@ -180,7 +630,7 @@ public abstract class AbstractNodeTree<C extends ChangeConsumer> extends VBox {
     @FXThread
     public void update(@NotNull final ModelNode<?> modelNode) {
 
-        final TreeItem<ModelNode<?>> treeItem = findItemForValue(getTreeView(), modelNode);
+        final TreeItem<ModelNode<?>> treeItem = findItem(modelNode.getElement());
         if (treeItem == null) return;
 
         treeItem.setValue(null);
@@ -209,58 +659,57 @@ public abstract class AbstractNodeTree<C extends ChangeConsumer> extends VBox {
      */
     @FXThread
     public void notifyMoved(@NotNull final Object prevParent, @NotNull final Object newParent,
-                            @NotNull final Object node, final int index) {
-        notifyMoved(createFor(prevParent), createFor(newParent), createFor(node), index);
-    }
-
-    /**
-     * Notify about moving the element.
-     */
-    @FXThread
-    private void notifyMoved(@Nullable final ModelNode<?> prevParent, @Nullable final ModelNode<?> newParent,
-                             @Nullable final ModelNode<?> node, final int index) {
-
-        final TreeView<ModelNode<?>> treeView = getTreeView();
-        final TreeItem<ModelNode<?>> prevParentItem = findItemForValue(treeView, prevParent);
-        final TreeItem<ModelNode<?>> newParentItem = findItemForValue(treeView, newParent);
-        final TreeItem<ModelNode<?>> nodeItem = findItemForValue(treeView, node);
+                            @NotNull final Object element, final int index) {
+
+        final TreeItem<ModelNode<?>> prevParentItem = findItem(prevParent);
+        final TreeItem<ModelNode<?>> newParentItem = findItem(newParent);
+        TreeItem<ModelNode<?>> nodeItem = findItem(element);
+
+        if (prevParentItem != null && nodeItem == null) {
+            resetPending(prevParentItem);
+        } else if (prevParentItem != null) {
+            final ModelNode<?> node = nodeItem.getValue();
+            final ModelNode<?> prevParenModelNode = prevParentItem.getValue();
+            prevParenModelNode.notifyChildPreRemove(node);
+            prevParentItem.getChildren().remove(nodeItem);
+            prevParenModelNode.notifyChildRemoved(node);
+        }
 
-        if (prevParentItem == null || newParentItem == null || nodeItem == null) {
+        if (newParentItem == null) {
+            return;
+        } else if (!isLoaded(newParentItem)) {
+            markHasChildren(newParentItem);
+            EXECUTOR_MANAGER.addFXTask(() -> select(element));
             return;
         }
 
-        final ModelNode<?> prevParenModelNode = prevParentItem.getValue();
-        prevParenModelNode.notifyChildPreRemove(node);
-        prevParentItem.getChildren().remove(nodeItem);
-        prevParenModelNode.notifyChildRemoved(node);
+        if (nodeItem == null) {
+            final ModelNode<?> newNode = createFor(element);
+            if (newNode == null) return;
+            nodeItem = createCheckedItem(newNode);
+        }
 
+        final ModelNode<?> node = nodeItem.getValue();
         final ModelNode<?> newParentModelNode = newParentItem.getValue();
-        newParentModelNode.notifyChildAdded(node);
-        newParentItem.getChildren().add(index, nodeItem);
+        newParentModelNode.notifyChildPreAdd(node);
+        insertChild(newParentItem, nodeItem, index);
         newParentModelNode.notifyChildAdded(node);
 
-        EXECUTOR_MANAGER.addFXTask(() -> select(node.getElement()));
+        EXECUTOR_MANAGER.addFXTask(() -> select(element));
     }
 
     /**
      * Notify about changing the element.
      */
     @FXThread
-    public void notifyChanged(@Nullable Object parent, @NotNull final Object object) {
-        notifyChanged(createFor(object));
-    }
-
-    /**
-     * Notify about changed the element.
-     */
-    @FXThread
-    private void notifyChanged(@Nullable final ModelNode<?> modelNode) {
-        if (modelNode == null) return;
+    public void notifyChanged(@NotNull final Object object) {
 
-        final TreeView<ModelNode<?>> treeView = getTreeView();
-        final TreeItem<ModelNode<?>> treeItem = findItemForValue(treeView, modelNode);
+        final TreeItem<ModelNode<?>> treeItem = findItem(object);
         if (treeItem == null) return;
 
+        final ModelNode<?> modelNode = createFor(object);
+        if (modelNode == null) return;
+
         final TreeItem<ModelNode<?>> parentItem = treeItem.getParent();
         if (parentItem == null) {
             treeItem.setValue(null);
@@ -268,56 +717,52 @@ public abstract class AbstractNodeTree<C extends ChangeConsumer> extends VBox {
             return;
         }
 
-        final ModelNode<?> parent = parentItem.getValue();
+        final ModelNode<?> parentNode = parentItem.getValue();
         final ModelNode<?> old = treeItem.getValue();
 
-        parent.notifyChildPreRemove(old);
+        parentNode.notifyChildPreRemove(old);
         treeItem.setValue(null);
-        parent.notifyChildRemoved(old);
-        parent.notifyChildPreAdd(modelNode);
+        parentNode.notifyChildRemoved(old);
+        parentNode.notifyChildPreAdd(modelNode);
         treeItem.setValue(modelNode);
-        parent.notifyChildAdded(modelNode);
-    }
-
-    /**
-     * Notify about replacing the element.
-     */
-    @FXThread
-    public void notifyReplace(@Nullable final Object parent, @Nullable final Object oldChild,
-                              @Nullable final Object newChild) {
-        notifyReplace(createFor(parent), createFor(oldChild), createFor(newChild));
+        parentNode.notifyChildAdded(modelNode);
     }
 
     /**
      * Notify about replacing the element.
      */
     @FXThread
-    private void notifyReplace(@Nullable final ModelNode<?> parent, @Nullable final ModelNode<?> oldChild,
-                               @Nullable final ModelNode<?> newChild) {
+    public void notifyReplace(@Nullable final Object parentElement, @Nullable final Object oldChildElement,
+                              @Nullable final Object newChildElement) {
 
         final TreeView<ModelNode<?>> treeView = getTreeView();
-        final TreeItem<ModelNode<?>> parentItem = findItemForValue(treeView, parent);
+        final TreeItem<ModelNode<?>> parentItem = findItem(parentElement);
 
         if (parentItem == null) {
+            final ModelNode<?> newChild = createFor(newChildElement);
             if (newChild == null) return;
-            final TreeItem<ModelNode<?>> childItem = new TreeItem<>(newChild);
-            childItem.setExpanded(true);
-            fill(childItem, true, -1);
-            treeView.setRoot(childItem);
+            final TreeItem<ModelNode<?>> childItem = createItem(newChild);
+            expand(childItem);
+            setRoot(childItem);
+            return;
+        } else if (!isLoaded(parentItem)) {
+            markHasChildren(parentItem);
             return;
         }
 
         int index = 0;
         boolean needExpand = false;
 
+        final ModelNode<?> parent = parentItem.getValue();
         final MultipleSelectionModel<TreeItem<ModelNode<?>>> selectionModel = treeView.getSelectionModel();
         final ObservableList<TreeItem<ModelNode<?>>> children = parentItem.getChildren();
-        final TreeItem<ModelNode<?>> oldChildItem = oldChild == null ? null : findItemForValue(treeView, oldChild);
+        final TreeItem<ModelNode<?>> oldChildItem = findItem(oldChildElement);
         final TreeItem<ModelNode<?>> selectedItem = selectionModel.getSelectedItem();
 
         final boolean needSelect = selectedItem == oldChildItem;
 
         if (oldChildItem != null) {
+            final ModelNode<?> oldChild = oldChildItem.getValue();
             parent.notifyChildPreRemove(oldChild);
             index = children.indexOf(oldChildItem);
             needExpand = oldChildItem.isExpanded();
@@ -325,15 +770,14 @@ public abstract class AbstractNodeTree<C extends ChangeConsumer> extends VBox {
             parent.notifyChildRemoved(oldChild);
         }
 
+        final ModelNode<?> newChild = createFor(newChildElement);
         if (newChild == null) return;
 
-        final TreeItem<ModelNode<?>> childItem = new TreeItem<>(newChild);
-        childItem.setExpanded(needExpand);
-
-        fill(childItem, true, -1);
+        final TreeItem<ModelNode<?>> childItem = needExpand ? createItem(newChild) : createCheckedItem(newChild);
+        if (needExpand) expand(childItem);
 
         parent.notifyChildPreAdd(newChild);
-        children.add(index, childItem);
+        insertChild(parentItem, childItem, index);
         parent.notifyChildAdded(newChild);
 
         if (needSelect) selectionModel.select(childItem);
@@ -343,33 +787,26 @@ public abstract class AbstractNodeTree<C extends ChangeConsumer> extends VBox {
      * Notify about adding the element.
      */
     @FXThread
-    public void notifyAdded(@Nullable final Object parent, @Nullable final Object child, final int index) {
-        notifyAdded(createFor(parent), createFor(child), index);
-    }
+    public void notifyAdded(@Nullable final Object parentElement, @Nullable final Object childElement,
+                            final int index) {
 
-    /**
-     * Notify about adding the element.
-     */
-    @FXThread
-    private void notifyAdded(@Nullable final ModelNode<?> parent, @Nullable final ModelNode<?> child, final int index) {
-        if (child == null) return;
-
-        final TreeView<ModelNode<?>> treeView = getTreeView();
-        final TreeItem<ModelNode<?>> parentItem = findItemForValue(treeView, parent);
+        final TreeItem<ModelNode<?>> parentItem = findItem(parentElement);
         if (parentItem == null) return;
 
-        parent.notifyChildPreAdd(child);
-
-        final TreeItem<ModelNode<?>> childItem = new TreeItem<>(child);
+        // the added element will be created with other children of the parent
+        if (!isLoaded(parentItem)) {
+            markHasChildren(parentItem);
+            return;
+        }
 
-        final ObservableList<TreeItem<ModelNode<?>>> children = parentItem.getChildren();
-        if (index == -1) children.add(childItem);
-        else children.add(index, childItem);
+        final ModelNode<?> child = createFor(childElement);
+        if (child == null) return;
 
+        final ModelNode<?> parent = parentItem.getValue();
+        parent.notifyChildPreAdd(child);
+        insertChild(parentItem, createCheckedItem(child), index);
         parentItem.setExpanded(true);
         parent.notifyChildAdded(child);
-
-        fill(childItem, false, -1);
     }
 
     /**
@@ -377,20 +814,19 @@ public abstract class AbstractNodeTree<C extends ChangeConsumer> extends VBox {
      */
     @FXThread
     public void notifyRemoved(@Nullable final Object parent, @NotNull final Object child) {
-        notifyRemoved(createFor(child));
-    }
 
-    /**
-     * Notify about removing the element.
-     */
-    @FXThread
-    private void notifyRemoved(@Nullable final ModelNode<?> modelNode) {
-        if (modelNode == null) return;
+        final TreeItem<ModelNode<?>> treeItem = findItem(child);
 
-        final TreeItem<ModelNode<?>> treeItem = findItemForValue(getTreeView(), modelNode);
-        if (treeItem == null) return;
+        // the removed element can be in the snapshot of not created children of the parent
+        if (treeItem == null) {
+            resetPending(findItem(parent));
+            return;
+        }
 
         final TreeItem<ModelNode<?>> parentItem = treeItem.getParent();
+        if (parentItem == null) return;
+
+        final ModelNode<?> modelNode = treeItem.getValue();
         final ModelNode<?> parentModelNode = parentItem.getValue();
 
         final ObservableList<TreeItem<ModelNode<?>>> children = parentItem.getChildren();
@@ -412,7 +848,7 @@ public abstract class AbstractNodeTree<C extends ChangeConsumer> extends VBox {
     @FXThread
     public ModelNode<?> findParent(@NotNull final ModelNode<?> modelNode) {
 
-        final TreeItem<ModelNode<?>> treeItem = findItemForValue(getTreeView(), modelNode);
+        final TreeItem<ModelNode<?>> treeItem = findItem(modelNode.getElement());
         if (treeItem == null) return null;
 
         final TreeItem<ModelNode<?>> parent = treeItem.getParent();
@@ -426,7 +862,7 @@ public abstract class AbstractNodeTree<C extends ChangeConsumer> extends VBox {
     public void startEdit(@NotNull final ModelNode<?> modelNode) {
 
         final TreeView<ModelNode<?>> treeView = getTreeView();
-        final TreeItem<ModelNode<?>> treeItem = findItemForValue(treeView, modelNode);
+        final TreeItem<ModelNode<?>> treeItem = findItem(modelNode.getElement());
         if (treeItem == null) return;
 
         treeView.edit(treeItem);
@@ -446,8 +882,7 @@ public abstract class AbstractNodeTree<C extends ChangeConsumer> extends VBox {
             return;
         }
 
-        final ModelNode<Object> modelNode = createFor(object);
-        final TreeItem<ModelNode<?>> treeItem = findItemForValue(treeView, modelNode);
+        final TreeItem<ModelNode<?>> treeItem = findOrCreateItem(object);
 
         if (treeItem == null) {
             selectionModel.select(null);
@@ -1,7 +1,6 @@
 package com.ss.editor.ui.control.tree;
 
 import static com.ss.editor.ui.util.UIUtils.findItem;
-import static com.ss.editor.ui.util.UIUtils.findItemForValue;
 import static rlib.util.ClassUtils.unsafeCast;
 
 import com.ss.editor.manager.ExecutorManager;
@@ -306,7 +305,7 @@ public abstract class AbstractNodeTreeCell<C extends ChangeConsumer, M extends A
         if (item == null) return;
 
         final TreeView<ModelNode<?>> treeView = getTreeView();
-        final TreeItem<ModelNode<?>> treeItem = findItemForValue(treeView, item);
+        final TreeItem<ModelNode<?>> treeItem = getNodeTree().findItem(item.getElement());
         if (treeView.getRoot() == treeItem) return;
 
         TransferMode transferMode = item.canMove() ? TransferMode.MOVE : null;
@@ -345,7 +344,7 @@ public abstract class AbstractNodeTreeCell<C extends ChangeConsumer, M extends A
         final Set<TransferMode> transferModes = dragboard.getTransferModes();
         final boolean isCopy = transferModes.contains(TransferMode.COPY);
 
-        final TreeItem<ModelNode<?>> newParentItem = findItemForValue(treeView, item);
+        final TreeItem<ModelNode<?>> newParentItem = getNodeTree().findItem(item.getElement());
         if (newParentItem == null) return;
 
         final Object element = dragItem.getElement();
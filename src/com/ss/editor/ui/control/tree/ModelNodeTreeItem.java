@@ -0,0 +1,103 @@
+package com.ss.editor.ui.control.tree;
+
+import com.ss.editor.annotation.FXThread;
+import com.ss.editor.ui.control.tree.node.ModelNode;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javafx.scene.control.TreeItem;
+import rlib.util.array.Array;
+
+/**
+ * The implementation of a tree item of a model node which creates its children only when it is expanded the first
+ * time. Until that the item knows only whether it has any children to show an expander. Children which don't fit to
+ * the first page are kept as a snapshot to create next pages from it.
+ *
+ * @author JavaSaBr
+ */
+class ModelNodeTreeItem extends TreeItem<ModelNode<?>> {
+
+    /**
+     * True if children of this item were created.
+     */
+    private boolean loaded;
+
+    /**
+     * True if this item has any children.
+     */
+    private boolean hasChildren;
+
+    /**
+     * The snapshot of children which weren't created yet or null if the snapshot should be taken again.
+     */
+    @Nullable
+    private Array<ModelNode<?>> pending;
+
+    /**
+     * The index of the next child to create from the snapshot.
+     */
+    private int pendingIndex;
+
+    ModelNodeTreeItem(@NotNull final ModelNode<?> modelNode, final boolean hasChildren) {
+        super(modelNode);
+        this.hasChildren = hasChildren;
+    }
+
+    @Override
+    public boolean isLeaf() {
+        if (loaded) return getChildren().isEmpty();
+        return !hasChildren;
+    }
+
+    /**
+     * @return true if children of this item were created.
+     */
+    @FXThread
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @param loaded true if children of this item were created.
+     */
+    @FXThread
+    void setLoaded(final boolean loaded) {
+        this.loaded = loaded;
+    }
+
+    /**
+     * @param hasChildren true if this item has any children.
+     */
+    @FXThread
+    void setHasChildren(final boolean hasChildren) {
+        this.hasChildren = hasChildren;
+    }
+
+    /**
+     * @return the snapshot of children which weren't created yet or null if the snapshot should be taken again.
+     */
+    @Nullable
+    @FXThread
+    Array<ModelNode<?>> getPending() {
+        return pending;
+    }
+
+    /**
+     * @return the index of the next child to create from the snapshot.
+     */
+    @FXThread
+    int getPendingIndex() {
+        return pendingIndex;
+    }
+
+    /**
+     * @param pending      the snapshot of children which weren't created yet or null.
+     * @param pendingIndex the index of the next child to create from the snapshot.
+     */
+    @FXThread
+    void setPending(@Nullable final Array<ModelNode<?>> pending, final int pendingIndex) {
+        this.pending = pending;
+        this.pendingIndex = pendingIndex;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ss.editor.ui.control.tree;
+
+import com.ss.editor.Messages;
+import com.ss.editor.ui.control.tree.node.ModelNode;
+
+import org.jetbrains.annotations.NotNull;
+
+import javafx.scene.control.TreeItem;
+
+/**
+ * The implementation of a node to load a next page of children of a tree item which has too many children to show
+ * all of them at once.
+ *
+ * @author JavaSaBr
+ */
+class ShowMoreModelNode extends ModelNode<TreeItem<ModelNode<?>>> {
+
+    /**
+     * The count of not shown children.
+     */
+    private final int remaining;
+
+    ShowMoreModelNode(@NotNull final TreeItem<ModelNode<?>> parentItem, final int remaining) {
+        super(parentItem, 0);
+        this.remaining = remaining;
+    }
+
+    @NotNull
+    @Override
+    public String getName() {
+        return Messages.MODEL_NODE_TREE_SHOW_MORE + " (" + remaining + ")";
+    }
+
+    @Override
+    public boolean canMove() {
+        return false;
+    }
+
+    @Override
+    public boolean canRemove() {
+        return false;
+    }
+}
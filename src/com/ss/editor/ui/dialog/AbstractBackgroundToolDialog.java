@@ -0,0 +1,78 @@
+package com.ss.editor.ui.dialog;
+
+import com.ss.editor.JFXApplication;
+import com.ss.editor.model.tool.AbstractBackgroundTool;
+import com.ss.editor.ui.scene.EditorFXScene;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The base implementation of a dialog which runs a background tool. The loading indicator of the scene is shown while
+ * the tool is running and the tool is cancelled when the dialog is closed.
+ *
+ * @param <T> the type of the tool.
+ * @author JavaSaBr
+ */
+public abstract class AbstractBackgroundToolDialog<T extends AbstractBackgroundTool> extends AbstractSimpleEditorDialog {
+
+    @NotNull
+    private static final JFXApplication JFX_APPLICATION = JFXApplication.getInstance();
+
+    /**
+     * The running tool.
+     */
+    @Nullable
+    private T tool;
+
+    /**
+     * @return the running tool or null.
+     */
+    @Nullable
+    protected T getTool() {
+        return tool;
+    }
+
+    /**
+     * Start the tool.
+     *
+     * @param tool the tool.
+     */
+    protected void startTool(@NotNull final T tool) {
+        this.tool = tool;
+
+        final EditorFXScene scene = JFX_APPLICATION.getScene();
+        scene.incrementLoading();
+
+        tool.start();
+    }
+
+    /**
+     * Cancel the running tool.
+     */
+    protected void stopTool() {
+
+        final T tool = this.tool;
+        if (tool == null) return;
+
+        tool.cancel();
+
+        this.tool = null;
+
+        final EditorFXScene scene = JFX_APPLICATION.getScene();
+        scene.decrementLoading();
+    }
+
+    /**
+     * Handle a failed processing of the tool, the tool can be started again.
+     */
+    protected void handleFail() {
+        stopTool();
+    }
+
+    @Override
+    public void hide() {
+        stopTool();
+        super.hide();
+    }
+}
@@ -136,6 +136,12 @@ public class AssetEditorDialog<C> extends EditorDialog {
     @Nullable
     protected TextArea textView;
 
+    /**
+     * The file which is shown in the image preview.
+     */
+    @Nullable
+    private Path previewFile;
+
     /**
      * The label with any warning.
      */
@@ -294,7 +300,10 @@ public class AssetEditorDialog<C> extends EditorDialog {
         final ResourceElement element = createFor(file);
         final TreeItem<ResourceElement> treeItem = findItemForValue(resourceTree.getRoot(), element);
 
-        if (treeItem == null) {
+        if (treeItem == null && Files.exists(file)) {
+            resourceTree.expandTo(file, true);
+            return;
+        } else if (treeItem == null) {
             getWaitedFilesToSelect().add(file);
             return;
         }
@@ -372,6 +381,8 @@ public class AssetEditorDialog<C> extends EditorDialog {
         final int width = (int) imageView.getFitWidth();
         final int height = (int) imageView.getFitHeight();
 
+        previewFile = file;
+
         if (JMEFilePreviewManager.isJmeFile(file)) {
 
             final JMEFilePreviewManager previewManager = JMEFilePreviewManager.getInstance();
@@ -389,8 +400,12 @@ public class AssetEditorDialog<C> extends EditorDialog {
 
         } else if (JavaFXImageManager.isImage(file)) {
 
-            final Image preview = JAVA_FX_IMAGE_MANAGER.getTexturePreview(file, width, height);
-            imageView.setImage(preview);
+            imageView.imageProperty().unbind();
+            imageView.setImage(Icons.IMAGE_512);
+
+            JAVA_FX_IMAGE_MANAGER.loadTexturePreview(file, width, height, preview -> {
+                if (file.equals(previewFile)) imageView.setImage(preview);
+            });
 
             textView.setVisible(false);
             imageView.setVisible(true);
@@ -185,6 +185,16 @@ public class EditorFXScene extends Scene {
         }
     }
 
+    /**
+     * Update the progress of the loading process.
+     *
+     * @param progress the progress from 0 to 1.
+     */
+    @FXThread
+    public synchronized void setLoadingProgress(final double progress) {
+        if (progressIndicator != null) progressIndicator.setProgress(progress);
+    }
+
     /**
      * Show the loading process.
      */
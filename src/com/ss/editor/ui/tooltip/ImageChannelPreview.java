@@ -1,14 +1,18 @@
 package com.ss.editor.ui.tooltip;
 
 import static java.util.Objects.requireNonNull;
+import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.FXThread;
+import com.ss.editor.manager.ExecutorManager;
 import com.ss.editor.manager.JavaFXImageManager;
+import com.ss.editor.ui.Icons;
 import com.ss.editor.ui.css.CSSIds;
 import javafx.scene.image.*;
 import javafx.scene.layout.GridPane;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.IntBuffer;
 import java.nio.file.Path;
 
 /**
@@ -20,6 +24,10 @@ public class ImageChannelPreview extends CustomTooltip<GridPane> {
 
     private static final JavaFXImageManager IMAGE_MANAGER = JavaFXImageManager.getInstance();
 
+    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
+    private static final int PREVIEW_SIZE = 120;
+
     /**
      * The red image.
      */
@@ -44,6 +52,12 @@ public class ImageChannelPreview extends CustomTooltip<GridPane> {
     @NotNull
     private final WritableImage alphaImage;
 
+    /**
+     * The shown file.
+     */
+    @Nullable
+    private Path file;
+
     /**
      * The red image view.
      */
@@ -68,11 +82,16 @@ public class ImageChannelPreview extends CustomTooltip<GridPane> {
     @Nullable
     private ImageView alphaView;
 
+    /**
+     * The version of the shown image.
+     */
+    private int version;
+
     public ImageChannelPreview() {
-        redImage = new WritableImage(120, 120);
-        greenImage = new WritableImage(120, 120);
-        blueImage = new WritableImage(120, 120);
-        alphaImage = new WritableImage(120, 120);
+        redImage = new WritableImage(PREVIEW_SIZE, PREVIEW_SIZE);
+        greenImage = new WritableImage(PREVIEW_SIZE, PREVIEW_SIZE);
+        blueImage = new WritableImage(PREVIEW_SIZE, PREVIEW_SIZE);
+        alphaImage = new WritableImage(PREVIEW_SIZE, PREVIEW_SIZE);
     }
 
     /**
@@ -183,9 +202,28 @@ public class ImageChannelPreview extends CustomTooltip<GridPane> {
     @FXThread
     public void showImage(@Nullable final Path file) {
 
-        final Image image = file == null ? null : IMAGE_MANAGER.getTexturePreview(file, 120, 120);
+        this.file = file;
 
-        if (file == null || image.getWidth() != 120) {
+        if (file == null) {
+            showImage((Image) null);
+            return;
+        }
+
+        IMAGE_MANAGER.loadTexturePreview(file, PREVIEW_SIZE, PREVIEW_SIZE, image -> {
+            if (file.equals(this.file)) showImage(image);
+        });
+    }
+
+    /**
+     * Show channels of the image. Pixels of the image are read at once and split to channels in the background.
+     */
+    @FXThread
+    private void showImage(@Nullable final Image image) {
+
+        final int version = ++this.version;
+
+        if (image == null || image == Icons.IMAGE_512 || image.getWidth() > PREVIEW_SIZE ||
+                image.getHeight() > PREVIEW_SIZE) {
 
             final ImageView redView = getRedView();
             redView.setImage(null);
@@ -201,36 +239,72 @@ public class ImageChannelPreview extends CustomTooltip<GridPane> {
             return;
         }
 
+        final int imageWidth = (int) image.getWidth();
+        final int imageHeight = (int) image.getHeight();
+
+        // previews keep aspect ratio, so the rest of the channel images is cleared
+        final int[] pixels = new int[PREVIEW_SIZE * PREVIEW_SIZE];
+
         final PixelReader pixelReader = image.getPixelReader();
+        pixelReader.getPixels(0, 0, imageWidth, imageHeight, PixelFormat.getIntArgbInstance(), pixels, 0, PREVIEW_SIZE);
+
+        EXECUTOR_MANAGER.addBackgroundTask(() -> {
+            final int[][] channels = splitChannels(pixels);
+            EXECUTOR_MANAGER.addFXTask(() -> {
+                if (version == this.version) showChannels(channels);
+            });
+        });
+    }
 
-        final WritableImage alphaImage = getAlphaImage();
-        final PixelWriter alphaWriter = alphaImage.getPixelWriter();
+    /**
+     * Split the pixels to grayscale images of channels by one pass.
+     *
+     * @param pixels the pixels in the ARGB format.
+     * @return the red, green, blue and alpha channels.
+     */
+    @NotNull
+    @BackgroundThread
+    private static int[][] splitChannels(@NotNull final int[] pixels) {
+
+        final int[] red = new int[pixels.length];
+        final int[] green = new int[pixels.length];
+        final int[] blue = new int[pixels.length];
+        final int[] alpha = new int[pixels.length];
+
+        for (int i = 0; i < pixels.length; i++) {
+            final int argb = pixels[i];
+            red[i] = toGray((argb >> 16) & 0xff);
+            green[i] = toGray((argb >> 8) & 0xff);
+            blue[i] = toGray(argb & 0xff);
+            alpha[i] = toGray(argb >>> 24);
+        }
 
-        final WritableImage redImage = getRedImage();
-        final PixelWriter redWriter = redImage.getPixelWriter();
+        return new int[][]{red, green, blue, alpha};
+    }
 
-        final WritableImage greenImage = getGreenImage();
-        final PixelWriter greenWriter = greenImage.getPixelWriter();
+    private static int toGray(final int value) {
+        return (255 << 24) | (value << 16) | (value << 8) | value;
+    }
 
-        final WritableImage blueImage = getBlueImage();
-        final PixelWriter blueWriter = blueImage.getPixelWriter();
+    /**
+     * Write the channels to the images and show them.
+     */
+    @FXThread
+    private void showChannels(@NotNull final int[][] channels) {
+
+        final WritablePixelFormat<IntBuffer> format = PixelFormat.getIntArgbInstance();
 
-        for (int y = 0, height = (int) image.getHeight(); y < height; y++) {
-            for (int x = 0, width = (int) image.getWidth(); x < width; x++) {
+        final WritableImage redImage = getRedImage();
+        redImage.getPixelWriter().setPixels(0, 0, PREVIEW_SIZE, PREVIEW_SIZE, format, channels[0], 0, PREVIEW_SIZE);
 
-                final int argb = pixelReader.getArgb(x, y);
+        final WritableImage greenImage = getGreenImage();
+        greenImage.getPixelWriter().setPixels(0, 0, PREVIEW_SIZE, PREVIEW_SIZE, format, channels[1], 0, PREVIEW_SIZE);
 
-                final int alpha = argb >>> 24;
-                final int red = (argb >> 16) & 0xff;
-                final int green = (argb >> 8) & 0xff;
-                final int blue = (argb) & 0xff;
+        final WritableImage blueImage = getBlueImage();
+        blueImage.getPixelWriter().setPixels(0, 0, PREVIEW_SIZE, PREVIEW_SIZE, format, channels[2], 0, PREVIEW_SIZE);
 
-                redWriter.setArgb(x, y, ((255 << 24) | (red << 16) | (red << 8) | red));
-                greenWriter.setArgb(x, y, ((255 << 24) | (green << 16) | (green << 8) | green));
-                blueWriter.setArgb(x, y, ((255 << 24) | (blue << 16) | (blue << 8) | blue));
-                alphaWriter.setArgb(x, y, ((255 << 24) | (alpha << 16) | (alpha << 8) | alpha));
-            }
-        }
+        final WritableImage alphaImage = getAlphaImage();
+        alphaImage.getPixelWriter().setPixels(0, 0, PREVIEW_SIZE, PREVIEW_SIZE, format, channels[3], 0, PREVIEW_SIZE);
 
         final ImageView redView = getRedView();
         redView.setImage(null);
@@ -5,10 +5,9 @@ import com.jme3.animation.AnimControl;
 import com.jme3.animation.Animation;
 import com.jme3.animation.BoneTrack;
 import com.jme3.animation.Track;
-import com.jme3.math.Quaternion;
-import com.jme3.math.Vector3f;
 import com.ss.editor.annotation.FromAnyThread;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import rlib.util.array.Array;
 import rlib.util.array.ArrayFactory;
 
@@ -25,6 +24,13 @@ public class AnimationUtils {
     private static final Field ANIMATIONS_MAP_FIELD;
     private static final Field ANIMATION_NAME_FIELD;
 
+    /**
+     * The max errors of compressing bone tracks: distance for translations and scales and angle for rotations.
+     */
+    private static final float COMPRESS_TRANSLATION_ERROR = 0.001F;
+    private static final float COMPRESS_ROTATION_ERROR = 0.002F;
+    private static final float COMPRESS_SCALE_ERROR = 0.001F;
+
     static {
         try {
 
@@ -83,29 +89,24 @@ public class AnimationUtils {
     @NotNull
     private static BoneTrack extractBoneTrack(@NotNull final BoneTrack boneTrack, final int startFrame,
                                               final int endFrame) {
+        return PackedBoneTrack.of(boneTrack, startFrame, endFrame).toBoneTrack();
+    }
 
-        final float[] sourceTimes = boneTrack.getTimes();
-
-        final Vector3f[] newTranslations = new Vector3f[endFrame - startFrame];
-        final Quaternion[] newRotations = new Quaternion[endFrame - startFrame];
-        final Vector3f[] newScales = new Vector3f[endFrame - startFrame];
-        final float[] newTimes = new float[endFrame - startFrame];
-
-        for (int i = startFrame; i < endFrame; i++) {
-
-            final int newFrame = i - startFrame;
-
-            final Vector3f sourceTranslation = boneTrack.getTranslations()[i];
-            final Vector3f sourceScale = boneTrack.getScales()[i];
-            final Quaternion sourceRotation = boneTrack.getRotations()[i];
+    /**
+     * Compress a bone track by removing key frames which can be interpolated from neighbour key frames.
+     *
+     * @param boneTrack the source bone track.
+     * @return the compressed bone track or null if no key frames can be removed.
+     */
+    @Nullable
+    @FromAnyThread
+    public static BoneTrack compressBoneTrack(@NotNull final BoneTrack boneTrack) {
 
-            newTimes[newFrame] = sourceTimes[i] - sourceTimes[startFrame];
-            newTranslations[newFrame] = sourceTranslation.clone();
-            newRotations[newFrame] = sourceRotation.clone();
-            newScales[newFrame] = sourceScale.clone();
-        }
+        final PackedBoneTrack packed = PackedBoneTrack.of(boneTrack);
+        final PackedBoneTrack reduced = packed.reduce(COMPRESS_TRANSLATION_ERROR, COMPRESS_ROTATION_ERROR,
+                COMPRESS_SCALE_ERROR);
 
-        return new BoneTrack(boneTrack.getTargetBoneIndex(), newTimes, newTranslations, newRotations, newScales);
+        return reduced == packed ? null : reduced.toBoneTrack();
     }
 
     /**
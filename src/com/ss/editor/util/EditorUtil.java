@@ -5,17 +5,23 @@ import static java.lang.Math.toDegrees;
 import static java.lang.ThreadLocal.withInitial;
 import static rlib.util.ClassUtils.cast;
 import static rlib.util.ClassUtils.unsafeCast;
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.DesktopAssetManager;
 import com.jme3.math.Vector2f;
 import com.jme3.math.Vector3f;
 import com.jme3.renderer.Camera;
+import com.ss.editor.FileExtensions;
+import com.ss.editor.FolderAssetLocator;
 import com.ss.editor.JFXApplication;
 import com.ss.editor.analytics.google.GAnalytics;
 import com.ss.editor.annotation.FXThread;
+import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.config.EditorConfig;
 import com.ss.editor.manager.ClasspathManager;
 import com.ss.editor.manager.ExecutorManager;
 import com.ss.editor.manager.ResourceManager;
 import com.ss.editor.ui.scene.EditorFXScene;
+import jme3_ext_xbuf.XbufLoader;
 import javafx.geometry.Insets;
 import javafx.scene.control.Alert;
 import javafx.scene.control.DialogPane;
@@ -480,4 +486,30 @@ public abstract class EditorUtil {
 
         return cast(resultType, newExample);
     }
+
+    /**
+     * Create a new asset manager which loads assets from the current asset folder and classpath like the asset manager
+     * of the Editor, but has own cache and listeners, so it can be used in background threads without affecting the
+     * Editor.
+     *
+     * @return the new asset manager.
+     */
+    @NotNull
+    @FromAnyThread
+    public static AssetManager createIsolatedAssetManager() {
+
+        final DesktopAssetManager assetManager = new DesktopAssetManager(true);
+        assetManager.registerLoader(XbufLoader.class, FileExtensions.MODEL_XBUF);
+        assetManager.registerLocator("", FolderAssetLocator.class);
+
+        final ResourceManager resourceManager = ResourceManager.getInstance();
+        final Array<URLClassLoader> classLoaders = resourceManager.getClassLoaders();
+        classLoaders.forEach(assetManager::addClassLoader);
+
+        final ClasspathManager classpathManager = ClasspathManager.getInstance();
+        final URLClassLoader additionalCL = classpathManager.getAdditionalCL();
+        if (additionalCL != null) assetManager.addClassLoader(additionalCL);
+
+        return assetManager;
+    }
 }
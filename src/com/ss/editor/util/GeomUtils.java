@@ -3,12 +3,16 @@ package com.ss.editor.util;
 import com.jme3.math.Quaternion;
 import com.jme3.math.Vector3f;
 import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
 import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.VertexBuffer.Format;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.Buffer;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -173,4 +177,50 @@ public class GeomUtils {
 
         return true;
     }
+
+    /**
+     * Get the size in bytes of data of the vertex buffer.
+     */
+    public static long getMemoryUsage(@Nullable final VertexBuffer vertexBuffer) {
+        if (vertexBuffer == null) return 0;
+
+        final Buffer data = vertexBuffer.getData();
+        if (data == null) return 0;
+
+        final Format format = vertexBuffer.getFormat();
+        return (long) data.capacity() * (format == null ? 4 : format.getComponentSize());
+    }
+
+    /**
+     * Get the size in bytes of data of all buffers and levels of details of the mesh.
+     */
+    public static long getMemoryUsage(@Nullable final Mesh mesh) {
+        if (mesh == null) return 0;
+
+        long result = 0;
+
+        for (final VertexBuffer vertexBuffer : mesh.getBufferList()) {
+            result += getMemoryUsage(vertexBuffer);
+        }
+
+        final int lodLevels = mesh.getNumLodLevels();
+
+        for (int i = 0; i < lodLevels; i++) {
+            result += getMemoryUsage(mesh.getLodLevel(i));
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the size in bytes of data of meshes of all geometries of the spatial.
+     */
+    public static long getMemoryUsage(@Nullable final Spatial spatial) {
+        if (spatial == null) return 0;
+
+        final long[] result = {0};
+        NodeUtils.visitGeometry(spatial, geometry -> result[0] += getMemoryUsage(geometry.getMesh()));
+
+        return result[0];
+    }
 }
@@ -9,6 +9,8 @@ import com.jme3.material.Material;
 import com.jme3.scene.Geometry;
 import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
+import com.ss.editor.annotation.EditorThread;
+import com.ss.extension.scene.SceneNode;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import rlib.util.StringUtils;
@@ -239,4 +241,30 @@ public class NodeUtils {
             addAudioNodes(children, container);
         }
     }
+
+    /**
+     * Notify the scene node which contains the parent about the attached spatial, it should be called in the same
+     * editor thread task which attached the spatial to keep the scene indexes in sync with the scene graph.
+     *
+     * @param parent the parent.
+     * @param added  the attached spatial.
+     */
+    @EditorThread
+    public static void notifyAttached(@NotNull final Node parent, @NotNull final Spatial added) {
+        final SceneNode sceneNode = findParent(parent, SceneNode.class::isInstance);
+        if (sceneNode != null) sceneNode.notifyAdded(added);
+    }
+
+    /**
+     * Notify the scene node which contained the parent about the detached spatial, it should be called in the same
+     * editor thread task which detached the spatial to keep the scene indexes in sync with the scene graph.
+     *
+     * @param parent  the parent.
+     * @param removed the detached spatial.
+     */
+    @EditorThread
+    public static void notifyDetached(@NotNull final Node parent, @NotNull final Spatial removed) {
+        final SceneNode sceneNode = findParent(parent, SceneNode.class::isInstance);
+        if (sceneNode != null) sceneNode.notifyRemoved(removed);
+    }
 }
@@ -0,0 +1,471 @@
+package com.ss.editor.util;
+
+import com.jme3.animation.BoneTrack;
+import com.jme3.animation.CompactArray;
+import com.jme3.animation.CompactQuaternionArray;
+import com.jme3.animation.CompactVector3Array;
+import com.ss.editor.annotation.FromAnyThread;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+
+/**
+ * The bone track which keeps key frames in packed float arrays: 3 floats per translation and scale and 4 floats per
+ * rotation. It's used to process animations without creating objects for every frame and is written back to {@link
+ * BoneTrack} as compact arrays where repeated key frames are stored once.
+ *
+ * @author JavaSaBr
+ */
+public final class PackedBoneTrack {
+
+    private static final Field TIMES_FIELD;
+    private static final Field TRANSLATIONS_FIELD;
+    private static final Field ROTATIONS_FIELD;
+    private static final Field SCALES_FIELD;
+
+    static {
+        try {
+
+            TIMES_FIELD = BoneTrack.class.getDeclaredField("times");
+            TIMES_FIELD.setAccessible(true);
+
+            TRANSLATIONS_FIELD = BoneTrack.class.getDeclaredField("translations");
+            TRANSLATIONS_FIELD.setAccessible(true);
+
+            ROTATIONS_FIELD = BoneTrack.class.getDeclaredField("rotations");
+            ROTATIONS_FIELD.setAccessible(true);
+
+            SCALES_FIELD = BoneTrack.class.getDeclaredField("scales");
+            SCALES_FIELD.setAccessible(true);
+
+        } catch (final NoSuchFieldException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * The max count of frames between two key frames after reducing.
+     */
+    private static final int MAX_KEY_DISTANCE = 128;
+
+    /**
+     * The index of the target bone.
+     */
+    private final int boneIndex;
+
+    /**
+     * The times of frames.
+     */
+    @NotNull
+    private final float[] times;
+
+    /**
+     * The translations of frames.
+     */
+    @NotNull
+    private final float[] translations;
+
+    /**
+     * The rotations of frames.
+     */
+    @NotNull
+    private final float[] rotations;
+
+    /**
+     * The scales of frames.
+     */
+    @NotNull
+    private final float[] scales;
+
+    private PackedBoneTrack(final int boneIndex, @NotNull final float[] times, @NotNull final float[] translations,
+                            @NotNull final float[] rotations, @NotNull final float[] scales) {
+        this.boneIndex = boneIndex;
+        this.times = times;
+        this.translations = translations;
+        this.rotations = rotations;
+        this.scales = scales;
+    }
+
+    /**
+     * Read a bone track to packed arrays.
+     *
+     * @param boneTrack the bone track.
+     * @return the packed bone track.
+     */
+    @NotNull
+    @FromAnyThread
+    public static PackedBoneTrack of(@NotNull final BoneTrack boneTrack) {
+        final float[] times = boneTrack.getTimes();
+        return read(boneTrack, times.clone(), 0, times.length);
+    }
+
+    /**
+     * Read only the range of frames of a bone track to packed arrays, times of the new track start from 0.
+     *
+     * @param boneTrack  the bone track.
+     * @param startFrame the start frame.
+     * @param endFrame   the end frame (exclusive).
+     * @return the packed bone track.
+     */
+    @NotNull
+    @FromAnyThread
+    public static PackedBoneTrack of(@NotNull final BoneTrack boneTrack, final int startFrame, final int endFrame) {
+
+        final float[] times = boneTrack.getTimes();
+        final float[] newTimes = Arrays.copyOfRange(times, startFrame, endFrame);
+        final float offset = times[startFrame];
+
+        for (int i = 0; i < newTimes.length; i++) {
+            newTimes[i] -= offset;
+        }
+
+        return read(boneTrack, newTimes, startFrame, endFrame);
+    }
+
+    /**
+     * Read the range of frames of a bone track to packed arrays.
+     */
+    @NotNull
+    private static PackedBoneTrack read(@NotNull final BoneTrack boneTrack, @NotNull final float[] times,
+                                        final int startFrame, final int endFrame) {
+        try {
+
+            final float[] translations = unpack((CompactArray<?>) TRANSLATIONS_FIELD.get(boneTrack), 3,
+                    startFrame, endFrame);
+            final float[] rotations = unpack((CompactArray<?>) ROTATIONS_FIELD.get(boneTrack), 4,
+                    startFrame, endFrame);
+            float[] scales = unpack((CompactArray<?>) SCALES_FIELD.get(boneTrack), 3, startFrame, endFrame);
+
+            if (scales == null) {
+                scales = new float[times.length * 3];
+                Arrays.fill(scales, 1F);
+            }
+
+            if (translations == null || rotations == null) {
+                throw new IllegalArgumentException("The bone track " + boneTrack + " doesn't have key frames.");
+            }
+
+            return new PackedBoneTrack(boneTrack.getTargetBoneIndex(), times, translations, rotations, scales);
+
+        } catch (final IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Make a bone track which shares key frames with a source bone track.
+     *
+     * @param boneTrack the source bone track.
+     * @return the new bone track.
+     */
+    @NotNull
+    @FromAnyThread
+    public static BoneTrack shallowCopy(@NotNull final BoneTrack boneTrack) {
+        final BoneTrack result = new BoneTrack(boneTrack.getTargetBoneIndex());
+        copyData(boneTrack, result);
+        return result;
+    }
+
+    /**
+     * Copy references to key frames from a source bone track to a target bone track.
+     *
+     * @param source the source bone track.
+     * @param target the target bone track.
+     */
+    @FromAnyThread
+    public static void copyData(@NotNull final BoneTrack source, @NotNull final BoneTrack target) {
+        try {
+            TIMES_FIELD.set(target, TIMES_FIELD.get(source));
+            TRANSLATIONS_FIELD.set(target, TRANSLATIONS_FIELD.get(source));
+            ROTATIONS_FIELD.set(target, ROTATIONS_FIELD.get(source));
+            SCALES_FIELD.set(target, SCALES_FIELD.get(source));
+        } catch (final IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Get the memory usage of key frames of a bone track.
+     *
+     * @param boneTrack the bone track.
+     * @return the memory usage in bytes.
+     */
+    @FromAnyThread
+    public static long getMemoryUsage(@NotNull final BoneTrack boneTrack) {
+        try {
+            return boneTrack.getTimes().length * 4L +
+                    getMemoryUsage((CompactArray<?>) TRANSLATIONS_FIELD.get(boneTrack)) +
+                    getMemoryUsage((CompactArray<?>) ROTATIONS_FIELD.get(boneTrack)) +
+                    getMemoryUsage((CompactArray<?>) SCALES_FIELD.get(boneTrack));
+        } catch (final IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the count of frames.
+     */
+    @FromAnyThread
+    public int getFrameCount() {
+        return times.length;
+    }
+
+    /**
+     * Remove frames which can be interpolated from neighbour key frames within the errors, the first and the last
+     * frames are always kept.
+     *
+     * @param translationError the max distance between original and interpolated translations.
+     * @param rotationError    the max angle in radians between original and interpolated rotations.
+     * @param scaleError       the max distance between original and interpolated scales.
+     * @return the new track.
+     */
+    @NotNull
+    @FromAnyThread
+    public PackedBoneTrack reduce(final float translationError, final float rotationError, final float scaleError) {
+
+        final int count = times.length;
+        if (count < 3) return this;
+
+        final float maxTranslationError = translationError * translationError;
+        final float maxScaleError = scaleError * scaleError;
+        final float minRotationDot = (float) Math.cos(rotationError / 2F);
+
+        final boolean[] keys = new boolean[count];
+        keys[0] = true;
+        keys[count - 1] = true;
+
+        final float[] buffer = new float[4];
+
+        int start = 0;
+        int keyCount = 2;
+
+        for (int end = 2; end < count; end++) {
+
+            if (end - start <= MAX_KEY_DISTANCE &&
+                    canInterpolate(start, end, maxTranslationError, minRotationDot, maxScaleError, buffer)) {
+                continue;
+            }
+
+            start = end - 1;
+            keys[start] = true;
+            keyCount++;
+        }
+
+        if (keyCount == count) return this;
+
+        final float[] newTimes = new float[keyCount];
+        final float[] newTranslations = new float[keyCount * 3];
+        final float[] newRotations = new float[keyCount * 4];
+        final float[] newScales = new float[keyCount * 3];
+
+        for (int i = 0, key = 0; i < count; i++) {
+            if (!keys[i]) continue;
+            newTimes[key] = times[i];
+            System.arraycopy(translations, i * 3, newTranslations, key * 3, 3);
+            System.arraycopy(rotations, i * 4, newRotations, key * 4, 4);
+            System.arraycopy(scales, i * 3, newScales, key * 3, 3);
+            key++;
+        }
+
+        return new PackedBoneTrack(boneIndex, newTimes, newTranslations, newRotations, newScales);
+    }
+
+    /**
+     * @return true if all frames between the start and end frames can be interpolated within the errors.
+     */
+    private boolean canInterpolate(final int start, final int end, final float maxTranslationError,
+                                   final float minRotationDot, final float maxScaleError,
+                                   @NotNull final float[] buffer) {
+
+        final float duration = times[end] - times[start];
+
+        for (int i = start + 1; i < end; i++) {
+
+            final float blend = duration > 0 ? (times[i] - times[start]) / duration : 0F;
+
+            lerp(translations, start, end, blend, buffer, 0);
+            if (distanceSquared(translations, i, buffer) > maxTranslationError) return false;
+
+            lerp(scales, start, end, blend, buffer, 0);
+            if (distanceSquared(scales, i, buffer) > maxScaleError) return false;
+
+            nlerp(rotations, start, end, blend, buffer, 0);
+
+            final int offset = i * 4;
+            final float dot = rotations[offset] * buffer[0] + rotations[offset + 1] * buffer[1] +
+                    rotations[offset + 2] * buffer[2] + rotations[offset + 3] * buffer[3];
+
+            if (Math.abs(dot) < minRotationDot) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Make a new bone track from this track.
+     *
+     * @return the new bone track.
+     */
+    @NotNull
+    @FromAnyThread
+    public BoneTrack toBoneTrack() {
+        final BoneTrack boneTrack = new BoneTrack(boneIndex);
+        applyTo(boneTrack);
+        return boneTrack;
+    }
+
+    /**
+     * Write key frames of this track to a bone track.
+     *
+     * @param boneTrack the bone track.
+     */
+    @FromAnyThread
+    public void applyTo(@NotNull final BoneTrack boneTrack) {
+
+        final int count = times.length;
+        final int[] translationIndex = new int[count];
+        final int[] rotationIndex = new int[count];
+        final int[] scaleIndex = new int[count];
+
+        final float[] translationData = pack(translations, 3, translationIndex);
+        final float[] rotationData = pack(rotations, 4, rotationIndex);
+        final float[] scaleData = pack(scales, 3, scaleIndex);
+
+        try {
+            TIMES_FIELD.set(boneTrack, times);
+            TRANSLATIONS_FIELD.set(boneTrack, new CompactVector3Array(translationData, translationIndex));
+            ROTATIONS_FIELD.set(boneTrack, new CompactQuaternionArray(rotationData, rotationIndex));
+            SCALES_FIELD.set(boneTrack, new CompactVector3Array(scaleData, scaleIndex));
+        } catch (final IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Unpack the range of a compact array to a float array.
+     */
+    @Nullable
+    private static float[] unpack(@Nullable final CompactArray<?> compactArray, final int tupleSize,
+                                  final int startFrame, final int endFrame) {
+        if (compactArray == null) return null;
+
+        final float[] data = compactArray.getSerializedData();
+        final float[] result = new float[(endFrame - startFrame) * tupleSize];
+
+        for (int i = startFrame; i < endFrame; i++) {
+            final int compactIndex = compactArray.getCompactIndex(i);
+            System.arraycopy(data, compactIndex * tupleSize, result, (i - startFrame) * tupleSize, tupleSize);
+        }
+
+        return result;
+    }
+
+    /**
+     * Pack a float array to data of a compact array, repeated sequential tuples are stored once.
+     */
+    @NotNull
+    private static float[] pack(@NotNull final float[] values, final int tupleSize, @NotNull final int[] index) {
+
+        final float[] data = new float[values.length];
+
+        int size = 0;
+
+        for (int i = 0; i < index.length; i++) {
+
+            final int offset = i * tupleSize;
+
+            if (size > 0 && equals(data, size - 1, values, i, tupleSize)) {
+                index[i] = size - 1;
+                continue;
+            }
+
+            System.arraycopy(values, offset, data, size * tupleSize, tupleSize);
+            index[i] = size++;
+        }
+
+        return Arrays.copyOf(data, size * tupleSize);
+    }
+
+    private static boolean equals(@NotNull final float[] first, final int firstTuple, @NotNull final float[] second,
+                                  final int secondTuple, final int tupleSize) {
+
+        final int firstOffset = firstTuple * tupleSize;
+        final int secondOffset = secondTuple * tupleSize;
+
+        for (int i = 0; i < tupleSize; i++) {
+            if (Float.compare(first[firstOffset + i], second[secondOffset + i]) != 0) return false;
+        }
+
+        return true;
+    }
+
+    private static long getMemoryUsage(@Nullable final CompactArray<?> compactArray) {
+        if (compactArray == null) return 0;
+        return compactArray.getSerializedData().length * 4L + compactArray.getTotalObjectSize() * 4L;
+    }
+
+    /**
+     * Linear interpolate two 3 floats tuples.
+     */
+    private static void lerp(@NotNull final float[] values, final int first, final int second, final float blend,
+                             @NotNull final float[] store, final int storeIndex) {
+
+        final int firstOffset = first * 3;
+        final int secondOffset = second * 3;
+        final int storeOffset = storeIndex * 3;
+
+        for (int i = 0; i < 3; i++) {
+            final float value = values[firstOffset + i];
+            store[storeOffset + i] = value + (values[secondOffset + i] - value) * blend;
+        }
+    }
+
+    /**
+     * Normalized linear interpolate two rotations in the same way as {@link com.jme3.math.Quaternion#nlerp}.
+     */
+    private static void nlerp(@NotNull final float[] values, final int first, final int second, final float blend,
+                              @NotNull final float[] store, final int storeIndex) {
+
+        final int firstOffset = first * 4;
+        final int secondOffset = second * 4;
+        final int storeOffset = storeIndex * 4;
+
+        float dot = 0;
+
+        for (int i = 0; i < 4; i++) {
+            dot += values[firstOffset + i] * values[secondOffset + i];
+        }
+
+        final float blendI = 1F - blend;
+        final float sign = dot < 0 ? -1F : 1F;
+
+        float length = 0;
+
+        for (int i = 0; i < 4; i++) {
+            final float value = blendI * values[firstOffset + i] + sign * blend * values[secondOffset + i];
+            store[storeOffset + i] = value;
+            length += value * value;
+        }
+
+        if (length == 0) return;
+
+        final float invLength = (float) (1D / Math.sqrt(length));
+
+        for (int i = 0; i < 4; i++) {
+            store[storeOffset + i] *= invLength;
+        }
+    }
+
+    private static float distanceSquared(@NotNull final float[] values, final int tuple,
+                                         @NotNull final float[] point) {
+
+        final int offset = tuple * 3;
+        final float x = values[offset] - point[0];
+        final float y = values[offset + 1] - point[1];
+        final float z = values[offset + 2] - point[2];
+
+        return x * x + y * y + z * z;
+    }
+}
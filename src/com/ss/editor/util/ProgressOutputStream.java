@@ -0,0 +1,71 @@
+package com.ss.editor.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * The implementation of an output stream which passes data to another stream by chunks and reports the count of
+ * already written bytes after each chunk, so writing of a large block of data can be shown by a progress.
+ *
+ * @author JavaSaBr
+ */
+public class ProgressOutputStream extends FilterOutputStream {
+
+    /**
+     * The size of a chunk.
+     */
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * The consumer of count of already written bytes.
+     */
+    @NotNull
+    private final LongConsumer progress;
+
+    /**
+     * The count of written bytes.
+     */
+    private long written;
+
+    /**
+     * The count of written bytes at the last report.
+     */
+    private long reported;
+
+    public ProgressOutputStream(@NotNull final OutputStream out, @NotNull final LongConsumer progress) {
+        super(out);
+        this.progress = progress;
+    }
+
+    @Override
+    public void write(final int value) throws IOException {
+        out.write(value);
+        written++;
+        if (written - reported >= CHUNK_SIZE) report();
+    }
+
+    @Override
+    public void write(@NotNull final byte[] buffer, int offset, int length) throws IOException {
+
+        while (length > 0) {
+
+            final int count = Math.min(length, CHUNK_SIZE);
+            out.write(buffer, offset, count);
+
+            written += count;
+            offset += count;
+            length -= count;
+
+            if (written - reported >= CHUNK_SIZE) report();
+        }
+    }
+
+    private void report() {
+        reported = written;
+        progress.accept(written);
+    }
+}